@@ -15,7 +15,7 @@ import daa.project.cvrp.local_search.BestNeighborLocalSearch;
 import daa.project.cvrp.local_search.LocalSearch;
 import daa.project.cvrp.moves.InterrouteSwap;
 import daa.project.cvrp.moves.IntrarouteSwap;
-import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.moves.Relocation;
 import daa.project.cvrp.moves.TwoOpt;
 import daa.project.cvrp.problem.CVRPSpecification;
@@ -61,6 +61,12 @@ public class AlgorithmMetrics extends Thread {
 		final String shakingMoveNames[] = { "Intraroute + TwoOpt", "Intraroute + Interroute + Relocation + TwoOpt",
 				"Interroute + Relocation + Intraroute + TwoOpt", };
 
+		// The neighborhoods are immutable, so every generator shares the same ones
+		final Neighborhood shakingNeighborhoods[][] = { Neighborhood.of(new IntrarouteSwap(), new TwoOpt()),
+				Neighborhood.of(new IntrarouteSwap(), new InterrouteSwap(), new Relocation(), new TwoOpt()),
+				Neighborhood.of(new InterrouteSwap(), new Relocation(), new IntrarouteSwap(), new TwoOpt()) };
+		final LocalSearch bestLocalSearch = new BestNeighborLocalSearch(new Relocation());
+
 		int algorithmOption = 4;
 
 		switch (algorithmOption) {
@@ -79,37 +85,27 @@ public class AlgorithmMetrics extends Thread {
 			case 2: // VNS with constructive phase of GRASP as initial solution
 				for (int rclSize : restrictedCandidateListNumbers) {
 					for (int numIts : iterationsWithNoImprovement) {
-						Move shakingMoveList[][] = { { new IntrarouteSwap(), new TwoOpt() },
-								{ new IntrarouteSwap(), new InterrouteSwap(), new Relocation(), new TwoOpt() },
-								{ new InterrouteSwap(), new Relocation(), new IntrarouteSwap(), new TwoOpt() } };
-
-						for (int movesPos = 0; movesPos < shakingMoveList.length; ++movesPos) {
+						for (int movesPos = 0; movesPos < shakingNeighborhoods.length; ++movesPos) {
 							threads.add(new VnsGraspConstructiveCsvGenerator(readProblemSpecificationFromSamples(), numberTests,
-									rclSize, numIts, shakingMoveList[movesPos], shakingMoveNames[movesPos]));
+									rclSize, numIts, shakingNeighborhoods[movesPos], shakingMoveNames[movesPos]));
 						}
 					}
 				}
 				break;
 			case 3: // VNS with GRASP optim initial solution
-				Move shakingMoveList[][] = { { new IntrarouteSwap(), new TwoOpt() },
-						{ new IntrarouteSwap(), new InterrouteSwap(), new Relocation(), new TwoOpt() },
-						{ new InterrouteSwap(), new Relocation(), new IntrarouteSwap(), new TwoOpt() } };
-
-				for (int movesPos = 0; movesPos < shakingMoveList.length; ++movesPos) {
-					LocalSearch bestLocalSearch = new BestNeighborLocalSearch(new Relocation());
+				for (int movesPos = 0; movesPos < shakingNeighborhoods.length; ++movesPos) {
 					int bestRclSize = 3;
 					int bestIterationsWithNoImprovement = 10;
 
 					threads
 							.add(new VnsGraspImprovedCsvGenerator(readProblemSpecificationFromSamples(), numberTests, bestLocalSearch,
-									bestRclSize, bestIterationsWithNoImprovement, shakingMoveList[movesPos], shakingMoveNames[movesPos]));
+									bestRclSize, bestIterationsWithNoImprovement, shakingNeighborhoods[movesPos], shakingMoveNames[movesPos]));
 				}
 
 				break;
 			case 4: // TABU with GRASP optim initial solution
 				for (int timeToImprove : timesToImprove) {
 					for (int tabuTenurePercentage : tabuTenurePercentages) {
-						LocalSearch bestLocalSearch = new BestNeighborLocalSearch(new Relocation());
 						int bestRclSize = 3;
 						int bestIterationsWithNoImprovement = 10;
 
@@ -2,49 +2,52 @@ package daa.project.cvrp.algorithms;
 
 import java.util.ArrayList;
 
-import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.problem.CVRPSpecification;
 
 public class ConstructiveDeterministic {
 	/** Problem specification. */
 	private static CVRPSpecification	problemSpecification;
-	/** Current client. */
-	private static CVRPClient	currentClient;
+	/** Current client ID. */
+	private static int	currentClient;
 	/** Remaining capacity of the current vehicle. */
 	private static int	remainingVehicleCapacity;
-	/** Remaining clients. */
-	private static ArrayList<CVRPClient> remainingClients;
+	/** IDs of the remaining clients. */
+	private static ArrayList<Integer> remainingClients;
 	
 	public static CVRPSolution constructDeterministicSolution(CVRPSpecification problemSpecification) {
 		ConstructiveDeterministic.problemSpecification = problemSpecification;
 		// Solution codification.
 		ArrayList<Integer> solution = new ArrayList<>();
 		// Remaining clients to serve, remove the depot.
-		remainingClients = new ArrayList<>(
-				ConstructiveDeterministic.problemSpecification.getClients());
-		remainingClients.remove(ConstructiveDeterministic.problemSpecification.getDepot());
+		remainingClients = new ArrayList<>();
+		for (int clientId = 0; clientId < problemSpecification.getClients().size(); ++clientId) {
+			if (clientId != problemSpecification.getDepotID()) {
+				remainingClients.add(clientId);
+			}
+		}
 		// Start from the depot.
-		currentClient = ConstructiveDeterministic.problemSpecification.getDepot();
+		currentClient = ConstructiveDeterministic.problemSpecification.getDepotID();
 		// Establishes the remaining capacity of the current vehicle or route.
 		remainingVehicleCapacity = ConstructiveDeterministic.problemSpecification.getCapacity();
 		// Keep iterating until no clients left.
 		while (!remainingClients.isEmpty()) {
-			CVRPClient closestClient = null;
-			Double minimumDistance = Double.MAX_VALUE;
-			for (CVRPClient client : remainingClients) {
-				if (client.getDemand() > remainingVehicleCapacity) {
+			int closestClientIndex = -1;
+			double minimumDistance = Double.MAX_VALUE;
+			for (int i = 0; i < remainingClients.size(); ++i) {
+				int client = remainingClients.get(i);
+				if (problemSpecification.getClient(client).getDemand() > remainingVehicleCapacity) {
 					continue;
 				}
-				if (CVRPClient.euclideanDistance(currentClient, client) < minimumDistance) {
-					closestClient = client;
-					minimumDistance = CVRPClient.euclideanDistance(currentClient, client);
+				if (problemSpecification.distance(currentClient, client) < minimumDistance) {
+					closestClientIndex = i;
+					minimumDistance = problemSpecification.distance(currentClient, client);
 				}
 			}
-			if (closestClient != null) {
-				solution.add(problemSpecification.getClients().indexOf(closestClient));
-				remainingVehicleCapacity -= closestClient.getDemand();
-				remainingClients.remove(closestClient);
+			if (closestClientIndex != -1) {
+				int closestClient = remainingClients.remove(closestClientIndex);
+				solution.add(closestClient);
+				remainingVehicleCapacity -= problemSpecification.getClient(closestClient).getDemand();
 			} else {
 				solution.add(CVRPSolution.SEPARATOR);
 				remainingVehicleCapacity = ConstructiveDeterministic.problemSpecification.getCapacity();
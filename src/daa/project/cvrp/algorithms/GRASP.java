@@ -6,10 +6,15 @@ package daa.project.cvrp.algorithms;
 
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import daa.project.cvrp.local_search.LocalSearch;
 import daa.project.cvrp.metrics.AlgorithmRecorder;
-import daa.project.cvrp.problem.CVRPClient;
+import daa.project.cvrp.metrics.SynchronizedAlgorithmRecorder;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.problem.CVRPSpecification;
 
@@ -101,6 +106,166 @@ public class GRASP {
 		return bestSolution;
 	}
 
+	/**
+	 * GRASP whose iterations run on the threads of a pool at the same time. The
+	 * iterations only share the best solution found so far, the number of
+	 * iterations done and the number of iterations since the best solution last
+	 * improved, so the stop criteria are the same as in the sequential version
+	 * (the iterations that are running when one is met are finished).
+	 * 
+	 * Every thread constructs its solutions with its own random number generator.
+	 * The local search is shared by all the threads, so it has to be thread-safe,
+	 * and the recorder is called from all of them one at a time.
+	 * 
+	 * The iterations take every thread of the pool, so a parallel local search
+	 * (see {@link LocalSearch#getPool}) must explore its neighborhoods in a
+	 * different pool: its tasks would wait for threads that are busy running the
+	 * iterations that wait for them.
+	 * 
+	 * @param problemSpecification
+	 *          Information about the problem.
+	 * @param maxIterations
+	 *          Maximum amount of iterations.
+	 * @param maxIterationsWithoutImprovement
+	 *          Maximum amount of iterations without improve allowed.
+	 * @param restrictedCandidateListSize
+	 *          Size of the restricted candidate list used in the construct phase
+	 *          of GRASP.
+	 * @param localSearchStrategy
+	 * 					Local search strategy to apply in the local search phase.
+	 * @param pool
+	 *          Pool whose threads run the iterations, one task per thread.
+	 * @return Better solution found.
+	 * @throws IllegalArgumentException If the pool is null or the local search
+	 *           explores its neighborhoods in the same pool.
+	 */
+	public static CVRPSolution parallelGrasp(CVRPSpecification problemSpecification, int maxIterations,
+			int maxIterationsWithoutImprovement, int restrictedCandidateListSize, LocalSearch localSearchStrategy,
+			ForkJoinPool pool, AlgorithmRecorder recorder) {
+
+		if (maxIterations < 1) {
+			throw new IllegalArgumentException("Invalid number of iterations");
+		}
+		if (pool == null) {
+			throw new IllegalArgumentException("Invalid null pool for the GRASP iterations");
+		}
+		if (localSearchStrategy.getPool() == pool) {
+			throw new IllegalArgumentException("The local search cannot use the pool of the GRASP iterations");
+		}
+
+		SynchronizedAlgorithmRecorder synchronizedRecorder = new SynchronizedAlgorithmRecorder(recorder);
+		SharedBestSolution bestSolution = new SharedBestSolution(null);
+		AtomicInteger iterations = new AtomicInteger(0);
+		AtomicInteger iterationsWithoutImprovement = new AtomicInteger(0);
+
+		synchronizedRecorder.starting();
+
+		ArrayList<ForkJoinTask<?>> workers = new ArrayList<>();
+		for (int i = 0; i < pool.getParallelism(); ++i) {
+			workers.add(pool.submit(new GraspWorker(problemSpecification, maxIterations, maxIterationsWithoutImprovement,
+					restrictedCandidateListSize, localSearchStrategy, bestSolution, iterations, iterationsWithoutImprovement,
+					synchronizedRecorder)));
+		}
+		for (ForkJoinTask<?> worker : workers) {
+			try {
+				worker.get();
+			} catch (InterruptedException e) {
+				// Stop the rest of iterations and return the best solution found so far
+				stopWorkers(workers, iterations, maxIterations);
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException e) {
+				stopWorkers(workers, iterations, maxIterations);
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new IllegalStateException("GRASP iteration failed", e.getCause());
+			}
+		}
+
+		synchronizedRecorder.finishing();
+
+		// Return the better solution found.
+		return bestSolution.get();
+	}
+
+	/**
+	 * Stops the iterations of the parallel GRASP and waits, even if the current
+	 * thread is interrupted, until the iterations that are running finish, so no
+	 * iteration uses the recorder or the best solution after it returns.
+	 * 
+	 * @param workers
+	 *          Tasks that run the iterations.
+	 * @param iterations
+	 *          Number of iterations done, shared by the tasks.
+	 * @param maxIterations
+	 *          Maximum amount of iterations.
+	 */
+	private static void stopWorkers(ArrayList<ForkJoinTask<?>> workers, AtomicInteger iterations, int maxIterations) {
+		// The tasks check the number of iterations before starting another one
+		iterations.set(maxIterations);
+		for (ForkJoinTask<?> worker : workers) {
+			worker.quietlyJoin();
+		}
+	}
+
+	/**
+	 * Task that runs iterations of the parallel GRASP until one of the stop
+	 * criteria shared by all the tasks is met
+	 */
+	private static class GraspWorker implements Runnable {
+		private final CVRPSpecification problemSpecification;
+		private final int maxIterations;
+		private final int maxIterationsWithoutImprovement;
+		private final int restrictedCandidateListSize;
+		private final LocalSearch localSearchStrategy;
+		private final SharedBestSolution bestSolution;
+		private final AtomicInteger iterations;
+		private final AtomicInteger iterationsWithoutImprovement;
+		private final SynchronizedAlgorithmRecorder recorder;
+
+		GraspWorker(CVRPSpecification problemSpecification, int maxIterations, int maxIterationsWithoutImprovement,
+				int restrictedCandidateListSize, LocalSearch localSearchStrategy, SharedBestSolution bestSolution,
+				AtomicInteger iterations, AtomicInteger iterationsWithoutImprovement, SynchronizedAlgorithmRecorder recorder) {
+			this.problemSpecification = problemSpecification;
+			this.maxIterations = maxIterations;
+			this.maxIterationsWithoutImprovement = maxIterationsWithoutImprovement;
+			this.restrictedCandidateListSize = restrictedCandidateListSize;
+			this.localSearchStrategy = localSearchStrategy;
+			this.bestSolution = bestSolution;
+			this.iterations = iterations;
+			this.iterationsWithoutImprovement = iterationsWithoutImprovement;
+			this.recorder = recorder;
+		}
+
+		@Override
+		public void run() {
+			// The generator of the current thread, so the threads do not contend for one
+			Random randomNumberGenerator = ThreadLocalRandom.current();
+
+			while (this.iterationsWithoutImprovement.get() < this.maxIterationsWithoutImprovement
+					&& this.iterations.getAndIncrement() < this.maxIterations) {
+				this.recorder.aboutToDoNextIteration();
+				CVRPSolution newSolution = constructGreedyRandomizedSolution(this.problemSpecification,
+						this.restrictedCandidateListSize, randomNumberGenerator);
+				newSolution = this.localSearchStrategy.findLocalOptimum(newSolution);
+
+				// The first solution found does not count as an improvement, as in the sequential version
+				boolean isFirstSolution = this.bestSolution.get() == null;
+				if (this.bestSolution.update(newSolution, this.recorder)) {
+					if (!isFirstSolution) {
+						this.iterationsWithoutImprovement.set(0);
+					}
+				} else {
+					this.iterationsWithoutImprovement.incrementAndGet();
+				}
+			}
+		}
+	}
+
 	/**
      * Constructs and returns a solution with the given problem specification. The
      * solution is constructed following a greedy strategy with a random
@@ -112,33 +277,49 @@ public class GRASP {
      * @return Constructed solution.
      */
     public static CVRPSolution constructGreedyRandomizedSolution(CVRPSpecification problemSpecification, int restrictedCandidateListSize) {
-        // Restricted candidate list.
-        ArrayList<CVRPClient> restrictedCandidateList = new ArrayList<>();
+        return constructGreedyRandomizedSolution(problemSpecification, restrictedCandidateListSize, new Random());
+    }
+
+	/**
+     * Constructs and returns a solution with the given problem specification,
+     * taking the random decisions with the given generator.
+     * 
+     * @param problemSpecification Problem specification.
+     * @param restrictedCandidateListSize Size of the restricted candidate list.
+     * @param randomNumberGenerator Generator of the random decisions. It is only
+     *          used by the calling thread.
+     * 
+     * @return Constructed solution.
+     */
+    public static CVRPSolution constructGreedyRandomizedSolution(CVRPSpecification problemSpecification,
+            int restrictedCandidateListSize, Random randomNumberGenerator) {
+        // Restricted candidate list. Holds client IDs sorted by distance to the current client.
+        ArrayList<Integer> restrictedCandidateList = new ArrayList<>();
         
 		// Solution codification.
 		ArrayList<Integer> solution = new ArrayList<>();
         
 		// Remaining clients to serve, remove the depot.
-        ArrayList<CVRPClient> remainingClients = new ArrayList<>(problemSpecification.getClients());
-        remainingClients.remove(problemSpecification.getDepot());
+        ArrayList<Integer> remainingClients = new ArrayList<>();
+        for (int clientId = 0; clientId < problemSpecification.getClients().size(); ++clientId) {
+            if (clientId != problemSpecification.getDepotID()) {
+                remainingClients.add(clientId);
+            }
+        }
         
 		// Start from the depot.
-        CVRPClient currentClient = problemSpecification.getDepot();
+        int currentClient = problemSpecification.getDepotID();
         
 		// Establishes the remaining capacity of the current vehicle or route.
         int remainingVehicleCapacity = problemSpecification.getCapacity();
         
-		// This object will generate a random number which will specify the
-		// position in the restricted candidate list of the next client to serve
-		// in the current route.
-		Random randomNumberGenerator = new Random();
-
 		// Keep iterating until no clients left.
 		while (!remainingClients.isEmpty()) {
 
 			// Create or update the restricted candidate list exploring
 			// each client.
-			for (CVRPClient client : remainingClients) {
+			for (Integer client : remainingClients) {
+				int clientDemand = problemSpecification.getClient(client).getDemand();
 				// If the client is already in the restricted candidate list: next
 				if (restrictedCandidateList.contains(client)) {
 					continue;
@@ -146,15 +327,15 @@ public class GRASP {
 				// If the candidate list has available space: introduce properly the
 				// client.
                 else if (restrictedCandidateList.size() < restrictedCandidateListSize
-						&& client.getDemand() <= remainingVehicleCapacity) {
-                    insertCandidate(restrictedCandidateList, currentClient, client);
+						&& clientDemand <= remainingVehicleCapacity) {
+                    insertCandidate(problemSpecification, restrictedCandidateList, currentClient, client);
 					// If the client is closest to the current client that the last/worst
 					// candidate: introduce properly the client in the candidate list.
-				} else if (CVRPClient.euclideanDistance(currentClient, client) < 
-						       CVRPClient.euclideanDistance(currentClient, restrictedCandidateList.get(restrictedCandidateList.size() - 1)) && 
-						       client.getDemand() <= remainingVehicleCapacity) {
+				} else if (problemSpecification.distance(currentClient, client) < 
+						       problemSpecification.distance(currentClient, restrictedCandidateList.get(restrictedCandidateList.size() - 1)) && 
+						       clientDemand <= remainingVehicleCapacity) {
 					restrictedCandidateList.remove(restrictedCandidateList.size() - 1);
-                    insertCandidate(restrictedCandidateList, currentClient, client);
+                    insertCandidate(problemSpecification, restrictedCandidateList, currentClient, client);
 				}
 			}
 
@@ -164,14 +345,13 @@ public class GRASP {
 			// introduced
 			// client from the candidate list and the remaining clients list.
 			if (!restrictedCandidateList.isEmpty()) {
-				currentClient = restrictedCandidateList
-						.get(randomNumberGenerator.nextInt(restrictedCandidateList.size()));
-				remainingVehicleCapacity -= currentClient.getDemand();
-				remainingClients.remove(currentClient);
-				restrictedCandidateList.remove(currentClient);
-				solution.add(
-                        problemSpecification.getClients().indexOf(currentClient));
-                updateRestrictedCandidateList(restrictedCandidateList, remainingVehicleCapacity);
+				Integer selectedClient = restrictedCandidateList
+						.remove(randomNumberGenerator.nextInt(restrictedCandidateList.size()));
+				currentClient = selectedClient;
+				remainingVehicleCapacity -= problemSpecification.getClient(currentClient).getDemand();
+				remainingClients.remove(selectedClient);
+				solution.add(currentClient);
+                updateRestrictedCandidateList(problemSpecification, restrictedCandidateList, remainingVehicleCapacity);
 				
 			}
 
@@ -181,7 +361,7 @@ public class GRASP {
 			if (remainingVehicleCapacity == 0 || remainingClients.isEmpty()
 					|| restrictedCandidateList.isEmpty()) {
 				solution.add(CVRPSolution.SEPARATOR);
-                currentClient = problemSpecification.getDepot();
+                currentClient = problemSpecification.getDepotID();
                 remainingVehicleCapacity = problemSpecification.getCapacity();
 			}
 		}
@@ -197,25 +377,25 @@ public class GRASP {
 	 * has a demand higher than the new remaining capacity that client must be
 	 * removed from the list.
 	 */
-    private static void updateRestrictedCandidateList(ArrayList<CVRPClient> restrictedCandidateList, int remainingVehicleCapacity) {
-		ArrayList<CVRPClient> clientsToRemove = new ArrayList<>();
-		for (CVRPClient client : restrictedCandidateList) {
-			if (remainingVehicleCapacity < client.getDemand()) {
-				clientsToRemove.add(client);
+    private static void updateRestrictedCandidateList(CVRPSpecification problemSpecification,
+            ArrayList<Integer> restrictedCandidateList, int remainingVehicleCapacity) {
+		for (int i = restrictedCandidateList.size() - 1; i >= 0; --i) {
+			if (remainingVehicleCapacity < problemSpecification.getClient(restrictedCandidateList.get(i)).getDemand()) {
+				restrictedCandidateList.remove(i);
 			}
 		}
-		restrictedCandidateList.removeAll(clientsToRemove);
 	}
 
 	/**
 	 * Inserts a candidate preserving the order of the restricted candidate list.
 	 * 
 	 * @param newCandidate
-	 *          Candidate to insert.
+	 *          ID of the candidate to insert.
 	 */
-	private static void insertCandidate(ArrayList<CVRPClient> restrictedCandidateList, CVRPClient currentClient, CVRPClient newCandidate) {
+	private static void insertCandidate(CVRPSpecification problemSpecification, ArrayList<Integer> restrictedCandidateList,
+			int currentClient, int newCandidate) {
 		for (int i = 0; i < restrictedCandidateList.size(); ++i) {
-			if (CVRPClient.euclideanDistance(currentClient, newCandidate) < CVRPClient.euclideanDistance(currentClient, restrictedCandidateList.get(i))) {
+			if (problemSpecification.distance(currentClient, newCandidate) < problemSpecification.distance(currentClient, restrictedCandidateList.get(i))) {
 				restrictedCandidateList.add(i, newCandidate);
 				return;
 			}
@@ -2,9 +2,11 @@ package daa.project.cvrp.algorithms;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import daa.project.cvrp.local_search.LocalSearch;
 import daa.project.cvrp.metrics.AlgorithmRecorder;
+import daa.project.cvrp.metrics.SynchronizedAlgorithmRecorder;
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.problem.CVRPSpecification;
@@ -50,6 +52,121 @@ public class Multiboot {
         return bestSolutionFound;
     }
     
+    /**
+     * Multiboot whose restarts run on several threads at the same time. The
+     * threads share the best solution found so far and the number of restarts
+     * since it last improved, so the search stops when that number reaches the
+     * maximum, as in the sequential version (the restarts that are running at
+     * that moment are finished).
+     * 
+     * The local search is shared by all the threads, so it has to be thread-safe,
+     * and the recorder is called from all of them one at a time.
+     * 
+     * @param problemInfo   Information about the CVRP to solve
+     * @param localSearch   Local search applied to every random solution
+     * @param maxNumIterationsNoImprovement Number of restarts with no improvement before stopping
+     * @param numberOfThreads   Number of threads that run restarts
+     * @param recorder  Recorder of the metrics of the algorithm
+     * @return  The best solution found
+     */
+    public static CVRPSolution parallelMultiboot(CVRPSpecification problemInfo, LocalSearch localSearch,
+            int maxNumIterationsNoImprovement, int numberOfThreads, AlgorithmRecorder recorder) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("invalid number of threads \"" + numberOfThreads + "\"");
+        }
+        SynchronizedAlgorithmRecorder synchronizedRecorder = new SynchronizedAlgorithmRecorder(recorder);
+        synchronizedRecorder.starting();
+        CVRPSolution solution = constructRandomSolution(problemInfo);
+        synchronizedRecorder.foundBetterSolution(solution);
+        SharedBestSolution bestSolutionFound = new SharedBestSolution(solution);
+        AtomicInteger numIterationsNoImprovement = new AtomicInteger(0);
+        
+        MultibootWorker[] workers = new MultibootWorker[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; ++i) {
+            // The first worker starts from the initial solution, the rest from their own ones
+            workers[i] = new MultibootWorker(problemInfo, localSearch, maxNumIterationsNoImprovement,
+                    (i == 0) ? solution : null, bestSolutionFound, numIterationsNoImprovement, synchronizedRecorder);
+            workers[i].start();
+        }
+        for (MultibootWorker worker : workers) {
+            boolean joined = false;
+            while (!joined) {
+                try {
+                    worker.join();
+                    joined = true;
+                } catch (InterruptedException e) {
+                    // Stop the rest of restarts and wait for the running ones
+                    numIterationsNoImprovement.set(maxNumIterationsNoImprovement);
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        for (MultibootWorker worker : workers) {
+            if (worker.getFailure() != null) {
+                throw worker.getFailure();
+            }
+        }
+        
+        synchronizedRecorder.finishing();
+        return bestSolutionFound.get();
+    }
+    
+    /**
+     * Thread that runs restarts of the parallel multiboot until the shared
+     * number of restarts with no improvement reaches the maximum
+     */
+    private static class MultibootWorker extends Thread {
+        private final CVRPSpecification problemInfo;
+        private final LocalSearch localSearch;
+        private final int maxNumIterationsNoImprovement;
+        /** Solution of the first restart, or null to construct a random one */
+        private CVRPSolution firstSolution;
+        private final SharedBestSolution bestSolutionFound;
+        private final AtomicInteger numIterationsNoImprovement;
+        private final SynchronizedAlgorithmRecorder recorder;
+        /** Exception that stopped the thread, if any */
+        private RuntimeException failure;
+        
+        MultibootWorker(CVRPSpecification problemInfo, LocalSearch localSearch, int maxNumIterationsNoImprovement,
+                CVRPSolution firstSolution, SharedBestSolution bestSolutionFound,
+                AtomicInteger numIterationsNoImprovement, SynchronizedAlgorithmRecorder recorder) {
+            this.problemInfo = problemInfo;
+            this.localSearch = localSearch;
+            this.maxNumIterationsNoImprovement = maxNumIterationsNoImprovement;
+            this.firstSolution = firstSolution;
+            this.bestSolutionFound = bestSolutionFound;
+            this.numIterationsNoImprovement = numIterationsNoImprovement;
+            this.recorder = recorder;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                while (this.numIterationsNoImprovement.get() < this.maxNumIterationsNoImprovement) {
+                    this.recorder.aboutToDoNextIteration();
+                    CVRPSolution solution = (this.firstSolution != null) ? this.firstSolution
+                            : constructRandomSolution(this.problemInfo);
+                    this.firstSolution = null;
+                    solution = this.localSearch.findLocalOptimum(solution);
+                    if (this.bestSolutionFound.update(solution, this.recorder)) {
+                        this.numIterationsNoImprovement.set(0);
+                    } else {
+                        this.numIterationsNoImprovement.incrementAndGet();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Stop the other threads too, the exception is thrown by the caller
+                this.failure = e;
+                this.numIterationsNoImprovement.set(this.maxNumIterationsNoImprovement);
+            }
+        }
+        
+        /** @return The exception that stopped the thread, or null if it finished normally */
+        RuntimeException getFailure() {
+            return this.failure;
+        }
+    }
+    
     /**
      * Returns a random feasible solution
      * 
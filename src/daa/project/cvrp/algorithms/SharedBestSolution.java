@@ -0,0 +1,62 @@
+package daa.project.cvrp.algorithms;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import daa.project.cvrp.metrics.SynchronizedAlgorithmRecorder;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.utils.DoubleCompare;
+
+/**
+ * Best solution found so far by an algorithm whose iterations run on several
+ * threads. The solution is replaced without locks, only when the new one is
+ * strictly better, so it never gets worse whatever the order of the updates.
+ * The solutions offered must not be modified afterwards.
+ *
+ * Until the first solution is offered there is no best solution (null).
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file SharedBestSolution.java
+ *
+ */
+class SharedBestSolution {
+    /** Best solution found so far */
+    private final AtomicReference<CVRPSolution> bestSolution;
+
+    /** @param initialSolution First solution found, or null if there is none yet */
+    SharedBestSolution(CVRPSolution initialSolution) {
+        this.bestSolution = new AtomicReference<>(initialSolution);
+    }
+
+    /** @return The best solution found so far, or null if none was found */
+    CVRPSolution get() {
+        return this.bestSolution.get();
+    }
+
+    /**
+     * Replaces the best solution with the one specified if it is better, and
+     * reports it to the recorder. A solution is only reported if it is still the
+     * best one, so the last solution reported is always the best one.
+     *
+     * @param solution Solution found
+     * @param recorder Recorder where the better solutions are reported
+     * @return Whether the solution is better than the best one found so far (or the first one)
+     */
+    boolean update(CVRPSolution solution, SynchronizedAlgorithmRecorder recorder) {
+        CVRPSolution currentBest = this.bestSolution.get();
+        while (currentBest == null
+                || DoubleCompare.lessThan(solution.getTotalDistance(), currentBest.getTotalDistance())) {
+            if (this.bestSolution.compareAndSet(currentBest, solution)) {
+                synchronized (recorder) {
+                    if (this.bestSolution.get() == solution) {
+                        recorder.foundBetterSolution(solution);
+                    }
+                }
+                return true;
+            }
+            currentBest = this.bestSolution.get();
+        }
+        return false;
+    }
+}
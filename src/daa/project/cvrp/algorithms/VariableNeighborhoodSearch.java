@@ -1,8 +1,12 @@
 package daa.project.cvrp.algorithms;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import daa.project.cvrp.local_search.LocalSearch;
 import daa.project.cvrp.metrics.AlgorithmRecorder;
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.utils.DoubleCompare;
 
@@ -16,8 +20,6 @@ import daa.project.cvrp.utils.DoubleCompare;
  *
  */
 public class VariableNeighborhoodSearch {
-    /** Probability to stop the shaking phase of iterating over the neighbors */
-    static final double SHAKING_STOP_PROBABILITY = 0.01;
     
     /**
      * Run the VNS algorithm over the initial solution provided, using the local search provided
@@ -30,12 +32,28 @@ public class VariableNeighborhoodSearch {
      */
     public static CVRPSolution run(CVRPSolution initialSolution, Move[] moves, LocalSearch localSearch,
             int maxNumIterationsNoImprovement, AlgorithmRecorder recorder) {
-        if (moves.length < 1) {
+        return run(initialSolution, Neighborhood.of(moves), localSearch, maxNumIterationsNoImprovement, recorder);
+    }
+    
+    /**
+     * Run the VNS algorithm over the initial solution provided, using the local search provided
+     * and using the neighborhood structures provided for the shaking phase. Every run uses its
+     * own moves, so the neighborhoods and the local search can be shared between threads
+     * 
+     * @param initialSolution   Initial solution to improve using VNS
+     * @param neighborhoods List of neighborhood structures to use for the shaking phase
+     * @param localSearch   Local search to use to find a local optimum
+     * @return  The local optimum generated by the VNS
+     */
+    public static CVRPSolution run(CVRPSolution initialSolution, Neighborhood[] neighborhoods, LocalSearch localSearch,
+            int maxNumIterationsNoImprovement, AlgorithmRecorder recorder) {
+        if (neighborhoods.length < 1) {
             throw new IllegalArgumentException("invalid list of moves for VNS");
         }
         if (!initialSolution.isFeasible()) {
             throw new IllegalArgumentException("initial solution for VNS is not feasible");
         }
+        Move[] moves = Neighborhood.createMoves(neighborhoods);
         
         recorder.starting();
         CVRPSolution bestSolutionFoundSoFar = localSearch.findLocalOptimum(initialSolution);
@@ -78,30 +96,26 @@ public class VariableNeighborhoodSearch {
     /**
      * Shaking phase of the VNS. The goal is to return a random neighbor in the given
      * neighborhood structure. This is to hopefully escape from the current local optimum
-     * and later, using a local search reaching a better local optimum
+     * and later, using a local search reaching a better local optimum. Every feasible
+     * neighbor has the same probability to be chosen, and the move draws it directly
+     * instead of going through the neighborhood (see {@link Move#describeRandomFeasibleNeighbor})
      * 
      * @param solutionToShake   Solution from which we'll search a random neighbor
      * @param move  Move that generates the neighborhood structure where we have to look for the random neighbor
-     * @return  A random neighbor of the given solution
+     * @return  A random neighbor of the given solution, or the solution itself if it has no feasible neighbors
      */
     static CVRPSolution shakeSolution(CVRPSolution solutionToShake, Move move) {
         if (!solutionToShake.isFeasible()) {
             throw new IllegalArgumentException("cannot perform shaking phase of VNS on an unfeasible solution");
         }
         move.setSolution(solutionToShake);
-        while (move.hasMoreNeighbors()) {
-            // "Throw a dice" to see whether we take the current solution or not
-            if (move.isCurrentNeighborFeasible() && DoubleCompare.lessThan(Math.random(), SHAKING_STOP_PROBABILITY)) {
-                return move.getCurrentNeighbor();
-            }
-            // Update move to the next neighbor
-            move.nextNeighbor();
-            // Skip not feasible solutions
-            while (move.hasMoreNeighbors() && !move.isCurrentNeighborFeasible()) {
-                move.nextNeighbor();
-            }
+        NeighborDescriptor randomNeighbor = new NeighborDescriptor();
+        if (!move.describeRandomFeasibleNeighbor(ThreadLocalRandom.current(), randomNeighbor)) {
+            return solutionToShake;
         }
-        return move.isCurrentNeighborFeasible() ? move.getCurrentNeighbor() : solutionToShake;
+        CVRPSolution shakedSolution = new CVRPSolution(solutionToShake);
+        randomNeighbor.applyTo(shakedSolution);
+        return shakedSolution;
     }
     
 }
@@ -1,9 +1,11 @@
 package daa.project.cvrp.algorithms.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
@@ -18,6 +20,7 @@ import daa.project.cvrp.moves.IntrarouteSwap;
 import daa.project.cvrp.moves.Move;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.problem.CVRPSpecification;
+import daa.project.cvrp.utils.DoubleCompare;
 
 public class GRASPTest {
 
@@ -46,4 +49,41 @@ public class GRASPTest {
 				assertTrue(solution.isFeasible());
 			}
 		}
+
+	@Test(timeout = 100000)
+	public void parallelGRASPShouldReturnAFeasibleSolutionReportedAsTheBest() throws FileNotFoundException, IOException {
+		ReaderFromFile reader = new ReaderFromFile("input/test.vrp");
+		CVRPSpecification problemSpecification = reader.getProblemSpecification();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		TimeAndIterationsRecorder recorder = new TimeAndIterationsRecorder();
+
+		CVRPSolution solution = GRASP.parallelGrasp(problemSpecification, 200, 20, 3,
+				new BestNeighborLocalSearch(new InterrouteSwap()), pool, recorder);
+		pool.shutdown();
+
+		assertTrue(solution.isFeasible());
+		assertEquals(solution.getTotalDistance(), recorder.getSolutionsTotalDistance(), DoubleCompare.EPSILON);
+		assertTrue(recorder.getNumIterations() <= 200);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parallelGRASPShouldRejectALocalSearchInTheSamePool() throws FileNotFoundException, IOException {
+		ReaderFromFile reader = new ReaderFromFile("input/test.vrp");
+		CVRPSpecification problemSpecification = reader.getProblemSpecification();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			GRASP.parallelGrasp(problemSpecification, 200, 20, 3, new BestNeighborLocalSearch(new InterrouteSwap(), pool),
+					pool, new TimeAndIterationsRecorder());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parallelGRASPShouldRejectANullPool() throws FileNotFoundException, IOException {
+		ReaderFromFile reader = new ReaderFromFile("input/test.vrp");
+		CVRPSpecification problemSpecification = reader.getProblemSpecification();
+		GRASP.parallelGrasp(problemSpecification, 200, 20, 3, new BestNeighborLocalSearch(new InterrouteSwap()), null,
+				new TimeAndIterationsRecorder());
+	}
 }
@@ -10,9 +10,12 @@ import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 
+import daa.project.cvrp.IO.ReaderFromFile;
 import daa.project.cvrp.algorithms.Multiboot;
 import daa.project.cvrp.local_search.BestNeighborLocalSearch;
+import daa.project.cvrp.metrics.TimeAndIterationsRecorder;
 import daa.project.cvrp.moves.IntrarouteSwap;
+import daa.project.cvrp.moves.Relocation;
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.problem.CVRPSpecification;
@@ -73,4 +76,16 @@ public class MultibootTest {
         CVRPSolution solution = Multiboot.constructRandomSolution(this.problemInfo);
         assertTrue(solution.isFeasible());
     }
+    
+    @Test
+    public void parallelMultibootShouldReturnAFeasibleSolutionReportedAsTheBest() throws Exception {
+        CVRPSpecification specification = new ReaderFromFile("input/samples/S-N32-K5.vrp").getProblemSpecification();
+        TimeAndIterationsRecorder recorder = new TimeAndIterationsRecorder();
+        CVRPSolution solution = Multiboot.parallelMultiboot(specification, new BestNeighborLocalSearch(new Relocation()),
+                10, 4, recorder);
+        
+        assertTrue(solution.isFeasible());
+        assertEquals(solution.getTotalDistance(), recorder.getSolutionsTotalDistance(), EPSILON);
+        assertTrue(recorder.getNumIterations() >= 10);
+    }
 }
@@ -22,7 +22,8 @@ public class GraspCsvGenerator extends Thread {
     private final int MAX_NUM_ITERATIONS = 1000000;
     private final String FILE_PATH_PREFIX = AlgorithmMetrics.OUTPUT_DIR + "/grasp_results";
     private final String FILE_PATH_SUFIX = ".csv";
-    private final LocalSearch LOCAL_SEARCHES[] = { 
+    // The local searches hold no state between runs, so every generator shares them
+    private static final LocalSearch LOCAL_SEARCHES[] = { 
             new BestNeighborLocalSearch(new Relocation()),
             new BestNeighborLocalSearch(new InterrouteSwap()),
             new BestNeighborLocalSearch(new IntrarouteSwap()), 
@@ -25,7 +25,8 @@ public class LNSConstructiveCsvGenerator extends Thread {
 		private final String FILE_PATH_PREFIX = AlgorithmMetrics.OUTPUT_DIR + "/lns";
 		private final String FILE_PATH_SUFIX = ".csv";
 
-		private LocalSearch LOCAL_SEARCHES[] = { new BestNeighborLocalSearch(new Relocation()),
+		// The local searches hold no state between runs, so every generator shares them
+		private static final LocalSearch LOCAL_SEARCHES[] = { new BestNeighborLocalSearch(new Relocation()),
 				new BestNeighborLocalSearch(new InterrouteSwap()), new BestNeighborLocalSearch(new IntrarouteSwap()),
 				new BestNeighborLocalSearch(new TwoOpt()), new FirstBetterNeighborLocalSearch(new Relocation()),
 				new FirstBetterNeighborLocalSearch(new InterrouteSwap()),
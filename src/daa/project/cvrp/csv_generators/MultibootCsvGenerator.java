@@ -21,7 +21,8 @@ public class MultibootCsvGenerator extends Thread {
     
     private final String FILE_PATH_PREFIX = AlgorithmMetrics.OUTPUT_DIR + "/multiboot_results";
     private final String FILE_PATH_SUFIX = ".csv";
-    private final LocalSearch LOCAL_SEARCHES[] = { 
+    // The local searches hold no state between runs, so every generator shares them
+    private static final LocalSearch LOCAL_SEARCHES[] = { 
             new BestNeighborLocalSearch(new Relocation()),
             new BestNeighborLocalSearch(new InterrouteSwap()),
             new BestNeighborLocalSearch(new IntrarouteSwap()), 
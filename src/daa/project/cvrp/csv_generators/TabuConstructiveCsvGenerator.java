@@ -11,7 +11,7 @@ import daa.project.cvrp.local_search.TabuSearch;
 import daa.project.cvrp.metrics.TimeAndIterationsRecorder;
 import daa.project.cvrp.moves.InterrouteSwap;
 import daa.project.cvrp.moves.IntrarouteSwap;
-import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.moves.Relocation;
 import daa.project.cvrp.moves.TwoOpt;
 import daa.project.cvrp.problem.CVRPSolution;
@@ -25,9 +25,11 @@ public class TabuConstructiveCsvGenerator extends Thread {
 	private final String FILE_PATH_PREFIX = AlgorithmMetrics.OUTPUT_DIR + "/ts_improved_results";
 	private final String FILE_PATH_SUFIX = ".csv";
 
-	Move tabuMoves[][] = { { new IntrarouteSwap(), new TwoOpt() },
-			{ new IntrarouteSwap(), new InterrouteSwap(), new Relocation(), new TwoOpt() },
-			{ new InterrouteSwap(), new Relocation(), new IntrarouteSwap(), new TwoOpt() } };
+	// The neighborhoods are immutable, so every generator shares them
+	private static final Neighborhood TABU_NEIGHBORHOODS[][] = {
+			Neighborhood.of(new IntrarouteSwap(), new TwoOpt()),
+			Neighborhood.of(new IntrarouteSwap(), new InterrouteSwap(), new Relocation(), new TwoOpt()),
+			Neighborhood.of(new InterrouteSwap(), new Relocation(), new IntrarouteSwap(), new TwoOpt()) };
 
 	final String tabuMoveNames[] = { "Intraroute + TwoOpt", "Intraroute + Interroute + Relocation + TwoOpt",
 			"Interroute + Relocation + Intraroute + TwoOpt", };
@@ -74,7 +76,7 @@ public class TabuConstructiveCsvGenerator extends Thread {
 		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(this.filePath)), true)) {
 			writer.append(getCsvHeader());
 
-			for (int movesPos = 0; movesPos < tabuMoves.length; ++movesPos) {
+			for (int movesPos = 0; movesPos < TABU_NEIGHBORHOODS.length; ++movesPos) {
 				writer.append("TABU GRASP IMPROVED" + TimeAndIterationsRecorder.CSV_SEPARATOR + this.tabuTenurePercentage
 						+ TimeAndIterationsRecorder.CSV_SEPARATOR + this.timeToImprove + TimeAndIterationsRecorder.CSV_SEPARATOR
 						+ tabuMoveNames[movesPos] + TimeAndIterationsRecorder.CSV_SEPARATOR);
@@ -90,7 +92,7 @@ public class TabuConstructiveCsvGenerator extends Thread {
 						CVRPSolution currentSolution = GRASP.grasp(problemSpecification, MAX_NUM_ITERATIONS,
 								this.numIterationsWithNoImprovement, this.rclSize, this.graspLocalSearch, algorithmRecorder);
 						
-						LocalSearch tabuSearch = new TabuSearch(tabuMoves[movesPos], this.tabuTenurePercentage, MAX_NUM_ITERATIONS,
+						LocalSearch tabuSearch = new TabuSearch(TABU_NEIGHBORHOODS[movesPos], this.tabuTenurePercentage, MAX_NUM_ITERATIONS,
 								false, algorithmRecorder);
 						
 						long seconds = 0;
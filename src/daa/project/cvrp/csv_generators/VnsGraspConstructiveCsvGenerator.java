@@ -15,6 +15,7 @@ import daa.project.cvrp.metrics.TimeAndIterationsRecorder;
 import daa.project.cvrp.moves.InterrouteSwap;
 import daa.project.cvrp.moves.IntrarouteSwap;
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.moves.Relocation;
 import daa.project.cvrp.moves.TwoOpt;
 import daa.project.cvrp.problem.CVRPSolution;
@@ -26,7 +27,8 @@ public class VnsGraspConstructiveCsvGenerator extends Thread {
 	private final String FILE_PATH_PREFIX = AlgorithmMetrics.OUTPUT_DIR + "/vns_rcl_random_results";
 	private final String FILE_PATH_SUFIX = ".csv";
 
-	private LocalSearch LOCAL_SEARCHES[] = { new BestNeighborLocalSearch(new Relocation()),
+	// The local searches hold no state between runs, so every generator shares them
+	private static final LocalSearch LOCAL_SEARCHES[] = { new BestNeighborLocalSearch(new Relocation()),
 			new BestNeighborLocalSearch(new InterrouteSwap()), new BestNeighborLocalSearch(new IntrarouteSwap()),
 			new BestNeighborLocalSearch(new TwoOpt()), new FirstBetterNeighborLocalSearch(new Relocation()),
 			new FirstBetterNeighborLocalSearch(new InterrouteSwap()),
@@ -47,18 +49,18 @@ public class VnsGraspConstructiveCsvGenerator extends Thread {
 	private CVRPSpecification[] problemSpecifications;
 	private int numTests;
 	private String filePath;
-	private Move[] shakingMoves;
+	private Neighborhood[] shakingNeighborhoods;
 	private String moveName;
 
 	public VnsGraspConstructiveCsvGenerator(CVRPSpecification[] problemSpecifications, int numTests, int rclSize,
-			int numIterationsWithNoImprovement, Move[] shakingMoves, String moveName) {
+			int numIterationsWithNoImprovement, Neighborhood[] shakingNeighborhoods, String moveName) {
 		super();
 
 		this.problemSpecifications = problemSpecifications;
 		this.numTests = numTests;
 		this.rclSize = rclSize;
 		this.numIterationsWithNoImprovement = numIterationsWithNoImprovement;
-		this.shakingMoves = shakingMoves;
+		this.shakingNeighborhoods = shakingNeighborhoods;
 		this.moveName = moveName;
 
 		this.filePath = FILE_PATH_PREFIX + "_rcl_" + rclSize + "_numIts_" + numIterationsWithNoImprovement + "_move_"
@@ -87,7 +89,7 @@ public class VnsGraspConstructiveCsvGenerator extends Thread {
 						CVRPSolution initialSolution = GRASP.constructGreedyRandomizedSolution(problemSpecification, this.rclSize);
 
 						TimeAndIterationsRecorder algorithmRecorder = new TimeAndIterationsRecorder();
-						VariableNeighborhoodSearch.run(initialSolution, shakingMoves, LOCAL_SEARCHES[localSearchPos],
+						VariableNeighborhoodSearch.run(initialSolution, shakingNeighborhoods, LOCAL_SEARCHES[localSearchPos],
 								this.numIterationsWithNoImprovement, algorithmRecorder);
 
 						timeSum += algorithmRecorder.getElapsedTime();
@@ -15,6 +15,7 @@ import daa.project.cvrp.metrics.TimeAndIterationsRecorder;
 import daa.project.cvrp.moves.InterrouteSwap;
 import daa.project.cvrp.moves.IntrarouteSwap;
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.moves.Relocation;
 import daa.project.cvrp.moves.TwoOpt;
 import daa.project.cvrp.problem.CVRPSolution;
@@ -28,7 +29,8 @@ public class VnsGraspImprovedCsvGenerator extends Thread {
 	private final String FILE_PATH_PREFIX = AlgorithmMetrics.OUTPUT_DIR + "/vns_rcl_improved_results";
 	private final String FILE_PATH_SUFIX = ".csv";
 
-	private LocalSearch LOCAL_SEARCHES[] = { new BestNeighborLocalSearch(new Relocation()),
+	// The local searches hold no state between runs, so every generator shares them
+	private static final LocalSearch LOCAL_SEARCHES[] = { new BestNeighborLocalSearch(new Relocation()),
 			new BestNeighborLocalSearch(new InterrouteSwap()), new BestNeighborLocalSearch(new IntrarouteSwap()),
 			new BestNeighborLocalSearch(new TwoOpt()), new FirstBetterNeighborLocalSearch(new Relocation()),
 			new FirstBetterNeighborLocalSearch(new InterrouteSwap()),
@@ -51,11 +53,11 @@ public class VnsGraspImprovedCsvGenerator extends Thread {
 	private String filePath;
 	private LocalSearch graspLocalSearch;
 
-	private Move[] shakingMoves;
+	private Neighborhood[] shakingNeighborhoods;
 	private String moveName;
 
 	public VnsGraspImprovedCsvGenerator(CVRPSpecification[] problemSpecifications, int numTests, LocalSearch localSearch,
-			int rclSize, int numIterationsWithNoImprovement, Move[] shakingMoves, String moveName) {
+			int rclSize, int numIterationsWithNoImprovement, Neighborhood[] shakingNeighborhoods, String moveName) {
 		super();
 		this.problemSpecifications = problemSpecifications;
 		this.numTests = numTests;
@@ -63,7 +65,7 @@ public class VnsGraspImprovedCsvGenerator extends Thread {
 		this.numIterationsWithNoImprovement = numIterationsWithNoImprovement;
 		this.graspLocalSearch = localSearch;
 
-		this.shakingMoves = shakingMoves;
+		this.shakingNeighborhoods = shakingNeighborhoods;
 		this.moveName = moveName;
 
 		this.filePath = FILE_PATH_PREFIX + "_rcl_" + rclSize + "_numIts_" + numIterationsWithNoImprovement + "_move_"
@@ -93,7 +95,7 @@ public class VnsGraspImprovedCsvGenerator extends Thread {
 						CVRPSolution initialSolution = GRASP.grasp(problemSpecification, MAX_NUM_ITERATIONS,
 								this.numIterationsWithNoImprovement, this.rclSize, this.graspLocalSearch, algorithmRecorder);
 
-						VariableNeighborhoodSearch.run(initialSolution, shakingMoves, LOCAL_SEARCHES[localSearchPos],
+						VariableNeighborhoodSearch.run(initialSolution, shakingNeighborhoods, LOCAL_SEARCHES[localSearchPos],
 								this.numIterationsWithNoImprovement, algorithmRecorder);
 
 						timeSum += algorithmRecorder.getElapsedTime();
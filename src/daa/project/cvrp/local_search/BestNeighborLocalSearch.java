@@ -1,13 +1,41 @@
 package daa.project.cvrp.local_search;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import daa.project.cvrp.moves.DontLookBits;
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Neighborhood;
+import daa.project.cvrp.moves.RoutePairMemory;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.utils.DoubleCompare;
 
 /**
  * Local search algorithm that searches all neighbors of a solution for the best one
  * and continues until the current neighbor is the best of the neighborhood (local optimum)
- * 
+ *
+ * The neighborhood can be explored in parallel: it is split by routes (see
+ * {@link Move#setRouteRange}) and every part is explored with its own move in a
+ * fork/join pool. The base solution is only read while the neighbors are
+ * evaluated, so it is shared by all of them.
+ *
+ * Optionally the search keeps don't-look bits of the clients (see
+ * {@link DontLookBits}): after every pass the clients that did not generate an
+ * improving neighbor are deactivated, and only the clients joined to a changed
+ * edge are activated again, so the following passes only explore the part of
+ * the solution that changed. Only the moves that explore the neighborhood
+ * client by client (the granular moves) take advantage of them.
+ *
+ * Optionally, when every neighbor of the move only changes two routes (the
+ * relocation and the inter-route swap, see
+ * {@link Move#generatesNeighborsByRoutePair}) the search keeps the best neighbor
+ * of every pair of routes (see {@link RoutePairMemory}), so after applying a
+ * neighbor the following pass only explores the pairs with one of the two routes
+ * it changed. The rest of pairs keep their best neighbor, or are known to have
+ * no improving one. The best neighbor found is as good as the one of the whole
+ * neighborhood, but among neighbors of the same cost another one may be chosen.
+ *
  * @author Carlos Dominguez Garcia (alu0100966589)
  * @version 1.0.0
  * @since 1.0.0 (Apr 22, 2018)
@@ -15,35 +43,262 @@ import daa.project.cvrp.utils.DoubleCompare;
  *
  */
 public class BestNeighborLocalSearch extends LocalSearch {
-    
+    /** Number of parts per thread the neighborhood is split into, so the load is balanced */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** Pool where the neighborhood is explored, or null to explore it sequentially */
+    private ForkJoinPool pool;
+    /** Whether the clients that did not improve the solution are skipped in the following passes */
+    private boolean useDontLookBits;
+    /** Whether the best neighbor of every pair of routes is kept between passes, when the move allows it */
+    private boolean useRoutePairMemory;
+
     public BestNeighborLocalSearch(Move moveToUse) {
         super(moveToUse);
     }
-    
+
+    public BestNeighborLocalSearch(Neighborhood neighborhood) {
+        super(neighborhood);
+    }
+
+    /**
+     * Create a local search that explores in parallel the neighborhood of every
+     * solution in the given pool
+     *
+     * @param moveToUse Move to use to explore neighbor solutions
+     * @param pool Pool where the parts of the neighborhood are explored
+     */
+    public BestNeighborLocalSearch(Move moveToUse, ForkJoinPool pool) {
+        this(new Neighborhood(moveToUse), pool);
+    }
+
+    /**
+     * Create a local search that explores in parallel the given neighborhood of
+     * every solution in the given pool
+     *
+     * @param neighborhood Neighborhood of the solutions to explore
+     * @param pool Pool where the parts of the neighborhood are explored
+     */
+    public BestNeighborLocalSearch(Neighborhood neighborhood, ForkJoinPool pool) {
+        super(neighborhood);
+        if (pool == null) {
+            throw new IllegalArgumentException("invalid null pool for the parallel local search");
+        }
+        this.pool = pool;
+    }
+
     @Override
     public CVRPSolution findLocalOptimum(CVRPSolution baseSolution) {
         if (baseSolution == null || !baseSolution.isFeasible()) {
             throw new IllegalAccessError("invalid initial solution, it is null or unfeasible");
         }
         boolean isLocalOptimum = true;
-        Move move = getMove();
-        CVRPSolution currentBestSolution = baseSolution;
-        
+        // The best neighbor of each pass is only remembered by its descriptor and it is
+        // applied in place once the whole neighborhood has been explored
+        CVRPSolution currentBestSolution = new CVRPSolution(baseSolution);
+        NeighborDescriptor bestNeighbor = new NeighborDescriptor();
+        Move move = isParallel() ? null : createMove();
+        DontLookBits dontLookBits = usesDontLookBits() ? new DontLookBits(currentBestSolution) : null;
+        RoutePairMemory routePairMemory = usesRoutePairMemory() && getNeighborhood().generatesNeighborsByRoutePair()
+                ? new RoutePairMemory(currentBestSolution.getNumberOfRoutes())
+                : null;
+        if (move != null) {
+            move.setDontLookBits(dontLookBits);
+            move.setRoutePairMemory(routePairMemory);
+        }
+
         // While the solution is not locally an optimum, find the best neighbor
         // and try again with that neighbor
         do {
-            isLocalOptimum = true;
-            move.setSolution(currentBestSolution);
-            while (move.hasMoreNeighbors()) {
-                move.nextNeighbor();
-                if (move.isCurrentNeighborFeasible() && DoubleCompare.lessThan(move.getCurrentNeighborCost(), currentBestSolution.getTotalDistance())) {
-                    isLocalOptimum = false;
-                    currentBestSolution = move.getCurrentNeighbor();
+            if (isParallel()) {
+                int numberOfRoutes = currentBestSolution.getNumberOfRoutes();
+                int routesPerTask = Math.max(1, numberOfRoutes / (this.pool.getParallelism() * TASKS_PER_THREAD));
+                bestNeighbor = this.pool.invoke(new BestNeighborTask(getNeighborhood(), currentBestSolution, dontLookBits,
+                        routePairMemory, 0, numberOfRoutes, routesPerTask));
+                isLocalOptimum = bestNeighbor == null;
+            } else {
+                isLocalOptimum = !findBestNeighbor(move, currentBestSolution, bestNeighbor, dontLookBits, routePairMemory);
+            }
+            if (dontLookBits != null) {
+                dontLookBits.endPass();
+            }
+            if (routePairMemory != null) {
+                // The best neighbor may be in a pair that was not explored in this pass
+                routePairMemory.endPass();
+                if (bestNeighbor == null) {
+                    bestNeighbor = new NeighborDescriptor();
+                }
+                isLocalOptimum = !routePairMemory.findBestNeighbor(bestNeighbor);
+            }
+            if (!isLocalOptimum) {
+                bestNeighbor.applyTo(currentBestSolution);
+                if (dontLookBits != null) {
+                    dontLookBits.activateChangedClients(currentBestSolution, bestNeighbor.getFirstRoute(),
+                            bestNeighbor.getSecondRoute());
+                }
+                if (routePairMemory != null) {
+                    routePairMemory.markModified(bestNeighbor.getFirstRoute());
+                    routePairMemory.markModified(bestNeighbor.getSecondRoute());
                 }
             }
         } while (!isLocalOptimum);
-        
+
         return currentBestSolution;
     }
+
+    /**
+     * Sets whether the search keeps don't-look bits of the clients, so the
+     * clients that did not generate an improving neighbor are skipped until one
+     * of their edges changes
+     *
+     * @param useDontLookBits Whether the don't-look bits are used
+     */
+    public void setUseDontLookBits(boolean useDontLookBits) {
+        this.useDontLookBits = useDontLookBits;
+    }
+
+    /** @return Whether the search keeps don't-look bits of the clients */
+    public boolean usesDontLookBits() {
+        return this.useDontLookBits;
+    }
+
+    /**
+     * Sets whether the search keeps the best neighbor of every pair of routes
+     * between passes, so only the pairs with a changed route are explored again.
+     * It only applies to the moves whose neighbors change two routes, and it is
+     * not used by default, as the neighbor chosen among the ones of the same cost
+     * may differ from the one of the whole neighborhood.
+     *
+     * @param useRoutePairMemory Whether the memory of the pairs of routes is used
+     */
+    public void setUseRoutePairMemory(boolean useRoutePairMemory) {
+        this.useRoutePairMemory = useRoutePairMemory;
+    }
+
+    /** @return Whether the search keeps the best neighbor of every pair of routes, when the move allows it */
+    public boolean usesRoutePairMemory() {
+        return this.useRoutePairMemory;
+    }
+
+    /** @return Whether the neighborhood is explored in parallel */
+    public boolean isParallel() {
+        return this.pool != null;
+    }
     
+    @Override
+    public ForkJoinPool getPool() {
+        return this.pool;
+    }
+
+    /**
+     * Goes through all the neighbors generated by the move looking for the best
+     * feasible one that improves the base solution
+     *
+     * @param move Move used to generate the neighbors
+     * @param baseSolution Solution whose neighbors are explored
+     * @param bestNeighbor Descriptor where the best neighbor is stored
+     * @param dontLookBits Bits where the clients that generate improving
+     *          neighbors are marked, or null if they are not used
+     * @param routePairMemory Memory where the best neighbor of every pair of
+     *          routes is kept, or null if it is not used. When it is used, the
+     *          best neighbor has to be taken from it and the descriptor is only
+     *          used to describe the neighbors
+     * @return Whether an improving neighbor was found
+     */
+    private static boolean findBestNeighbor(Move move, CVRPSolution baseSolution, NeighborDescriptor bestNeighbor,
+            DontLookBits dontLookBits, RoutePairMemory routePairMemory) {
+        boolean found = false;
+        double baseCost = baseSolution.getTotalDistance();
+        double bestNeighborCost = baseCost;
+        move.setSolution(baseSolution);
+        while (move.hasMoreNeighbors()) {
+            move.nextNeighbor();
+            if (!DoubleCompare.lessThan(move.getCurrentNeighborCost(), baseCost)) {
+                continue;
+            }
+            // A shorter neighbor that overloads a route keeps its client active too, as it
+            // becomes feasible as soon as the route is unloaded, with no change of its edges
+            if (dontLookBits != null) {
+                dontLookBits.markImproving(move.getBaseClientId());
+            }
+            if (routePairMemory != null) {
+                if (move.isCurrentNeighborFeasible()) {
+                    found = true;
+                    move.describeCurrentNeighbor(bestNeighbor);
+                    routePairMemory.keepIfBetter(bestNeighbor, bestNeighbor.getCost() - baseCost);
+                }
+            } else if (move.isCurrentNeighborFeasible() && DoubleCompare.lessThan(move.getCurrentNeighborCost(), bestNeighborCost)) {
+                found = true;
+                move.describeCurrentNeighbor(bestNeighbor);
+                bestNeighborCost = bestNeighbor.getCost();
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Task that finds the best improving neighbor of the routes in a range,
+     * splitting the range in halves until it is small enough. The result of the
+     * task is null when no neighbor improves the base solution
+     */
+    private static class BestNeighborTask extends RecursiveTask<NeighborDescriptor> {
+        private static final long serialVersionUID = 1L;
+
+        /** Neighborhood whose moves are used to explore the routes */
+        private final Neighborhood neighborhood;
+        /** Solution whose neighbors are explored */
+        private final CVRPSolution baseSolution;
+        /** Don't-look bits of the clients, or null if they are not used */
+        private final DontLookBits dontLookBits;
+        /** Memory of the pairs of routes, or null if it is not used */
+        private final RoutePairMemory routePairMemory;
+        /** First route of the range (included) */
+        private final int firstRoute;
+        /** Last route of the range (excluded) */
+        private final int lastRoute;
+        /** Maximum number of routes explored by a task without splitting it */
+        private final int routesPerTask;
+
+        BestNeighborTask(Neighborhood neighborhood, CVRPSolution baseSolution, DontLookBits dontLookBits,
+                RoutePairMemory routePairMemory, int firstRoute, int lastRoute, int routesPerTask) {
+            this.neighborhood = neighborhood;
+            this.baseSolution = baseSolution;
+            this.dontLookBits = dontLookBits;
+            this.routePairMemory = routePairMemory;
+            this.firstRoute = firstRoute;
+            this.lastRoute = lastRoute;
+            this.routesPerTask = routesPerTask;
+        }
+
+        @Override
+        protected NeighborDescriptor compute() {
+            if (this.lastRoute - this.firstRoute <= this.routesPerTask) {
+                Move rangeMove = this.neighborhood.createMove();
+                rangeMove.setRouteRange(this.firstRoute, this.lastRoute);
+                rangeMove.setDontLookBits(this.dontLookBits);
+                rangeMove.setRoutePairMemory(this.routePairMemory);
+                NeighborDescriptor bestNeighbor = new NeighborDescriptor();
+                return findBestNeighbor(rangeMove, this.baseSolution, bestNeighbor, this.dontLookBits,
+                        this.routePairMemory) ? bestNeighbor : null;
+            }
+            int middleRoute = (this.firstRoute + this.lastRoute) / 2;
+            BestNeighborTask firstHalf = new BestNeighborTask(this.neighborhood, this.baseSolution, this.dontLookBits,
+                    this.routePairMemory, this.firstRoute, middleRoute, this.routesPerTask);
+            BestNeighborTask secondHalf = new BestNeighborTask(this.neighborhood, this.baseSolution, this.dontLookBits,
+                    this.routePairMemory, middleRoute, this.lastRoute, this.routesPerTask);
+            firstHalf.fork();
+            NeighborDescriptor secondBest = secondHalf.compute();
+            NeighborDescriptor firstBest = firstHalf.join();
+
+            // On a tie the first neighbor is kept, as the sequential exploration does
+            if (firstBest == null) {
+                return secondBest;
+            }
+            if (secondBest != null && DoubleCompare.lessThan(secondBest.getCost(), firstBest.getCost())) {
+                return secondBest;
+            }
+            return firstBest;
+        }
+    }
+
 }
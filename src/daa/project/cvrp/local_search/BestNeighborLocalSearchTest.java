@@ -1,14 +1,26 @@
 package daa.project.cvrp.local_search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.algorithms.ConstructiveDeterministic;
+import daa.project.cvrp.moves.GranularCrossExchange;
+import daa.project.cvrp.moves.GranularRelocation;
+import daa.project.cvrp.moves.GranularTwoOpt;
+import daa.project.cvrp.moves.InterrouteSwap;
 import daa.project.cvrp.moves.IntrarouteSwap;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.TwoOpt;
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.problem.CVRPSpecification;
@@ -88,4 +100,97 @@ public class BestNeighborLocalSearchTest {
         
         assertEquals(solution, localOptimum);
     }
+    
+    @Test
+    public void parallelSearchShouldFindTheSameOptimumAsTheSequentialOne() throws Exception {
+        CVRPSpecification specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        CVRPSolution initialSolution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Move[] moves = { new Relocation(), new InterrouteSwap(), new IntrarouteSwap(), new TwoOpt() };
+        for (Move move : moves) {
+            CVRPSolution sequentialOptimum = new BestNeighborLocalSearch(move).findLocalOptimum(initialSolution);
+            CVRPSolution parallelOptimum = new BestNeighborLocalSearch(move, pool).findLocalOptimum(initialSolution);
+            assertEquals(sequentialOptimum, parallelOptimum);
+            assertEquals(sequentialOptimum.getTotalDistance(), parallelOptimum.getTotalDistance(), EPSILON);
+        }
+        pool.shutdown();
+    }
+    
+    @Test
+    public void dontLookBitsShouldFindAFeasibleImprovementInParallelToo() throws Exception {
+        CVRPSpecification specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        CVRPSolution initialSolution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Move[] moves = { new GranularRelocation(), new GranularTwoOpt(), new GranularCrossExchange() };
+        for (Move move : moves) {
+            BestNeighborLocalSearch sequentialSearch = new BestNeighborLocalSearch(move);
+            sequentialSearch.setUseDontLookBits(true);
+            BestNeighborLocalSearch parallelSearch = new BestNeighborLocalSearch(move, pool);
+            parallelSearch.setUseDontLookBits(true);
+            CVRPSolution sequentialOptimum = sequentialSearch.findLocalOptimum(initialSolution);
+            CVRPSolution parallelOptimum = parallelSearch.findLocalOptimum(initialSolution);
+            assertTrue(sequentialOptimum.isFeasible());
+            assertTrue(DoubleCompare.lessThan(sequentialOptimum.getTotalDistance(), initialSolution.getTotalDistance()));
+            assertEquals(sequentialOptimum, parallelOptimum);
+        }
+        pool.shutdown();
+    }
+    
+    @Test
+    public void routePairMemoryShouldFindTheSameOptimumAsTheWholeNeighborhood() throws Exception {
+        CVRPSpecification specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        CVRPSolution initialSolution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Move[] moves = { new Relocation(), new InterrouteSwap() };
+        for (Move move : moves) {
+            BestNeighborLocalSearch wholeSearch = new BestNeighborLocalSearch(move);
+            wholeSearch.setUseRoutePairMemory(false);
+            CVRPSolution expectedOptimum = wholeSearch.findLocalOptimum(initialSolution);
+            BestNeighborLocalSearch sequentialSearch = new BestNeighborLocalSearch(move);
+            sequentialSearch.setUseRoutePairMemory(true);
+            BestNeighborLocalSearch parallelSearch = new BestNeighborLocalSearch(move, pool);
+            parallelSearch.setUseRoutePairMemory(true);
+            CVRPSolution sequentialOptimum = sequentialSearch.findLocalOptimum(initialSolution);
+            CVRPSolution parallelOptimum = parallelSearch.findLocalOptimum(initialSolution);
+            assertEquals(expectedOptimum, sequentialOptimum);
+            assertEquals(expectedOptimum, parallelOptimum);
+            assertTrue(sequentialOptimum.isFeasible());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void sharedSearchShouldFindTheSameOptimumFromSeveralThreads() throws Exception {
+        CVRPSpecification specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        CVRPSolution initialSolution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+        LocalSearch sharedSearch = new BestNeighborLocalSearch(new Neighborhood(new Relocation()));
+        CVRPSolution expectedOptimum = sharedSearch.findLocalOptimum(initialSolution);
+        
+        SearchThread[] threads = new SearchThread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new SearchThread(sharedSearch, initialSolution);
+            threads[i].start();
+        }
+        for (SearchThread thread : threads) {
+            thread.join();
+            assertEquals(expectedOptimum, thread.localOptimum);
+        }
+    }
+    
+    /** Thread that finds a local optimum with a local search shared with other threads */
+    private static class SearchThread extends Thread {
+        private final LocalSearch localSearch;
+        private final CVRPSolution baseSolution;
+        private CVRPSolution localOptimum;
+        
+        SearchThread(LocalSearch localSearch, CVRPSolution baseSolution) {
+            this.localSearch = localSearch;
+            this.baseSolution = baseSolution;
+        }
+        
+        @Override
+        public void run() {
+            this.localOptimum = this.localSearch.findLocalOptimum(this.baseSolution);
+        }
+    }
 }
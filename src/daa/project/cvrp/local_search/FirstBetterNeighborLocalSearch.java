@@ -1,6 +1,10 @@
 package daa.project.cvrp.local_search;
 
+import daa.project.cvrp.moves.DontLookBits;
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.MoveState;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.utils.DoubleCompare;
 
@@ -9,6 +13,11 @@ import daa.project.cvrp.utils.DoubleCompare;
  * than the current, and continues until the current neighbor is the best of the neighborhood 
  * (local optimum)
  * 
+ * Optionally the search keeps don't-look bits of the clients (see
+ * {@link DontLookBits}): a client whose neighbors were all explored without
+ * finding a better one is skipped until one of its edges changes. Only the moves
+ * that explore the neighborhood client by client (the granular moves) take
+ * advantage of them.
  * 
  * @author Carlos Dominguez Garcia (alu0100966589)
  * @version 1.0.0
@@ -17,30 +26,63 @@ import daa.project.cvrp.utils.DoubleCompare;
  *
  */
 public class FirstBetterNeighborLocalSearch extends LocalSearch {
+    /** Whether the clients that did not improve the solution are skipped until their edges change */
+    private boolean useDontLookBits;
     
     public FirstBetterNeighborLocalSearch(Move moveToUse) {
         super(moveToUse);
     }
     
+    public FirstBetterNeighborLocalSearch(Neighborhood neighborhood) {
+        super(neighborhood);
+    }
+    
     @Override
     public CVRPSolution findLocalOptimum(CVRPSolution baseSolution) {
         if (baseSolution == null || !baseSolution.isFeasible()) {
             throw new IllegalAccessError("invalid initial solution, it is null or unfeasible");
         }
         boolean isLocalOptimum = true;
-        Move move = getMove();
-        CVRPSolution currentBestSolution = baseSolution;
+        Move move = createMove();
+        // The better neighbors are applied in place over a copy of the base solution
+        CVRPSolution currentBestSolution = new CVRPSolution(baseSolution);
+        DontLookBits dontLookBits = usesDontLookBits() ? new DontLookBits(currentBestSolution) : null;
+        move.setDontLookBits(dontLookBits);
+        // Routes changed by the neighbor applied, whose clients may have to be activated again
+        NeighborDescriptor appliedNeighbor = new NeighborDescriptor();
         
         // While the solution is not locally an optimum, find the best neighbor
         // and try again with that neighbor
         do {
             isLocalOptimum = true;
             move.setSolution(currentBestSolution);
+            int exploredClientId = MoveState.NO_CLIENT;
+            boolean exploredClientImproves = false;
             while (move.hasMoreNeighbors() && isLocalOptimum) {
                 move.nextNeighbor();
-                if (move.isCurrentNeighborFeasible() && DoubleCompare.lessThan(move.getCurrentNeighborCost(), currentBestSolution.getTotalDistance())) {
+                // The neighbors of a client are generated together, so once the move goes on
+                // to another client all the neighbors of the previous one were explored
+                if (dontLookBits != null && move.getBaseClientId() != exploredClientId) {
+                    if (exploredClientId != MoveState.NO_CLIENT && !exploredClientImproves) {
+                        dontLookBits.deactivate(exploredClientId);
+                    }
+                    exploredClientId = move.getBaseClientId();
+                    exploredClientImproves = false;
+                }
+                if (!DoubleCompare.lessThan(move.getCurrentNeighborCost(), currentBestSolution.getTotalDistance())) {
+                    continue;
+                }
+                // A shorter neighbor that overloads a route keeps its client active, as it
+                // becomes feasible as soon as the route is unloaded, with no change of its edges
+                exploredClientImproves = true;
+                if (move.isCurrentNeighborFeasible()) {
                     isLocalOptimum = false;
-                    currentBestSolution = move.getCurrentNeighbor();
+                    move.describeCurrentNeighbor(appliedNeighbor);
+                    move.applyCurrentNeighbor(currentBestSolution);
+                    if (dontLookBits != null) {
+                        dontLookBits.activateChangedClients(currentBestSolution, appliedNeighbor.getFirstRoute(),
+                                appliedNeighbor.getSecondRoute());
+                    }
                 }
             }
         } while (!isLocalOptimum);
@@ -48,4 +90,20 @@ public class FirstBetterNeighborLocalSearch extends LocalSearch {
         return currentBestSolution;
     }
     
+    /**
+     * Sets whether the search keeps don't-look bits of the clients, so the
+     * clients whose neighbors were not better are skipped until one of their
+     * edges changes
+     * 
+     * @param useDontLookBits Whether the don't-look bits are used
+     */
+    public void setUseDontLookBits(boolean useDontLookBits) {
+        this.useDontLookBits = useDontLookBits;
+    }
+    
+    /** @return Whether the search keeps don't-look bits of the clients */
+    public boolean usesDontLookBits() {
+        return this.useDontLookBits;
+    }
+    
 }
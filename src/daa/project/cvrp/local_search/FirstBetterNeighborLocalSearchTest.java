@@ -1,6 +1,7 @@
 package daa.project.cvrp.local_search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -8,6 +9,9 @@ import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.algorithms.ConstructiveDeterministic;
+import daa.project.cvrp.moves.GranularRelocation;
 import daa.project.cvrp.moves.IntrarouteSwap;
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
@@ -70,4 +74,16 @@ public class FirstBetterNeighborLocalSearchTest {
         assertEquals(solution, localOptimum);
     }
     
+    @Test
+    public void dontLookBitsShouldFindAFeasibleImprovement() throws Exception {
+        CVRPSpecification specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        CVRPSolution initialSolution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+        FirstBetterNeighborLocalSearch search = new FirstBetterNeighborLocalSearch(new GranularRelocation());
+        search.setUseDontLookBits(true);
+        CVRPSolution localOptimum = search.findLocalOptimum(initialSolution);
+        
+        assertTrue(localOptimum.isFeasible());
+        assertTrue(DoubleCompare.lessThan(localOptimum.getTotalDistance(), initialSolution.getTotalDistance()));
+    }
+    
 }
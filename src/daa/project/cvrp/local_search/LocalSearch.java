@@ -1,12 +1,20 @@
 package daa.project.cvrp.local_search;
 
+import java.util.concurrent.ForkJoinPool;
+
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.problem.CVRPSolution;
 
 /**
  * Representation of a general local search: algorithm that given a solution
  * and a move, searches the neighbors of that solution for a local optimum
  * 
+ * The local search only keeps the definition of the neighborhood and every call
+ * to findLocalOptimum explores it with its own move, so the same instance can be
+ * used by several threads at the same time. A local search that reports to a
+ * recorder (the tabu search) makes its calls to it one at a time.
+ * 
  * @author Carlos Dominguez Garcia (alu0100966589)
  * @version 1.0.0
  * @since 1.0.0 (Apr 22, 2018)
@@ -14,8 +22,8 @@ import daa.project.cvrp.problem.CVRPSolution;
  *
  */
 public abstract class LocalSearch {
-    /** Move used to explore the neighbors of the solutions */
-    private Move moveToUse;
+    /** Neighborhood explored from the solutions */
+    private Neighborhood neighborhood;
     
     /**
      * Create a local search with the given move used to explore
@@ -24,7 +32,20 @@ public abstract class LocalSearch {
      * @param moveToUse Move to use to explore neighbor solutions
      */
     public LocalSearch(Move moveToUse) {
-        setMoveToUse(moveToUse);
+        this(new Neighborhood(moveToUse));
+    }
+    
+    /**
+     * Create a local search that explores the given neighborhood
+     * 
+     * @param neighborhood Neighborhood of the solutions to explore
+     */
+    public LocalSearch(Neighborhood neighborhood) {
+        setNeighborhood(neighborhood);
+    }
+    
+    /** Create a local search that handles its own neighborhoods */
+    protected LocalSearch() {
     }
     
     /**
@@ -37,14 +58,30 @@ public abstract class LocalSearch {
      */
     public abstract CVRPSolution findLocalOptimum(CVRPSolution baseSolution);
     
-    /** @return the moveToUse */
-    public Move getMove() {
-        return this.moveToUse;
+    /** @return the neighborhood */
+    public Neighborhood getNeighborhood() {
+        return this.neighborhood;
+    }
+    
+    /**
+     * @return Pool whose threads explore the neighborhood, or null if it is
+     *         explored by the thread that calls findLocalOptimum
+     */
+    public ForkJoinPool getPool() {
+        return null;
+    }
+    
+    /** @return A new move to explore the neighborhood, owned by the caller */
+    protected Move createMove() {
+        return this.neighborhood.createMove();
     }
     
-    /** @param moveToUse the moveToUse to set */
-    private void setMoveToUse(Move moveToUse) {
-        this.moveToUse = moveToUse;
+    /** @param neighborhood the neighborhood to set */
+    private void setNeighborhood(Neighborhood neighborhood) {
+        if (neighborhood == null) {
+            throw new IllegalArgumentException("invalid null neighborhood for the local search");
+        }
+        this.neighborhood = neighborhood;
     }
     
-}
\ No newline at end of file
+}
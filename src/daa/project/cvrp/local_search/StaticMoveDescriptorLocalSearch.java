@@ -0,0 +1,225 @@
+package daa.project.cvrp.local_search;
+
+import daa.project.cvrp.moves.GranularMove;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Neighborhood;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.utils.DoubleCompare;
+import daa.project.cvrp.utils.IndexedMinHeap;
+
+/**
+ * Best improvement local search that keeps the best neighbor generated from
+ * every pair of a client and one of its nearest clients (static move
+ * descriptors), so after applying a neighbor only the pairs whose neighbors
+ * changed are explored again instead of the whole neighborhood.
+ *
+ * It works with the granular moves, whose neighbors are generated from a client
+ * and one of its candidates and only change the route of the client and the
+ * route of the candidate. So when a neighbor changes two routes, the only
+ * neighbors whose cost or feasibility change are the ones of the pairs with the
+ * client or the candidate in one of those routes, and the work of every step is
+ * proportional to the number of clients of the changed routes, not to the size
+ * of the neighborhood.
+ *
+ * The improving pairs are kept in a heap by the difference in the objective
+ * function of their best neighbor, so the best neighbor of the whole
+ * neighborhood is always at its top and the search follows the same path as
+ * {@link BestNeighborLocalSearch}.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file StaticMoveDescriptorLocalSearch.java
+ *
+ */
+public class StaticMoveDescriptorLocalSearch extends LocalSearch {
+
+    /** @param moveToUse Granular move to use to explore neighbor solutions */
+    public StaticMoveDescriptorLocalSearch(GranularMove moveToUse) {
+        super(moveToUse);
+    }
+
+    /** @param neighborhood Neighborhood of a granular move */
+    public StaticMoveDescriptorLocalSearch(Neighborhood neighborhood) {
+        super(neighborhood);
+        if (!(neighborhood.createMove() instanceof GranularMove)) {
+            throw new IllegalArgumentException("invalid neighborhood \"" + neighborhood
+                    + "\" for the static move descriptors, only granular moves are supported");
+        }
+    }
+
+    @Override
+    public CVRPSolution findLocalOptimum(CVRPSolution baseSolution) {
+        if (baseSolution == null || !baseSolution.isFeasible()) {
+            throw new IllegalAccessError("invalid initial solution, it is null or unfeasible");
+        }
+        CVRPSolution currentBestSolution = new CVRPSolution(baseSolution);
+        return new Descriptors(currentBestSolution, (GranularMove) createMove()).descend();
+    }
+
+    /**
+     * Best neighbors of the pairs of clients of a single descent. The pair of a
+     * client and the candidate at index i of its list of nearest clients is
+     * identified by clientId * numberOfCandidates + i.
+     */
+    private static class Descriptors {
+        /** Solution modified in place by the descent */
+        private final CVRPSolution solution;
+        /** Move restricted to a pair every time it is used */
+        private final GranularMove move;
+        /** Size of the lists of nearest clients */
+        private final int numberOfCandidates;
+        /** Pairs where each client is the candidate, indexed by client ID */
+        private final int[][] pairsWithCandidate;
+        /** Best neighbor of every pair, created when the pair first improves the solution */
+        private final NeighborDescriptor[] bestNeighbors;
+        /** Pairs whose best neighbor improves the solution, by difference in the objective function */
+        private final IndexedMinHeap improvingPairs;
+        /** Step in which every pair was last explored, so it is explored once per step */
+        private final int[] exploredStep;
+        /** Number of neighbors applied */
+        private int step;
+
+        Descriptors(CVRPSolution solution, GranularMove move) {
+            this.solution = solution;
+            this.move = move;
+            this.numberOfCandidates = move.getNumberOfCandidates();
+            int numberOfPairs = solution.getProblemInfo().getClients().size() * this.numberOfCandidates;
+            this.pairsWithCandidate = getPairsWithCandidate();
+            this.bestNeighbors = new NeighborDescriptor[numberOfPairs];
+            this.improvingPairs = new IndexedMinHeap(numberOfPairs);
+            this.exploredStep = new int[numberOfPairs];
+        }
+
+        /**
+         * Applies the best improving neighbor until there are none
+         *
+         * @return The local optimum, which is the solution modified in place
+         */
+        CVRPSolution descend() {
+            // The first step goes through the whole neighborhood
+            this.move.setSolution(this.solution);
+            double baseCost = this.solution.getTotalDistance();
+            while (this.move.hasMoreNeighbors()) {
+                this.move.nextNeighbor();
+                int pair = this.move.getBaseClientId() * this.numberOfCandidates + this.move.getBaseCandidateIndex();
+                keepIfBetter(pair, baseCost);
+            }
+
+            while (!this.improvingPairs.isEmpty()) {
+                NeighborDescriptor bestNeighbor = this.bestNeighbors[this.improvingPairs.peek()];
+                int firstRoute = bestNeighbor.getFirstRoute();
+                int secondRoute = bestNeighbor.getSecondRoute();
+                bestNeighbor.applyTo(this.solution);
+                this.step++;
+
+                exploreRoute(firstRoute);
+                if (secondRoute != firstRoute) {
+                    exploreRoute(secondRoute);
+                }
+            }
+            return this.solution;
+        }
+
+        /**
+         * Explores again the pairs with the client or the candidate in the route
+         *
+         * @param route Route that changed
+         */
+        private void exploreRoute(int route) {
+            for (int position = 0; position < this.solution.getNumberOfClientsInRoute(route); ++position) {
+                int clientId = this.solution.getClientId(route, position);
+                for (int candidateIndex = 0; candidateIndex < this.numberOfCandidates; ++candidateIndex) {
+                    explorePair(clientId * this.numberOfCandidates + candidateIndex);
+                }
+                for (int pair : this.pairsWithCandidate[clientId]) {
+                    explorePair(pair);
+                }
+            }
+        }
+
+        /**
+         * Computes again the best neighbor of the pair, unless it was already
+         * explored after the last change
+         *
+         * @param pair Pair of clients
+         */
+        private void explorePair(int pair) {
+            if (this.exploredStep[pair] == this.step) {
+                return;
+            }
+            this.exploredStep[pair] = this.step;
+            this.improvingPairs.remove(pair);
+
+            double baseCost = this.solution.getTotalDistance();
+            this.move.setNeighborPair(pair / this.numberOfCandidates, pair % this.numberOfCandidates);
+            this.move.setSolution(this.solution);
+            while (this.move.hasMoreNeighbors()) {
+                this.move.nextNeighbor();
+                keepIfBetter(pair, baseCost);
+            }
+        }
+
+        /**
+         * Keeps the current neighbor of the move as the best neighbor of the pair
+         * if it is feasible and improves both the solution and the best neighbor
+         * found for the pair
+         *
+         * @param pair Pair the current neighbor was generated from
+         * @param baseCost Objective function value of the solution
+         */
+        private void keepIfBetter(int pair, double baseCost) {
+            if (!this.move.isCurrentNeighborFeasible() || !DoubleCompare.lessThan(this.move.getCurrentNeighborCost(), baseCost)) {
+                return;
+            }
+            double costDifference = this.move.getCurrentNeighborCost() - baseCost;
+            if (this.improvingPairs.contains(pair)
+                    && !DoubleCompare.lessThan(costDifference, this.improvingPairs.getPriority(pair))) {
+                return;
+            }
+            if (this.bestNeighbors[pair] == null) {
+                this.bestNeighbors[pair] = new NeighborDescriptor();
+            }
+            this.move.describeCurrentNeighbor(this.bestNeighbors[pair]);
+            this.improvingPairs.update(pair, costDifference);
+        }
+
+        /** @return The pairs where each client is the candidate, indexed by client ID */
+        private int[][] getPairsWithCandidate() {
+            int numberOfNodes = this.solution.getProblemInfo().getClients().size();
+            int depotId = this.solution.getProblemInfo().getDepotID();
+            int[] numberOfPairs = new int[numberOfNodes];
+            for (int clientId = 0; clientId < numberOfNodes; ++clientId) {
+                if (clientId != depotId) {
+                    for (int candidateId : getCandidates(clientId)) {
+                        numberOfPairs[candidateId]++;
+                    }
+                }
+            }
+            int[][] pairsWithCandidate = new int[numberOfNodes][];
+            for (int clientId = 0; clientId < numberOfNodes; ++clientId) {
+                pairsWithCandidate[clientId] = new int[numberOfPairs[clientId]];
+                numberOfPairs[clientId] = 0;
+            }
+            for (int clientId = 0; clientId < numberOfNodes; ++clientId) {
+                if (clientId != depotId) {
+                    int[] candidates = getCandidates(clientId);
+                    for (int candidateIndex = 0; candidateIndex < candidates.length; ++candidateIndex) {
+                        int candidateId = candidates[candidateIndex];
+                        pairsWithCandidate[candidateId][numberOfPairs[candidateId]++] = clientId * this.numberOfCandidates
+                                + candidateIndex;
+                    }
+                }
+            }
+            return pairsWithCandidate;
+        }
+
+        /**
+         * @param clientId ID of the client
+         * @return The nearest clients of the client considered by the move
+         */
+        private int[] getCandidates(int clientId) {
+            return this.solution.getProblemInfo().getNearestClients(clientId, this.numberOfCandidates);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package daa.project.cvrp.local_search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.algorithms.ConstructiveDeterministic;
+import daa.project.cvrp.moves.GranularCrossExchange;
+import daa.project.cvrp.moves.GranularInterrouteSwap;
+import daa.project.cvrp.moves.GranularMove;
+import daa.project.cvrp.moves.GranularRelocation;
+import daa.project.cvrp.moves.GranularTwoOpt;
+import daa.project.cvrp.moves.Neighborhood;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+import daa.project.cvrp.utils.DoubleCompare;
+
+public class StaticMoveDescriptorLocalSearchTest {
+
+    static final double      EPSILON = DoubleCompare.EPSILON;
+    static CVRPSpecification specification;
+    static CVRPSolution      initialSolution;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        initialSolution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+    }
+
+    @Test
+    public void shouldFindTheSameOptimumAsTheBestNeighborSearch() {
+        GranularMove[] moves = { new GranularRelocation(), new GranularInterrouteSwap(), new GranularTwoOpt(),
+                new GranularCrossExchange() };
+        for (GranularMove move : moves) {
+            CVRPSolution expectedOptimum = new BestNeighborLocalSearch(move).findLocalOptimum(initialSolution);
+            CVRPSolution localOptimum = new StaticMoveDescriptorLocalSearch(move).findLocalOptimum(initialSolution);
+            assertEquals(expectedOptimum, localOptimum);
+            assertEquals(expectedOptimum.getTotalDistance(), localOptimum.getTotalDistance(), EPSILON);
+            assertTrue(localOptimum.isFeasible());
+        }
+    }
+
+    @Test
+    public void pairOfClientsShouldOnlyGenerateItsNeighbors() {
+        GranularRelocation move = new GranularRelocation();
+        int clientId = initialSolution.getClientId(0, 0);
+        move.setNeighborPair(clientId, 1);
+        move.setSolution(initialSolution);
+        int numberOfNeighbors = 0;
+        while (move.hasMoreNeighbors()) {
+            move.nextNeighbor();
+            assertEquals(clientId, move.getBaseClientId());
+            assertEquals(1, move.getBaseCandidateIndex());
+            numberOfNeighbors++;
+        }
+        // Before and after the candidate, unless it is in the same route
+        assertTrue(numberOfNeighbors <= 2);
+
+        move.clearNeighborPair();
+        move.setSolution(initialSolution);
+        int numberOfPairNeighbors = 0;
+        while (move.hasMoreNeighbors()) {
+            move.nextNeighbor();
+            if (move.getBaseClientId() == clientId && move.getBaseCandidateIndex() == 1) {
+                numberOfPairNeighbors++;
+            }
+        }
+        assertEquals(numberOfPairNeighbors, numberOfNeighbors);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMovesThatAreNotGranular() {
+        new StaticMoveDescriptorLocalSearch(new Neighborhood(new Relocation()));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * TabuMemory.java
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ */
+package daa.project.cvrp.local_search;
+
+import daa.project.cvrp.moves.MoveState;
+
+/**
+ * Tabu memory of a tabu search, with the pairs of clients moved as attributes.
+ * For every pair it stores the iteration at which it stops being tabu, so
+ * checking and updating the tabu status take constant time and moving to the
+ * next iteration does not require going through the tabu pairs.
+ *
+ * A pair is the same no matter the order of its clients, and a move of a single
+ * client (a relocation) is the pair of that client with no client.
+ */
+class TabuMemory {
+	/**
+	 * Iteration at which each pair of clients stops being tabu, indexed by
+	 * [first + 1][second + 1] so index 0 is no client
+	 */
+	private final int[][] tabuExpirations;
+	/** Current iteration of the search */
+	private int currentIteration;
+
+	/**
+	 * @param numberOfClients
+	 *          Number of clients of the problem (client IDs go from 0 to
+	 *          numberOfClients - 1)
+	 */
+	TabuMemory(int numberOfClients) {
+		this.tabuExpirations = new int[numberOfClients + 1][numberOfClients + 1];
+		this.currentIteration = 0;
+	}
+
+	/**
+	 * @param state
+	 *          State of a move
+	 * @return Whether the pair of clients of the state is tabu in the current
+	 *         iteration
+	 */
+	boolean isTabu(MoveState state) {
+		return isTabu(state.getFirstClientId(), state.getSecondClientId());
+	}
+
+	/**
+	 * @param stateKey
+	 *          Key of the state of a move (see MoveState.packKey)
+	 * @return Whether the pair of clients of the state is tabu in the current
+	 *         iteration
+	 */
+	boolean isTabu(long stateKey) {
+		return isTabu(MoveState.getFirstClientId(stateKey), MoveState.getSecondClientId(stateKey));
+	}
+
+	/**
+	 * @param firstClientId
+	 *          ID of the first client, or MoveState.NO_CLIENT
+	 * @param secondClientId
+	 *          ID of the second client, or MoveState.NO_CLIENT
+	 * @return Whether the pair of clients is tabu in the current iteration
+	 */
+	boolean isTabu(int firstClientId, int secondClientId) {
+		return this.tabuExpirations[firstClientId + 1][secondClientId + 1] > this.currentIteration;
+	}
+
+	/**
+	 * Makes the pair of clients of the state tabu for the next iterations. As the
+	 * iteration where it is made tabu counts, the pair is tabu for the next
+	 * tabuTenure - 1 iterations.
+	 *
+	 * @param state
+	 *          State of the move
+	 * @param tabuTenure
+	 *          Tabu tenure of the pair
+	 */
+	void makeTabu(MoveState state, int tabuTenure) {
+		makeTabu(state.getFirstClientId(), state.getSecondClientId(), tabuTenure);
+	}
+
+	/**
+	 * Makes the pair of clients of the state tabu for the next iterations
+	 *
+	 * @param stateKey
+	 *          Key of the state of the move (see MoveState.packKey)
+	 * @param tabuTenure
+	 *          Tabu tenure of the pair
+	 * @see #makeTabu(MoveState, int)
+	 */
+	void makeTabu(long stateKey, int tabuTenure) {
+		makeTabu(MoveState.getFirstClientId(stateKey), MoveState.getSecondClientId(stateKey), tabuTenure);
+	}
+
+	/**
+	 * Makes the pair of clients tabu for the next iterations
+	 *
+	 * @param firstClientId
+	 *          ID of the first client, or MoveState.NO_CLIENT
+	 * @param secondClientId
+	 *          ID of the second client, or MoveState.NO_CLIENT
+	 * @param tabuTenure
+	 *          Tabu tenure of the pair
+	 * @see #makeTabu(MoveState, int)
+	 */
+	void makeTabu(int firstClientId, int secondClientId, int tabuTenure) {
+		int expiration = this.currentIteration + tabuTenure;
+		this.tabuExpirations[firstClientId + 1][secondClientId + 1] = expiration;
+		this.tabuExpirations[secondClientId + 1][firstClientId + 1] = expiration;
+	}
+
+	/** Moves the memory to the next iteration, releasing the expired pairs */
+	void nextIteration() {
+		this.currentIteration++;
+	}
+}
@@ -0,0 +1,48 @@
+package daa.project.cvrp.local_search;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import daa.project.cvrp.moves.MoveState;
+import daa.project.cvrp.problem.CVRPClient;
+
+public class TabuMemoryTest {
+    
+    TabuMemory uut;
+    
+    @Before
+    public void initialize() {
+        this.uut = new TabuMemory(5);
+    }
+    
+    @Test
+    public void pairShouldBeTabuUntilItsTenureExpires() {
+        this.uut.makeTabu(1, 3, 3);
+        this.uut.nextIteration();
+        assertTrue(this.uut.isTabu(1, 3));
+        this.uut.nextIteration();
+        assertTrue(this.uut.isTabu(1, 3));
+        this.uut.nextIteration();
+        assertFalse(this.uut.isTabu(1, 3));
+    }
+    
+    @Test
+    public void pairShouldBeTabuNoMatterTheOrderOfItsClients() {
+        this.uut.makeTabu(1, 3, 2);
+        this.uut.nextIteration();
+        assertTrue(this.uut.isTabu(3, 1));
+        assertFalse(this.uut.isTabu(1, 2));
+    }
+    
+    @Test
+    public void differentClientsWithTheSameCoordinatesShouldNotCollide() {
+        CVRPClient client = new CVRPClient(2, 2, 1);
+        this.uut.makeTabu(new MoveState(client, null, 4, MoveState.NO_CLIENT), 2);
+        this.uut.nextIteration();
+        assertTrue(this.uut.isTabu(new MoveState(client, null, 4, MoveState.NO_CLIENT)));
+        assertFalse(this.uut.isTabu(new MoveState(client, null, 2, MoveState.NO_CLIENT)));
+    }
+}
@@ -7,25 +7,38 @@
  */
 package daa.project.cvrp.local_search;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
 
+import daa.project.cvrp.metrics.SynchronizedAlgorithmRecorder;
 import daa.project.cvrp.metrics.TimeAndIterationsRecorder;
 import daa.project.cvrp.moves.Move;
-import daa.project.cvrp.moves.MoveState;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.utils.DoubleCompare;
 
 /**
  * TabuSearch is a metaheuristic that consists on a local search with tabu
  * tenures over the last best seen solutions.
+ * 
+ * By default every iteration explores the neighborhood of one random move. When
+ * a pool is given, every iteration explores the neighborhoods of all the moves
+ * at the same time, split by routes, and takes the best admissible neighbor of
+ * all of them.
+ * 
+ * The same instance can be used by several threads at the same time, as any
+ * other local search: the calls to the recorder are made one at a time, so the
+ * recorder receives the calls of all the searches interleaved.
  */
 public class TabuSearch extends LocalSearch {
 
-	private static final double PROBABILITY_TO_TAKE = 0.05;
-	/** List of moves to use */
-	private Move[] movesToUse;
+	/** Number of parts per thread every neighborhood is split into, so the load is balanced */
+	private static final int TASKS_PER_THREAD = 4;
+	/** List of neighborhood structures to use */
+	private Neighborhood[] neighborhoods;
 	/** Tabu tenure to use. */
 	private int tabuTenure;
 
@@ -35,6 +48,10 @@ public class TabuSearch extends LocalSearch {
 	final int POOL_SIZE = 150;
 	private boolean verbose;
 	private TimeAndIterationsRecorder algorithmRecorder;
+	/** Recorder the searches report to, which forwards their calls to algorithmRecorder one at a time */
+	private SynchronizedAlgorithmRecorder synchronizedRecorder;
+	/** Pool where the neighborhoods are explored, or null to explore one of them sequentially */
+	private ForkJoinPool pool;
 
 	/**
 	 * @param algorithmRecorder
@@ -43,14 +60,49 @@ public class TabuSearch extends LocalSearch {
 	 */
 	public TabuSearch(Move[] movesToUse, int tabuTenure, int maxIterationsWithoutImprovement, boolean verbose,
 			TimeAndIterationsRecorder algorithmRecorder) {
-		super(null);
-		setMovesToUse(movesToUse);
+		this(Neighborhood.of(movesToUse), tabuTenure, maxIterationsWithoutImprovement, verbose, algorithmRecorder);
+	}
+
+	/**
+	 * @param neighborhoods
+	 *          Neighborhood structures where the next solution is looked for
+	 * @param tabuTenure
+	 * @param maxIterationsWithoutImprovement
+	 * @param verbose
+	 * @param algorithmRecorder
+	 */
+	public TabuSearch(Neighborhood[] neighborhoods, int tabuTenure, int maxIterationsWithoutImprovement,
+			boolean verbose, TimeAndIterationsRecorder algorithmRecorder) {
+		super();
+		setNeighborhoods(neighborhoods);
 		setTabuTenure(tabuTenure);
 		setMaxIterationsWithoutImprovement(maxIterationsWithoutImprovement);
 		setVerbose(verbose);
 		setAlgorithmRecorder(algorithmRecorder);
 	}
 
+	/**
+	 * Creates a tabu search that explores every iteration all the neighborhoods in
+	 * parallel in the given pool
+	 * 
+	 * @param neighborhoods
+	 *          Neighborhood structures where the next solution is looked for
+	 * @param tabuTenure
+	 * @param maxIterationsWithoutImprovement
+	 * @param verbose
+	 * @param algorithmRecorder
+	 * @param pool
+	 *          Pool where the parts of the neighborhoods are explored
+	 */
+	public TabuSearch(Neighborhood[] neighborhoods, int tabuTenure, int maxIterationsWithoutImprovement,
+			boolean verbose, TimeAndIterationsRecorder algorithmRecorder, ForkJoinPool pool) {
+		this(neighborhoods, tabuTenure, maxIterationsWithoutImprovement, verbose, algorithmRecorder);
+		if (pool == null) {
+			throw new IllegalArgumentException("invalid null pool for the parallel tabu search");
+		}
+		this.pool = pool;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -65,56 +117,98 @@ public class TabuSearch extends LocalSearch {
 		}
 
 		// Step 1 : Initialization
-		HashMap<MoveState, Integer> tabuTenureMoveStates = new HashMap<MoveState, Integer>();
-		CVRPSolution bestFeasibleSolution = baseSolution;
-		CVRPSolution nextSolution = baseSolution;
-		CVRPSolution randomNextSolution = baseSolution;
-		MoveState nextMoveState = null;
+		TabuMemory tabuMemory = new TabuMemory(baseSolution.getProblemInfo().getClients().size());
+		// The solutions are reused along the search and the neighbors are applied on them in place
+		CVRPSolution currentSolution = new CVRPSolution(baseSolution);
+		CVRPSolution bestFeasibleSolution = new CVRPSolution(baseSolution);
+		CVRPSolution nextSolution = new CVRPSolution(baseSolution);
+		CVRPSolution randomNextSolution = new CVRPSolution(baseSolution);
+		// The states of the moves are only handled as primitive keys, so no object is created per neighbor
+		long nextMoveStateKey = 0;
+		// Every search explores the neighborhoods with its own moves
+		Move[] movesToUse = Neighborhood.createMoves(getNeighborhoods());
+		// The neighbors are only described while they are explored, and the chosen ones are applied at the end
+		NeighborDescriptor bestNeighbor = new NeighborDescriptor();
+		NeighborDescriptor randomNeighbor = new NeighborDescriptor();
+		Random random = ThreadLocalRandom.current();
 		double bestCost = baseSolution.getTotalDistance();
 
 		boolean solutionImproved = false;
 		boolean lookingForFeasible = false;
 		int iterationsWithoutImprovement = 0;
 		
-		algorithmRecorder.starting();
-		algorithmRecorder.foundBetterSolution(baseSolution);
+		SynchronizedAlgorithmRecorder recorder = this.synchronizedRecorder;
+		synchronized (recorder) {
+			recorder.starting();
+			recorder.foundBetterSolution(baseSolution);
+		}
 		do {
 			solutionImproved = false;
 
-			// Finding local optimum of the pool of possible moves. And not tabu.
-			int randomIndex = (int) (Math.random() * this.getMovesToUse().length);
-			Move randomMove = this.getMovesToUse()[randomIndex];
-			randomMove.setSolution(nextSolution);
-
-			while (randomMove.hasMoreNeighbors()) {
-				randomMove.nextNeighbor();
-				double poolSolutionDistance = randomMove.getCurrentNeighborCost();
-				MoveState randomMoveState = randomMove.getState();
+			if (isParallel()) {
+				TabuNeighbors neighbors = this.pool.invoke(createTabuNeighborTask(currentSolution, tabuMemory,
+						nextSolution.getTotalDistance(), bestCost, lookingForFeasible));
+				if (neighbors.randomNeighbor != null) {
+					randomNextSolution.copyFrom(currentSolution);
+					neighbors.randomNeighbor.applyTo(randomNextSolution);
+				}
+				if (neighbors.bestNeighbor != null) {
+					nextMoveStateKey = neighbors.bestNeighborStateKey;
+					nextSolution.copyFrom(currentSolution);
+					neighbors.bestNeighbor.applyTo(nextSolution);
+					solutionImproved = true;
+				}
+			}
+			else {
+				// Finding local optimum of the pool of possible moves. And not tabu.
+				int randomIndex = random.nextInt(movesToUse.length);
+				Move randomMove = movesToUse[randomIndex];
+				randomMove.setSolution(currentSolution);
+				double costToImprove = nextSolution.getTotalDistance();
+				int numberOfNeighbors = 0;
+
+				while (randomMove.hasMoreNeighbors()) {
+					randomMove.nextNeighbor();
+					double poolSolutionDistance = randomMove.getCurrentNeighborCost();
+
+					// Reservoir sampling: every neighbor seen so far has the same probability to be the random one
+					numberOfNeighbors++;
+					if (random.nextInt(numberOfNeighbors) == 0) {
+						randomMove.describeCurrentNeighbor(randomNeighbor);
+					}
 
-				if (randomNextSolution.equals(nextSolution) || DoubleCompare.lessThan(Math.random(), PROBABILITY_TO_TAKE)) {
-					randomNextSolution = randomMove.getCurrentNeighbor();
+					if (DoubleCompare.lessThan(poolSolutionDistance, costToImprove)
+							&& (!tabuMemory.isTabu(randomMove.getStateKey())
+									|| DoubleCompare.lessThan(poolSolutionDistance, bestCost)) // Aspiration criteria
+							&& (randomMove.isCurrentNeighborFeasible() || !lookingForFeasible)) { // With no feasible option
+						nextMoveStateKey = randomMove.getStateKey();
+						randomMove.describeCurrentNeighbor(bestNeighbor);
+						costToImprove = poolSolutionDistance;
+						solutionImproved = true;
+					}
 				}
 
-				if (DoubleCompare.lessThan(poolSolutionDistance, nextSolution.getTotalDistance())
-						&& (!tabuTenureMoveStates.containsKey(randomMoveState)
-								|| DoubleCompare.lessThan(poolSolutionDistance, bestCost)) // Aspiration criteria
-						&& (randomMove.isCurrentNeighborFeasible() || !lookingForFeasible)) { // With no feasible option
-					nextMoveState = randomMove.getState();
-					nextSolution = randomMove.getCurrentNeighbor();
-					solutionImproved = true;
+				if (numberOfNeighbors > 0) {
+					randomNextSolution.copyFrom(currentSolution);
+					randomNeighbor.applyTo(randomNextSolution);
+				}
+				if (solutionImproved) {
+					nextSolution.copyFrom(currentSolution);
+					bestNeighbor.applyTo(nextSolution);
 				}
 			}
 
 			// Found a better solution
 			if (solutionImproved) { // Found Optimum local
 				if (nextSolution.isFeasible() && DoubleCompare.lessThan(nextSolution.getTotalDistance(), bestCost)) {
-					algorithmRecorder.foundBetterSolution(nextSolution);
-					bestFeasibleSolution = nextSolution;
+					recorder.foundBetterSolution(nextSolution);
+					bestFeasibleSolution.copyFrom(nextSolution);
 					bestCost = nextSolution.getTotalDistance();
 				}
 
 				lookingForFeasible = !nextSolution.isFeasible(); // Change looking method
-				tabuTenureMoveStates.put(nextMoveState, getTabuTenure()); // Tabu the current state
+				currentSolution.copyFrom(nextSolution);
+				tabuMemory.makeTabu(nextMoveStateKey, getTabuTenure()); // Tabu the current state
 				if (isVerbose()) {
 					System.out.println("IMPROVED " + nextSolution.getTotalDistance());
 					System.out.println("FEASIBLE " + nextSolution.isFeasible());
@@ -124,7 +218,8 @@ public class TabuSearch extends LocalSearch {
 				iterationsWithoutImprovement++;
 
 				if (iterationsWithoutImprovement < maxIterationsWithoutImprovement) { // Choose next solution randomly.
-					nextSolution = randomNextSolution;
+					currentSolution.copyFrom(randomNextSolution);
+					nextSolution.copyFrom(randomNextSolution);
 					if (isVerbose()) {
 						System.out.println("NEXT RANDOM: " + randomNextSolution.getTotalDistance());
 						System.out.println("NO IMPROVED " + nextSolution.getTotalDistance());
@@ -134,52 +229,217 @@ public class TabuSearch extends LocalSearch {
 					solutionImproved = true;
 				}
 			}
-			updateTabuTenures(tabuTenureMoveStates);
+			tabuMemory.nextIteration();
 		}
 		while (solutionImproved);
-		algorithmRecorder.finishing();
+		recorder.finishing();
 		
 		return bestFeasibleSolution;
 	}
 
 	/**
-	 * @param tabuTenureMoveStates
+	 * Creates the task that explores all the neighborhoods of the current
+	 * solution, split in parts of a few routes each
+	 * 
+	 * @param currentSolution
+	 *          Solution whose neighbors are explored
+	 * @param tabuMemory
+	 *          Tabu memory of the search
+	 * @param nextSolutionCost
+	 *          Cost the neighbors have to improve
+	 * @param bestCost
+	 *          Cost of the best feasible solution, for the aspiration criteria
+	 * @param lookingForFeasible
+	 *          Whether only feasible neighbors are admissible
+	 * @return The task
 	 */
-	private void updateTabuTenures(HashMap<MoveState, Integer> tabuTenureMoveStates) {
-		// System.out.println("Updating tabu tenures...");
-		ArrayList<MoveState> movesToRemove = new ArrayList<MoveState>();
-
-		// Subtracting 1 of tabu tenure and determine the moves to remove.
-		for (Map.Entry<MoveState, Integer> tabuTenure : tabuTenureMoveStates.entrySet()) {
-			tabuTenure.setValue(tabuTenure.getValue() - 1);
-			if (verbose) {
-				System.out.println("Tabu Tenure of: " + tabuTenure.getKey() + " -> " + tabuTenure.getValue());
+	private TabuNeighborTask createTabuNeighborTask(CVRPSolution currentSolution, TabuMemory tabuMemory,
+			double nextSolutionCost, double bestCost, boolean lookingForFeasible) {
+		int numberOfRoutes = currentSolution.getNumberOfRoutes();
+		int routesPerPart = Math.max(1, numberOfRoutes * getNeighborhoods().length
+				/ (this.pool.getParallelism() * TASKS_PER_THREAD));
+		int partsPerNeighborhood = (numberOfRoutes + routesPerPart - 1) / routesPerPart;
+		int numberOfParts = partsPerNeighborhood * getNeighborhoods().length;
+
+		TabuScan scan = new TabuScan(getNeighborhoods(), currentSolution, tabuMemory, nextSolutionCost, bestCost,
+				lookingForFeasible, numberOfParts);
+		int part = 0;
+		for (int neighborhood = 0; neighborhood < getNeighborhoods().length; ++neighborhood) {
+			for (int firstRoute = 0; firstRoute < numberOfRoutes; firstRoute += routesPerPart) {
+				scan.partNeighborhoods[part] = neighborhood;
+				scan.partFirstRoutes[part] = firstRoute;
+				scan.partLastRoutes[part] = Math.min(firstRoute + routesPerPart, numberOfRoutes);
+				part++;
 			}
-			if (tabuTenure.getValue() == 0) {
-				movesToRemove.add(tabuTenure.getKey());
+		}
+		return new TabuNeighborTask(scan, 0, numberOfParts);
+	}
+
+	/** @return Whether the neighborhoods are explored in parallel */
+	public boolean isParallel() {
+		return this.pool != null;
+	}
+
+	@Override
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Information shared by all the tasks that explore the neighborhoods of a
+	 * solution in an iteration. It is only read while the tasks run.
+	 */
+	private static class TabuScan {
+		final Neighborhood[] neighborhoods;
+		final CVRPSolution solution;
+		final TabuMemory tabuMemory;
+		/** Cost the neighbors have to improve */
+		final double nextSolutionCost;
+		/** Cost of the best feasible solution, for the aspiration criteria */
+		final double bestCost;
+		final boolean lookingForFeasible;
+		/** Neighborhood, first route (included) and last route (excluded) of every part */
+		final int[] partNeighborhoods;
+		final int[] partFirstRoutes;
+		final int[] partLastRoutes;
+
+		TabuScan(Neighborhood[] neighborhoods, CVRPSolution solution, TabuMemory tabuMemory, double nextSolutionCost,
+				double bestCost, boolean lookingForFeasible, int numberOfParts) {
+			this.neighborhoods = neighborhoods;
+			this.solution = solution;
+			this.tabuMemory = tabuMemory;
+			this.nextSolutionCost = nextSolutionCost;
+			this.bestCost = bestCost;
+			this.lookingForFeasible = lookingForFeasible;
+			this.partNeighborhoods = new int[numberOfParts];
+			this.partFirstRoutes = new int[numberOfParts];
+			this.partLastRoutes = new int[numberOfParts];
+		}
+	}
+
+	/** Neighbors found by the exploration of some parts of the neighborhoods */
+	private static class TabuNeighbors {
+		/** Best admissible neighbor, or null if no neighbor is admissible */
+		NeighborDescriptor bestNeighbor;
+		/** State key of the best admissible neighbor */
+		long bestNeighborStateKey;
+		/** Random neighbor to continue from if there is no admissible one, or null if there are no neighbors */
+		NeighborDescriptor randomNeighbor;
+		/** Number of neighbors explored, the random neighbor is chosen uniformly among them */
+		int numberOfNeighbors;
+	}
+
+	/**
+	 * Task that explores a range of parts of the neighborhoods, splitting the
+	 * range in halves until it is a single part
+	 */
+	private static class TabuNeighborTask extends RecursiveTask<TabuNeighbors> {
+		private static final long serialVersionUID = 1L;
+
+		private final TabuScan scan;
+		/** First part of the range (included) */
+		private final int firstPart;
+		/** Last part of the range (excluded) */
+		private final int lastPart;
+
+		TabuNeighborTask(TabuScan scan, int firstPart, int lastPart) {
+			this.scan = scan;
+			this.firstPart = firstPart;
+			this.lastPart = lastPart;
+		}
+
+		@Override
+		protected TabuNeighbors compute() {
+			if (this.lastPart - this.firstPart <= 1) {
+				return explorePart(this.firstPart);
 			}
+			int middlePart = (this.firstPart + this.lastPart) / 2;
+			TabuNeighborTask firstHalf = new TabuNeighborTask(this.scan, this.firstPart, middlePart);
+			TabuNeighborTask secondHalf = new TabuNeighborTask(this.scan, middlePart, this.lastPart);
+			firstHalf.fork();
+			TabuNeighbors secondNeighbors = secondHalf.compute();
+			TabuNeighbors firstNeighbors = firstHalf.join();
+
+			// On a tie the first neighbor is kept, as the sequential exploration does
+			if (firstNeighbors.bestNeighbor == null || (secondNeighbors.bestNeighbor != null
+					&& DoubleCompare.lessThan(secondNeighbors.bestNeighbor.getCost(), firstNeighbors.bestNeighbor.getCost()))) {
+				firstNeighbors.bestNeighbor = secondNeighbors.bestNeighbor;
+				firstNeighbors.bestNeighborStateKey = secondNeighbors.bestNeighborStateKey;
+			}
+			// Each random neighbor is taken with a probability proportional to the neighbors it was chosen among
+			int numberOfNeighbors = firstNeighbors.numberOfNeighbors + secondNeighbors.numberOfNeighbors;
+			if (numberOfNeighbors > 0
+					&& ThreadLocalRandom.current().nextInt(numberOfNeighbors) < secondNeighbors.numberOfNeighbors) {
+				firstNeighbors.randomNeighbor = secondNeighbors.randomNeighbor;
+			}
+			firstNeighbors.numberOfNeighbors = numberOfNeighbors;
+			return firstNeighbors;
 		}
 
-		// Releasing movements with 0 of tabu tenure
-		for (MoveState moveState : movesToRemove) {
-			tabuTenureMoveStates.remove(moveState);
+		/**
+		 * Explores the neighbors of a part with the same criteria as the sequential
+		 * search: an admissible neighbor improves the cost to improve and it is not
+		 * tabu (unless it improves the best cost) nor unfeasible when looking for a
+		 * feasible solution.
+		 * 
+		 * @param part
+		 *          Part to explore
+		 * @return The neighbors found
+		 */
+		private TabuNeighbors explorePart(int part) {
+			TabuNeighbors neighbors = new TabuNeighbors();
+			if (part >= this.lastPart) {
+				return neighbors;
+			}
+			Random random = ThreadLocalRandom.current();
+			Move move = this.scan.neighborhoods[this.scan.partNeighborhoods[part]].createMove();
+			move.setRouteRange(this.scan.partFirstRoutes[part], this.scan.partLastRoutes[part]);
+			move.setSolution(this.scan.solution);
+			double costToImprove = this.scan.nextSolutionCost;
+
+			while (move.hasMoreNeighbors()) {
+				move.nextNeighbor();
+				double neighborCost = move.getCurrentNeighborCost();
+
+				// Reservoir sampling: every neighbor seen so far has the same probability to be the random one
+				neighbors.numberOfNeighbors++;
+				if (random.nextInt(neighbors.numberOfNeighbors) == 0) {
+					if (neighbors.randomNeighbor == null) {
+						neighbors.randomNeighbor = new NeighborDescriptor();
+					}
+					move.describeCurrentNeighbor(neighbors.randomNeighbor);
+				}
+
+				if (DoubleCompare.lessThan(neighborCost, costToImprove)
+						&& (DoubleCompare.lessThan(neighborCost, this.scan.bestCost) // Aspiration criteria
+								|| !this.scan.tabuMemory.isTabu(move.getStateKey()))
+						&& (move.isCurrentNeighborFeasible() || !this.scan.lookingForFeasible)) {
+					if (neighbors.bestNeighbor == null) {
+						neighbors.bestNeighbor = new NeighborDescriptor();
+					}
+					move.describeCurrentNeighbor(neighbors.bestNeighbor);
+					neighbors.bestNeighborStateKey = move.getStateKey();
+					costToImprove = neighborCost;
+				}
+			}
+			return neighbors;
 		}
 	}
 
-	/** @return The moves to use */
-	public Move[] getMovesToUse() {
-		return this.movesToUse;
+	/** @return The neighborhood structures to use */
+	public Neighborhood[] getNeighborhoods() {
+		return this.neighborhoods;
 	}
 
 	/**
-	 * @param moves
-	 *          The moves to use
+	 * @param neighborhoods
+	 *          The neighborhood structures to use
 	 */
-	private void setMovesToUse(Move[] moves) {
-		if (moves.length <= 0) {
-			throw new IllegalArgumentException("invalid number of moves \"" + moves.length + "\"");
+	private void setNeighborhoods(Neighborhood[] neighborhoods) {
+		if (neighborhoods.length <= 0) {
+			throw new IllegalArgumentException("invalid number of moves \"" + neighborhoods.length + "\"");
 		}
-		this.movesToUse = moves;
+		this.neighborhoods = neighborhoods;
 	}
 
 	/**
@@ -236,6 +496,7 @@ public class TabuSearch extends LocalSearch {
 
 	public void setAlgorithmRecorder(TimeAndIterationsRecorder algorithmRecorder) {
 		this.algorithmRecorder = algorithmRecorder;
+		this.synchronizedRecorder = new SynchronizedAlgorithmRecorder(algorithmRecorder);
 	}
 
 }
@@ -0,0 +1,132 @@
+package daa.project.cvrp.local_search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.algorithms.ConstructiveDeterministic;
+import daa.project.cvrp.metrics.TimeAndIterationsRecorder;
+import daa.project.cvrp.moves.InterrouteSwap;
+import daa.project.cvrp.moves.Neighborhood;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.TwoOpt;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+import daa.project.cvrp.utils.DoubleCompare;
+
+public class TabuSearchTest {
+    
+    CVRPSpecification specification;
+    CVRPSolution      initialSolution;
+    Neighborhood[]    neighborhoods;
+    
+    @Before
+    public void initialize() throws Exception {
+        this.specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+        this.initialSolution = ConstructiveDeterministic.constructDeterministicSolution(this.specification);
+        this.neighborhoods = Neighborhood.of(new Relocation(), new InterrouteSwap(), new TwoOpt());
+    }
+    
+    @Test(timeout = 100000)
+    public void sequentialSearchShouldNotReturnAWorseSolution() {
+        TabuSearch uut = new TabuSearch(this.neighborhoods, 10, 20, false, new TimeAndIterationsRecorder());
+        CVRPSolution solution = uut.findLocalOptimum(this.initialSolution);
+        
+        assertTrue(solution.isFeasible());
+        assertTrue(!DoubleCompare.lessThan(this.initialSolution.getTotalDistance(), solution.getTotalDistance()));
+    }
+    
+    @Test(timeout = 100000)
+    public void parallelSearchShouldNotReturnAWorseSolution() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TabuSearch uut = new TabuSearch(this.neighborhoods, 10, 20, false, new TimeAndIterationsRecorder(), pool);
+        CVRPSolution solution = uut.findLocalOptimum(this.initialSolution);
+        pool.shutdown();
+        
+        assertTrue(solution.isFeasible());
+        assertTrue(!DoubleCompare.lessThan(this.initialSolution.getTotalDistance(), solution.getTotalDistance()));
+    }
+    
+    @Test(timeout = 100000)
+    public void sharedSearchShouldCallTheRecorderOneAtATime() throws Exception {
+        CheckingRecorder recorder = new CheckingRecorder();
+        TabuSearch sharedSearch = new TabuSearch(this.neighborhoods, 10, 20, false, recorder);
+        
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new SearchThread(sharedSearch, this.initialSolution);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(recorder.overlapped);
+        assertEquals(threads.length, recorder.numberOfStarts);
+        assertEquals(threads.length, recorder.numberOfFinishes);
+    }
+    
+    /** Thread that finds a local optimum with a local search shared with other threads */
+    private static class SearchThread extends Thread {
+        private final LocalSearch localSearch;
+        private final CVRPSolution baseSolution;
+        
+        SearchThread(LocalSearch localSearch, CVRPSolution baseSolution) {
+            this.localSearch = localSearch;
+            this.baseSolution = baseSolution;
+        }
+        
+        @Override
+        public void run() {
+            this.localSearch.findLocalOptimum(this.baseSolution);
+        }
+    }
+    
+    /** Recorder that counts its calls and detects whether two of them run at the same time */
+    private static class CheckingRecorder extends TimeAndIterationsRecorder {
+        private boolean inCall;
+        private volatile boolean overlapped;
+        private int numberOfStarts;
+        private int numberOfFinishes;
+        
+        @Override
+        public void starting() {
+            enter();
+            this.numberOfStarts++;
+            super.starting();
+            exit();
+        }
+        
+        @Override
+        public void finishing() {
+            enter();
+            this.numberOfFinishes++;
+            super.finishing();
+            exit();
+        }
+        
+        @Override
+        public void foundBetterSolution(CVRPSolution betterSolution) {
+            enter();
+            super.foundBetterSolution(betterSolution);
+            exit();
+        }
+        
+        private void enter() {
+            if (this.inCall) {
+                this.overlapped = true;
+            }
+            this.inCall = true;
+            Thread.yield();
+        }
+        
+        private void exit() {
+            this.inCall = false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package daa.project.cvrp.local_search;
 
 import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.Neighborhood;
 import daa.project.cvrp.problem.CVRPSolution;
 import daa.project.cvrp.utils.DoubleCompare;
 
@@ -18,8 +19,10 @@ import daa.project.cvrp.utils.DoubleCompare;
  */
 public class VariableNeighborhoodDescent extends LocalSearch {
     
-    /** List of moves to use */
-    private Move[] movesToUse;
+    /** List of neighborhood structures to use */
+    private Neighborhood[] neighborhoods;
+    /** Best neighbor local search of each neighborhood structure, in the same order */
+    private BestNeighborLocalSearch[] bestNeighborFinders;
     
     /**
      * Creates an instance ofa VND local search
@@ -29,8 +32,18 @@ public class VariableNeighborhoodDescent extends LocalSearch {
      * those structures
      */
     public VariableNeighborhoodDescent(Move[] movesToUse) {
-        super(null);
-        setMovesToUse(movesToUse);
+        this(Neighborhood.of(movesToUse));
+    }
+    
+    /**
+     * Creates an instance ofa VND local search
+     * 
+     * @param neighborhoods List of neighborhood structures. The algorithm has to
+     * check that the resulting solution is an optimum in all those structures
+     */
+    public VariableNeighborhoodDescent(Neighborhood[] neighborhoods) {
+        super();
+        setNeighborhoods(neighborhoods);
     }
     
     @Override
@@ -39,14 +52,11 @@ public class VariableNeighborhoodDescent extends LocalSearch {
             throw new IllegalAccessError("invalid initial solution, it is null or unfeasible");
         }
         int currentMove = 0;
-        Move[] movesToUse = getMovesToUse();
-        BestNeighborLocalSearch bestNeighborFinder;
         CVRPSolution bestSolutionFoundSoFar = baseSolution;
         
-        while (currentMove < movesToUse.length) {
+        while (currentMove < this.bestNeighborFinders.length) {
             // Find the local optimum of the current solution with the current neighbor structure
-            bestNeighborFinder = new BestNeighborLocalSearch(movesToUse[currentMove]);
-            CVRPSolution localOptimumSolution = bestNeighborFinder.findLocalOptimum(baseSolution);
+            CVRPSolution localOptimumSolution = this.bestNeighborFinders[currentMove].findLocalOptimum(baseSolution);
             
             // If the solution found is better than the best found so far -> update it
             // and reset the neighbor structure to use to the first one
@@ -61,16 +71,20 @@ public class VariableNeighborhoodDescent extends LocalSearch {
         return bestSolutionFoundSoFar;
     }
     
-    /** @return The moves to use */
-    public Move[] getMovesToUse() {
-        return this.movesToUse;
+    /** @return The neighborhood structures to use */
+    public Neighborhood[] getNeighborhoods() {
+        return this.neighborhoods;
     }
     
-    /** @param moves The moves to use*/
-    private void setMovesToUse(Move[] moves) {
-        if (moves.length <= 0) {
-            throw new IllegalArgumentException("invalid number of moves \"" + moves.length + "\"");
+    /** @param neighborhoods The neighborhood structures to use */
+    private void setNeighborhoods(Neighborhood[] neighborhoods) {
+        if (neighborhoods.length <= 0) {
+            throw new IllegalArgumentException("invalid number of moves \"" + neighborhoods.length + "\"");
+        }
+        this.neighborhoods = neighborhoods;
+        this.bestNeighborFinders = new BestNeighborLocalSearch[neighborhoods.length];
+        for (int i = 0; i < neighborhoods.length; ++i) {
+            this.bestNeighborFinders[i] = new BestNeighborLocalSearch(neighborhoods[i]);
         }
-        this.movesToUse = moves;
     }
 }
@@ -0,0 +1,49 @@
+package daa.project.cvrp.metrics;
+
+import daa.project.cvrp.problem.CVRPSolution;
+
+/**
+ * Recorder that forwards every call to another recorder one at a time, so an
+ * algorithm running on several threads can report to a recorder that is not
+ * thread-safe. The calls are synchronized on this instance, which can also be
+ * used to group several calls into one atomic block.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file SynchronizedAlgorithmRecorder.java
+ *
+ */
+public class SynchronizedAlgorithmRecorder implements AlgorithmRecorder {
+    /** Recorder the calls are forwarded to */
+    private final AlgorithmRecorder recorder;
+
+    /** @param recorder Recorder the calls are forwarded to */
+    public SynchronizedAlgorithmRecorder(AlgorithmRecorder recorder) {
+        if (recorder == null) {
+            throw new IllegalArgumentException("invalid null recorder");
+        }
+        this.recorder = recorder;
+    }
+
+    @Override
+    public synchronized void starting() {
+        this.recorder.starting();
+    }
+
+    @Override
+    public synchronized void finishing() {
+        this.recorder.finishing();
+    }
+
+    @Override
+    public synchronized void aboutToDoNextIteration() {
+        this.recorder.aboutToDoNextIteration();
+    }
+
+    @Override
+    public synchronized void foundBetterSolution(CVRPSolution betterSolution) {
+        this.recorder.foundBetterSolution(betterSolution);
+    }
+
+}
@@ -0,0 +1,346 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * CROSS-exchange move: two segments of consecutive clients of different routes,
+ * each one of up to a maximum number of clients, are exchanged keeping the order
+ * of their clients. It generalizes the InterrouteSwap move, which exchanges
+ * segments of a single client.
+ *
+ * The segments have a bounded length, so the neighborhood has a quadratic
+ * number of neighbors. Only the four edges that join the segments with their
+ * routes change, so the cost of every neighbor is computed in constant time,
+ * and the solution keeps the load of every prefix of its routes, so the
+ * feasibility is also checked in constant time.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file CrossExchange.java
+ *
+ */
+public class CrossExchange extends Move {
+	/** Default maximum number of clients of the segments exchanged */
+	public static final int DEFAULT_MAX_SEGMENT_LENGTH = 3;
+	/** Value of the routes when there is no neighbor */
+	private static final int NO_ROUTE = -1;
+
+	/** Maximum number of clients of the segments exchanged */
+	private final int maxSegmentLength;
+	/** Route of the first segment of the current neighbor */
+	private int firstRoute = NO_ROUTE;
+	/** Position of the first client of the first segment of the current neighbor */
+	private int firstPosition;
+	/** Number of clients of the first segment of the current neighbor */
+	private int firstLength;
+	/** Route of the second segment of the current neighbor */
+	private int secondRoute = NO_ROUTE;
+	/** Position of the first client of the second segment of the current neighbor */
+	private int secondPosition;
+	/** Number of clients of the second segment of the current neighbor */
+	private int secondLength;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/** Route of the first segment of the next neighbor, or NO_ROUTE if there are no more neighbors */
+	private int nextFirstRoute = NO_ROUTE;
+	/** Position of the first client of the first segment of the next neighbor */
+	private int nextFirstPosition;
+	/** Number of clients of the first segment of the next neighbor */
+	private int nextFirstLength;
+	/** Route of the second segment of the next neighbor */
+	private int nextSecondRoute;
+	/** Position of the first client of the second segment of the next neighbor */
+	private int nextSecondPosition;
+	/** Number of clients of the second segment of the next neighbor */
+	private int nextSecondLength;
+
+	/** Creates a CROSS-exchange move for segments of up to DEFAULT_MAX_SEGMENT_LENGTH clients */
+	public CrossExchange() {
+		this(DEFAULT_MAX_SEGMENT_LENGTH);
+	}
+
+	/** @param maxSegmentLength Maximum number of clients of the segments exchanged */
+	public CrossExchange(int maxSegmentLength) {
+		if (maxSegmentLength < 1) {
+			throw new IllegalArgumentException("invalid maximum segment length " + maxSegmentLength);
+		}
+		this.maxSegmentLength = maxSegmentLength;
+	}
+
+	@Override
+	public void setSolution(CVRPSolution solution) {
+		super.setSolution(solution);
+		this.firstRoute = NO_ROUTE;
+		this.secondRoute = NO_ROUTE;
+
+		this.nextFirstPosition = 0;
+		this.nextFirstLength = 1;
+		this.nextSecondPosition = 0;
+		this.nextSecondLength = 1;
+		this.nextFirstRoute = getNextRouteWithClients(getRouteRangeStart() - 1, getRouteRangeEnd());
+		this.nextSecondRoute = this.nextFirstRoute;
+		if (this.nextFirstRoute != NO_ROUTE) {
+			advanceNextRoutes();
+		}
+	}
+
+	@Override
+	public void nextNeighbor() {
+		if (!hasMoreNeighbors()) {
+			return;
+		}
+		this.firstRoute = this.nextFirstRoute;
+		this.firstPosition = this.nextFirstPosition;
+		this.firstLength = this.nextFirstLength;
+		this.secondRoute = this.nextSecondRoute;
+		this.secondPosition = this.nextSecondPosition;
+		this.secondLength = this.nextSecondLength;
+		this.lastMoveCost = calculateExchangeCost(getSolution(), this.firstRoute, this.firstPosition, this.firstLength,
+				this.secondRoute, this.secondPosition, this.secondLength);
+		advanceNextNeighbor();
+	}
+
+	@Override
+	public boolean hasMoreNeighbors() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.nextFirstRoute != NO_ROUTE;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return hasCurrentNeighbor() ? this.lastMoveCost : 0.0;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		return getSolution().getTotalDistance() + getLastMoveCost();
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution().isFeasible();
+		}
+		return isExchangeFeasible(getSolution(), this.firstRoute, this.firstPosition, this.firstLength,
+				this.secondRoute, this.secondPosition, this.secondLength);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.exchangeSegments(this.firstRoute, this.firstPosition, this.firstLength, this.secondRoute,
+					this.secondPosition, this.secondLength);
+		}
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		// Each segment is now where the other one was, so they are exchanged back
+		if (hasCurrentNeighbor()) {
+			solution.exchangeSegments(this.firstRoute, this.firstPosition, this.secondLength, this.secondRoute,
+					this.secondPosition, this.firstLength);
+		}
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, this.firstRoute, this.firstPosition, this.secondRoute, this.secondPosition,
+					this.firstLength, this.secondLength, getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION,
+					NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION, getSolution().getTotalDistance());
+		}
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.exchangeSegments(descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+					descriptor.getFirstParameter(), descriptor.getSecondRoute(), descriptor.getSecondPosition(),
+					descriptor.getSecondParameter());
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The state is made of the first clients of both segments, as
+	 * in an interroute swap.
+	 *
+	 * @see daa.project.cvrp.moves.Move#getState()
+	 */
+	@Override
+	public MoveState getState() {
+		return new MoveState(getSolution().getClient(this.firstRoute, this.firstPosition),
+				getSolution().getClient(this.secondRoute, this.secondPosition),
+				getSolution().getClientId(this.firstRoute, this.firstPosition),
+				getSolution().getClientId(this.secondRoute, this.secondPosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		return MoveState.packKey(getSolution().getClientId(this.firstRoute, this.firstPosition),
+				getSolution().getClientId(this.secondRoute, this.secondPosition));
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new CrossExchange(getMaxSegmentLength());
+	}
+
+	/** @return The maximum number of clients of the segments exchanged */
+	public int getMaxSegmentLength() {
+		return this.maxSegmentLength;
+	}
+
+	/**
+	 * Computes the difference in the objective function of exchanging two
+	 * segments of different routes: the edges that join each segment with its
+	 * route are replaced by the edges that join it with the other route.
+	 *
+	 * @param solution Base solution
+	 * @param firstRoute Route of the first segment
+	 * @param firstPosition Position of the first client of the first segment
+	 * @param firstLength Number of clients of the first segment
+	 * @param secondRoute Route of the second segment
+	 * @param secondPosition Position of the first client of the second segment
+	 * @param secondLength Number of clients of the second segment
+	 * @return Difference in the objective function
+	 */
+	static double calculateExchangeCost(CVRPSolution solution, int firstRoute, int firstPosition, int firstLength,
+			int secondRoute, int secondPosition, int secondLength) {
+		CVRPSpecification problemInfo = solution.getProblemInfo();
+		int depot = problemInfo.getDepotID();
+		int firstLastPosition = firstPosition + firstLength - 1;
+		int secondLastPosition = secondPosition + secondLength - 1;
+
+		int firstPrev = (firstPosition == 0) ? depot : solution.getClientId(firstRoute, firstPosition - 1);
+		int firstClient = solution.getClientId(firstRoute, firstPosition);
+		int firstLastClient = solution.getClientId(firstRoute, firstLastPosition);
+		int firstNext = (firstLastPosition == solution.getNumberOfClientsInRoute(firstRoute) - 1) ? depot
+				: solution.getClientId(firstRoute, firstLastPosition + 1);
+		int secondPrev = (secondPosition == 0) ? depot : solution.getClientId(secondRoute, secondPosition - 1);
+		int secondClient = solution.getClientId(secondRoute, secondPosition);
+		int secondLastClient = solution.getClientId(secondRoute, secondLastPosition);
+		int secondNext = (secondLastPosition == solution.getNumberOfClientsInRoute(secondRoute) - 1) ? depot
+				: solution.getClientId(secondRoute, secondLastPosition + 1);
+
+		return problemInfo.distance(firstPrev, secondClient) + problemInfo.distance(secondLastClient, firstNext)
+				+ problemInfo.distance(secondPrev, firstClient) + problemInfo.distance(firstLastClient, secondNext)
+				- problemInfo.distance(firstPrev, firstClient) - problemInfo.distance(firstLastClient, firstNext)
+				- problemInfo.distance(secondPrev, secondClient) - problemInfo.distance(secondLastClient, secondNext);
+	}
+
+	/**
+	 * Checks whether exchanging two segments of different routes gives a feasible
+	 * solution
+	 *
+	 * @param solution Base solution
+	 * @param firstRoute Route of the first segment
+	 * @param firstPosition Position of the first client of the first segment
+	 * @param firstLength Number of clients of the first segment
+	 * @param secondRoute Route of the second segment
+	 * @param secondPosition Position of the first client of the second segment
+	 * @param secondLength Number of clients of the second segment
+	 * @return Whether the solution after the exchange is feasible
+	 */
+	static boolean isExchangeFeasible(CVRPSolution solution, int firstRoute, int firstPosition, int firstLength,
+			int secondRoute, int secondPosition, int secondLength) {
+		int loadDifference = solution.getSegmentLoad(secondRoute, secondPosition, secondLength)
+				- solution.getSegmentLoad(firstRoute, firstPosition, firstLength);
+		return solution.getVehicleRemainingCapacity(firstRoute) - loadDifference >= 0
+				&& solution.getVehicleRemainingCapacity(secondRoute) + loadDifference >= 0
+				&& solution.areOtherRoutesFeasible(firstRoute, secondRoute);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.firstRoute != NO_ROUTE;
+	}
+
+	/**
+	 * Returns the first route after the specified one, and before the last route
+	 * specified, that has clients
+	 *
+	 * @param route Route to start after
+	 * @param lastRoute Last route (excluded)
+	 * @return Next route with clients or NO_ROUTE if there is none
+	 */
+	private int getNextRouteWithClients(int route, int lastRoute) {
+		for (int i = Math.max(route + 1, 0); i < lastRoute; ++i) {
+			if (getSolution().getNumberOfClientsInRoute(i) > 0) {
+				return i;
+			}
+		}
+		return NO_ROUTE;
+	}
+
+	/**
+	 * Advances the next neighbor to the following one, or to NO_ROUTE if there
+	 * are no more neighbors. The neighbors are generated by first route (only the
+	 * ones of the route range), then by second route (always after the first one),
+	 * then by first segment and last by second segment.
+	 */
+	private void advanceNextNeighbor() {
+		CVRPSolution solution = getSolution();
+		int clientsInSecondRoute = solution.getNumberOfClientsInRoute(this.nextSecondRoute);
+		if (this.nextSecondLength < getMaxSegmentLength()
+				&& this.nextSecondPosition + this.nextSecondLength < clientsInSecondRoute) {
+			this.nextSecondLength++;
+			return;
+		}
+		this.nextSecondLength = 1;
+		if (this.nextSecondPosition + 1 < clientsInSecondRoute) {
+			this.nextSecondPosition++;
+			return;
+		}
+		this.nextSecondPosition = 0;
+		int clientsInFirstRoute = solution.getNumberOfClientsInRoute(this.nextFirstRoute);
+		if (this.nextFirstLength < getMaxSegmentLength()
+				&& this.nextFirstPosition + this.nextFirstLength < clientsInFirstRoute) {
+			this.nextFirstLength++;
+			return;
+		}
+		this.nextFirstLength = 1;
+		if (this.nextFirstPosition + 1 < clientsInFirstRoute) {
+			this.nextFirstPosition++;
+			return;
+		}
+		this.nextFirstPosition = 0;
+		advanceNextRoutes();
+	}
+
+	/** Advances the routes of the next neighbor to the following pair of routes with clients */
+	private void advanceNextRoutes() {
+		this.nextSecondRoute = getNextRouteWithClients(this.nextSecondRoute, getSolution().getNumberOfRoutes());
+		while (this.nextSecondRoute == NO_ROUTE) {
+			this.nextFirstRoute = getNextRouteWithClients(this.nextFirstRoute, getRouteRangeEnd());
+			if (this.nextFirstRoute == NO_ROUTE) {
+				return;
+			}
+			this.nextSecondRoute = getNextRouteWithClients(this.nextFirstRoute, getSolution().getNumberOfRoutes());
+		}
+	}
+}
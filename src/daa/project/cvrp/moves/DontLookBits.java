@@ -0,0 +1,194 @@
+package daa.project.cvrp.moves;
+
+import java.util.Arrays;
+
+import daa.project.cvrp.problem.CVRPSolution;
+
+/**
+ * Don't-look bits of the clients of a local search. A client is active while
+ * the neighbors generated from it may improve the solution. Once its whole
+ * neighborhood has been explored without finding an improving neighbor it
+ * becomes inactive, and the moves that explore the neighborhood client by
+ * client skip it. It becomes active again when one of the edges it is joined to
+ * changes, as its neighbors may improve the solution from then on.
+ *
+ * The previous and next node of every client are recorded, so the clients
+ * whose edges changed are found by comparing the solution with them after
+ * applying a neighbor, whatever the move that generated it. Only the routes
+ * changed by the neighbor have to be compared.
+ *
+ * During the exploration of a neighborhood the bits are only read and each
+ * client is marked by the move whose route range holds it, so the same bits can
+ * be shared by the moves exploring disjoint route ranges in parallel.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file DontLookBits.java
+ *
+ */
+public class DontLookBits {
+	/** In the i-th position is stored whether the client with ID i is active */
+	private final boolean[] active;
+	/** In the i-th position is stored whether an improving neighbor was generated from the client with ID i */
+	private final boolean[] improving;
+	/** In the i-th position is stored the node visited before the client with ID i */
+	private final int[] previousNode;
+	/** In the i-th position is stored the node visited after the client with ID i */
+	private final int[] nextNode;
+
+	/**
+	 * Creates the bits of the clients of a solution, all of them active
+	 *
+	 * @param solution Solution whose edges are recorded
+	 */
+	public DontLookBits(CVRPSolution solution) {
+		int numberOfNodes = solution.getProblemInfo().getClients().size();
+		this.active = new boolean[numberOfNodes];
+		this.improving = new boolean[numberOfNodes];
+		this.previousNode = new int[numberOfNodes];
+		this.nextNode = new int[numberOfNodes];
+		reset(solution);
+	}
+
+	/**
+	 * Activates every client and records the edges of the solution
+	 *
+	 * @param solution Solution whose edges are recorded
+	 */
+	public void reset(CVRPSolution solution) {
+		Arrays.fill(this.active, true);
+		Arrays.fill(this.improving, false);
+		recordEdges(solution, false);
+	}
+
+	/**
+	 * @param clientId ID of the client
+	 * @return Whether the neighbors generated from the client have to be explored
+	 */
+	public boolean isActive(int clientId) {
+		return this.active[clientId];
+	}
+
+	/** @param clientId ID of the client whose neighbors do not have to be explored any more */
+	public void deactivate(int clientId) {
+		this.active[clientId] = false;
+	}
+
+	/** @param clientId ID of the client whose neighbors have to be explored again */
+	public void activate(int clientId) {
+		this.active[clientId] = true;
+	}
+
+	/**
+	 * Marks that an improving neighbor was generated from the client, so it is
+	 * kept active at the end of the pass
+	 *
+	 * @param clientId ID of the client, ignored if it is MoveState.NO_CLIENT
+	 */
+	public void markImproving(int clientId) {
+		if (clientId != MoveState.NO_CLIENT) {
+			this.improving[clientId] = true;
+		}
+	}
+
+	/**
+	 * Ends a pass in which the neighborhood of every active client was explored:
+	 * the clients that did not generate any improving neighbor are deactivated
+	 */
+	public void endPass() {
+		for (int clientId = 0; clientId < this.active.length; ++clientId) {
+			if (!this.improving[clientId]) {
+				this.active[clientId] = false;
+			}
+			this.improving[clientId] = false;
+		}
+	}
+
+	/**
+	 * Activates the clients of the solution joined to an edge that is not in the
+	 * recorded edges, which are the endpoints of the edges added and removed
+	 * since the last call, and records the edges of the solution
+	 *
+	 * @param solution Solution with the same clients as the recorded one
+	 * @return Number of clients activated
+	 */
+	public int activateChangedClients(CVRPSolution solution) {
+		return recordEdges(solution, true);
+	}
+
+	/**
+	 * Activates the clients joined to an edge that is not in the recorded edges,
+	 * like {@link #activateChangedClients(CVRPSolution)}, when the only routes
+	 * changed since the last call are the specified ones, so only the clients
+	 * of those routes are compared with the recorded edges
+	 *
+	 * @param solution Solution with the same clients as the recorded one
+	 * @param firstRoute First route changed
+	 * @param secondRoute Second route changed, which may be the first one
+	 * @return Number of clients activated
+	 */
+	public int activateChangedClients(CVRPSolution solution, int firstRoute, int secondRoute) {
+		int numberOfActivatedClients = recordRouteEdges(solution, firstRoute, true);
+		if (secondRoute != firstRoute) {
+			numberOfActivatedClients += recordRouteEdges(solution, secondRoute, true);
+		}
+		return numberOfActivatedClients;
+	}
+
+	/** @return Number of active clients */
+	public int getNumberOfActiveClients() {
+		int numberOfActiveClients = 0;
+		for (boolean isActive : this.active) {
+			if (isActive) {
+				numberOfActiveClients++;
+			}
+		}
+		return numberOfActiveClients;
+	}
+
+	/**
+	 * Records the previous and next node of every client of the solution
+	 *
+	 * @param solution Solution whose edges are recorded
+	 * @param activateChanged Whether the clients whose edges changed are activated
+	 * @return Number of clients activated
+	 */
+	private int recordEdges(CVRPSolution solution, boolean activateChanged) {
+		int numberOfActivatedClients = 0;
+		for (int route = 0; route < solution.getNumberOfRoutes(); ++route) {
+			numberOfActivatedClients += recordRouteEdges(solution, route, activateChanged);
+		}
+		return numberOfActivatedClients;
+	}
+
+	/**
+	 * Records the previous and next node of every client of a route
+	 *
+	 * @param solution Solution whose edges are recorded
+	 * @param route Route whose edges are recorded
+	 * @param activateChanged Whether the clients whose edges changed are activated
+	 * @return Number of clients activated
+	 */
+	private int recordRouteEdges(CVRPSolution solution, int route, boolean activateChanged) {
+		final int depotId = solution.getProblemInfo().getDepotID();
+		int numberOfActivatedClients = 0;
+		int clientsInRoute = solution.getNumberOfClientsInRoute(route);
+		int previousClient = depotId;
+		for (int position = 0; position < clientsInRoute; ++position) {
+			int clientId = solution.getClientId(route, position);
+			int nextClient = (position + 1 < clientsInRoute) ? solution.getClientId(route, position + 1) : depotId;
+			// The edges are not directed, so a client inside a reversed segment keeps them
+			boolean sameEdges = (this.previousNode[clientId] == previousClient && this.nextNode[clientId] == nextClient)
+					|| (this.previousNode[clientId] == nextClient && this.nextNode[clientId] == previousClient);
+			this.previousNode[clientId] = previousClient;
+			this.nextNode[clientId] = nextClient;
+			if (!sameEdges && activateChanged && !this.active[clientId]) {
+				this.active[clientId] = true;
+				numberOfActivatedClients++;
+			}
+			previousClient = clientId;
+		}
+		return numberOfActivatedClients;
+	}
+}
@@ -0,0 +1,215 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+
+/**
+ * Granular version of the {@link CrossExchange} move. The segment that starts
+ * at a client is only exchanged with the segments that start just after one of
+ * its nearest clients in another route, so the client ends up next to its
+ * candidate and the exchange always creates a short edge. The variants of the
+ * move are the combinations of lengths of both segments.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file GranularCrossExchange.java
+ *
+ */
+public class GranularCrossExchange extends GranularMove {
+	/** Maximum number of clients of the segments exchanged */
+	private final int maxSegmentLength;
+	/** Route of the segment of the client */
+	private int firstRoute = NO_POSITION;
+	/** Position of the client, first of its segment */
+	private int firstPosition = NO_POSITION;
+	/** Number of clients of the segment of the client */
+	private int firstLength;
+	/** Route of the segment that starts after the candidate */
+	private int secondRoute = NO_POSITION;
+	/** Position of the first client of the segment that starts after the candidate */
+	private int secondPosition = NO_POSITION;
+	/** Number of clients of the segment that starts after the candidate */
+	private int secondLength;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/**
+	 * Creates the move with the default number of candidates and segments of up
+	 * to CrossExchange.DEFAULT_MAX_SEGMENT_LENGTH clients
+	 */
+	public GranularCrossExchange() {
+		this(DEFAULT_NUMBER_OF_CANDIDATES, CrossExchange.DEFAULT_MAX_SEGMENT_LENGTH);
+	}
+
+	/**
+	 * @param numberOfCandidates Number of nearest clients of each client that are considered
+	 * @param maxSegmentLength Maximum number of clients of the segments exchanged
+	 */
+	public GranularCrossExchange(int numberOfCandidates, int maxSegmentLength) {
+		super(numberOfCandidates, maxSegmentLength * maxSegmentLength);
+		if (maxSegmentLength < 1) {
+			throw new IllegalArgumentException("invalid maximum segment length " + maxSegmentLength);
+		}
+		this.maxSegmentLength = maxSegmentLength;
+	}
+
+	@Override
+	protected boolean isValidNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		if (clientRoute == candidateRoute) {
+			return false;
+		}
+		return (clientPosition + getFirstLength(variant) <= getSolution().getNumberOfClientsInRoute(clientRoute))
+				&& (candidatePosition + 1 + getSecondLength(variant) <= getSolution()
+						.getNumberOfClientsInRoute(candidateRoute));
+	}
+
+	@Override
+	protected void selectNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		this.firstRoute = clientRoute;
+		this.firstPosition = clientPosition;
+		this.firstLength = getFirstLength(variant);
+		this.secondRoute = candidateRoute;
+		this.secondPosition = candidatePosition + 1;
+		this.secondLength = getSecondLength(variant);
+		this.lastMoveCost = CrossExchange.calculateExchangeCost(getSolution(), this.firstRoute, this.firstPosition,
+				this.firstLength, this.secondRoute, this.secondPosition, this.secondLength);
+	}
+
+	@Override
+	protected void clearNeighbor() {
+		this.firstRoute = NO_POSITION;
+		this.firstPosition = NO_POSITION;
+		this.secondRoute = NO_POSITION;
+		this.secondPosition = NO_POSITION;
+		this.lastMoveCost = 0.0;
+	}
+
+	/**
+	 * @param variant Variant of the move
+	 * @return Number of clients of the segment of the client
+	 */
+	private int getFirstLength(int variant) {
+		return variant / this.maxSegmentLength + 1;
+	}
+
+	/**
+	 * @param variant Variant of the move
+	 * @return Number of clients of the segment that starts after the candidate
+	 */
+	private int getSecondLength(int variant) {
+		return variant % this.maxSegmentLength + 1;
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.firstRoute != NO_POSITION;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.lastMoveCost;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return getSolution().getTotalDistance() + this.lastMoveCost;
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution().isFeasible();
+		}
+		return CrossExchange.isExchangeFeasible(getSolution(), this.firstRoute, this.firstPosition, this.firstLength,
+				 this.secondRoute, this.secondPosition, this.secondLength);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.exchangeSegments(this.firstRoute, this.firstPosition, this.firstLength, this.secondRoute,
+					this.secondPosition, this.secondLength);
+		}
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		// Each segment is now where the other one was, so they are exchanged back
+		if (hasCurrentNeighbor()) {
+			solution.exchangeSegments(this.firstRoute, this.firstPosition, this.secondLength, this.secondRoute,
+					this.secondPosition, this.firstLength);
+		}
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, this.firstRoute, this.firstPosition, this.secondRoute, this.secondPosition,
+					this.firstLength, this.secondLength, getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NO_POSITION, NO_POSITION, NO_POSITION, NO_POSITION, getCurrentNeighborCost());
+		}
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.exchangeSegments(descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+					descriptor.getFirstParameter(), descriptor.getSecondRoute(), descriptor.getSecondPosition(),
+					descriptor.getSecondParameter());
+		}
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new GranularCrossExchange(getNumberOfCandidates(), getMaxSegmentLength());
+	}
+
+	/** @return The maximum number of clients of the segments exchanged */
+	public int getMaxSegmentLength() {
+		return this.maxSegmentLength;
+	}
+
+	@Override
+	public MoveState getState() {
+		if (!hasCurrentNeighbor()) {
+			return new MoveState(null, null);
+		}
+		return new MoveState(getSolution().getClient(this.firstRoute, this.firstPosition),
+				getSolution().getClient(this.secondRoute, this.secondPosition),
+				getSolution().getClientId(this.firstRoute, this.firstPosition),
+				getSolution().getClientId(this.secondRoute, this.secondPosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		if (!hasCurrentNeighbor()) {
+			return MoveState.packKey(MoveState.NO_CLIENT, MoveState.NO_CLIENT);
+		}
+		return MoveState.packKey(getSolution().getClientId(this.firstRoute, this.firstPosition),
+				getSolution().getClientId(this.secondRoute, this.secondPosition));
+	}
+}
@@ -0,0 +1,212 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Granular version of the {@link InterrouteSwap} move. A client is only swapped
+ * with the client just before or just after one of its nearest clients in
+ * another route, so the client ends up next to its candidate and the swap
+ * always creates a short edge.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file GranularInterrouteSwap.java
+ *
+ */
+public class GranularInterrouteSwap extends GranularMove {
+	/** Variant that swaps the client with the one before its candidate */
+	private static final int SWAP_WITH_PREVIOUS = 0;
+	/** Variant that swaps the client with the one after its candidate */
+	private static final int SWAP_WITH_NEXT = 1;
+
+	/** Route of the client */
+	private int currentFromRoute = NO_POSITION;
+	/** Position of the client inside its route */
+	private int currentFromRoutePosition = NO_POSITION;
+	/** Route of the client it is swapped with */
+	private int currentToRoute = NO_POSITION;
+	/** Position of the client it is swapped with inside its route */
+	private int currentToRoutePosition = NO_POSITION;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/** Creates the move with the default number of candidates */
+	public GranularInterrouteSwap() {
+		this(DEFAULT_NUMBER_OF_CANDIDATES);
+	}
+
+	/** @param numberOfCandidates Number of nearest clients of each client that are considered */
+	public GranularInterrouteSwap(int numberOfCandidates) {
+		super(numberOfCandidates, 2);
+	}
+
+	@Override
+	protected boolean isValidNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		if (clientRoute == candidateRoute) {
+			return false;
+		}
+		int swappedPosition = getSwappedPosition(candidatePosition, variant);
+		return (swappedPosition >= 0) && (swappedPosition < getSolution().getNumberOfClientsInRoute(candidateRoute));
+	}
+
+	@Override
+	protected void selectNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		this.currentFromRoute = clientRoute;
+		this.currentFromRoutePosition = clientPosition;
+		this.currentToRoute = candidateRoute;
+		this.currentToRoutePosition = getSwappedPosition(candidatePosition, variant);
+		calculateLastMoveCost();
+	}
+
+	@Override
+	protected void clearNeighbor() {
+		this.currentFromRoute = NO_POSITION;
+		this.currentFromRoutePosition = NO_POSITION;
+		this.currentToRoute = NO_POSITION;
+		this.currentToRoutePosition = NO_POSITION;
+		this.lastMoveCost = 0.0;
+	}
+
+	/**
+	 * @param candidatePosition Position of the candidate inside its route
+	 * @param variant Variant of the move
+	 * @return Position of the client the client is swapped with
+	 */
+	private int getSwappedPosition(int candidatePosition, int variant) {
+		return (variant == SWAP_WITH_NEXT) ? candidatePosition + 1 : candidatePosition - 1;
+	}
+
+	/**
+	 * Computes the difference in the objective function of swapping both clients,
+	 * removing the edges to their neighbors and adding the new ones.
+	 */
+	private void calculateLastMoveCost() {
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+
+		int lastClientOfFromRoute = getClientOrDepot(currentFromRoute, currentFromRoutePosition - 1);
+		int clientOfFromRoute = getClientOrDepot(currentFromRoute, currentFromRoutePosition);
+		int nextClientOfFromRoute = getClientOrDepot(currentFromRoute, currentFromRoutePosition + 1);
+
+		int lastClientOfToRoute = getClientOrDepot(currentToRoute, currentToRoutePosition - 1);
+		int clientOfToRoute = getClientOrDepot(currentToRoute, currentToRoutePosition);
+		int nextClientOfToRoute = getClientOrDepot(currentToRoute, currentToRoutePosition + 1);
+
+		this.lastMoveCost = -problemInfo.distance(lastClientOfFromRoute, clientOfFromRoute)
+				- problemInfo.distance(clientOfFromRoute, nextClientOfFromRoute)
+				- problemInfo.distance(lastClientOfToRoute, clientOfToRoute)
+				- problemInfo.distance(clientOfToRoute, nextClientOfToRoute)
+				+ problemInfo.distance(lastClientOfFromRoute, clientOfToRoute)
+				+ problemInfo.distance(clientOfToRoute, nextClientOfFromRoute)
+				+ problemInfo.distance(lastClientOfToRoute, clientOfFromRoute)
+				+ problemInfo.distance(clientOfFromRoute, nextClientOfToRoute);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.currentFromRoute != NO_POSITION;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.lastMoveCost;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return getSolution().getTotalDistance() + this.lastMoveCost;
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution().isFeasible();
+		}
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+		int demandOfFromRoute = problemInfo.getDemand(getSolution().getClientId(currentFromRoute, currentFromRoutePosition));
+		int demandOfToRoute = problemInfo.getDemand(getSolution().getClientId(currentToRoute, currentToRoutePosition));
+
+		int fromRouteCapacity = getSolution().getVehicleRemainingCapacity(currentFromRoute) + demandOfFromRoute
+				- demandOfToRoute;
+		int toRouteCapacity = getSolution().getVehicleRemainingCapacity(currentToRoute) + demandOfToRoute
+				- demandOfFromRoute;
+
+		return (fromRouteCapacity >= 0) && (toRouteCapacity >= 0)
+				&& getSolution().areOtherRoutesFeasible(currentFromRoute, currentToRoute);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.swapClients(currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition);
+		}
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		// Swapping the clients again leaves them in their original positions
+		applyCurrentNeighbor(solution);
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		descriptor.set(this, currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition,
+				getCurrentNeighborCost());
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.swapClients(descriptor.getFirstRoute(), descriptor.getFirstPosition(), descriptor.getSecondRoute(),
+					descriptor.getSecondPosition());
+		}
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new GranularInterrouteSwap(getNumberOfCandidates());
+	}
+
+	@Override
+	public MoveState getState() {
+		if (!hasCurrentNeighbor()) {
+			return new MoveState(null, null);
+		}
+		return new MoveState(getSolution().getClient(currentFromRoute, currentFromRoutePosition),
+				getSolution().getClient(currentToRoute, currentToRoutePosition),
+				getSolution().getClientId(currentFromRoute, currentFromRoutePosition),
+				getSolution().getClientId(currentToRoute, currentToRoutePosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		if (!hasCurrentNeighbor()) {
+			return MoveState.packKey(MoveState.NO_CLIENT, MoveState.NO_CLIENT);
+		}
+		return MoveState.packKey(getSolution().getClientId(currentFromRoute, currentFromRoutePosition),
+				getSolution().getClientId(currentToRoute, currentToRoutePosition));
+	}
+}
@@ -0,0 +1,293 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+
+/**
+ * Base of the granular moves. Instead of going through every pair of positions
+ * of the solution, a granular move only considers the neighbors that create an
+ * edge between a client and one of its nearest clients (candidate lists of the
+ * problem specification), so the size of the neighborhood grows linearly with
+ * the number of clients.
+ *
+ * The neighborhood is explored client by client, following the order of the
+ * solution. For every client, each of its candidates is tried with every
+ * variant of the move (the ways the move has of creating the short edge) and
+ * the subclasses decide whether that combination is a valid neighbor. The
+ * clients made inactive by the don't-look bits are skipped.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file GranularMove.java
+ *
+ */
+public abstract class GranularMove extends Move {
+	/** Number of nearest clients used as candidates when it is not specified */
+	public static final int DEFAULT_NUMBER_OF_CANDIDATES = 20;
+	/** Value of the routes and positions of the current neighbor when it is the base solution */
+	protected static final int NO_POSITION = -1;
+
+	/** Number of nearest clients of each client that are considered */
+	private int numberOfCandidates;
+	/** Number of ways the move has of creating an edge between two clients */
+	private int numberOfVariants;
+
+	/** Route of the client whose candidates are being explored */
+	private int clientRoute;
+	/** Position inside its route of the client whose candidates are being explored */
+	private int clientPosition;
+	/** Candidates of the client being explored, null until they are requested */
+	private int[] candidates;
+	/** Index in the candidates list of the candidate being explored */
+	private int candidateIndex;
+	/** Variant of the move being explored */
+	private int variant;
+	/** Whether the exploration cursor points to a valid neighbor yet to be visited */
+	private boolean hasMoreNeighbors;
+	/** ID of the client the current neighbor was generated from */
+	private int baseClientId = MoveState.NO_CLIENT;
+	/** Index in the candidates list of its client of the candidate of the current neighbor */
+	private int baseCandidateIndex;
+	/** ID of the only client whose neighbors are generated, or NO_CLIENT to generate the whole neighborhood */
+	private int pairClientId = MoveState.NO_CLIENT;
+	/** Index in the candidates list of pairClientId of the only candidate whose neighbors are generated */
+	private int pairCandidateIndex;
+
+	/**
+	 * @param numberOfCandidates Number of nearest clients of each client that are
+	 *          considered
+	 * @param numberOfVariants Number of ways the move has of creating an edge
+	 *          between two clients
+	 */
+	protected GranularMove(int numberOfCandidates, int numberOfVariants) {
+		if (numberOfCandidates <= 0) {
+			throw new IllegalArgumentException("invalid number of candidates \"" + numberOfCandidates + "\"");
+		}
+		this.numberOfCandidates = numberOfCandidates;
+		this.numberOfVariants = numberOfVariants;
+	}
+
+	/**
+	 * Checks whether the variant of the move applied to the client and candidate
+	 * specified is a valid neighbor of the base solution. It must not modify the
+	 * current neighbor.
+	 *
+	 * @param clientRoute Route of the client
+	 * @param clientPosition Position of the client inside its route
+	 * @param candidateRoute Route of the candidate
+	 * @param candidatePosition Position of the candidate inside its route
+	 * @param variant Variant of the move
+	 * @return Whether it is a valid neighbor
+	 */
+	protected abstract boolean isValidNeighbor(int clientRoute, int clientPosition, int candidateRoute,
+			int candidatePosition, int variant);
+
+	/**
+	 * Makes the neighbor specified (which is known to be valid) the current
+	 * neighbor of the move, computing its cost.
+	 *
+	 * @param clientRoute Route of the client
+	 * @param clientPosition Position of the client inside its route
+	 * @param candidateRoute Route of the candidate
+	 * @param candidatePosition Position of the candidate inside its route
+	 * @param variant Variant of the move
+	 */
+	protected abstract void selectNeighbor(int clientRoute, int clientPosition, int candidateRoute,
+			int candidatePosition, int variant);
+
+	/** Makes the base solution itself the current neighbor of the move */
+	protected abstract void clearNeighbor();
+
+	@Override
+	public void setSolution(CVRPSolution solution) {
+		super.setSolution(solution);
+		if (solution.getNumberOfRoutes() == 0) {
+			throw new IllegalArgumentException("Cannot perform moves on solution with no routes");
+		}
+		clearNeighbor();
+		this.baseClientId = MoveState.NO_CLIENT;
+
+		this.candidates = null;
+		this.variant = 0;
+		if (this.pairClientId != MoveState.NO_CLIENT) {
+			this.clientRoute = solution.getRouteOfClient(this.pairClientId);
+			this.clientPosition = solution.getPositionOfClient(this.pairClientId);
+			this.candidateIndex = this.pairCandidateIndex;
+			this.hasMoreNeighbors = (this.clientRoute != CVRPSolution.CLIENT_NOT_FOUND) && findValidPairNeighbor();
+			return;
+		}
+		this.clientRoute = getRouteRangeStart();
+		this.clientPosition = 0;
+		this.candidateIndex = 0;
+		this.hasMoreNeighbors = findValidNeighbor();
+	}
+
+	/**
+	 * Restricts the neighbors generated by the move to the variants of a single
+	 * client and one of its candidates, so the neighbors of a pair of clients
+	 * are explored again without going through the rest of the neighborhood. It
+	 * takes effect the next time a base solution is set.
+	 *
+	 * @param clientId ID of the client
+	 * @param candidateIndex Index of the candidate in the list of nearest clients of the client
+	 */
+	public void setNeighborPair(int clientId, int candidateIndex) {
+		if (clientId == MoveState.NO_CLIENT || candidateIndex < 0 || candidateIndex >= this.numberOfCandidates) {
+			throw new IllegalArgumentException("invalid pair of client \"" + clientId + "\" and candidate \""
+					+ candidateIndex + "\"");
+		}
+		this.pairClientId = clientId;
+		this.pairCandidateIndex = candidateIndex;
+	}
+
+	/**
+	 * Makes the move generate the whole neighborhood again, after
+	 * {@link #setNeighborPair}. It takes effect the next time a base solution is
+	 * set.
+	 */
+	public void clearNeighborPair() {
+		this.pairClientId = MoveState.NO_CLIENT;
+	}
+
+	@Override
+	public void nextNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		if (this.hasMoreNeighbors) {
+			int candidateId = getCandidates()[this.candidateIndex];
+			this.baseClientId = getSolution().getClientId(this.clientRoute, this.clientPosition);
+			this.baseCandidateIndex = this.candidateIndex;
+			selectNeighbor(this.clientRoute, this.clientPosition, getSolution().getRouteOfClient(candidateId),
+					getSolution().getPositionOfClient(candidateId), this.variant);
+			advanceCursor();
+			this.hasMoreNeighbors = (this.pairClientId != MoveState.NO_CLIENT) ? findValidPairNeighbor()
+					: findValidNeighbor();
+		}
+	}
+
+	@Override
+	public boolean hasMoreNeighbors() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.hasMoreNeighbors;
+	}
+
+	/**
+	 * Moves the cursor forward until it points to a valid neighbor or it has gone
+	 * through the whole neighborhood.
+	 *
+	 * @return Whether a valid neighbor was found
+	 */
+	private boolean findValidNeighbor() {
+		while (this.clientRoute < getRouteRangeEnd()) {
+			if (this.clientPosition >= getSolution().getNumberOfClientsInRoute(this.clientRoute)) {
+				this.clientRoute++;
+				this.clientPosition = 0;
+				this.candidates = null;
+				this.candidateIndex = 0;
+				this.variant = 0;
+				continue;
+			}
+			if (this.candidates == null
+					&& !isClientActive(getSolution().getClientId(this.clientRoute, this.clientPosition))) {
+				// The neighbors of an inactive client are skipped as a whole
+				this.clientPosition++;
+				continue;
+			}
+			int[] candidates = getCandidates();
+			if (this.candidateIndex >= candidates.length) {
+				this.clientPosition++;
+				this.candidates = null;
+				this.candidateIndex = 0;
+				this.variant = 0;
+				continue;
+			}
+			int candidateId = candidates[this.candidateIndex];
+			int candidateRoute = getSolution().getRouteOfClient(candidateId);
+			if (candidateRoute != CVRPSolution.CLIENT_NOT_FOUND && isValidNeighbor(this.clientRoute, this.clientPosition,
+					candidateRoute, getSolution().getPositionOfClient(candidateId), this.variant)) {
+				return true;
+			}
+			advanceCursor();
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the cursor forward, through the variants of the pair of clients the
+	 * move is restricted to, until it points to a valid neighbor.
+	 *
+	 * @return Whether a valid neighbor was found
+	 */
+	private boolean findValidPairNeighbor() {
+		int[] candidates = getCandidates();
+		if (this.pairCandidateIndex >= candidates.length) {
+			return false;
+		}
+		int candidateId = candidates[this.pairCandidateIndex];
+		int candidateRoute = getSolution().getRouteOfClient(candidateId);
+		while (this.candidateIndex == this.pairCandidateIndex) {
+			if (candidateRoute != CVRPSolution.CLIENT_NOT_FOUND && isValidNeighbor(this.clientRoute, this.clientPosition,
+					candidateRoute, getSolution().getPositionOfClient(candidateId), this.variant)) {
+				return true;
+			}
+			advanceCursor();
+		}
+		return false;
+	}
+
+	/** Moves the cursor to the next variant, candidate or client */
+	private void advanceCursor() {
+		this.variant++;
+		if (this.variant >= this.numberOfVariants) {
+			this.variant = 0;
+			this.candidateIndex++;
+		}
+	}
+
+	/** @return The candidates of the client pointed by the cursor */
+	private int[] getCandidates() {
+		if (this.candidates == null) {
+			int clientId = getSolution().getClientId(this.clientRoute, this.clientPosition);
+			this.candidates = getSolution().getProblemInfo().getNearestClients(clientId, this.numberOfCandidates);
+		}
+		return this.candidates;
+	}
+
+	/**
+	 * Returns the ID of the client at the specified position of a route, or the
+	 * depot if the position is outside the route (just before the first client or
+	 * just after the last one)
+	 *
+	 * @param route Route
+	 * @param position Position inside the route
+	 * @return ID of the client or the depot
+	 */
+	protected int getClientOrDepot(int route, int position) {
+		if (position < 0 || position >= getSolution().getNumberOfClientsInRoute(route)) {
+			return getSolution().getProblemInfo().getDepotID();
+		}
+		return getSolution().getClientId(route, position);
+	}
+
+	@Override
+	public int getBaseClientId() {
+		return this.baseClientId;
+	}
+
+	/**
+	 * @return Index in the list of nearest clients of the base client (see
+	 *         {@link #getBaseClientId}) of the candidate the current neighbor
+	 *         was generated from
+	 */
+	public int getBaseCandidateIndex() {
+		return this.baseCandidateIndex;
+	}
+
+	/** @return The number of nearest clients of each client that are considered */
+	public int getNumberOfCandidates() {
+		return numberOfCandidates;
+	}
+}
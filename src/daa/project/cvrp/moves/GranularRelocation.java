@@ -0,0 +1,198 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Granular version of the {@link Relocation} move. A client is only moved to
+ * another route just before or just after one of its nearest clients, so the
+ * relocation always creates a short edge.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file GranularRelocation.java
+ *
+ */
+public class GranularRelocation extends GranularMove {
+	/** Variant that inserts the client just before its candidate */
+	private static final int INSERT_BEFORE_CANDIDATE = 0;
+	/** Variant that inserts the client just after its candidate */
+	private static final int INSERT_AFTER_CANDIDATE = 1;
+
+	/** Route from where the client is taken */
+	private int currentFromRoute = NO_POSITION;
+	/** Position of the client inside the from route */
+	private int currentFromRoutePosition = NO_POSITION;
+	/** Route where the client is inserted */
+	private int currentToRoute = NO_POSITION;
+	/** Position of the to route where the client is inserted */
+	private int currentToRoutePosition = NO_POSITION;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/** Creates the move with the default number of candidates */
+	public GranularRelocation() {
+		this(DEFAULT_NUMBER_OF_CANDIDATES);
+	}
+
+	/** @param numberOfCandidates Number of nearest clients of each client that are considered */
+	public GranularRelocation(int numberOfCandidates) {
+		super(numberOfCandidates, 2);
+	}
+
+	@Override
+	protected boolean isValidNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		// As the original relocation, the client is always moved to another route
+		return clientRoute != candidateRoute;
+	}
+
+	@Override
+	protected void selectNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		this.currentFromRoute = clientRoute;
+		this.currentFromRoutePosition = clientPosition;
+		this.currentToRoute = candidateRoute;
+		this.currentToRoutePosition = (variant == INSERT_AFTER_CANDIDATE) ? candidatePosition + 1 : candidatePosition;
+		calculateLastMoveCost();
+	}
+
+	@Override
+	protected void clearNeighbor() {
+		this.currentFromRoute = NO_POSITION;
+		this.currentFromRoutePosition = NO_POSITION;
+		this.currentToRoute = NO_POSITION;
+		this.currentToRoutePosition = NO_POSITION;
+		this.lastMoveCost = 0.0;
+	}
+
+	/**
+	 * Computes the difference in the objective function of removing the client
+	 * from its route and inserting it between the clients of the to route.
+	 */
+	private void calculateLastMoveCost() {
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+
+		int lastClientOfFromRoute = getClientOrDepot(currentFromRoute, currentFromRoutePosition - 1);
+		int clientOfFromRoute = getClientOrDepot(currentFromRoute, currentFromRoutePosition);
+		int nextClientOfFromRoute = getClientOrDepot(currentFromRoute, currentFromRoutePosition + 1);
+
+		int lastClientOfToRoute = getClientOrDepot(currentToRoute, currentToRoutePosition - 1);
+		int clientOfToRoute = getClientOrDepot(currentToRoute, currentToRoutePosition);
+
+		this.lastMoveCost = -problemInfo.distance(lastClientOfFromRoute, clientOfFromRoute)
+				- problemInfo.distance(clientOfFromRoute, nextClientOfFromRoute)
+				+ problemInfo.distance(lastClientOfFromRoute, nextClientOfFromRoute)
+				+ problemInfo.distance(lastClientOfToRoute, clientOfFromRoute)
+				+ problemInfo.distance(clientOfFromRoute, clientOfToRoute)
+				- problemInfo.distance(lastClientOfToRoute, clientOfToRoute);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.currentFromRoute != NO_POSITION;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.lastMoveCost;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return getSolution().getTotalDistance() + this.lastMoveCost;
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution().isFeasible();
+		}
+		int demand = getSolution().getProblemInfo()
+				.getDemand(getSolution().getClientId(currentFromRoute, currentFromRoutePosition));
+		int fromRouteCapacity = getSolution().getVehicleRemainingCapacity(currentFromRoute) + demand;
+		int toRouteCapacity = getSolution().getVehicleRemainingCapacity(currentToRoute) - demand;
+
+		return (fromRouteCapacity >= 0) && (toRouteCapacity >= 0)
+				&& getSolution().areOtherRoutesFeasible(currentFromRoute, currentToRoute);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.relocateClient(currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition);
+		}
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		// The client is always moved to another route, so the positions are not shifted
+		if (hasCurrentNeighbor()) {
+			solution.relocateClient(currentToRoute, currentToRoutePosition, currentFromRoute, currentFromRoutePosition);
+		}
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		descriptor.set(this, currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition,
+				getCurrentNeighborCost());
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.relocateClient(descriptor.getFirstRoute(), descriptor.getFirstPosition(), descriptor.getSecondRoute(),
+					descriptor.getSecondPosition());
+		}
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new GranularRelocation(getNumberOfCandidates());
+	}
+
+	/*
+	 * (non-Javadoc) As in the relocation, the state is the moved client with the
+	 * second client as null.
+	 *
+	 * @see daa.project.cvrp.moves.Move#getState()
+	 */
+	@Override
+	public MoveState getState() {
+		if (!hasCurrentNeighbor()) {
+			return new MoveState(null, null);
+		}
+		return new MoveState(getSolution().getClient(currentFromRoute, currentFromRoutePosition), null,
+				getSolution().getClientId(currentFromRoute, currentFromRoutePosition), MoveState.NO_CLIENT);
+	}
+
+	@Override
+	public long getStateKey() {
+		if (!hasCurrentNeighbor()) {
+			return MoveState.packKey(MoveState.NO_CLIENT, MoveState.NO_CLIENT);
+		}
+		return MoveState.packKey(getSolution().getClientId(currentFromRoute, currentFromRoutePosition),
+				MoveState.NO_CLIENT);
+	}
+}
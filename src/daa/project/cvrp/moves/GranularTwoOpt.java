@@ -0,0 +1,223 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Granular version of the {@link TwoOpt} move. Only the segments of a route
+ * whose reversal puts a client next to one of its nearest clients of the same
+ * route are reversed, so the move always creates a short edge.
+ *
+ * When the client is before its candidate in the route, the segment that
+ * starts just after the client and ends at the candidate is reversed, so the
+ * candidate becomes the next client. When the client is after its candidate,
+ * the segment that starts at the candidate and ends just before the client is
+ * reversed, so the candidate becomes the previous client. Each reversal is
+ * thus generated from a single orientation of the pair, even when both clients
+ * are among the nearest ones of each other. A reversal that creates two short
+ * edges is only generated by the first variant, from the client just before
+ * the segment.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file GranularTwoOpt.java
+ *
+ */
+public class GranularTwoOpt extends GranularMove {
+	/** Variant that reverses the segment after the client, which ends at the candidate */
+	private static final int REVERSE_AFTER_FIRST = 0;
+	/** Variant that reverses the segment before the client, which starts at the candidate */
+	private static final int REVERSE_BEFORE_LAST = 1;
+
+	/** Route whose segment is reversed */
+	private int currentRoute = NO_POSITION;
+	/** Position of the first client of the reversed segment */
+	private int firstPosition = NO_POSITION;
+	/** Position of the last client of the reversed segment */
+	private int lastPosition = NO_POSITION;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/** Creates the move with the default number of candidates */
+	public GranularTwoOpt() {
+		this(DEFAULT_NUMBER_OF_CANDIDATES);
+	}
+
+	/** @param numberOfCandidates Number of nearest clients of each client that are considered */
+	public GranularTwoOpt(int numberOfCandidates) {
+		super(numberOfCandidates, 2);
+	}
+
+	@Override
+	protected boolean isValidNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		// Reversing a segment of a single client does nothing
+		if (clientRoute != candidateRoute || Math.abs(clientPosition - candidatePosition) < 2) {
+			return false;
+		}
+		// The same reversal is generated by the other orientation of the pair
+		if (variant == REVERSE_AFTER_FIRST) {
+			return clientPosition < candidatePosition;
+		}
+		if (clientPosition < candidatePosition) {
+			return false;
+		}
+		// The segment goes from the candidate to the client before this one, so it
+		// may also be generated by the first variant from the client before it
+		if (candidatePosition == 0) {
+			return true;
+		}
+		int previousClientId = getSolution().getClientId(clientRoute, candidatePosition - 1);
+		return !isClientActive(previousClientId)
+				|| !isCandidate(previousClientId, getSolution().getClientId(clientRoute, clientPosition - 1));
+	}
+
+	/**
+	 * @param clientId ID of a client
+	 * @param candidateId ID of another client
+	 * @return Whether the second client is among the nearest clients considered of the first one
+	 */
+	private boolean isCandidate(int clientId, int candidateId) {
+		int[] candidates = getSolution().getProblemInfo().getNearestClients(clientId, getNumberOfCandidates());
+		for (int candidate : candidates) {
+			if (candidate == candidateId) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected void selectNeighbor(int clientRoute, int clientPosition, int candidateRoute, int candidatePosition,
+			int variant) {
+		int first = Math.min(clientPosition, candidatePosition);
+		int last = Math.max(clientPosition, candidatePosition);
+		this.currentRoute = clientRoute;
+		if (variant == REVERSE_AFTER_FIRST) {
+			this.firstPosition = first + 1;
+			this.lastPosition = last;
+		}
+		else {
+			this.firstPosition = first;
+			this.lastPosition = last - 1;
+		}
+		calculateLastMoveCost();
+	}
+
+	@Override
+	protected void clearNeighbor() {
+		this.currentRoute = NO_POSITION;
+		this.firstPosition = NO_POSITION;
+		this.lastPosition = NO_POSITION;
+		this.lastMoveCost = 0.0;
+	}
+
+	/**
+	 * Computes the difference in the objective function of reversing the segment,
+	 * which only changes the edges at both ends of it.
+	 */
+	private void calculateLastMoveCost() {
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+		int previousFirstNode = getClientOrDepot(currentRoute, firstPosition - 1);
+		int firstNode = getClientOrDepot(currentRoute, firstPosition);
+		int lastNode = getClientOrDepot(currentRoute, lastPosition);
+		int postLastNode = getClientOrDepot(currentRoute, lastPosition + 1);
+
+		this.lastMoveCost = -problemInfo.distance(previousFirstNode, firstNode)
+				- problemInfo.distance(lastNode, postLastNode)
+				+ problemInfo.distance(previousFirstNode, lastNode)
+				+ problemInfo.distance(firstNode, postLastNode);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.currentRoute != NO_POSITION;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.lastMoveCost;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return getSolution().getTotalDistance() + this.lastMoveCost;
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		// The clients of every route stay the same
+		return getSolution().isFeasible();
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.reverseRouteSegment(currentRoute, firstPosition, lastPosition);
+		}
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		// Reversing the same segment again restores its original order
+		applyCurrentNeighbor(solution);
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		descriptor.set(this, currentRoute, firstPosition, currentRoute, lastPosition, getCurrentNeighborCost());
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without route is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.reverseRouteSegment(descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+					descriptor.getSecondPosition());
+		}
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new GranularTwoOpt(getNumberOfCandidates());
+	}
+
+	@Override
+	public MoveState getState() {
+		if (!hasCurrentNeighbor()) {
+			return new MoveState(null, null);
+		}
+		return new MoveState(getSolution().getClient(currentRoute, firstPosition),
+				getSolution().getClient(currentRoute, lastPosition), getSolution().getClientId(currentRoute, firstPosition),
+				getSolution().getClientId(currentRoute, lastPosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		if (!hasCurrentNeighbor()) {
+			return MoveState.packKey(MoveState.NO_CLIENT, MoveState.NO_CLIENT);
+		}
+		return MoveState.packKey(getSolution().getClientId(currentRoute, firstPosition),
+				getSolution().getClientId(currentRoute, lastPosition));
+	}
+}
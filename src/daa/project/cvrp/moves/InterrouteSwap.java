@@ -8,17 +8,23 @@
  */
 package daa.project.cvrp.moves;
 
+import java.util.Random;
+
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
 
 /**
  * InterrouteSwap is an special movement that exchange nodes between routes,
- * avoiding repetitions.
+ * avoiding repetitions. The swaps whose first client is made inactive by the
+ * don't-look bits are skipped.
  */
 public class InterrouteSwap extends Move {
 
 	/** Default value of route indicates that doesn't exist. */
 	private int DEFAULT_ROUTE_VALUE = -1;
+	/** Value of position indicates that there is no active client in a route. */
+	private static final int NO_POSITION = -1;
 
 	/** Index of the current route from where the exchange is produced. */
 	private int currentFromRoute = DEFAULT_ROUTE_VALUE;
@@ -50,16 +56,53 @@ public class InterrouteSwap extends Move {
 		this.lastMoveCost = 0.0;
 
 		this.currentFromRoutePosition = 0;
-		this.currentFromRoute = getNextRouteOf(-1);
-
 		this.currentToRoutePosition = 0;
-		this.currentToRoute = getNextRouteOf(this.currentFromRoute);
-
-		if (this.currentFromRoute == DEFAULT_ROUTE_VALUE || this.currentToRoute == DEFAULT_ROUTE_VALUE) {
+		if (!selectFromRouteAfter(-1)) {
+			this.currentFromRoute = getNextFromRouteOf(-1);
+			this.currentToRoute = DEFAULT_ROUTE_VALUE;
 			this.canAdvance = false;
 		}
 	}
 
+	/**
+	 * Selects as from route the first non-empty route of the range after the
+	 * specified one with an active client and a to route whose pair has to be
+	 * explored, its first active client and that to route. If there is no such
+	 * route, the current routes are kept.
+	 * 
+	 * @return If there was such a route.
+	 */
+	private boolean selectFromRouteAfter(int currentRoute) {
+		for (int fromRoute = getNextFromRouteOf(currentRoute); fromRoute != DEFAULT_ROUTE_VALUE; fromRoute = getNextFromRouteOf(
+				fromRoute)) {
+			int toRoute = getNextToRouteOf(fromRoute, fromRoute);
+			int fromPosition = getNextActivePosition(fromRoute, 0);
+			if (toRoute != DEFAULT_ROUTE_VALUE && fromPosition != NO_POSITION) {
+				this.currentFromRoute = fromRoute;
+				this.currentFromRoutePosition = fromPosition;
+				this.currentToRoute = toRoute;
+				this.currentToRoutePosition = 0;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Method that looks for the first position of a route, from the specified
+	 * one, whose client is active.
+	 * 
+	 * @return The position, or NO_POSITION if there is no such client.
+	 */
+	private int getNextActivePosition(int route, int position) {
+		for (int i = position; i < getSolution().getNumberOfClientsInRoute(route); ++i) {
+			if (isClientActive(getSolution().getClientId(route, i))) {
+				return i;
+			}
+		}
+		return NO_POSITION;
+	}
+
 	/**
 	 * Method that looks for the first non-empty route in the solution after the
 	 * current route and return it.
@@ -73,6 +116,27 @@ public class InterrouteSwap extends Move {
 		return DEFAULT_ROUTE_VALUE;
 	}
 
+	/**
+	 * Method that looks for the first non-empty route after the current route
+	 * that can be used as from route, which must be in the route range.
+	 */
+	private int getNextFromRouteOf(int currentRoute) {
+		int nextRoute = getNextRouteOf(Math.max(currentRoute, getRouteRangeStart() - 1));
+		return (nextRoute < getRouteRangeEnd()) ? nextRoute : DEFAULT_ROUTE_VALUE;
+	}
+
+	/**
+	 * Method that looks for the first non-empty route after the current route
+	 * whose pair with the from route has to be explored.
+	 */
+	private int getNextToRouteOf(int fromRoute, int currentRoute) {
+		int nextRoute = getNextRouteOf(currentRoute);
+		while (nextRoute != DEFAULT_ROUTE_VALUE && !isRoutePairModified(fromRoute, nextRoute)) {
+			nextRoute = getNextRouteOf(nextRoute);
+		}
+		return nextRoute;
+	}
+
 	/*
 	 * If possible, advance next Neighbor, starting moving the ToPosition.
 	 * 
@@ -119,12 +183,7 @@ public class InterrouteSwap extends Move {
 	private boolean advanceToPosition() {
 		if ((getSolution().getNumberOfClientsInRoute(currentToRoute) == 0)
 				|| (currentToRoutePosition == getSolution().getNumberOfClientsInRoute(currentToRoute) - 1)) {
-			if (currentToRoute == getSolution().getNumberOfRoutes() - 1) {
-				return advanceFromPosition();
-			}
-			else {
-				return advanceToRoute();
-			}
+			return advanceToRoute();
 		}
 		else {
 			currentToRoutePosition++;
@@ -133,29 +192,24 @@ public class InterrouteSwap extends Move {
 	}
 
 	/**
-	 * Try to advance the From Position. If it's in the last position of the route,
-	 * it advance the from route. In other case it advance the current route
-	 * position
+	 * Try to advance the From Position. If there is no active client after it in
+	 * the route, it advance the from route. In other case it advance the current
+	 * route position to that client
 	 * 
 	 * @return If it was possible to move From Position.
 	 */
 	private boolean advanceFromPosition() {
-		if ((getSolution().getNumberOfClientsInRoute(currentFromRoute) == 0)
-				|| (currentFromRoutePosition == getSolution().getNumberOfClientsInRoute(currentFromRoute) - 1)) {
+		int nextFromPosition = getNextActivePosition(currentFromRoute, currentFromRoutePosition + 1);
+		if (nextFromPosition == NO_POSITION) {
 			return advanceFromRoute();
 		}
 		else {
-			currentFromRoutePosition++;
+			currentFromRoutePosition = nextFromPosition;
 
+			// The from route was selected because it has a to route, so there is one
 			currentToRoutePosition = 0;
-			int nextToRoute = getNextRouteOf(this.currentFromRoute);
-			if (nextToRoute == DEFAULT_ROUTE_VALUE) {
-				return false;
-			}
-			else {
-				this.currentToRoute = nextToRoute;
-				return true;
-			}
+			this.currentToRoute = getNextToRouteOf(this.currentFromRoute, this.currentFromRoute);
+			return true;
 		}
 	}
 
@@ -167,19 +221,7 @@ public class InterrouteSwap extends Move {
 	 * @return If it was possible to move From Route.
 	 */
 	private boolean advanceFromRoute() {
-		int nextFromRoute = getNextRouteOf(this.currentFromRoute);
-		int nextToRoute = getNextRouteOf(nextFromRoute);
-		if ((nextFromRoute != DEFAULT_ROUTE_VALUE) && (nextToRoute != DEFAULT_ROUTE_VALUE)) {
-			currentFromRoutePosition = 0;
-			currentFromRoute = nextFromRoute;
-			currentToRoutePosition = 0;
-			this.currentToRoute = nextToRoute;
-			return true;
-
-		}
-		else {
-			return false;
-		}
+		return selectFromRouteAfter(this.currentFromRoute);
 	}
 
 	/**
@@ -188,18 +230,61 @@ public class InterrouteSwap extends Move {
 	 * @return If it was possible to move To Route.
 	 */
 	private boolean advanceToRoute() {
-		currentToRoutePosition = 0;
-
-		int nextToRoute = getNextRouteOf(this.currentToRoute);
+		int nextToRoute = getNextToRouteOf(this.currentFromRoute, this.currentToRoute);
 		if (nextToRoute == DEFAULT_ROUTE_VALUE) {
-			return false;
+			return advanceFromPosition();
 		}
 		else {
+			currentToRoutePosition = 0;
 			this.currentToRoute = nextToRoute;
 			return true;
 		}
 	}
 
+	@Override
+	public boolean generatesNeighborsByRoutePair() {
+		return true;
+	}
+
+	@Override
+	protected boolean drawsRandomNeighbors() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc) Two random clients are swapped, the one of the lowest route
+	 * first. The draws with both clients in the same route are rejected.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#drawRandomNeighbor(java.util.Random)
+	 */
+	@Override
+	protected boolean drawRandomNeighbor(Random random) {
+		int fromClientId = drawRandomClient(random);
+		int toClientId = drawRandomClient(random);
+		if (fromClientId == MoveState.NO_CLIENT || toClientId == MoveState.NO_CLIENT) {
+			return false;
+		}
+		if (getSolution().getRouteOfClient(fromClientId) > getSolution().getRouteOfClient(toClientId)) {
+			int clientId = fromClientId;
+			fromClientId = toClientId;
+			toClientId = clientId;
+		}
+		int fromRoute = getSolution().getRouteOfClient(fromClientId);
+		int toRoute = getSolution().getRouteOfClient(toClientId);
+		if (!isClientActive(fromClientId) || (fromRoute == toRoute) || (fromRoute < getRouteRangeStart()) || (fromRoute >= getRouteRangeEnd())
+				|| !isRoutePairModified(fromRoute, toRoute)) {
+			return false;
+		}
+		this.currentFromRoute = fromRoute;
+		this.currentFromRoutePosition = getSolution().getPositionOfClient(fromClientId);
+		this.currentToRoute = toRoute;
+		this.currentToRoutePosition = getSolution().getPositionOfClient(toClientId);
+		this.started = true;
+		this.canAdvance = false;
+		calculateLastMoveCost();
+		return true;
+	}
+
 	/**
 	 * Method designed to get the absolute position of a client in the global routes
 	 * array.
@@ -227,28 +312,29 @@ public class InterrouteSwap extends Move {
 			int realFromPosition = getClientAbsolutePosition(currentFromRoutePosition, currentFromRoute);
 			int realToPosition = getClientAbsolutePosition(currentToRoutePosition, currentToRoute);
 
-			CVRPClient depot = getSolution().getProblemInfo().getDepot();
-
-			CVRPClient lastClientOfFromRoute = (currentFromRoutePosition == 0) ? depot
-					: getSolution().getClient(realFromPosition - 1);
-			CVRPClient clientOfFromRoute = getSolution().getClient(realFromPosition);
-			CVRPClient nextClientOfFromRoute = (currentFromRoutePosition == (getSolution()
-					.getNumberOfClientsInRoute(currentFromRoute) - 1)) ? depot : getSolution().getClient(realFromPosition + 1);
-
-			CVRPClient lastClientOfToRoute = (currentToRoutePosition == 0) ? depot
-					: getSolution().getClient(realToPosition - 1);
-			CVRPClient clientOfToRoute = getSolution().getClient(realToPosition);
-			CVRPClient nextClientOfToRoute = (currentToRoutePosition == (getSolution()
-					.getNumberOfClientsInRoute(currentToRoute) - 1)) ? depot : getSolution().getClient(realToPosition + 1);
-
-			this.lastMoveCost = -CVRPClient.euclideanDistance(lastClientOfFromRoute, clientOfFromRoute)
-					- CVRPClient.euclideanDistance(clientOfFromRoute, nextClientOfFromRoute)
-					- CVRPClient.euclideanDistance(lastClientOfToRoute, clientOfToRoute)
-					- CVRPClient.euclideanDistance(clientOfToRoute, nextClientOfToRoute)
-					+ CVRPClient.euclideanDistance(lastClientOfFromRoute, clientOfToRoute)
-					+ CVRPClient.euclideanDistance(clientOfToRoute, nextClientOfFromRoute)
-					+ CVRPClient.euclideanDistance(lastClientOfToRoute, clientOfFromRoute)
-					+ CVRPClient.euclideanDistance(clientOfFromRoute, nextClientOfToRoute);
+			CVRPSpecification problemInfo = getSolution().getProblemInfo();
+			int depot = problemInfo.getDepotID();
+
+			int lastClientOfFromRoute = (currentFromRoutePosition == 0) ? depot
+					: getSolution().getClientId(realFromPosition - 1);
+			int clientOfFromRoute = getSolution().getClientId(realFromPosition);
+			int nextClientOfFromRoute = (currentFromRoutePosition == (getSolution()
+					.getNumberOfClientsInRoute(currentFromRoute) - 1)) ? depot : getSolution().getClientId(realFromPosition + 1);
+
+			int lastClientOfToRoute = (currentToRoutePosition == 0) ? depot
+					: getSolution().getClientId(realToPosition - 1);
+			int clientOfToRoute = getSolution().getClientId(realToPosition);
+			int nextClientOfToRoute = (currentToRoutePosition == (getSolution()
+					.getNumberOfClientsInRoute(currentToRoute) - 1)) ? depot : getSolution().getClientId(realToPosition + 1);
+
+			this.lastMoveCost = -problemInfo.distance(lastClientOfFromRoute, clientOfFromRoute)
+					- problemInfo.distance(clientOfFromRoute, nextClientOfFromRoute)
+					- problemInfo.distance(lastClientOfToRoute, clientOfToRoute)
+					- problemInfo.distance(clientOfToRoute, nextClientOfToRoute)
+					+ problemInfo.distance(lastClientOfFromRoute, clientOfToRoute)
+					+ problemInfo.distance(clientOfToRoute, nextClientOfFromRoute)
+					+ problemInfo.distance(lastClientOfToRoute, clientOfFromRoute)
+					+ problemInfo.distance(clientOfFromRoute, nextClientOfToRoute);
 		}
 		catch (Exception e) {
 			System.err.println("Error in interroute swap calculateLastMoveCost()");
@@ -281,22 +367,17 @@ public class InterrouteSwap extends Move {
 		int realFromPosition = getClientAbsolutePosition(currentFromRoutePosition, currentFromRoute);
 		int realToPosition = getClientAbsolutePosition(currentToRoutePosition, currentToRoute);
 
-		CVRPClient clientOfFromRoute = getSolution().getClient(realFromPosition);
-		CVRPClient clientOfToRoute = getSolution().getClient(realToPosition);
+		int demandOfFromRoute = getSolution().getProblemInfo().getDemand(getSolution().getClientId(realFromPosition));
+		int demandOfToRoute = getSolution().getProblemInfo().getDemand(getSolution().getClientId(realToPosition));
 
-		int fromRouteCapacity = getSolution().getVehicleRemainingCapacity(currentFromRoute) + clientOfFromRoute.getDemand()
-				- clientOfToRoute.getDemand();
-		int toRouteCapacity = getSolution().getVehicleRemainingCapacity(currentToRoute) + clientOfToRoute.getDemand()
-				- clientOfFromRoute.getDemand();
+		int fromRouteCapacity = getSolution().getVehicleRemainingCapacity(currentFromRoute) + demandOfFromRoute
+				- demandOfToRoute;
+		int toRouteCapacity = getSolution().getVehicleRemainingCapacity(currentToRoute) + demandOfToRoute
+				- demandOfFromRoute;
 
 		// If they are in the limits, check the rest!
 		if ((fromRouteCapacity >= 0) && (toRouteCapacity >= 0)) {
-			for (int i = 0; i < getSolution().getNumberOfRoutes(); ++i) {
-				if ((i != currentFromRoute) && (i != currentToRoute) && (getSolution().getVehicleRemainingCapacity(i) < 0)) {
-					return false;
-				}
-			}
-			return true;
+			return getSolution().areOtherRoutesFeasible(currentFromRoute, currentToRoute);
 		}
 		else {
 			return false;
@@ -349,11 +430,82 @@ public class InterrouteSwap extends Move {
 			return getSolution();
 		}
 		else {
-			return new CVRPSolution(getSolution().getProblemInfo(), CVRPSolution.generateSwappedSolution(getSolution(),
-					currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition));
+			CVRPSolution neighbor = new CVRPSolution(getSolution());
+			applyCurrentNeighbor(neighbor);
+			return neighbor;
+		}
+	}
+
+	/*
+	 * Swaps in place the clients of both routes.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#applyCurrentNeighbor(daa.project.cvrp.problem.CVRPSolution)
+	 */
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.swapClients(currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition);
 		}
 	}
 
+	/*
+	 * Swapping the clients again leaves them in their original positions.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#undoCurrentNeighbor(daa.project.cvrp.problem.CVRPSolution)
+	 */
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		applyCurrentNeighbor(solution);
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition,
+					getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION,
+					NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION, getSolution().getTotalDistance());
+		}
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.swapClients(descriptor.getFirstRoute(), descriptor.getFirstPosition(), descriptor.getSecondRoute(),
+					descriptor.getSecondPosition());
+		}
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new InterrouteSwap();
+	}
+
+	/*
+	 * (non-Javadoc) The neighbors are generated client by client, from the
+	 * client of the from route.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#getBaseClientId()
+	 */
+	@Override
+	public int getBaseClientId() {
+		if (!hasCurrentNeighbor()) {
+			return MoveState.NO_CLIENT;
+		}
+		return getSolution().getClientId(currentFromRoute, currentFromRoutePosition);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return started && (this.currentFromRoute != DEFAULT_ROUTE_VALUE) && (this.currentToRoute != DEFAULT_ROUTE_VALUE);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -367,6 +519,14 @@ public class InterrouteSwap extends Move {
 		CVRPClient firstClient = getSolution().getClient(realFromPosition);
 		CVRPClient secondClient = getSolution().getClient(realToPosition);
 
-		return new MoveState(firstClient, secondClient);
+		return new MoveState(firstClient, secondClient, getSolution().getClientId(realFromPosition),
+				getSolution().getClientId(realToPosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		int realFromPosition = getClientAbsolutePosition(currentFromRoutePosition, currentFromRoute);
+		int realToPosition = getClientAbsolutePosition(currentToRoutePosition, currentToRoute);
+		return MoveState.packKey(getSolution().getClientId(realFromPosition), getSolution().getClientId(realToPosition));
 	}
 }
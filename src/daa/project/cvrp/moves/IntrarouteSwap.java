@@ -1,13 +1,15 @@
 package daa.project.cvrp.moves;
 
-import java.util.ArrayList;
+import java.util.Random;
 
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
 
 /**
  * Swap interoute. Move for VRP where the order of visiting two clients in the
- * same route is swapped.
+ * same route is swapped. The swaps whose first client is made inactive by the
+ * don't-look bits are skipped.
  * 
  * @author Carlos Dominguez Garcia (alu0100966589)
  * @version 1.0.0
@@ -79,34 +81,36 @@ public class IntrarouteSwap extends Move {
         if (getSolution() == null) {
             throw new IllegalAccessError("trying to use move with no base solution set");
         }
-        CVRPClient first = getSolution().getClient(this.currentRoute, this.currentRouteFirstPosition);
-        CVRPClient second = getSolution().getClient(this.currentRoute, this.currentRouteSecondPosition);
+        CVRPSpecification problemInfo = getSolution().getProblemInfo();
+        int depot = problemInfo.getDepotID();
+        int first = getSolution().getClientId(this.currentRoute, this.currentRouteFirstPosition);
+        int second = getSolution().getClientId(this.currentRoute, this.currentRouteSecondPosition);
 	    
-        CVRPClient prevFirst = this.currentRouteFirstPosition > 0
-                ? getSolution().getClient(this.currentRoute, this.currentRouteFirstPosition - 1)
-                : getSolution().getProblemInfo().getDepot();
+        int prevFirst = this.currentRouteFirstPosition > 0
+                ? getSolution().getClientId(this.currentRoute, this.currentRouteFirstPosition - 1)
+                : depot;
         
-        CVRPClient postSecond = this.currentRouteSecondPosition < (this.numberClientsCurrentRoute - 1)
-                ? getSolution().getClient(this.currentRoute, this.currentRouteSecondPosition + 1)
-                : getSolution().getProblemInfo().getDepot();
+        int postSecond = this.currentRouteSecondPosition < (this.numberClientsCurrentRoute - 1)
+                ? getSolution().getClientId(this.currentRoute, this.currentRouteSecondPosition + 1)
+                : depot;
         
         if (this.currentRouteFirstPosition == (this.currentRouteSecondPosition - 1)) {
-            return CVRPClient.euclideanDistance(first, postSecond) + CVRPClient.euclideanDistance(prevFirst, second)
-                    - CVRPClient.euclideanDistance(second, postSecond) - CVRPClient.euclideanDistance(prevFirst, first);
+            return problemInfo.distance(first, postSecond) + problemInfo.distance(prevFirst, second)
+                    - problemInfo.distance(second, postSecond) - problemInfo.distance(prevFirst, first);
         }
         
-        CVRPClient postFirst = this.currentRouteFirstPosition < (this.numberClientsCurrentRoute - 1)
-                ? getSolution().getClient(this.currentRoute, this.currentRouteFirstPosition + 1)
-                : getSolution().getProblemInfo().getDepot();
+        int postFirst = this.currentRouteFirstPosition < (this.numberClientsCurrentRoute - 1)
+                ? getSolution().getClientId(this.currentRoute, this.currentRouteFirstPosition + 1)
+                : depot;
         
-        CVRPClient prevSecond = this.currentRouteSecondPosition > 0
-                ? getSolution().getClient(this.currentRoute, this.currentRouteSecondPosition - 1)
-                : getSolution().getProblemInfo().getDepot();
-
-        return CVRPClient.euclideanDistance(first, postSecond) + CVRPClient.euclideanDistance(prevSecond, first)
-                + CVRPClient.euclideanDistance(second, postFirst) + CVRPClient.euclideanDistance(prevFirst, second)
-                - CVRPClient.euclideanDistance(second, postSecond) - CVRPClient.euclideanDistance(prevSecond, second)
-                - CVRPClient.euclideanDistance(first, postFirst) - CVRPClient.euclideanDistance(prevFirst, first);
+        int prevSecond = this.currentRouteSecondPosition > 0
+                ? getSolution().getClientId(this.currentRoute, this.currentRouteSecondPosition - 1)
+                : depot;
+
+        return problemInfo.distance(first, postSecond) + problemInfo.distance(prevSecond, first)
+                + problemInfo.distance(second, postFirst) + problemInfo.distance(prevFirst, second)
+                - problemInfo.distance(second, postSecond) - problemInfo.distance(prevSecond, second)
+                - problemInfo.distance(first, postFirst) - problemInfo.distance(prevFirst, first);
 	}
 
 	@Override
@@ -131,33 +135,112 @@ public class IntrarouteSwap extends Move {
         if (getSolution() == null) {
             throw new IllegalAccessError("trying to use move with no base solution set");
         }
-        ArrayList<Integer> newSolutionCodification = CVRPSolution.generateSwappedSolution(getSolution(),
-                this.currentRoute, this.currentRouteFirstPosition, this.currentRoute, this.currentRouteSecondPosition);
-        return new CVRPSolution(getSolution().getProblemInfo(), newSolutionCodification);
+        CVRPSolution neighbor = new CVRPSolution(getSolution());
+        applyCurrentNeighbor(neighbor);
+        return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+        if (getSolution() == null) {
+            throw new IllegalAccessError("trying to use move with no base solution set");
+        }
+        solution.swapClients(this.currentRoute, this.currentRouteFirstPosition, this.currentRoute,
+                this.currentRouteSecondPosition);
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+        // Swapping the same clients again restores their original order
+        applyCurrentNeighbor(solution);
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+        descriptor.set(this, this.currentRoute, this.currentRouteFirstPosition, this.currentRoute,
+                this.currentRouteSecondPosition, getCurrentNeighborCost());
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+        solution.swapClients(descriptor.getFirstRoute(), descriptor.getFirstPosition(), descriptor.getSecondRoute(),
+                descriptor.getSecondPosition());
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new IntrarouteSwap();
+	}
+
+	@Override
+	public int getBaseClientId() {
+        // The neighbors are generated client by client, from the first client of the swap
+        if (this.currentRoute < 0 || this.currentRouteSecondPosition <= this.currentRouteFirstPosition) {
+            return MoveState.NO_CLIENT;
+        }
+        return getSolution().getClientId(this.currentRoute, this.currentRouteFirstPosition);
 	}
 
 	@Override
 	public boolean hasMoreNeighbors() {
         return this.hasMoreNeighbors;
 	}
+
+	@Override
+	protected boolean drawsRandomNeighbors() {
+        return true;
+	}
+
+	@Override
+	protected boolean drawRandomNeighbor(Random random) {
+        // Two random clients, rejected unless they are different clients of the same route
+        int firstClientId = drawRandomClient(random);
+        int secondClientId = drawRandomClient(random);
+        if (firstClientId == MoveState.NO_CLIENT || secondClientId == MoveState.NO_CLIENT
+                || firstClientId == secondClientId) {
+            return false;
+        }
+        int route = getSolution().getRouteOfClient(firstClientId);
+        if (route != getSolution().getRouteOfClient(secondClientId) || route < getRouteRangeStart()
+                || route >= getRouteRangeEnd()) {
+            return false;
+        }
+        int firstPosition = getSolution().getPositionOfClient(firstClientId);
+        int secondPosition = getSolution().getPositionOfClient(secondClientId);
+        if (!isClientActive(firstPosition < secondPosition ? firstClientId : secondClientId)) {
+            return false;
+        }
+        this.currentRoute = route;
+        this.numberClientsCurrentRoute = getSolution().getNumberOfClientsInRoute(route);
+        this.currentRouteFirstPosition = Math.min(firstPosition, secondPosition);
+        this.currentRouteSecondPosition = Math.max(firstPosition, secondPosition);
+        this.hasMoreNeighbors = false;
+        return true;
+	}
     
     /**
      * Initializes the state of this move
      */
     private void initialize() {
         this.hasMoreNeighbors = true;
-        this.currentRoute = 0;
+        this.currentRoute = getRouteRangeStart();
         this.currentRouteFirstPosition = 0;
         this.currentRouteSecondPosition = 0;
-        this.nextRoute = 0;
+        this.nextRoute = this.currentRoute;
         this.nextRouteFirstPosition = 0;
         this.nextRouteSecondPosition = 0;
         
         // Check that there is at least one route
-        this.numberRoutes = getSolution().getNumberOfRoutes();
-        if (this.numberRoutes == 0) {
+        if (getSolution().getNumberOfRoutes() == 0) {
             throw new IllegalArgumentException("Cannot perform moves on solution with no routes");
         }
+        // Only the routes of the range are explored
+        this.numberRoutes = getRouteRangeEnd();
+        if (this.currentRoute >= this.numberRoutes) {
+            this.hasMoreNeighbors = false;
+            this.nextRoute = -1;
+            return;
+        }
         
         this.numberClientsCurrentRoute = getSolution().getNumberOfClientsInRoute(this.currentRoute);
         this.numberClientsNextRoute = this.numberClientsCurrentRoute;
@@ -170,6 +253,20 @@ public class IntrarouteSwap extends Move {
      * after the current state or not
      */
     private void updateNextState() {
+        advanceNextState();
+        // The swaps of an inactive first client are skipped as a whole
+        while (this.hasMoreNeighbors
+                && !isClientActive(getSolution().getClientId(this.nextRoute, this.nextRouteFirstPosition))) {
+            this.nextRouteSecondPosition = this.numberClientsNextRoute;
+            advanceNextState();
+        }
+    }
+    
+    /**
+     * Moves the next state to the following swap, whatever its first client,
+     * and updates whether there are more neighbors after the current state or not
+     */
+    private void advanceNextState() {
         // The goal of this move is to iterate through all possible swaps of two elements in each route.
         // What we want to do is a iteration of the following loop each time this method is called
         //
@@ -213,6 +310,14 @@ public class IntrarouteSwap extends Move {
 			CVRPClient firstClient = getSolution().getClient(realFromPosition);
 			CVRPClient secondClient =  getSolution().getClient(realToPosition);
 			
-			return new MoveState(firstClient, secondClient);
+			return new MoveState(firstClient, secondClient, getSolution().getClientId(realFromPosition),
+					getSolution().getClientId(realToPosition));
+		}
+
+		@Override
+		public long getStateKey() {
+			int realFromPosition = getSolution().getRouteStartingIndex(currentRoute) + currentRouteFirstPosition;
+			int realToPosition = getSolution().getRouteStartingIndex(currentRoute) + currentRouteSecondPosition;
+			return MoveState.packKey(getSolution().getClientId(realFromPosition), getSolution().getClientId(realToPosition));
 		}
 }
@@ -1,5 +1,7 @@
 package daa.project.cvrp.moves;
 
+import java.util.Random;
+
 import daa.project.cvrp.problem.CVRPSolution;
 
 /**
@@ -13,12 +15,27 @@ import daa.project.cvrp.problem.CVRPSolution;
  *
  */
 public abstract class Move {
+	/**
+	 * Number of random neighbors drawn per route of the base solution before going
+	 * through the whole neighborhood to find a random feasible neighbor
+	 */
+	private static final int RANDOM_DRAWS_PER_ROUTE = 16;
+
 	/**
 	 * Base solution from which a set of neighbors will be generated by applying
 	 * this move
 	 */
 	private CVRPSolution solution;
 
+	/** First route (included) of the range whose neighbors are generated */
+	private int routeRangeStart = 0;
+	/** Last route (excluded) of the range whose neighbors are generated */
+	private int routeRangeEnd = Integer.MAX_VALUE;
+	/** Don't-look bits of the clients, or null to generate the neighbors of every client */
+	private DontLookBits dontLookBits;
+	/** Memory of the pairs of routes, or null to generate the neighbors of every pair */
+	private RoutePairMemory routePairMemory;
+
 	/** Updates the internal state to point to the next neighbor solution */
 	public abstract void nextNeighbor();
 	
@@ -46,6 +63,47 @@ public abstract class Move {
 	/** @return The solution made from applying the last move */
 	public abstract CVRPSolution getCurrentNeighbor();
 
+	/**
+	 * Applies in place the change that turns the base solution into the current
+	 * neighbor. Only the affected parts of the solution are updated, so no new
+	 * solution is created.
+	 * 
+	 * @param solution
+	 *          Solution to modify. It has to hold the same codification as the
+	 *          base solution: the base solution itself or a copy of it
+	 */
+	public abstract void applyCurrentNeighbor(CVRPSolution solution);
+
+	/**
+	 * Reverts in place the change made by {@link #applyCurrentNeighbor}, so the
+	 * solution holds again the codification of the base solution. The move must
+	 * not have advanced to another neighbor in between.
+	 * 
+	 * @param solution
+	 *          Solution previously modified with applyCurrentNeighbor
+	 */
+	public abstract void undoCurrentNeighbor(CVRPSolution solution);
+
+	/**
+	 * Stores in the descriptor the current neighbor, so it can be applied later
+	 * without keeping the whole solution.
+	 * 
+	 * @param descriptor
+	 *          Descriptor to overwrite with the current neighbor
+	 */
+	public abstract void describeCurrentNeighbor(NeighborDescriptor descriptor);
+
+	/**
+	 * Applies in place a neighbor previously described by this move.
+	 * 
+	 * @param descriptor
+	 *          Neighbor filled with {@link #describeCurrentNeighbor}
+	 * @param solution
+	 *          Solution with the same codification as the base solution the
+	 *          neighbor was described from
+	 */
+	public abstract void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution);
+
 	/**
 	 * Base solution from which the neighborhood structure will be generated
 	 * 
@@ -59,10 +117,221 @@ public abstract class Move {
 	/** Method that returns the state of the move. */
 	public abstract MoveState getState();
 
+	/**
+	 * Returns the state of the move as a primitive key with the IDs of its
+	 * clients (see {@link MoveState#packKey}). The moves override it so no
+	 * object is created for every neighbor.
+	 * 
+	 * @return Key of the state of the move
+	 */
+	public long getStateKey() {
+		return getState().getKey();
+	}
+
 	/** @return The current solution that is the movement using. */
 	public CVRPSolution getSolution() {
 		return solution;
 	}
+
+	/**
+	 * Creates a new move of the same type and configuration as this one, with no
+	 * base solution and its own state, so both can go through neighborhoods at
+	 * the same time (for example, from different threads)
+	 * 
+	 * @return New move
+	 */
+	public abstract Move createEmptyCopy();
+
+	/**
+	 * Restricts the neighbors generated by the move to the ones whose first route
+	 * is in the specified range. The first route of a neighbor is the route of the
+	 * client the move starts from (the route of the moved client in a relocation,
+	 * the first route of a swap or the only route of an intra-route move). So the
+	 * neighborhoods of disjoint ranges are disjoint, and the neighborhoods of a
+	 * partition of the routes cover the whole neighborhood. It takes effect the
+	 * next time a base solution is set.
+	 * 
+	 * @param firstRoute
+	 *          First route of the range (included)
+	 * @param lastRoute
+	 *          Last route of the range (excluded)
+	 */
+	public void setRouteRange(int firstRoute, int lastRoute) {
+		if (firstRoute < 0 || lastRoute < firstRoute) {
+			throw new IllegalArgumentException("invalid route range [" + firstRoute + ", " + lastRoute + ")");
+		}
+		this.routeRangeStart = firstRoute;
+		this.routeRangeEnd = lastRoute;
+	}
+
+	/**
+	 * Sets the don't-look bits of the clients. The moves that explore the
+	 * neighborhood client by client (the granular moves) skip the neighbors
+	 * generated from inactive clients; the rest of the moves generate every
+	 * neighbor. It takes effect the next time a base solution is set.
+	 * 
+	 * @param dontLookBits
+	 *          Bits of the clients, or null to generate the neighbors of every
+	 *          client
+	 */
+	public void setDontLookBits(DontLookBits dontLookBits) {
+		this.dontLookBits = dontLookBits;
+	}
+
+	/** @return The don't-look bits of the clients, or null if every client is explored */
+	public DontLookBits getDontLookBits() {
+		return this.dontLookBits;
+	}
+
+	/**
+	 * Returns the ID of the client the current neighbor was generated from, for
+	 * the moves that skip the inactive clients (see {@link #setDontLookBits}).
+	 * 
+	 * @return ID of the client, or MoveState.NO_CLIENT if the move does not
+	 *         explore the neighborhood client by client or there is no current
+	 *         neighbor
+	 */
+	public int getBaseClientId() {
+		return MoveState.NO_CLIENT;
+	}
+
+	/**
+	 * @param clientId
+	 *          ID of the client
+	 * @return Whether the neighbors generated from the client have to be explored
+	 */
+	protected boolean isClientActive(int clientId) {
+		return this.dontLookBits == null || this.dontLookBits.isActive(clientId);
+	}
+
+	/**
+	 * Describes a neighbor of the base solution chosen uniformly at random among
+	 * its feasible neighbors. The moves that draw random neighbors directly (see
+	 * {@link #drawRandomNeighbor}) draw them until one is feasible, which takes
+	 * constant expected time unless most of the neighbors are unfeasible. The rest
+	 * of moves, or the ones whose draws keep failing, go through the whole
+	 * neighborhood. The move is left at the chosen neighbor or at the end of the
+	 * neighborhood, so the base solution has to be set again before going through
+	 * the neighbors.
+	 * 
+	 * @param random
+	 *          Generator of the random numbers
+	 * @param descriptor
+	 *          Descriptor to overwrite with the random neighbor
+	 * @return Whether the base solution has any feasible neighbor
+	 */
+	public boolean describeRandomFeasibleNeighbor(Random random, NeighborDescriptor descriptor) {
+		if (drawsRandomNeighbors()) {
+			int maximumDraws = RANDOM_DRAWS_PER_ROUTE * (getSolution().getNumberOfRoutes() + 1);
+			for (int draw = 0; draw < maximumDraws; ++draw) {
+				if (drawRandomNeighbor(random) && isCurrentNeighborFeasible()) {
+					describeCurrentNeighbor(descriptor);
+					return true;
+				}
+			}
+		}
+
+		// Reservoir sampling: every feasible neighbor seen so far has the same probability to be the random one
+		setSolution(getSolution());
+		int numberOfFeasibleNeighbors = 0;
+		while (hasMoreNeighbors()) {
+			nextNeighbor();
+			if (isCurrentNeighborFeasible()) {
+				numberOfFeasibleNeighbors++;
+				if (random.nextInt(numberOfFeasibleNeighbors) == 0) {
+					describeCurrentNeighbor(descriptor);
+				}
+			}
+		}
+		return numberOfFeasibleNeighbors > 0;
+	}
+
+	/** @return Whether the move draws random neighbors directly (see {@link #drawRandomNeighbor}) */
+	protected boolean drawsRandomNeighbors() {
+		return false;
+	}
+
+	/**
+	 * Makes the current neighbor one drawn uniformly at random among the neighbors
+	 * the move goes through, feasible or not. The moves draw random positions of
+	 * the base solution and reject the ones that are not a neighbor (for example,
+	 * two clients of different routes in an intra-route move), so every neighbor
+	 * keeps the same probability. The current neighbor is undefined after a
+	 * rejected draw.
+	 * 
+	 * @param random
+	 *          Generator of the random numbers
+	 * @return Whether the draw was a neighbor, which is the current one
+	 */
+	protected boolean drawRandomNeighbor(Random random) {
+		return false;
+	}
+
+	/**
+	 * @param random
+	 *          Generator of the random numbers
+	 * @return ID of a node of the problem drawn uniformly at random, or
+	 *         MoveState.NO_CLIENT if it is the depot or a client that is not in
+	 *         the base solution, so the draw has to be rejected
+	 */
+	protected int drawRandomClient(Random random) {
+		int clientId = random.nextInt(getSolution().getProblemInfo().getClients().size());
+		if (clientId == getSolution().getProblemInfo().getDepotID()
+				|| getSolution().getRouteOfClient(clientId) == CVRPSolution.CLIENT_NOT_FOUND) {
+			return MoveState.NO_CLIENT;
+		}
+		return clientId;
+	}
+
+	/**
+	 * Sets the memory of the pairs of routes. The moves whose neighbors only
+	 * change their first and second route (see
+	 * {@link #generatesNeighborsByRoutePair}) skip the neighbors of the pairs with
+	 * no modified route; the rest of the moves generate every neighbor. It takes
+	 * effect the next time a base solution is set.
+	 * 
+	 * @param routePairMemory
+	 *          Memory of the pairs of routes, or null to generate the neighbors of
+	 *          every pair
+	 */
+	public void setRoutePairMemory(RoutePairMemory routePairMemory) {
+		this.routePairMemory = routePairMemory;
+	}
+
+	/** @return The memory of the pairs of routes, or null if every pair is explored */
+	public RoutePairMemory getRoutePairMemory() {
+		return this.routePairMemory;
+	}
+
+	/**
+	 * @return Whether the cost and the feasibility of every neighbor only depend
+	 *         on its first and second route, and the move skips the pairs of
+	 *         routes with no modified route (see {@link #setRoutePairMemory})
+	 */
+	public boolean generatesNeighborsByRoutePair() {
+		return false;
+	}
+
+	/**
+	 * @param firstRoute
+	 *          First route of the pair
+	 * @param secondRoute
+	 *          Second route of the pair
+	 * @return Whether the neighbors of the pair of routes have to be explored
+	 */
+	protected boolean isRoutePairModified(int firstRoute, int secondRoute) {
+		return this.routePairMemory == null || this.routePairMemory.isModified(firstRoute, secondRoute);
+	}
+
+	/** @return The first route (included) whose neighbors are generated */
+	protected int getRouteRangeStart() {
+		return this.routeRangeStart;
+	}
+
+	/** @return The last route (excluded) of the base solution whose neighbors are generated */
+	protected int getRouteRangeEnd() {
+		return Math.min(this.routeRangeEnd, getSolution().getNumberOfRoutes());
+	}
 	
 	
 }
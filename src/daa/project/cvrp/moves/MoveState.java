@@ -15,13 +15,77 @@ import daa.project.cvrp.problem.CVRPClient;
  */
 public class MoveState {
 
+	/** ID of a client that is not part of the state or is unknown */
+	public static final int NO_CLIENT = -1;
+
 	private static final CVRPClient DEFAULT_CLIENT = new CVRPClient(0, 0, 0);
 	private CVRPClient firstClient;
 	private CVRPClient secondClient;
+	/** ID of the first client, or NO_CLIENT */
+	private int firstClientId;
+	/** ID of the second client, or NO_CLIENT */
+	private int secondClientId;
 
 	public MoveState(CVRPClient firstClient, CVRPClient secondClient) {
+		this(firstClient, secondClient, NO_CLIENT, NO_CLIENT);
+	}
+
+	/**
+	 * @param firstClient
+	 *          First client of the move, or null
+	 * @param secondClient
+	 *          Second client of the move, or null
+	 * @param firstClientId
+	 *          ID of the first client, or NO_CLIENT
+	 * @param secondClientId
+	 *          ID of the second client, or NO_CLIENT
+	 */
+	public MoveState(CVRPClient firstClient, CVRPClient secondClient, int firstClientId, int secondClientId) {
 		setFirstClient(firstClient);
 		setSecondClient(secondClient);
+		this.firstClientId = firstClientId;
+		this.secondClientId = secondClientId;
+	}
+
+	/**
+	 * Packs the IDs of the clients of a state into a single primitive key, so the
+	 * state can be identified without creating an object. The order of the IDs is
+	 * kept, so the same pair in the opposite order has a different key.
+	 *
+	 * @param firstClientId
+	 *          ID of the first client, or NO_CLIENT
+	 * @param secondClientId
+	 *          ID of the second client, or NO_CLIENT
+	 * @return Key of the state
+	 */
+	public static long packKey(int firstClientId, int secondClientId) {
+		return ((long) firstClientId << 32) | (secondClientId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @param key
+	 *          Key made with packKey
+	 * @return The ID of the first client of the key
+	 */
+	public static int getFirstClientId(long key) {
+		return (int) (key >> 32);
+	}
+
+	/**
+	 * @param key
+	 *          Key made with packKey
+	 * @return The ID of the second client of the key
+	 */
+	public static int getSecondClientId(long key) {
+		return (int) key;
+	}
+
+	/**
+	 * @return The key of this state
+	 * @see #packKey(int, int)
+	 */
+	public long getKey() {
+		return packKey(getFirstClientId(), getSecondClientId());
 	}
 
 	/**
@@ -38,6 +102,20 @@ public class MoveState {
 		return secondClient;
 	}
 
+	/**
+	 * @return the ID of the first client, or NO_CLIENT
+	 */
+	public int getFirstClientId() {
+		return firstClientId;
+	}
+
+	/**
+	 * @return the ID of the second client, or NO_CLIENT
+	 */
+	public int getSecondClientId() {
+		return secondClientId;
+	}
+
 	/**
 	 * @param firstClient
 	 *          the firstClient to set
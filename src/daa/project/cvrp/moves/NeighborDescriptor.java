@@ -0,0 +1,164 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+
+/**
+ * Lightweight description of a neighbor: the move that generates it, the
+ * positions it changes and its cost. It allows to remember a neighbor without
+ * building the whole solution, which is only materialized when the neighbor
+ * is applied to a solution.
+ *
+ * The same descriptor is meant to be reused, so its state is overwritten every
+ * time a move describes a neighbor in it.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file NeighborDescriptor.java
+ *
+ */
+public class NeighborDescriptor {
+	/** Value of the routes and positions when no neighbor is described */
+	public static final int NO_POSITION = -1;
+
+	/** Move that generates the neighbor */
+	private Move move;
+	/** Route of the first client affected by the move */
+	private int firstRoute = NO_POSITION;
+	/** Position of the first client affected by the move inside its route */
+	private int firstPosition = NO_POSITION;
+	/** Route of the second client (or destination) affected by the move */
+	private int secondRoute = NO_POSITION;
+	/** Position of the second client (or destination) inside its route */
+	private int secondPosition = NO_POSITION;
+	/**
+	 * First additional parameter of the neighbor, whose meaning depends on the
+	 * move (for example, the length of a segment), or NO_POSITION if unused
+	 */
+	private int firstParameter = NO_POSITION;
+	/** Second additional parameter of the neighbor, or NO_POSITION if unused */
+	private int secondParameter = NO_POSITION;
+	/** Objective function value of the neighbor */
+	private double cost;
+
+	/**
+	 * Sets the neighbor described
+	 *
+	 * @param move Move that generates the neighbor
+	 * @param firstRoute Route of the first client affected by the move
+	 * @param firstPosition Position of the first client inside its route
+	 * @param secondRoute Route of the second client (or destination) affected by the move
+	 * @param secondPosition Position of the second client (or destination) inside its route
+	 * @param cost Objective function value of the neighbor
+	 */
+	public void set(Move move, int firstRoute, int firstPosition, int secondRoute, int secondPosition, double cost) {
+		set(move, firstRoute, firstPosition, secondRoute, secondPosition, NO_POSITION, NO_POSITION, cost);
+	}
+
+	/**
+	 * Sets the neighbor described, for moves that need more than two positions
+	 * to identify their neighbors
+	 *
+	 * @param move Move that generates the neighbor
+	 * @param firstRoute Route of the first client affected by the move
+	 * @param firstPosition Position of the first client inside its route
+	 * @param secondRoute Route of the second client (or destination) affected by the move
+	 * @param secondPosition Position of the second client (or destination) inside its route
+	 * @param firstParameter First additional parameter of the neighbor
+	 * @param secondParameter Second additional parameter of the neighbor
+	 * @param cost Objective function value of the neighbor
+	 */
+	public void set(Move move, int firstRoute, int firstPosition, int secondRoute, int secondPosition,
+			int firstParameter, int secondParameter, double cost) {
+		this.move = move;
+		this.firstRoute = firstRoute;
+		this.firstPosition = firstPosition;
+		this.secondRoute = secondRoute;
+		this.secondPosition = secondPosition;
+		this.firstParameter = firstParameter;
+		this.secondParameter = secondParameter;
+		this.cost = cost;
+	}
+
+	/**
+	 * Copies the neighbor described by another descriptor
+	 *
+	 * @param descriptor Descriptor to copy from
+	 */
+	public void copyFrom(NeighborDescriptor descriptor) {
+		set(descriptor.getMove(), descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+				descriptor.getSecondRoute(), descriptor.getSecondPosition(), descriptor.getFirstParameter(),
+				descriptor.getSecondParameter(), descriptor.getCost());
+	}
+
+	/** Makes the descriptor not describe any neighbor */
+	public void clear() {
+		set(null, NO_POSITION, NO_POSITION, NO_POSITION, NO_POSITION, 0.0);
+	}
+
+	/**
+	 * Applies in place the described neighbor to the given solution
+	 *
+	 * @param solution Solution with the same codification as the base solution
+	 *          of the neighbor
+	 */
+	public void applyTo(CVRPSolution solution) {
+		if (isEmpty()) {
+			throw new IllegalStateException("trying to apply an empty neighbor descriptor");
+		}
+		getMove().applyNeighbor(this, solution);
+	}
+
+	/** @return Whether the descriptor does not describe any neighbor */
+	public boolean isEmpty() {
+		return this.move == null;
+	}
+
+	/** @return The move that generates the neighbor */
+	public Move getMove() {
+		return move;
+	}
+
+	/** @return The route of the first client affected by the move */
+	public int getFirstRoute() {
+		return firstRoute;
+	}
+
+	/** @return The position of the first client inside its route */
+	public int getFirstPosition() {
+		return firstPosition;
+	}
+
+	/** @return The route of the second client (or destination) affected by the move */
+	public int getSecondRoute() {
+		return secondRoute;
+	}
+
+	/** @return The position of the second client (or destination) inside its route */
+	public int getSecondPosition() {
+		return secondPosition;
+	}
+
+	/** @return The first additional parameter of the neighbor, or NO_POSITION */
+	public int getFirstParameter() {
+		return firstParameter;
+	}
+
+	/** @return The second additional parameter of the neighbor, or NO_POSITION */
+	public int getSecondParameter() {
+		return secondParameter;
+	}
+
+	/** @return The objective function value of the neighbor */
+	public double getCost() {
+		return cost;
+	}
+
+	@Override
+	public String toString() {
+		return "NeighborDescriptor [move=" + (move == null ? "none" : move.getClass().getSimpleName())
+				+ ", firstRoute=" + firstRoute + ", firstPosition=" + firstPosition + ", secondRoute=" + secondRoute
+				+ ", secondPosition=" + secondPosition + ", firstParameter=" + firstParameter + ", secondParameter="
+				+ secondParameter + ", cost=" + cost + "]";
+	}
+}
@@ -0,0 +1,86 @@
+package daa.project.cvrp.moves;
+
+/**
+ * Definition of the neighborhood structure generated by a move. It only holds
+ * the type and configuration of the move, never a base solution nor the state of
+ * an exploration, so a single instance can be shared by any number of searches
+ * running at the same time (for example, from different threads).
+ *
+ * Every exploration of the neighborhood is done with its own move, created with
+ * {@link #createMove()}, which acts as the cursor over the neighbors.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file Neighborhood.java
+ *
+ */
+public final class Neighborhood {
+	/** Move that is never given a base solution, only copied */
+	private final Move prototype;
+
+	/**
+	 * Creates the definition of the neighborhood generated by moves of the same
+	 * type and configuration as the one specified. The move is not kept, so it can
+	 * still be used elsewhere.
+	 *
+	 * @param move Move that generates the neighborhood
+	 */
+	public Neighborhood(Move move) {
+		if (move == null) {
+			throw new IllegalArgumentException("invalid null move for the neighborhood");
+		}
+		this.prototype = move.createEmptyCopy();
+	}
+
+	/**
+	 * Creates the definitions of the neighborhoods generated by a list of moves
+	 *
+	 * @param moves Moves that generate the neighborhoods
+	 * @return Neighborhoods in the same order as the moves
+	 */
+	public static Neighborhood[] of(Move... moves) {
+		Neighborhood[] neighborhoods = new Neighborhood[moves.length];
+		for (int i = 0; i < moves.length; ++i) {
+			neighborhoods[i] = new Neighborhood(moves[i]);
+		}
+		return neighborhoods;
+	}
+
+	/**
+	 * Creates a move for each of the neighborhoods specified
+	 *
+	 * @param neighborhoods Neighborhoods to explore
+	 * @return New moves in the same order as the neighborhoods
+	 */
+	public static Move[] createMoves(Neighborhood[] neighborhoods) {
+		Move[] moves = new Move[neighborhoods.length];
+		for (int i = 0; i < neighborhoods.length; ++i) {
+			moves[i] = neighborhoods[i].createMove();
+		}
+		return moves;
+	}
+
+	/**
+	 * Creates a new move, with no base solution, that goes through this
+	 * neighborhood. The move must be used by a single thread.
+	 *
+	 * @return New move
+	 */
+	public Move createMove() {
+		return this.prototype.createEmptyCopy();
+	}
+
+	/**
+	 * @return Whether every neighbor of the neighborhood only changes two routes
+	 *         (see {@link Move#generatesNeighborsByRoutePair})
+	 */
+	public boolean generatesNeighborsByRoutePair() {
+		return this.prototype.generatesNeighborsByRoutePair();
+	}
+
+	@Override
+	public String toString() {
+		return this.prototype.getClass().getSimpleName();
+	}
+}
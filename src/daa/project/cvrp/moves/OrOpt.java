@@ -0,0 +1,349 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Or-opt move: a segment of up to a maximum number of consecutive clients of a
+ * route is moved to another place of the same route or of another route,
+ * keeping or reversing the order of its clients.
+ *
+ * Only the edges at both ends of the segment and the one where it is inserted
+ * change, so the cost of every neighbor is computed in constant time. The
+ * demand of the segment is known in constant time from the loads kept by the
+ * solution, so the feasibility is also checked in constant time.
+ *
+ * Moving a segment to its own place is not a neighbor, as reversing a segment
+ * in place is already done by the TwoOpt move, and a single client is never
+ * reversed.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file OrOpt.java
+ *
+ */
+public class OrOpt extends Move {
+	/** Default maximum number of clients of the segments moved */
+	public static final int DEFAULT_MAX_SEGMENT_LENGTH = 3;
+	/** Value of the routes when there is no neighbor */
+	private static final int NO_ROUTE = -1;
+
+	/** Maximum number of clients of the segments moved */
+	private final int maxSegmentLength;
+
+	/** Route of the segment of the current neighbor */
+	private int fromRoute = NO_ROUTE;
+	/** Position of the first client of the segment of the current neighbor */
+	private int fromPosition;
+	/** Number of clients of the segment of the current neighbor */
+	private int segmentLength;
+	/** Route where the segment of the current neighbor is inserted */
+	private int toRoute = NO_ROUTE;
+	/** Position of the route where the segment of the current neighbor is inserted */
+	private int toPosition;
+	/** Whether the segment of the current neighbor is reversed */
+	private boolean reversed;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/** Route of the segment of the next neighbor, or NO_ROUTE if there are no more neighbors */
+	private int nextFromRoute = NO_ROUTE;
+	/** Position of the first client of the segment of the next neighbor */
+	private int nextFromPosition;
+	/** Number of clients of the segment of the next neighbor */
+	private int nextSegmentLength;
+	/** Route where the segment of the next neighbor is inserted */
+	private int nextToRoute;
+	/** Position of the route where the segment of the next neighbor is inserted */
+	private int nextToPosition;
+	/** Whether the segment of the next neighbor is reversed */
+	private boolean nextReversed;
+
+	/** Creates an Or-opt move for segments of up to DEFAULT_MAX_SEGMENT_LENGTH clients */
+	public OrOpt() {
+		this(DEFAULT_MAX_SEGMENT_LENGTH);
+	}
+
+	/** @param maxSegmentLength Maximum number of clients of the segments moved */
+	public OrOpt(int maxSegmentLength) {
+		if (maxSegmentLength < 1) {
+			throw new IllegalArgumentException("invalid maximum segment length " + maxSegmentLength);
+		}
+		this.maxSegmentLength = maxSegmentLength;
+	}
+
+	@Override
+	public void setSolution(CVRPSolution solution) {
+		super.setSolution(solution);
+		this.fromRoute = NO_ROUTE;
+		this.toRoute = NO_ROUTE;
+
+		this.nextFromRoute = getNextFromRoute(NO_ROUTE);
+		this.nextFromPosition = 0;
+		this.nextSegmentLength = 1;
+		this.nextToRoute = 0;
+		this.nextToPosition = 0;
+		this.nextReversed = false;
+		if (this.nextFromRoute != NO_ROUTE && !isNextNeighborValid()) {
+			advanceNextNeighbor();
+		}
+	}
+
+	@Override
+	public void nextNeighbor() {
+		if (!hasMoreNeighbors()) {
+			return;
+		}
+		this.fromRoute = this.nextFromRoute;
+		this.fromPosition = this.nextFromPosition;
+		this.segmentLength = this.nextSegmentLength;
+		this.toRoute = this.nextToRoute;
+		this.toPosition = this.nextToPosition;
+		this.reversed = this.nextReversed;
+		calculateLastMoveCost();
+		advanceNextNeighbor();
+	}
+
+	@Override
+	public boolean hasMoreNeighbors() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.nextFromRoute != NO_ROUTE;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return hasCurrentNeighbor() ? this.lastMoveCost : 0.0;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		return getSolution().getTotalDistance() + getLastMoveCost();
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor() || this.fromRoute == this.toRoute) {
+			return getSolution().isFeasible();
+		}
+		int segmentDemand = getSolution().getSegmentLoad(this.fromRoute, this.fromPosition, this.segmentLength);
+		return getSolution().getVehicleRemainingCapacity(this.fromRoute) + segmentDemand >= 0
+				&& getSolution().getVehicleRemainingCapacity(this.toRoute) - segmentDemand >= 0
+				&& getSolution().areOtherRoutesFeasible(this.fromRoute, this.toRoute);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.relocateSegment(this.fromRoute, this.fromPosition, this.segmentLength, this.toRoute,
+					this.toPosition, this.reversed);
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The segment is moved back from where it was inserted, and
+	 * reversed again if it was reversed. Inside the same route, removing the
+	 * segment shifts the positions after it, which has to be taken into account.
+	 *
+	 * @see daa.project.cvrp.moves.Move#undoCurrentNeighbor(daa.project.cvrp.problem.CVRPSolution)
+	 */
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			if (this.fromRoute != this.toRoute) {
+				solution.relocateSegment(this.toRoute, this.toPosition, this.segmentLength, this.fromRoute,
+						this.fromPosition, this.reversed);
+			}
+			else if (this.toPosition < this.fromPosition) {
+				solution.relocateSegment(this.toRoute, this.toPosition, this.segmentLength, this.fromRoute,
+						this.fromPosition + this.segmentLength, this.reversed);
+			}
+			else {
+				solution.relocateSegment(this.toRoute, this.toPosition - this.segmentLength, this.segmentLength,
+						this.fromRoute, this.fromPosition, this.reversed);
+			}
+		}
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, this.fromRoute, this.fromPosition, this.toRoute, this.toPosition, this.segmentLength,
+					this.reversed ? 1 : 0, getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION,
+					NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION, getSolution().getTotalDistance());
+		}
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.relocateSegment(descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+					descriptor.getFirstParameter(), descriptor.getSecondRoute(), descriptor.getSecondPosition(),
+					descriptor.getSecondParameter() == 1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The state is made of the first and last clients of the
+	 * segment. A single client has no second client, as in a relocation.
+	 *
+	 * @see daa.project.cvrp.moves.Move#getState()
+	 */
+	@Override
+	public MoveState getState() {
+		int firstClientId = getFirstClientOfSegment();
+		int lastClientId = getLastClientOfSegment();
+		return new MoveState(getSolution().getProblemInfo().getClient(firstClientId),
+				(lastClientId == MoveState.NO_CLIENT) ? null : getSolution().getProblemInfo().getClient(lastClientId),
+				firstClientId, lastClientId);
+	}
+
+	@Override
+	public long getStateKey() {
+		return MoveState.packKey(getFirstClientOfSegment(), getLastClientOfSegment());
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new OrOpt(getMaxSegmentLength());
+	}
+
+	/** @return The maximum number of clients of the segments moved */
+	public int getMaxSegmentLength() {
+		return this.maxSegmentLength;
+	}
+
+	/** @return The ID of the first client of the segment of the current neighbor */
+	private int getFirstClientOfSegment() {
+		return getSolution().getClientId(this.fromRoute, this.fromPosition);
+	}
+
+	/** @return The ID of the last client of the segment, or NO_CLIENT if it is a single client */
+	private int getLastClientOfSegment() {
+		if (this.segmentLength == 1) {
+			return MoveState.NO_CLIENT;
+		}
+		return getSolution().getClientId(this.fromRoute, this.fromPosition + this.segmentLength - 1);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.fromRoute != NO_ROUTE;
+	}
+
+	/**
+	 * Computes the difference in the objective function of the current neighbor:
+	 * the edges at both ends of the segment are replaced by the one joining its
+	 * surroundings, and the edge where it is inserted by the edges to its ends.
+	 */
+	private void calculateLastMoveCost() {
+		CVRPSolution solution = getSolution();
+		CVRPSpecification problemInfo = solution.getProblemInfo();
+		int depot = problemInfo.getDepotID();
+		int lastPosition = this.fromPosition + this.segmentLength - 1;
+
+		int firstClient = solution.getClientId(this.fromRoute, this.fromPosition);
+		int lastClient = solution.getClientId(this.fromRoute, lastPosition);
+		int prev = (this.fromPosition == 0) ? depot : solution.getClientId(this.fromRoute, this.fromPosition - 1);
+		int next = (lastPosition == solution.getNumberOfClientsInRoute(this.fromRoute) - 1) ? depot
+				: solution.getClientId(this.fromRoute, lastPosition + 1);
+		int newPrev = (this.toPosition == 0) ? depot : solution.getClientId(this.toRoute, this.toPosition - 1);
+		int newNext = (this.toPosition == solution.getNumberOfClientsInRoute(this.toRoute)) ? depot
+				: solution.getClientId(this.toRoute, this.toPosition);
+		int newFirstClient = this.reversed ? lastClient : firstClient;
+		int newLastClient = this.reversed ? firstClient : lastClient;
+
+		this.lastMoveCost = problemInfo.distance(prev, next) - problemInfo.distance(prev, firstClient)
+				- problemInfo.distance(lastClient, next) + problemInfo.distance(newPrev, newFirstClient)
+				+ problemInfo.distance(newLastClient, newNext) - problemInfo.distance(newPrev, newNext);
+	}
+
+	/**
+	 * Returns the first route after the specified one, inside the route range,
+	 * that has clients to move
+	 *
+	 * @param route Route to start after
+	 * @return Next route with clients or NO_ROUTE if there is none
+	 */
+	private int getNextFromRoute(int route) {
+		for (int i = Math.max(route + 1, getRouteRangeStart()); i < getRouteRangeEnd(); ++i) {
+			if (getSolution().getNumberOfClientsInRoute(i) > 0) {
+				return i;
+			}
+		}
+		return NO_ROUTE;
+	}
+
+	/**
+	 * Advances the next neighbor to the following valid one, or to NO_ROUTE if
+	 * there are no more neighbors. The neighbors are generated by segment (route,
+	 * position and length), then by destination (route and position) and last by
+	 * orientation.
+	 */
+	private void advanceNextNeighbor() {
+		do {
+			stepNextNeighbor();
+		} while (this.nextFromRoute != NO_ROUTE && !isNextNeighborValid());
+	}
+
+	/** Moves the next neighbor one step forward, even if the neighbor is not valid */
+	private void stepNextNeighbor() {
+		CVRPSolution solution = getSolution();
+		if (!this.nextReversed && this.nextSegmentLength > 1) {
+			this.nextReversed = true;
+			return;
+		}
+		this.nextReversed = false;
+		if (this.nextToPosition < solution.getNumberOfClientsInRoute(this.nextToRoute)) {
+			this.nextToPosition++;
+			return;
+		}
+		this.nextToPosition = 0;
+		if (this.nextToRoute + 1 < solution.getNumberOfRoutes()) {
+			this.nextToRoute++;
+			return;
+		}
+		this.nextToRoute = 0;
+		int clientsInFromRoute = solution.getNumberOfClientsInRoute(this.nextFromRoute);
+		if (this.nextSegmentLength < getMaxSegmentLength()
+				&& this.nextFromPosition + this.nextSegmentLength < clientsInFromRoute) {
+			this.nextSegmentLength++;
+			return;
+		}
+		this.nextSegmentLength = 1;
+		if (this.nextFromPosition + 1 < clientsInFromRoute) {
+			this.nextFromPosition++;
+			return;
+		}
+		this.nextFromPosition = 0;
+		this.nextFromRoute = getNextFromRoute(this.nextFromRoute);
+	}
+
+	/** @return Whether the next neighbor moves the segment out of its own place */
+	private boolean isNextNeighborValid() {
+		return this.nextToRoute != this.nextFromRoute || this.nextToPosition < this.nextFromPosition
+				|| this.nextToPosition > this.nextFromPosition + this.nextSegmentLength;
+	}
+}
@@ -7,17 +7,22 @@
  */
 package daa.project.cvrp.moves;
 
+import java.util.Random;
+
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
 
 /**
  * Relocation move is an inter-route move that moves an element from a route to
- * another one.
+ * another one. The clients made inactive by the don't-look bits are not moved.
  */
 public class Relocation extends Move {
 
 	/** Default value of route indicates that doesn't exist. */
 	private int DEFAULT_ROUTE_VALUE = -1;
+	/** Value of position indicates that there is no active client in a route. */
+	private static final int NO_POSITION = -1;
 
 	/** Index of the current route from where the exchange is produced. */
 	private int currentFromRoute = DEFAULT_ROUTE_VALUE;
@@ -43,23 +48,56 @@ public class Relocation extends Move {
 		this.canAdvance = true;
 
 		this.currentFromRoutePosition = 0;
-		this.currentFromRoute = getNextRouteOf(-1);
-
-		if (this.currentFromRoute == 0) {
-			this.currentToRoute = (getSolution().getNumberOfRoutes() > 1) ? 1 : DEFAULT_ROUTE_VALUE;
+		this.currentToRoutePosition = 0;
+		if (!selectFromRouteAfter(-1)) {
+			this.currentFromRoute = getNextRouteOf(-1);
+			this.currentToRoute = DEFAULT_ROUTE_VALUE;
+			this.canAdvance = false;
 		}
-		else {
-			this.currentToRoute = 0;
+	}
+
+	/**
+	 * Selects as from route the first non-empty route of the range after the
+	 * specified one with an active client and a to route whose pair has to be
+	 * explored, its first active client and that to route. If there is no such
+	 * route, the current routes are kept.
+	 * 
+	 * @return If there was such a route.
+	 */
+	private boolean selectFromRouteAfter(int currentRoute) {
+		for (int fromRoute = getNextRouteOf(currentRoute); fromRoute != DEFAULT_ROUTE_VALUE; fromRoute = getNextRouteOf(
+				fromRoute)) {
+			int toRoute = getNextToRouteOf(fromRoute, -1);
+			int fromPosition = getNextActivePosition(fromRoute, 0);
+			if (toRoute != DEFAULT_ROUTE_VALUE && fromPosition != NO_POSITION) {
+				this.currentFromRoute = fromRoute;
+				this.currentFromRoutePosition = fromPosition;
+				this.currentToRoute = toRoute;
+				this.currentToRoutePosition = 0;
+				return true;
+			}
 		}
-		this.currentToRoutePosition = 0;
+		return false;
+	}
 
-		if ((this.currentFromRoute == DEFAULT_ROUTE_VALUE) || (this.currentToRoute == DEFAULT_ROUTE_VALUE)) {
-			this.canAdvance = false;
+	/**
+	 * Method that looks for the first position of a route, from the specified
+	 * one, whose client is active.
+	 * 
+	 * @return The position, or NO_POSITION if there is no such client.
+	 */
+	private int getNextActivePosition(int route, int position) {
+		for (int i = position; i < getSolution().getNumberOfClientsInRoute(route); ++i) {
+			if (isClientActive(getSolution().getClientId(route, i))) {
+				return i;
+			}
 		}
+		return NO_POSITION;
 	}
 
 	private int getNextRouteOf(int currentRoute) {
-		for (int i = currentRoute + 1; i < getSolution().getNumberOfRoutes(); ++i) {
+		// Only the routes of the range are used as from routes
+		for (int i = Math.max(currentRoute + 1, getRouteRangeStart()); i < getRouteRangeEnd(); ++i) {
 			if (getSolution().getNumberOfClientsInRoute(i) > 0) {
 				return i;
 			}
@@ -93,12 +131,7 @@ public class Relocation extends Move {
 
 	private boolean advanceToPosition() {
 		if (this.currentToRoutePosition == this.getSolution().getNumberOfClientsInRoute(currentToRoute)) {
-			if (this.currentToRoute == this.getSolution().getNumberOfRoutes() - 1) {
-				return advanceFromPosition();
-			}
-			else {
-				return advanceToRoute();
-			}
+			return advanceToRoute();
 		}
 		else {
 			this.currentToRoutePosition++;
@@ -107,52 +140,31 @@ public class Relocation extends Move {
 	}
 
 	private boolean advanceFromPosition() {
-		if ((getSolution().getNumberOfClientsInRoute(currentFromRoute) == 0)
-				|| (currentFromRoutePosition == getSolution().getNumberOfClientsInRoute(currentFromRoute) - 1)) {
+		int nextFromPosition = getNextActivePosition(currentFromRoute, currentFromRoutePosition + 1);
+		if (nextFromPosition == NO_POSITION) {
 			return advanceFromRoute();
 		}
 		else {
-			currentFromRoutePosition++;
+			currentFromRoutePosition = nextFromPosition;
 			this.currentToRoutePosition = 0;
 
-			this.currentToRoute = getNextToRoute();
-			if (this.currentToRoute == DEFAULT_ROUTE_VALUE) {
-				throw new IllegalArgumentException("This error can't be throwed.");
-			}
-			else {
-				return true;
-			}
+			// The from route was selected because it has a to route, so there is one
+			this.currentToRoute = getNextToRouteOf(this.currentFromRoute, -1);
+			return true;
 		}
 	}
 
 	private boolean advanceFromRoute() {
-		if ((currentFromRoute + 1) < getSolution().getNumberOfRoutes()) {
-			int nextFromRoute = getNextRouteOf(currentFromRoute);
-			if (nextFromRoute == DEFAULT_ROUTE_VALUE) {
-				return false;
-			}
-			else {
-				currentFromRoutePosition = 0;
-				currentFromRoute = nextFromRoute;
-				this.currentToRoutePosition = 0;
-
-				this.currentToRoute = getNextToRoute();
-				if (this.currentToRoute == DEFAULT_ROUTE_VALUE) {
-					throw new IllegalArgumentException("This error can't be throwed.");
-				}
-				else {
-					return true;
-				}
-			}
-		}
-		else {
-			return false;
-		}
+		return selectFromRouteAfter(this.currentFromRoute);
 	}
 
-	private int getNextToRoute() {
-		for (int i = 0; i < getSolution().getNumberOfRoutes(); ++i) {
-			if (i != this.currentFromRoute) {
+	/**
+	 * Method that looks for the first route after the current route, other than
+	 * the from route, whose pair with the from route has to be explored.
+	 */
+	private int getNextToRouteOf(int fromRoute, int currentRoute) {
+		for (int i = currentRoute + 1; i < getSolution().getNumberOfRoutes(); ++i) {
+			if (i != fromRoute && isRoutePairModified(fromRoute, i)) {
 				return i;
 			}
 		}
@@ -160,24 +172,75 @@ public class Relocation extends Move {
 	}
 
 	private boolean advanceToRoute() {
+		int nextToRoute = getNextToRouteOf(this.currentFromRoute, this.currentToRoute);
+		if (nextToRoute == DEFAULT_ROUTE_VALUE) {
+			return advanceFromPosition();
+		}
 		this.currentToRoutePosition = 0;
-		if (currentToRoute + 1 == currentFromRoute) {
-			if (currentToRoute + 2 >= this.getSolution().getNumberOfRoutes()) {
-				return advanceFromPosition();
-			}
-			else {
-				this.currentToRoute += 2;
-			}
+		this.currentToRoute = nextToRoute;
+		return true;
+	}
+
+	@Override
+	public boolean generatesNeighborsByRoutePair() {
+		return true;
+	}
+
+	@Override
+	protected boolean drawsRandomNeighbors() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc) A random client is inserted in a random position of the
+	 * codification: before a client, or at the end of a route when it is a
+	 * separator. The draws with both positions in the same route are rejected.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#drawRandomNeighbor(java.util.Random)
+	 */
+	@Override
+	protected boolean drawRandomNeighbor(Random random) {
+		int clientId = drawRandomClient(random);
+		if (clientId == MoveState.NO_CLIENT) {
+			return false;
 		}
-		else {
-			if (currentToRoute + 1 >= this.getSolution().getNumberOfRoutes()) {
-				return advanceFromPosition();
+		if (!isClientActive(clientId)) {
+			return false;
+		}
+		int fromRoute = getSolution().getRouteOfClient(clientId);
+		int toPosition = random.nextInt(getSolution().getNumberOfClients() + getSolution().getNumberOfRoutes());
+		int toRoute = getRouteOfPosition(toPosition);
+		if ((fromRoute < getRouteRangeStart()) || (fromRoute >= getRouteRangeEnd()) || (toRoute == fromRoute)
+				|| !isRoutePairModified(fromRoute, toRoute)) {
+			return false;
+		}
+		this.currentFromRoute = fromRoute;
+		this.currentFromRoutePosition = getSolution().getPositionOfClient(clientId);
+		this.currentToRoute = toRoute;
+		this.currentToRoutePosition = toPosition - getSolution().getRouteStartingIndex(toRoute);
+		this.started = true;
+		this.canAdvance = false;
+		calculateLastMoveCost();
+		return true;
+	}
+
+	/**
+	 * Method that looks for the route a position of the codification belongs to,
+	 * its separator included, with a binary search over the starting indexes.
+	 */
+	private int getRouteOfPosition(int position) {
+		int firstRoute = 0;
+		int lastRoute = getSolution().getNumberOfRoutes() - 1;
+		while (firstRoute < lastRoute) {
+			int middleRoute = (firstRoute + lastRoute + 1) / 2;
+			if (getSolution().getRouteStartingIndex(middleRoute) <= position) {
+				firstRoute = middleRoute;
 			}
 			else {
-				this.currentToRoute += 1;
+				lastRoute = middleRoute - 1;
 			}
 		}
-		return true;
+		return firstRoute;
 	}
 
 	@Override
@@ -186,19 +249,14 @@ public class Relocation extends Move {
 			throw new IllegalAccessError("trying to use move with no base solution set");
 		}
 		int realFromPosition = getClientAbsolutePosition(currentFromRoutePosition, currentFromRoute);
-		CVRPClient clientOfFromRoute = getSolution().getClient(realFromPosition);
+		int demandOfFromRoute = getSolution().getProblemInfo().getDemand(getSolution().getClientId(realFromPosition));
 
-		int fromRouteDemand = getSolution().getVehicleRemainingCapacity(currentFromRoute) + clientOfFromRoute.getDemand();
-		int toRouteDemand = getSolution().getVehicleRemainingCapacity(currentToRoute) - clientOfFromRoute.getDemand();
+		int fromRouteDemand = getSolution().getVehicleRemainingCapacity(currentFromRoute) + demandOfFromRoute;
+		int toRouteDemand = getSolution().getVehicleRemainingCapacity(currentToRoute) - demandOfFromRoute;
 
 		// If the route is in the limits, check the rest!
 		if ((fromRouteDemand >= 0) && (toRouteDemand >= 0)) {
-			for (int i = 0; i < getSolution().getNumberOfRoutes(); ++i) {
-				if ((i != currentFromRoute) && (i != currentToRoute) && (getSolution().getVehicleRemainingCapacity(i) < 0)) {
-					return false;
-				}
-			}
-			return true;
+			return getSolution().areOtherRoutesFeasible(currentFromRoute, currentToRoute);
 		}
 		else {
 			return false;
@@ -231,35 +289,36 @@ public class Relocation extends Move {
 	 */
 	private void calculateLastMoveCost() {
 		try {
-			CVRPClient depot = getSolution().getProblemInfo().getDepot();
+			CVRPSpecification problemInfo = getSolution().getProblemInfo();
+			int depot = problemInfo.getDepotID();
 
 			// From route
 			int realFromPosition = getClientAbsolutePosition(currentFromRoutePosition, currentFromRoute);
-			CVRPClient lastClientOfFromRoute = (currentFromRoutePosition == 0) ? depot
-					: getSolution().getClient(realFromPosition - 1);
-			CVRPClient clientOfFromRoute = getSolution().getClient(realFromPosition);
-			CVRPClient nextClientOfFromRoute = (currentFromRoutePosition == (getSolution()
-					.getNumberOfClientsInRoute(currentFromRoute) - 1)) ? depot : getSolution().getClient(realFromPosition + 1);
+			int lastClientOfFromRoute = (currentFromRoutePosition == 0) ? depot
+					: getSolution().getClientId(realFromPosition - 1);
+			int clientOfFromRoute = getSolution().getClientId(realFromPosition);
+			int nextClientOfFromRoute = (currentFromRoutePosition == (getSolution()
+					.getNumberOfClientsInRoute(currentFromRoute) - 1)) ? depot : getSolution().getClientId(realFromPosition + 1);
 
-			this.lastMoveCost = -CVRPClient.euclideanDistance(lastClientOfFromRoute, clientOfFromRoute)
-					- CVRPClient.euclideanDistance(clientOfFromRoute, nextClientOfFromRoute)
-					+ CVRPClient.euclideanDistance(lastClientOfFromRoute, nextClientOfFromRoute); // ¿Good?
+			this.lastMoveCost = -problemInfo.distance(lastClientOfFromRoute, clientOfFromRoute)
+					- problemInfo.distance(clientOfFromRoute, nextClientOfFromRoute)
+					+ problemInfo.distance(lastClientOfFromRoute, nextClientOfFromRoute); // ¿Good?
 
 			// To Route
 			// If To Route Is Empty
 			if (getSolution().getNumberOfClientsInRoute(currentToRoute) == 0) {
-				this.lastMoveCost += (2.0 * CVRPClient.euclideanDistance(depot, clientOfFromRoute));
+				this.lastMoveCost += (2.0 * problemInfo.distance(depot, clientOfFromRoute));
 			}
 			else { // If route has more than 1 element.
 				int realToPosition = getClientAbsolutePosition(currentToRoutePosition, currentToRoute);
-				CVRPClient lastClientOfToRoute = (currentToRoutePosition == 0) ? depot
-						: getSolution().getClient(realToPosition - 1);
-				CVRPClient clientOfToRoute = (currentToRoutePosition == (getSolution()
-						.getNumberOfClientsInRoute(currentToRoute))) ? depot : getSolution().getClient(realToPosition);
-
-				this.lastMoveCost = this.lastMoveCost + CVRPClient.euclideanDistance(lastClientOfToRoute, clientOfFromRoute)
-						+ CVRPClient.euclideanDistance(clientOfFromRoute, clientOfToRoute)
-						- CVRPClient.euclideanDistance(lastClientOfToRoute, clientOfToRoute);
+				int lastClientOfToRoute = (currentToRoutePosition == 0) ? depot
+						: getSolution().getClientId(realToPosition - 1);
+				int clientOfToRoute = (currentToRoutePosition == (getSolution()
+						.getNumberOfClientsInRoute(currentToRoute))) ? depot : getSolution().getClientId(realToPosition);
+
+				this.lastMoveCost = this.lastMoveCost + problemInfo.distance(lastClientOfToRoute, clientOfFromRoute)
+						+ problemInfo.distance(clientOfFromRoute, clientOfToRoute)
+						- problemInfo.distance(lastClientOfToRoute, clientOfToRoute);
 			}
 		}
 		catch (Exception e) {
@@ -299,11 +358,95 @@ public class Relocation extends Move {
 			return getSolution();
 		}
 		else {
-			return new CVRPSolution(getSolution().getProblemInfo(), CVRPSolution.generateMovedSolution(getSolution(),
-					currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition));
+			CVRPSolution neighbor = new CVRPSolution(getSolution());
+			applyCurrentNeighbor(neighbor);
+			return neighbor;
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The client is taken out of the from route and inserted in the
+	 * to route.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#applyCurrentNeighbor(daa.project.cvrp.problem.CVRPSolution)
+	 */
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.relocateClient(currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition);
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The client is in the to route, so it is moved back to its
+	 * original position. Inside the same route, removing the client shifts the
+	 * positions after it, which has to be taken into account.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#undoCurrentNeighbor(daa.project.cvrp.problem.CVRPSolution)
+	 */
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			if (currentFromRoute != currentToRoute) {
+				solution.relocateClient(currentToRoute, currentToRoutePosition, currentFromRoute, currentFromRoutePosition);
+			}
+			else if (currentFromRoutePosition < currentToRoutePosition) {
+				solution.relocateClient(currentToRoute, currentToRoutePosition - 1, currentFromRoute, currentFromRoutePosition);
+			}
+			else {
+				solution.relocateClient(currentToRoute, currentToRoutePosition, currentFromRoute, currentFromRoutePosition + 1);
+			}
+		}
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, currentFromRoute, currentFromRoutePosition, currentToRoute, currentToRoutePosition,
+					getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION,
+					NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION, getSolution().getTotalDistance());
 		}
 	}
 
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.relocateClient(descriptor.getFirstRoute(), descriptor.getFirstPosition(), descriptor.getSecondRoute(),
+					descriptor.getSecondPosition());
+		}
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return started && (this.currentFromRoute != DEFAULT_ROUTE_VALUE) && (this.currentToRoute != DEFAULT_ROUTE_VALUE);
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new Relocation();
+	}
+
+	/*
+	 * (non-Javadoc) The neighbors are generated client by client, from the
+	 * client that is moved.
+	 * 
+	 * @see daa.project.cvrp.moves.Move#getBaseClientId()
+	 */
+	@Override
+	public int getBaseClientId() {
+		if (!hasCurrentNeighbor()) {
+			return MoveState.NO_CLIENT;
+		}
+		return getSolution().getClientId(currentFromRoute, currentFromRoutePosition);
+	}
+
 	/*
 	 * (non-Javadoc) We generate a fake state with the second client as null.
 	 * 
@@ -313,6 +456,12 @@ public class Relocation extends Move {
 	public MoveState getState() {
 		int realFromPosition = getSolution().getRouteStartingIndex(currentFromRoute) + currentFromRoutePosition;
 		CVRPClient firstClient = getSolution().getClient(realFromPosition);
-		return new MoveState(firstClient, null);
+		return new MoveState(firstClient, null, getSolution().getClientId(realFromPosition), MoveState.NO_CLIENT);
+	}
+
+	@Override
+	public long getStateKey() {
+		int realFromPosition = getSolution().getRouteStartingIndex(currentFromRoute) + currentFromRoutePosition;
+		return MoveState.packKey(getSolution().getClientId(realFromPosition), MoveState.NO_CLIENT);
 	}
 }
@@ -0,0 +1,143 @@
+package daa.project.cvrp.moves;
+
+import java.util.Arrays;
+
+import daa.project.cvrp.utils.DoubleCompare;
+
+/**
+ * Memory of the best improving neighbor of every pair of routes of a local
+ * search, for the moves whose neighbors only change their first and second
+ * route (the relocation and the inter-route swap). The cost difference and the
+ * feasibility of those neighbors only depend on the two routes, so while none of
+ * them is modified the best neighbor of the pair stays the same, and the moves
+ * only generate the neighbors of the pairs with a modified route.
+ *
+ * A pair is identified by its first route and its second route in that order,
+ * as the neighbors of a relocation from one route to another are not the ones
+ * from the second route to the first. The number of routes of the solution must
+ * not change while the memory is used.
+ *
+ * During the exploration of a neighborhood the modified routes are only read and
+ * each pair is written by the move whose route range holds its first route, so
+ * the same memory can be shared by the moves exploring disjoint route ranges in
+ * parallel.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file RoutePairMemory.java
+ *
+ */
+public class RoutePairMemory {
+	/** Number of routes of the solution */
+	private final int numberOfRoutes;
+	/** In the i-th position is stored whether the route i was modified since the last pass */
+	private final boolean[] modifiedRoutes;
+	/** Best improving neighbor of every pair, created when the pair first improves the solution */
+	private final NeighborDescriptor[] bestNeighbors;
+	/** Difference in the objective function of the best neighbor of every pair, or infinity if none improves it */
+	private final double[] costDifferences;
+
+	/**
+	 * Creates the memory of a solution with every route modified, so the first
+	 * pass explores every pair
+	 *
+	 * @param numberOfRoutes Number of routes of the solution
+	 */
+	public RoutePairMemory(int numberOfRoutes) {
+		this.numberOfRoutes = numberOfRoutes;
+		this.modifiedRoutes = new boolean[numberOfRoutes];
+		this.bestNeighbors = new NeighborDescriptor[numberOfRoutes * numberOfRoutes];
+		this.costDifferences = new double[numberOfRoutes * numberOfRoutes];
+		Arrays.fill(this.modifiedRoutes, true);
+		Arrays.fill(this.costDifferences, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * @param firstRoute First route of the pair
+	 * @param secondRoute Second route of the pair
+	 * @return Whether the neighbors of the pair have to be explored, because one
+	 *         of its routes was modified since the last pass
+	 */
+	public boolean isModified(int firstRoute, int secondRoute) {
+		return this.modifiedRoutes[firstRoute] || this.modifiedRoutes[secondRoute];
+	}
+
+	/**
+	 * Marks the route as modified and forgets the best neighbors of its pairs,
+	 * which are explored again in the next pass
+	 *
+	 * @param route Route changed by the last neighbor applied
+	 */
+	public void markModified(int route) {
+		this.modifiedRoutes[route] = true;
+		for (int otherRoute = 0; otherRoute < this.numberOfRoutes; ++otherRoute) {
+			this.costDifferences[getPair(route, otherRoute)] = Double.POSITIVE_INFINITY;
+			this.costDifferences[getPair(otherRoute, route)] = Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Keeps the neighbor as the best one of its pair if it improves the best
+	 * neighbor found for the pair. Only feasible neighbors that improve the
+	 * solution have to be kept.
+	 *
+	 * @param neighbor Neighbor, which is copied
+	 * @param costDifference Difference in the objective function of the neighbor
+	 */
+	public void keepIfBetter(NeighborDescriptor neighbor, double costDifference) {
+		int pair = getPair(neighbor.getFirstRoute(), neighbor.getSecondRoute());
+		if (!DoubleCompare.lessThan(costDifference, this.costDifferences[pair])) {
+			return;
+		}
+		if (this.bestNeighbors[pair] == null) {
+			this.bestNeighbors[pair] = new NeighborDescriptor();
+		}
+		this.bestNeighbors[pair].copyFrom(neighbor);
+		this.costDifferences[pair] = costDifference;
+	}
+
+	/**
+	 * Ends a pass in which the neighbors of every modified pair were explored:
+	 * every route is clean until it is modified again
+	 */
+	public void endPass() {
+		Arrays.fill(this.modifiedRoutes, false);
+	}
+
+	/**
+	 * Finds the best improving neighbor among the ones of every pair. On a tie
+	 * the pair with the lowest first route (and then second route) is chosen.
+	 *
+	 * @param bestNeighbor Descriptor where the best neighbor is stored
+	 * @return Whether any pair has an improving neighbor
+	 */
+	public boolean findBestNeighbor(NeighborDescriptor bestNeighbor) {
+		int bestPair = -1;
+		for (int pair = 0; pair < this.costDifferences.length; ++pair) {
+			if (this.costDifferences[pair] < Double.POSITIVE_INFINITY
+					&& (bestPair == -1 || DoubleCompare.lessThan(this.costDifferences[pair], this.costDifferences[bestPair]))) {
+				bestPair = pair;
+			}
+		}
+		if (bestPair == -1) {
+			return false;
+		}
+		bestNeighbor.copyFrom(this.bestNeighbors[bestPair]);
+		return true;
+	}
+
+	/** @return Number of routes of the solution */
+	public int getNumberOfRoutes() {
+		return this.numberOfRoutes;
+	}
+
+	/**
+	 * @param firstRoute First route of the pair
+	 * @param secondRoute Second route of the pair
+	 * @return Index of the pair
+	 */
+	private int getPair(int firstRoute, int secondRoute) {
+		return firstRoute * this.numberOfRoutes + secondRoute;
+	}
+}
@@ -0,0 +1,459 @@
+package daa.project.cvrp.moves;
+
+import java.util.Arrays;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * SWAP* move: two clients of different routes are exchanged, but instead of
+ * taking the place of the other one, each client is inserted at its best
+ * position of the other route (which can be the place of the other client).
+ *
+ * The three cheapest insertion positions of every client in every route of the
+ * base solution are cached the first time they are needed. Removing a client
+ * only invalidates the two insertions next to it, so the best insertion in the
+ * route without the other client is always one of the three cached ones or the
+ * place of the removed client, and every neighbor is evaluated in constant
+ * time.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file SwapStar.java
+ *
+ */
+public class SwapStar extends Move {
+	/** Number of cheapest insertion positions cached for every client and route */
+	private static final int CACHED_INSERTIONS = 3;
+	/** Value of the routes and positions when there is no neighbor or insertion */
+	private static final int NO_POSITION = -1;
+
+	/** Cheapest insertion positions, CACHED_INSERTIONS for every client and route, from the cheapest */
+	private int[] insertionPositions;
+	/** Costs of the cheapest insertion positions */
+	private double[] insertionCosts;
+	/** Base solution the insertions of every client and route were computed for */
+	private int[] insertionStamps;
+	/** Number of base solutions set, used to invalidate the cached insertions */
+	private int currentStamp = 0;
+
+	/** Route of the first client of the current neighbor */
+	private int firstRoute = NO_POSITION;
+	/** Position of the first client of the current neighbor */
+	private int firstPosition;
+	/** Route of the second client of the current neighbor */
+	private int secondRoute = NO_POSITION;
+	/** Position of the second client of the current neighbor */
+	private int secondPosition;
+	/** Position of the second route before which the first client is inserted */
+	private int firstInsertion;
+	/** Position of the first route before which the second client is inserted */
+	private int secondInsertion;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+	/** Cost of the last insertion found by findBestInsertion */
+	private double bestInsertionCost;
+
+	/** Route of the first client of the next neighbor, or NO_POSITION if there are no more neighbors */
+	private int nextFirstRoute = NO_POSITION;
+	/** Position of the first client of the next neighbor */
+	private int nextFirstPosition;
+	/** Route of the second client of the next neighbor */
+	private int nextSecondRoute;
+	/** Position of the second client of the next neighbor */
+	private int nextSecondPosition;
+
+	@Override
+	public void setSolution(CVRPSolution solution) {
+		super.setSolution(solution);
+		this.firstRoute = NO_POSITION;
+		this.secondRoute = NO_POSITION;
+		resetInsertions();
+
+		this.nextFirstPosition = 0;
+		this.nextSecondPosition = 0;
+		this.nextFirstRoute = getNextRouteWithClients(getRouteRangeStart() - 1, getRouteRangeEnd());
+		this.nextSecondRoute = this.nextFirstRoute;
+		if (this.nextFirstRoute != NO_POSITION) {
+			advanceNextRoutes();
+		}
+	}
+
+	@Override
+	public void nextNeighbor() {
+		if (!hasMoreNeighbors()) {
+			return;
+		}
+		this.firstRoute = this.nextFirstRoute;
+		this.firstPosition = this.nextFirstPosition;
+		this.secondRoute = this.nextSecondRoute;
+		this.secondPosition = this.nextSecondPosition;
+		calculateLastMoveCost();
+		advanceNextNeighbor();
+	}
+
+	@Override
+	public boolean hasMoreNeighbors() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.nextFirstRoute != NO_POSITION;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return hasCurrentNeighbor() ? this.lastMoveCost : 0.0;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		return getSolution().getTotalDistance() + getLastMoveCost();
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution().isFeasible();
+		}
+		CVRPSolution solution = getSolution();
+		CVRPSpecification problemInfo = solution.getProblemInfo();
+		int demandDifference = problemInfo.getDemand(solution.getClientId(this.firstRoute, this.firstPosition))
+				- problemInfo.getDemand(solution.getClientId(this.secondRoute, this.secondPosition));
+		return solution.getVehicleRemainingCapacity(this.firstRoute) + demandDifference >= 0
+				&& solution.getVehicleRemainingCapacity(this.secondRoute) - demandDifference >= 0
+				&& solution.areOtherRoutesFeasible(this.firstRoute, this.secondRoute);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			applyExchange(solution, this.firstRoute, this.firstPosition, this.secondRoute, this.secondPosition,
+					this.firstInsertion, this.secondInsertion);
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The relocations made by applyExchange are reverted in the
+	 * opposite order, each one in the solution it left.
+	 *
+	 * @see daa.project.cvrp.moves.Move#undoCurrentNeighbor(daa.project.cvrp.problem.CVRPSolution)
+	 */
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			int shiftedSecondPosition = getShiftedSecondPosition(this.secondPosition, this.firstInsertion);
+			int shiftedSecondInsertion = getShiftedSecondInsertion(this.firstPosition, this.secondInsertion);
+			solution.relocateClient(this.firstRoute, shiftedSecondInsertion, this.secondRoute, shiftedSecondPosition);
+			solution.relocateClient(this.secondRoute, this.firstInsertion, this.firstRoute, this.firstPosition);
+		}
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, this.firstRoute, this.firstPosition, this.secondRoute, this.secondPosition,
+					this.firstInsertion, this.secondInsertion, getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION,
+					NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION, getSolution().getTotalDistance());
+		}
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			applyExchange(solution, descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+					descriptor.getSecondRoute(), descriptor.getSecondPosition(), descriptor.getFirstParameter(),
+					descriptor.getSecondParameter());
+		}
+	}
+
+	@Override
+	public MoveState getState() {
+		return new MoveState(getSolution().getClient(this.firstRoute, this.firstPosition),
+				getSolution().getClient(this.secondRoute, this.secondPosition),
+				getSolution().getClientId(this.firstRoute, this.firstPosition),
+				getSolution().getClientId(this.secondRoute, this.secondPosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		return MoveState.packKey(getSolution().getClientId(this.firstRoute, this.firstPosition),
+				getSolution().getClientId(this.secondRoute, this.secondPosition));
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new SwapStar();
+	}
+
+	/**
+	 * Exchanges two clients of different routes, inserting each one at the given
+	 * position of the other route. The positions are the ones of the base
+	 * solution, and inserting a client at the position of the other client means
+	 * taking its place.
+	 *
+	 * @param solution Solution to modify, with the codification of the base solution
+	 * @param firstRoute Route of the first client
+	 * @param firstPosition Position of the first client
+	 * @param secondRoute Route of the second client
+	 * @param secondPosition Position of the second client
+	 * @param firstInsertion Position of the second route before which the first client is inserted
+	 * @param secondInsertion Position of the first route before which the second client is inserted
+	 */
+	private static void applyExchange(CVRPSolution solution, int firstRoute, int firstPosition, int secondRoute,
+			int secondPosition, int firstInsertion, int secondInsertion) {
+		solution.relocateClient(firstRoute, firstPosition, secondRoute, firstInsertion);
+		solution.relocateClient(secondRoute, getShiftedSecondPosition(secondPosition, firstInsertion), firstRoute,
+				getShiftedSecondInsertion(firstPosition, secondInsertion));
+	}
+
+	/**
+	 * @param secondPosition Position of the second client in the base solution
+	 * @param firstInsertion Position of the second route where the first client is inserted
+	 * @return Position of the second client once the first client is inserted in its route
+	 */
+	private static int getShiftedSecondPosition(int secondPosition, int firstInsertion) {
+		return (firstInsertion <= secondPosition) ? secondPosition + 1 : secondPosition;
+	}
+
+	/**
+	 * @param firstPosition Position of the first client in the base solution
+	 * @param secondInsertion Position of the first route where the second client is inserted
+	 * @return Position where the second client is inserted once the first client is removed
+	 */
+	private static int getShiftedSecondInsertion(int firstPosition, int secondInsertion) {
+		return (secondInsertion > firstPosition) ? secondInsertion - 1 : secondInsertion;
+	}
+
+	/**
+	 * Computes the difference in the objective function of the current neighbor:
+	 * both clients are removed from their routes and each one is inserted at its
+	 * best position of the other route without the other client.
+	 */
+	private void calculateLastMoveCost() {
+		CVRPSolution solution = getSolution();
+		int firstClient = solution.getClientId(this.firstRoute, this.firstPosition);
+		int secondClient = solution.getClientId(this.secondRoute, this.secondPosition);
+
+		this.lastMoveCost = getRemovalCost(this.firstRoute, this.firstPosition)
+				+ getRemovalCost(this.secondRoute, this.secondPosition);
+		this.firstInsertion = findBestInsertion(firstClient, this.secondRoute, this.secondPosition);
+		this.lastMoveCost += this.bestInsertionCost;
+		this.secondInsertion = findBestInsertion(secondClient, this.firstRoute, this.firstPosition);
+		this.lastMoveCost += this.bestInsertionCost;
+	}
+
+	/**
+	 * Finds the best position to insert a client in a route once one of its
+	 * clients is removed. The position is the one of the base solution, being the
+	 * position of the removed client its place. The cost of the insertion is left
+	 * in bestInsertionCost.
+	 *
+	 * @param clientId Client to insert
+	 * @param route Route where it is inserted
+	 * @param removedPosition Position of the client removed from the route
+	 * @return Position before which the client is inserted
+	 */
+	private int findBestInsertion(int clientId, int route, int removedPosition) {
+		int bestPosition = removedPosition;
+		double bestCost = getPlaceInsertionCost(clientId, route, removedPosition);
+		int cacheIndex = getInsertionsIndex(clientId, route);
+		for (int i = cacheIndex; i < cacheIndex + CACHED_INSERTIONS; ++i) {
+			int position = this.insertionPositions[i];
+			if (position == NO_POSITION) {
+				break;
+			}
+			// The insertions next to the removed client do not exist any more. The
+			// cheapest of the rest is the best one, as they are sorted
+			if (position != removedPosition && position != removedPosition + 1) {
+				if (this.insertionCosts[i] < bestCost) {
+					bestPosition = position;
+					bestCost = this.insertionCosts[i];
+				}
+				break;
+			}
+		}
+		this.bestInsertionCost = bestCost;
+		return bestPosition;
+	}
+
+	/**
+	 * Returns the difference in the objective function of inserting a client in
+	 * the place of a client removed from a route
+	 *
+	 * @param clientId Client to insert
+	 * @param route Route where it is inserted
+	 * @param removedPosition Position of the client removed from the route
+	 * @return Difference in the objective function
+	 */
+	private double getPlaceInsertionCost(int clientId, int route, int removedPosition) {
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+		int prev = getClientOrDepot(route, removedPosition - 1);
+		int next = getClientOrDepot(route, removedPosition + 1);
+		return problemInfo.distance(prev, clientId) + problemInfo.distance(clientId, next)
+				- problemInfo.distance(prev, next);
+	}
+
+	/**
+	 * @param route Route of the client
+	 * @param position Position of the client
+	 * @return Difference in the objective function of removing the client from its route
+	 */
+	private double getRemovalCost(int route, int position) {
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+		int prev = getClientOrDepot(route, position - 1);
+		int client = getSolution().getClientId(route, position);
+		int next = getClientOrDepot(route, position + 1);
+		return problemInfo.distance(prev, next) - problemInfo.distance(prev, client)
+				- problemInfo.distance(client, next);
+	}
+
+	/** Invalidates the cached insertions, making room for the ones of the base solution */
+	private void resetInsertions() {
+		int size = getSolution().getProblemInfo().getClients().size() * getSolution().getNumberOfRoutes();
+		if (this.insertionStamps == null || this.insertionStamps.length != size) {
+			this.insertionStamps = new int[size];
+			this.insertionPositions = new int[size * CACHED_INSERTIONS];
+			this.insertionCosts = new double[size * CACHED_INSERTIONS];
+			this.currentStamp = 0;
+		}
+		this.currentStamp++;
+	}
+
+	/**
+	 * Returns the index of the cached insertions of a client in a route,
+	 * computing them if they are not cached for the base solution yet
+	 *
+	 * @param clientId Client
+	 * @param route Route
+	 * @return Index of the first cached insertion
+	 */
+	private int getInsertionsIndex(int clientId, int route) {
+		int pair = clientId * getSolution().getNumberOfRoutes() + route;
+		int cacheIndex = pair * CACHED_INSERTIONS;
+		if (this.insertionStamps[pair] != this.currentStamp) {
+			computeInsertions(clientId, route, cacheIndex);
+			this.insertionStamps[pair] = this.currentStamp;
+		}
+		return cacheIndex;
+	}
+
+	/**
+	 * Goes through every position of a route keeping the cheapest positions to
+	 * insert a client
+	 *
+	 * @param clientId Client to insert
+	 * @param route Route where it is inserted
+	 * @param cacheIndex Index where the insertions are cached
+	 */
+	private void computeInsertions(int clientId, int route, int cacheIndex) {
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+		Arrays.fill(this.insertionPositions, cacheIndex, cacheIndex + CACHED_INSERTIONS, NO_POSITION);
+		int clientsInRoute = getSolution().getNumberOfClientsInRoute(route);
+		for (int position = 0; position <= clientsInRoute; ++position) {
+			int prev = getClientOrDepot(route, position - 1);
+			int next = getClientOrDepot(route, position);
+			double cost = problemInfo.distance(prev, clientId) + problemInfo.distance(clientId, next)
+					- problemInfo.distance(prev, next);
+
+			// Insertion in the sorted list of the cheapest positions
+			int i = cacheIndex + CACHED_INSERTIONS - 1;
+			if (this.insertionPositions[i] != NO_POSITION && this.insertionCosts[i] <= cost) {
+				continue;
+			}
+			while (i > cacheIndex && (this.insertionPositions[i - 1] == NO_POSITION || this.insertionCosts[i - 1] > cost)) {
+				this.insertionPositions[i] = this.insertionPositions[i - 1];
+				this.insertionCosts[i] = this.insertionCosts[i - 1];
+				i--;
+			}
+			this.insertionPositions[i] = position;
+			this.insertionCosts[i] = cost;
+		}
+	}
+
+	/**
+	 * @param route Route
+	 * @param position Position inside the route
+	 * @return ID of the client at the position, or the depot if it is outside the route
+	 */
+	private int getClientOrDepot(int route, int position) {
+		if (position < 0 || position >= getSolution().getNumberOfClientsInRoute(route)) {
+			return getSolution().getProblemInfo().getDepotID();
+		}
+		return getSolution().getClientId(route, position);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.firstRoute != NO_POSITION;
+	}
+
+	/**
+	 * Returns the first route after the specified one, and before the last route
+	 * specified, that has clients
+	 *
+	 * @param route Route to start after
+	 * @param lastRoute Last route (excluded)
+	 * @return Next route with clients or NO_POSITION if there is none
+	 */
+	private int getNextRouteWithClients(int route, int lastRoute) {
+		for (int i = Math.max(route + 1, 0); i < lastRoute; ++i) {
+			if (getSolution().getNumberOfClientsInRoute(i) > 0) {
+				return i;
+			}
+		}
+		return NO_POSITION;
+	}
+
+	/**
+	 * Advances the next neighbor to the following one, or to NO_POSITION if there
+	 * are no more neighbors. The neighbors are generated by first route (only the
+	 * ones of the route range), then by second route (always after the first one),
+	 * then by first client and last by second client.
+	 */
+	private void advanceNextNeighbor() {
+		if (this.nextSecondPosition + 1 < getSolution().getNumberOfClientsInRoute(this.nextSecondRoute)) {
+			this.nextSecondPosition++;
+			return;
+		}
+		this.nextSecondPosition = 0;
+		if (this.nextFirstPosition + 1 < getSolution().getNumberOfClientsInRoute(this.nextFirstRoute)) {
+			this.nextFirstPosition++;
+			return;
+		}
+		this.nextFirstPosition = 0;
+		advanceNextRoutes();
+	}
+
+	/** Advances the routes of the next neighbor to the following pair of routes with clients */
+	private void advanceNextRoutes() {
+		this.nextSecondRoute = getNextRouteWithClients(this.nextSecondRoute, getSolution().getNumberOfRoutes());
+		while (this.nextSecondRoute == NO_POSITION) {
+			this.nextFirstRoute = getNextRouteWithClients(this.nextFirstRoute, getRouteRangeEnd());
+			if (this.nextFirstRoute == NO_POSITION) {
+				return;
+			}
+			this.nextSecondRoute = getNextRouteWithClients(this.nextFirstRoute, getSolution().getNumberOfRoutes());
+		}
+	}
+}
@@ -3,14 +3,18 @@
  */
 package daa.project.cvrp.moves;
 
-import java.util.ArrayList;
+import java.util.Random;
 
 import daa.project.cvrp.problem.CVRPClient;
 import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
 
 /**
  * <h2>TwoOpt</h2>
  * 
+ * The reversals whose first client is made inactive by the don't-look bits are
+ * skipped.
+ * 
  * @author	Cristian Abrante Dorta
  * @company	University Of La Laguna
  * @date 		01/05/2018
@@ -25,6 +29,11 @@ public class TwoOpt extends Move {
   private int secondClient = firstClient + 1;
   private int currentRoute = DEFAULT_FIRST_POSITION;
   
+  // Next neighbor, found in advance to know whether there are more neighbors
+  private int nextFirstClient = DEFAULT_FIRST_POSITION;
+  private int nextSecondClient = DEFAULT_FIRST_POSITION;
+  private int nextRoute = NO_ROUTE_POSITION;
+  
   private boolean hasMoreNeighbors = false;
   
   private double currentCost;
@@ -49,13 +58,21 @@ public class TwoOpt extends Move {
     if (getSolution().getNumberOfRoutes() == 0) {
       throw new IllegalArgumentException("Cannot perform moves on solution with no routes");
     }
-    updateHasMoreNeigbors();
+    nextRoute = getNextRoute(DEFAULT_FIRST_POSITION);
+    nextFirstClient = 0;
+    nextSecondClient = 0;
+    findNextNeighbor();
     updateCurrentCost();
   }
 
   @Override
   public void nextNeighbor() {
-    setNextClientsState();
+    if (hasMoreNeighbors()) {
+      currentRoute = nextRoute;
+      firstClient = nextFirstClient;
+      secondClient = nextSecondClient;
+      findNextNeighbor();
+    }
     updateCurrentCost();
     //System.out.println(String.format("r: %d c1: %d c2: %d hmn: %b", currentRoute, firstClient, secondClient, hasMoreNeighbors));
   }
@@ -93,67 +110,117 @@ public class TwoOpt extends Move {
     if (currentRoute == DEFAULT_FIRST_POSITION) {
       return getSolution();
     }
-    ArrayList<Integer> swappedClientsSolution = CVRPSolution.generateSwappedSolution(getSolution(), 
-                                                                                     currentRoute, 
-                                                                                     firstClient, 
-                                                                                     currentRoute, 
-                                                                                     secondClient);
-    // We swap all the intermediate nodes of the two indexes.
-    int firstClientNext = firstClient + 1;
-    int secondClientPrevious = secondClient - 1;
-    while (secondClientPrevious > firstClientNext) {
-      int firstSwapIndex = getSolution().getRouteStartingIndex(currentRoute) + firstClientNext;
-      int secondSwapIndex = getSolution().getRouteStartingIndex(currentRoute) + secondClientPrevious;
-      java.util.Collections.swap(swappedClientsSolution, firstSwapIndex, secondSwapIndex);
-      firstClientNext++;
-      secondClientPrevious--;
+    CVRPSolution neighbor = new CVRPSolution(getSolution());
+    applyCurrentNeighbor(neighbor);
+    return neighbor;
+  }
+  
+  @Override
+  public void applyCurrentNeighbor(CVRPSolution solution) {
+    // Swapping both clients and all the intermediate ones is reversing the segment between them
+    if (currentRoute != DEFAULT_FIRST_POSITION) {
+      solution.reverseRouteSegment(currentRoute, firstClient, secondClient);
     }
-    
-    return new CVRPSolution(getSolution().getProblemInfo(), swappedClientsSolution);
   }
   
-  private void updateHasMoreNeigbors() {
+  @Override
+  public void undoCurrentNeighbor(CVRPSolution solution) {
+    // Reversing the same segment again restores its original order
+    applyCurrentNeighbor(solution);
+  }
+  
+  @Override
+  public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+    descriptor.set(this, currentRoute, firstClient, currentRoute, secondClient, getCurrentNeighborCost());
+  }
+  
+  @Override
+  public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+    // A descriptor without route is the base solution itself
+    if (descriptor.getFirstRoute() != DEFAULT_FIRST_POSITION) {
+      solution.reverseRouteSegment(descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+          descriptor.getSecondPosition());
+    }
+  }
+  
+  @Override
+  public Move createEmptyCopy() {
+    return new TwoOpt();
+  }
+  
+  @Override
+  protected boolean drawsRandomNeighbors() {
+    return true;
+  }
+  
+  @Override
+  protected boolean drawRandomNeighbor(Random random) {
+    // Two random clients, rejected unless they are different clients of the same route
+    int firstClientId = drawRandomClient(random);
+    int secondClientId = drawRandomClient(random);
+    if (firstClientId == MoveState.NO_CLIENT || secondClientId == MoveState.NO_CLIENT
+        || firstClientId == secondClientId) {
+      return false;
+    }
+    int route = getSolution().getRouteOfClient(firstClientId);
+    if (route != getSolution().getRouteOfClient(secondClientId)
+        || route < getRouteRangeStart() || route >= getRouteRangeEnd()) {
+      return false;
+    }
+    int firstPosition = getSolution().getPositionOfClient(firstClientId);
+    int secondPosition = getSolution().getPositionOfClient(secondClientId);
+    if (!isClientActive(firstPosition < secondPosition ? firstClientId : secondClientId)) {
+      return false;
+    }
+    currentRoute = route;
+    firstClient = Math.min(firstPosition, secondPosition);
+    secondClient = Math.max(firstPosition, secondPosition);
+    hasMoreNeighbors = false;
+    updateCurrentCost();
+    return true;
+  }
+  
+  @Override
+  public int getBaseClientId() {
+    // The neighbors are generated client by client, from the first client of the reversed segment
     if (currentRoute == DEFAULT_FIRST_POSITION) {
-      hasMoreNeighbors = getNextRoute(currentRoute) != NO_ROUTE_POSITION;
-    } else {
-      int clientsInRoute = getSolution().getNumberOfClientsInRoute(currentRoute);
-      if (secondClient == clientsInRoute -1
-       && firstClient == clientsInRoute -2) {
-        hasMoreNeighbors = getNextRoute(currentRoute) != NO_ROUTE_POSITION;
-        return;
-      }
-      hasMoreNeighbors = true;
+      return MoveState.NO_CLIENT;
     }
+    return getSolution().getClientId(currentRoute, firstClient);
   }
   
-  private void setNextClientsState() {
-    if (hasMoreNeighbors()) {
-      if (firstClient == DEFAULT_FIRST_POSITION) {
-        currentRoute = getNextRoute(currentRoute);
-        firstClient = 0;
-        secondClient = firstClient + 1;
-      } else {
-        int clientsInRoute = getSolution().getNumberOfClientsInRoute(currentRoute);
-        if (secondClient == clientsInRoute -1) {
-          if (firstClient == clientsInRoute - 2) {
-            currentRoute = getNextRoute(currentRoute);
-            firstClient = 0;
-            secondClient = firstClient + 1;
-          } else {
-            firstClient += 1;
-            secondClient = firstClient + 1;
-          }
-        } else {
-          secondClient += 1;
-        }
+  /**
+   * Moves the next neighbor forward to the following reversal whose first
+   * client is active, and updates whether there are more neighbors
+   */
+  private void findNextNeighbor() {
+    nextSecondClient += 1;
+    while (nextRoute != NO_ROUTE_POSITION) {
+      int clientsInRoute = getSolution().getNumberOfClientsInRoute(nextRoute);
+      if (nextSecondClient >= clientsInRoute) {
+        nextFirstClient += 1;
+        nextSecondClient = nextFirstClient + 1;
+      }
+      if (nextFirstClient >= clientsInRoute - 1) {
+        nextRoute = getNextRoute(nextRoute);
+        nextFirstClient = 0;
+        nextSecondClient = nextFirstClient + 1;
+        continue;
+      }
+      if (isClientActive(getSolution().getClientId(nextRoute, nextFirstClient))) {
+        hasMoreNeighbors = true;
+        return;
       }
-      updateHasMoreNeigbors();
+      // The reversals of an inactive first client are skipped as a whole
+      nextSecondClient = clientsInRoute;
     }
+    hasMoreNeighbors = false;
   }
   
   private int getNextRoute(int currentRoute) {
-    int nextRoute = currentRoute + 1;
-    int numberOfRoutes = getSolution().getNumberOfRoutes();
+    // Only the routes of the range are explored
+    int nextRoute = Math.max(currentRoute + 1, getRouteRangeStart());
+    int numberOfRoutes = getRouteRangeEnd();
     while (nextRoute < numberOfRoutes
         && getSolution().getNumberOfClientsInRoute(nextRoute) < 2) {
       nextRoute += 1;
@@ -167,29 +234,30 @@ public class TwoOpt extends Move {
       return;
     }
     
-    CVRPClient firstNode = getSolution().getClient(currentRoute, firstClient);
-    CVRPClient secondNode = getSolution().getClient(currentRoute, secondClient);
+    CVRPSpecification problemInfo = getSolution().getProblemInfo();
+    int firstNode = getSolution().getClientId(currentRoute, firstClient);
+    int secondNode = getSolution().getClientId(currentRoute, secondClient);
     
-    CVRPClient previousFirstNode;
+    int previousFirstNode;
     if (firstClient > 0) {
-      previousFirstNode = getSolution().getClient(currentRoute, firstClient - 1);
+      previousFirstNode = getSolution().getClientId(currentRoute, firstClient - 1);
     } else {
-      previousFirstNode = getSolution().getProblemInfo().getDepot();
+      previousFirstNode = problemInfo.getDepotID();
     }
     
-    CVRPClient postSecondNode;
+    int postSecondNode;
     int numberOfClientsInRoute = getSolution().getNumberOfClientsInRoute(currentRoute);
     if (secondClient < numberOfClientsInRoute - 1) {
-      postSecondNode = getSolution().getClient(currentRoute, secondClient + 1);
+      postSecondNode = getSolution().getClientId(currentRoute, secondClient + 1);
     } else {
-      postSecondNode = getSolution().getProblemInfo().getDepot();
+      postSecondNode = problemInfo.getDepotID();
     }
     
-    this.currentCost = getSolution().getTotalDistance()                             // Previous cost
-                     - CVRPClient.euclideanDistance(firstNode, previousFirstNode)   // - d(i, i -1)
-                     - CVRPClient.euclideanDistance(secondNode, postSecondNode)     // - d(k, k + 1)
-                     + CVRPClient.euclideanDistance(previousFirstNode, secondNode)  // + d(i - 1, k)
-                     + CVRPClient.euclideanDistance(firstNode, postSecondNode);     // + d(i, k + 1)
+    this.currentCost = getSolution().getTotalDistance()                        // Previous cost
+                     - problemInfo.distance(firstNode, previousFirstNode)      // - d(i, i -1)
+                     - problemInfo.distance(secondNode, postSecondNode)        // - d(k, k + 1)
+                     + problemInfo.distance(previousFirstNode, secondNode)     // + d(i - 1, k)
+                     + problemInfo.distance(firstNode, postSecondNode);        // + d(i, k + 1)
     
   }
 
@@ -204,6 +272,14 @@ public class TwoOpt extends Move {
 		CVRPClient firstSolutionClient = getSolution().getClient(realFromPosition);
 		CVRPClient secondSolutionClient =  getSolution().getClient(realToPosition);
 		
-		return new MoveState(firstSolutionClient, secondSolutionClient);
+		return new MoveState(firstSolutionClient, secondSolutionClient, getSolution().getClientId(realFromPosition),
+				getSolution().getClientId(realToPosition));
+	}
+
+	@Override
+	public long getStateKey() {
+		int realFromPosition = getSolution().getRouteStartingIndex(currentRoute) + firstClient;
+		int realToPosition = getSolution().getRouteStartingIndex(currentRoute) + secondClient;
+		return MoveState.packKey(getSolution().getClientId(realFromPosition), getSolution().getClientId(realToPosition));
 	}
 }
@@ -0,0 +1,274 @@
+package daa.project.cvrp.moves;
+
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * 2-opt* move: two routes are cut at one point each and their tails are
+ * exchanged, so the first route ends with the tail of the second one and the
+ * other way round. It is the inter-route counterpart of TwoOpt, and it untangles
+ * routes that cross each other.
+ *
+ * Only the two edges where the routes are cut change, so the cost of every
+ * neighbor is computed in constant time. The solution keeps the load of every
+ * prefix of its routes, so the load of both new routes, and with it the
+ * feasibility, is also known in constant time.
+ *
+ * Exchanging the whole routes or two empty tails gives the same routes, so they
+ * are not neighbors.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file TwoOptStar.java
+ *
+ */
+public class TwoOptStar extends Move {
+	/** Value of the routes when there is no neighbor */
+	private static final int NO_ROUTE = -1;
+
+	/** First route of the current neighbor */
+	private int firstRoute = NO_ROUTE;
+	/** Position where the tail of the first route starts in the current neighbor */
+	private int firstPosition;
+	/** Second route of the current neighbor */
+	private int secondRoute = NO_ROUTE;
+	/** Position where the tail of the second route starts in the current neighbor */
+	private int secondPosition;
+	/** Difference in the objective function of the current neighbor */
+	private double lastMoveCost;
+
+	/** First route of the next neighbor, or NO_ROUTE if there are no more neighbors */
+	private int nextFirstRoute = NO_ROUTE;
+	/** Position where the tail of the first route starts in the next neighbor */
+	private int nextFirstPosition;
+	/** Second route of the next neighbor */
+	private int nextSecondRoute;
+	/** Position where the tail of the second route starts in the next neighbor */
+	private int nextSecondPosition;
+
+	@Override
+	public void setSolution(CVRPSolution solution) {
+		super.setSolution(solution);
+		this.firstRoute = NO_ROUTE;
+		this.secondRoute = NO_ROUTE;
+
+		this.nextFirstRoute = getRouteRangeStart();
+		this.nextFirstPosition = 0;
+		this.nextSecondRoute = this.nextFirstRoute + 1;
+		this.nextSecondPosition = 0;
+		if (this.nextSecondRoute >= solution.getNumberOfRoutes() || this.nextFirstRoute >= getRouteRangeEnd()) {
+			this.nextFirstRoute = NO_ROUTE;
+		}
+		else if (!isNextNeighborValid()) {
+			advanceNextNeighbor();
+		}
+	}
+
+	@Override
+	public void nextNeighbor() {
+		if (!hasMoreNeighbors()) {
+			return;
+		}
+		this.firstRoute = this.nextFirstRoute;
+		this.firstPosition = this.nextFirstPosition;
+		this.secondRoute = this.nextSecondRoute;
+		this.secondPosition = this.nextSecondPosition;
+		calculateLastMoveCost();
+		advanceNextNeighbor();
+	}
+
+	@Override
+	public boolean hasMoreNeighbors() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.nextFirstRoute != NO_ROUTE;
+	}
+
+	@Override
+	public double getLastMoveCost() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return hasCurrentNeighbor() ? this.lastMoveCost : 0.0;
+	}
+
+	@Override
+	public double getCurrentNeighborCost() {
+		return getSolution().getTotalDistance() + getLastMoveCost();
+	}
+
+	@Override
+	public boolean isCurrentNeighborFeasible() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution().isFeasible();
+		}
+		CVRPSolution solution = getSolution();
+		int capacity = solution.getProblemInfo().getCapacity();
+		int firstHeadLoad = solution.getLoadBefore(this.firstRoute, this.firstPosition);
+		int secondHeadLoad = solution.getLoadBefore(this.secondRoute, this.secondPosition);
+		int firstTailLoad = solution.getRouteLoad(this.firstRoute) - firstHeadLoad;
+		int secondTailLoad = solution.getRouteLoad(this.secondRoute) - secondHeadLoad;
+		return firstHeadLoad + secondTailLoad <= capacity && secondHeadLoad + firstTailLoad <= capacity
+				&& solution.areOtherRoutesFeasible(this.firstRoute, this.secondRoute);
+	}
+
+	@Override
+	public CVRPSolution getCurrentNeighbor() {
+		if (!hasCurrentNeighbor()) {
+			return getSolution();
+		}
+		CVRPSolution neighbor = new CVRPSolution(getSolution());
+		applyCurrentNeighbor(neighbor);
+		return neighbor;
+	}
+
+	@Override
+	public void applyCurrentNeighbor(CVRPSolution solution) {
+		if (hasCurrentNeighbor()) {
+			solution.exchangeRouteTails(this.firstRoute, this.firstPosition, this.secondRoute, this.secondPosition);
+		}
+	}
+
+	@Override
+	public void undoCurrentNeighbor(CVRPSolution solution) {
+		// Exchanging the same tails again restores both routes
+		applyCurrentNeighbor(solution);
+	}
+
+	@Override
+	public void describeCurrentNeighbor(NeighborDescriptor descriptor) {
+		if (hasCurrentNeighbor()) {
+			descriptor.set(this, this.firstRoute, this.firstPosition, this.secondRoute, this.secondPosition,
+					getCurrentNeighborCost());
+		}
+		else {
+			descriptor.set(this, NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION,
+					NeighborDescriptor.NO_POSITION, NeighborDescriptor.NO_POSITION, getSolution().getTotalDistance());
+		}
+	}
+
+	@Override
+	public void applyNeighbor(NeighborDescriptor descriptor, CVRPSolution solution) {
+		// A descriptor without routes is the base solution itself
+		if (descriptor.getFirstRoute() != NeighborDescriptor.NO_POSITION) {
+			solution.exchangeRouteTails(descriptor.getFirstRoute(), descriptor.getFirstPosition(),
+					descriptor.getSecondRoute(), descriptor.getSecondPosition());
+		}
+	}
+
+	/*
+	 * (non-Javadoc) The state is made of the first clients of both tails, or no
+	 * client for an empty tail.
+	 *
+	 * @see daa.project.cvrp.moves.Move#getState()
+	 */
+	@Override
+	public MoveState getState() {
+		int firstClientId = getFirstClientOfTail(this.firstRoute, this.firstPosition);
+		int secondClientId = getFirstClientOfTail(this.secondRoute, this.secondPosition);
+		CVRPSpecification problemInfo = getSolution().getProblemInfo();
+		return new MoveState((firstClientId == MoveState.NO_CLIENT) ? null : problemInfo.getClient(firstClientId),
+				(secondClientId == MoveState.NO_CLIENT) ? null : problemInfo.getClient(secondClientId), firstClientId,
+				secondClientId);
+	}
+
+	@Override
+	public long getStateKey() {
+		return MoveState.packKey(getFirstClientOfTail(this.firstRoute, this.firstPosition),
+				getFirstClientOfTail(this.secondRoute, this.secondPosition));
+	}
+
+	@Override
+	public Move createEmptyCopy() {
+		return new TwoOptStar();
+	}
+
+	/**
+	 * @param route Route of the tail
+	 * @param position Position where the tail starts
+	 * @return The ID of the first client of the tail, or NO_CLIENT if it is empty
+	 */
+	private int getFirstClientOfTail(int route, int position) {
+		if (position == getSolution().getNumberOfClientsInRoute(route)) {
+			return MoveState.NO_CLIENT;
+		}
+		return getSolution().getClientId(route, position);
+	}
+
+	/** @return Whether the move points to a neighbor different from the base solution */
+	private boolean hasCurrentNeighbor() {
+		if (getSolution() == null) {
+			throw new IllegalAccessError("trying to use move with no base solution set");
+		}
+		return this.firstRoute != NO_ROUTE;
+	}
+
+	/**
+	 * Computes the difference in the objective function of the current neighbor:
+	 * the edges where both routes are cut are replaced by the edges that join the
+	 * head of each route with the tail of the other one.
+	 */
+	private void calculateLastMoveCost() {
+		CVRPSolution solution = getSolution();
+		CVRPSpecification problemInfo = solution.getProblemInfo();
+		int depot = problemInfo.getDepotID();
+
+		int firstPrev = (this.firstPosition == 0) ? depot : solution.getClientId(this.firstRoute, this.firstPosition - 1);
+		int firstNext = getFirstClientOfTail(this.firstRoute, this.firstPosition);
+		firstNext = (firstNext == MoveState.NO_CLIENT) ? depot : firstNext;
+		int secondPrev = (this.secondPosition == 0) ? depot
+				: solution.getClientId(this.secondRoute, this.secondPosition - 1);
+		int secondNext = getFirstClientOfTail(this.secondRoute, this.secondPosition);
+		secondNext = (secondNext == MoveState.NO_CLIENT) ? depot : secondNext;
+
+		this.lastMoveCost = problemInfo.distance(firstPrev, secondNext) + problemInfo.distance(secondPrev, firstNext)
+				- problemInfo.distance(firstPrev, firstNext) - problemInfo.distance(secondPrev, secondNext);
+	}
+
+	/**
+	 * Advances the next neighbor to the following valid one, or to NO_ROUTE if
+	 * there are no more neighbors. The neighbors are generated by first route
+	 * (only the ones of the route range), then by second route (always after the
+	 * first one) and last by the positions where they are cut.
+	 */
+	private void advanceNextNeighbor() {
+		do {
+			stepNextNeighbor();
+		} while (this.nextFirstRoute != NO_ROUTE && !isNextNeighborValid());
+	}
+
+	/** Moves the next neighbor one step forward, even if the neighbor is not valid */
+	private void stepNextNeighbor() {
+		CVRPSolution solution = getSolution();
+		if (this.nextSecondPosition < solution.getNumberOfClientsInRoute(this.nextSecondRoute)) {
+			this.nextSecondPosition++;
+			return;
+		}
+		this.nextSecondPosition = 0;
+		if (this.nextFirstPosition < solution.getNumberOfClientsInRoute(this.nextFirstRoute)) {
+			this.nextFirstPosition++;
+			return;
+		}
+		this.nextFirstPosition = 0;
+		if (this.nextSecondRoute + 1 < solution.getNumberOfRoutes()) {
+			this.nextSecondRoute++;
+			return;
+		}
+		this.nextFirstRoute++;
+		this.nextSecondRoute = this.nextFirstRoute + 1;
+		if (this.nextFirstRoute >= getRouteRangeEnd() || this.nextSecondRoute >= solution.getNumberOfRoutes()) {
+			this.nextFirstRoute = NO_ROUTE;
+		}
+	}
+
+	/** @return Whether the next neighbor changes the routes */
+	private boolean isNextNeighborValid() {
+		CVRPSolution solution = getSolution();
+		boolean wholeRoutes = this.nextFirstPosition == 0 && this.nextSecondPosition == 0;
+		boolean emptyTails = this.nextFirstPosition == solution.getNumberOfClientsInRoute(this.nextFirstRoute)
+				&& this.nextSecondPosition == solution.getNumberOfClientsInRoute(this.nextSecondRoute);
+		return !wholeRoutes && !emptyTails;
+	}
+}
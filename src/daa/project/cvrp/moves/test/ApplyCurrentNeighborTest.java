@@ -0,0 +1,215 @@
+/**
+ * ApplyCurrentNeighborTest.java
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ */
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.algorithms.ConstructiveDeterministic;
+import daa.project.cvrp.moves.CrossExchange;
+import daa.project.cvrp.moves.GranularCrossExchange;
+import daa.project.cvrp.moves.GranularInterrouteSwap;
+import daa.project.cvrp.moves.GranularRelocation;
+import daa.project.cvrp.moves.GranularTwoOpt;
+import daa.project.cvrp.moves.InterrouteSwap;
+import daa.project.cvrp.moves.IntrarouteSwap;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.OrOpt;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.SwapStar;
+import daa.project.cvrp.moves.TwoOpt;
+import daa.project.cvrp.moves.TwoOptStar;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks that applying a neighbor in place, directly or through its
+ * descriptor, gives the same solution as generating it, and that undoing it
+ * restores the base solution.
+ */
+public class ApplyCurrentNeighborTest {
+
+	private static final double EPSILON = 10E-6;
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** Contains the solution */
+	private static CVRPSolution solution;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		solution = new CVRPSolution(specification, vehicleRoutes);
+	}
+
+	@Test
+	public void relocationShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new Relocation());
+	}
+
+	@Test
+	public void interrouteSwapShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new InterrouteSwap());
+	}
+
+	@Test
+	public void intrarouteSwapShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new IntrarouteSwap());
+	}
+
+	@Test
+	public void twoOptShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new TwoOpt());
+	}
+
+	@Test
+	public void orOptShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new OrOpt());
+	}
+
+	@Test
+	public void twoOptStarShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new TwoOptStar());
+	}
+
+	@Test
+	public void crossExchangeShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new CrossExchange());
+	}
+
+	@Test
+	public void swapStarShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new SwapStar());
+	}
+
+	@Test
+	public void granularRelocationShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new GranularRelocation(3));
+	}
+
+	@Test
+	public void granularInterrouteSwapShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new GranularInterrouteSwap(3));
+	}
+
+	@Test
+	public void granularTwoOptShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new GranularTwoOpt(3));
+	}
+
+	@Test
+	public void granularCrossExchangeShouldApplyAndUndoEveryNeighbor() {
+		checkEveryNeighbor(new GranularCrossExchange(3, 3));
+	}
+
+	@Test
+	public void granularTwoOptShouldGenerateEveryReversalOnce() throws Exception {
+		CVRPSpecification specification = new ReaderFromFile("input/samples/S-N80-K10.vrp").getProblemSpecification();
+		CVRPSolution solution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+		GranularTwoOpt move = new GranularTwoOpt();
+		Set<String> reversals = new HashSet<String>();
+		NeighborDescriptor descriptor = new NeighborDescriptor();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			move.describeCurrentNeighbor(descriptor);
+			assertTrue(reversals.add(descriptor.getFirstRoute() + " " + descriptor.getFirstPosition() + " "
+					+ descriptor.getSecondPosition()));
+		}
+		assertFalse(reversals.isEmpty());
+	}
+
+	/**
+	 * Goes through all the neighbors of the move, applying and undoing each one
+	 * on a copy of the base solution.
+	 *
+	 * @param move Move to check
+	 */
+	private void checkEveryNeighbor(Move move) {
+		CVRPSolution baseSolution = new CVRPSolution(solution);
+		CVRPSolution workingSolution = new CVRPSolution(solution);
+		NeighborDescriptor descriptor = new NeighborDescriptor();
+		move.setSolution(baseSolution);
+
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			CVRPSolution expectedNeighbor = move.getCurrentNeighbor();
+			assertEquals(move.getState().getKey(), move.getStateKey());
+
+			move.applyCurrentNeighbor(workingSolution);
+			assertSameSolution(expectedNeighbor, workingSolution);
+			assertEquals(move.getCurrentNeighborCost(), workingSolution.getTotalDistance(), EPSILON);
+
+			move.undoCurrentNeighbor(workingSolution);
+			assertSameSolution(solution, workingSolution);
+
+			move.describeCurrentNeighbor(descriptor);
+			assertEquals(move.getCurrentNeighborCost(), descriptor.getCost(), EPSILON);
+			descriptor.applyTo(workingSolution);
+			assertSameSolution(expectedNeighbor, workingSolution);
+			workingSolution.copyFrom(solution);
+		}
+		assertSameSolution(solution, baseSolution);
+	}
+
+	/**
+	 * Checks that the solution has the expected codification and that its
+	 * information matches the one computed from scratch.
+	 */
+	private void assertSameSolution(CVRPSolution expected, CVRPSolution actual) {
+		assertEquals(expected, actual);
+
+		CVRPSolution fromScratch = new CVRPSolution(specification, getCodification(actual));
+		assertEquals(fromScratch.getTotalDistance(), actual.getTotalDistance(), EPSILON);
+		assertEquals(fromScratch.isFeasible(), actual.isFeasible());
+		assertEquals(fromScratch.getNumberOfOverloadedRoutes(), actual.getNumberOfOverloadedRoutes());
+		for (int route = 0; route < fromScratch.getNumberOfRoutes(); ++route) {
+			assertEquals(fromScratch.getRouteStartingIndex(route), actual.getRouteStartingIndex(route));
+			assertEquals(fromScratch.getVehicleRemainingCapacity(route), actual.getVehicleRemainingCapacity(route));
+			assertEquals(fromScratch.getRouteDistance(route), actual.getRouteDistance(route), EPSILON);
+			for (int position = 0; position <= fromScratch.getNumberOfClientsInRoute(route); ++position) {
+				assertEquals(fromScratch.getLoadBefore(route, position), actual.getLoadBefore(route, position));
+				assertEquals(fromScratch.getDistanceTo(route, position), actual.getDistanceTo(route, position), EPSILON);
+			}
+		}
+		for (int clientId = 0; clientId < specification.getClients().size(); ++clientId) {
+			assertEquals(fromScratch.getRouteOfClient(clientId), actual.getRouteOfClient(clientId));
+			assertEquals(fromScratch.getPositionOfClient(clientId), actual.getPositionOfClient(clientId));
+		}
+	}
+
+	private int[] getCodification(CVRPSolution solution) {
+		ArrayList<Integer> codification = new ArrayList<Integer>();
+		for (int route = 0; route < solution.getNumberOfRoutes(); ++route) {
+			for (int position = 0; position < solution.getNumberOfClientsInRoute(route); ++position) {
+				codification.add(solution.getClientId(route, position));
+			}
+			codification.add(CVRPSolution.SEPARATOR);
+		}
+		int[] result = new int[codification.size()];
+		for (int i = 0; i < result.length; ++i) {
+			result[i] = codification.get(i);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,98 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.CrossExchange;
+import daa.project.cvrp.moves.GranularCrossExchange;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the neighbors generated by the CROSS-exchange moves.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file CrossExchangeTest.java
+ *
+ */
+public class CrossExchangeTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** Contains the solution */
+	private static CVRPSolution solution;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		solution = new CVRPSolution(specification, vehicleRoutes);
+	}
+
+	@Test
+	public void shouldExchangeSegmentsOfDifferentLengths() {
+		CrossExchange move = new CrossExchange();
+		move.setSolution(solution);
+
+		move.nextNeighbor();
+		assertEquals(new CVRPSolution(specification,
+				new ArrayList<Integer>(Arrays.asList(4, 1, 3, -1, 2, 5, 6, -1, 8, 7, 0, -1))), move.getCurrentNeighbor());
+		move.nextNeighbor();
+		assertEquals(new CVRPSolution(specification,
+				new ArrayList<Integer>(Arrays.asList(4, 5, 1, 3, -1, 2, 6, -1, 8, 7, 0, -1))), move.getCurrentNeighbor());
+	}
+
+	@Test
+	public void shouldGenerateEveryPairOfSegments() {
+		// Every route has 3 segments of 1 client, 2 of 2 and 1 of 3
+		assertEquals(3 * 6 * 6, getNeighbors(new CrossExchange()).size());
+		// With single clients it is the interroute swap
+		assertEquals(3 * 3 * 3, getNeighbors(new CrossExchange(1)).size());
+	}
+
+	@Test
+	public void granularNeighborsShouldBeCrossExchangeNeighbors() {
+		Set<CVRPSolution> neighbors = getNeighbors(new CrossExchange());
+		Set<CVRPSolution> granularNeighbors = getNeighbors(new GranularCrossExchange(3, 3));
+		assertTrue(granularNeighbors.size() > 0);
+		assertTrue(neighbors.containsAll(granularNeighbors));
+	}
+
+	@Test
+	public void feasibilityShouldMatchTheNeighbor() {
+		Move[] moves = { new CrossExchange(), new GranularCrossExchange(3, 3) };
+		for (Move move : moves) {
+			move.setSolution(solution);
+			while (move.hasMoreNeighbors()) {
+				move.nextNeighbor();
+				assertEquals(move.getCurrentNeighbor().isFeasible(), move.isCurrentNeighborFeasible());
+			}
+		}
+	}
+
+	private Set<CVRPSolution> getNeighbors(Move move) {
+		Set<CVRPSolution> neighbors = new HashSet<CVRPSolution>();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			neighbors.add(move.getCurrentNeighbor());
+		}
+		return neighbors;
+	}
+}
@@ -0,0 +1,196 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.DontLookBits;
+import daa.project.cvrp.moves.GranularRelocation;
+import daa.project.cvrp.moves.InterrouteSwap;
+import daa.project.cvrp.moves.IntrarouteSwap;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.TwoOpt;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the don't-look bits of the clients and the moves that skip the
+ * inactive clients.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file DontLookBitsTest.java
+ *
+ */
+public class DontLookBitsTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	/** Solution modified by the tests */
+	private CVRPSolution solution;
+	/** Bits of the clients of the solution */
+	private DontLookBits dontLookBits;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+	}
+
+	@Before
+	public void initialize() {
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		this.solution = new CVRPSolution(specification, vehicleRoutes);
+		this.dontLookBits = new DontLookBits(this.solution);
+	}
+
+	@Test
+	public void shouldDeactivateTheClientsWithNoImprovingNeighbor() {
+		assertEquals(specification.getClients().size(), this.dontLookBits.getNumberOfActiveClients());
+		this.dontLookBits.markImproving(2);
+		this.dontLookBits.endPass();
+
+		assertEquals(1, this.dontLookBits.getNumberOfActiveClients());
+		assertTrue(this.dontLookBits.isActive(2));
+	}
+
+	@Test
+	public void shouldActivateTheClientsOfTheChangedEdges() {
+		this.dontLookBits.endPass();
+		// The client 2 goes from the start of the first route to the start of the second one
+		this.solution.relocateClient(0, 0, 1, 0);
+
+		assertEquals(3, this.dontLookBits.activateChangedClients(this.solution));
+		assertTrue(this.dontLookBits.isActive(1));
+		assertTrue(this.dontLookBits.isActive(2));
+		assertTrue(this.dontLookBits.isActive(4));
+		assertFalse(this.dontLookBits.isActive(3));
+		assertFalse(this.dontLookBits.isActive(5));
+	}
+
+	@Test
+	public void shouldOnlyCompareTheChangedRoutes() {
+		this.dontLookBits.endPass();
+		this.solution.relocateClient(0, 0, 1, 0);
+
+		assertEquals(0, this.dontLookBits.activateChangedClients(this.solution, 2, 2));
+		assertEquals(3, this.dontLookBits.activateChangedClients(this.solution, 0, 1));
+		assertTrue(this.dontLookBits.isActive(1));
+		assertTrue(this.dontLookBits.isActive(2));
+		assertTrue(this.dontLookBits.isActive(4));
+		assertEquals(0, this.dontLookBits.activateChangedClients(this.solution));
+	}
+
+	@Test
+	public void shouldNotActivateTheClientsOfAReversedRoute() {
+		this.dontLookBits.endPass();
+		// The edges are not directed, so a whole route visited backwards keeps all of them
+		this.solution.reverseRouteSegment(1, 0, 2);
+
+		assertEquals(0, this.dontLookBits.activateChangedClients(this.solution));
+		assertEquals(0, this.dontLookBits.getNumberOfActiveClients());
+	}
+
+	@Test
+	public void granularMoveShouldOnlyGenerateTheNeighborsOfActiveClients() {
+		this.dontLookBits.markImproving(4);
+		this.dontLookBits.endPass();
+		GranularRelocation move = new GranularRelocation();
+		move.setDontLookBits(this.dontLookBits);
+		move.setSolution(this.solution);
+
+		int numberOfNeighbors = 0;
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			assertEquals(4, move.getBaseClientId());
+			numberOfNeighbors++;
+		}
+		assertTrue(numberOfNeighbors > 0);
+
+		this.dontLookBits.deactivate(4);
+		move.setSolution(this.solution);
+		assertFalse(move.hasMoreNeighbors());
+	}
+
+	@Test
+	public void relocationShouldOnlyGenerateTheNeighborsOfActiveClients() {
+		checkOnlyActiveClient(new Relocation());
+	}
+
+	@Test
+	public void interrouteSwapShouldOnlyGenerateTheNeighborsOfActiveClients() {
+		checkOnlyActiveClient(new InterrouteSwap());
+	}
+
+	@Test
+	public void intrarouteSwapShouldOnlyGenerateTheNeighborsOfActiveClients() {
+		checkOnlyActiveClient(new IntrarouteSwap());
+	}
+
+	@Test
+	public void twoOptShouldOnlyGenerateTheNeighborsOfActiveClients() {
+		checkOnlyActiveClient(new TwoOpt());
+	}
+
+	/**
+	 * Checks that the move only generates the neighbors of the only active
+	 * client, the first one of the solution, and none once it is deactivated.
+	 *
+	 * @param move Move to check
+	 */
+	private void checkOnlyActiveClient(Move move) {
+		this.dontLookBits.markImproving(2);
+		this.dontLookBits.endPass();
+		NeighborDescriptor descriptor = new NeighborDescriptor();
+		Set<String> expectedNeighbors = new HashSet<String>();
+		move.setSolution(this.solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			if (move.getBaseClientId() == 2) {
+				move.describeCurrentNeighbor(descriptor);
+				expectedNeighbors.add(describe(descriptor));
+			}
+		}
+		move.setDontLookBits(this.dontLookBits);
+		move.setSolution(this.solution);
+
+		Set<String> neighbors = new HashSet<String>();
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			assertEquals(2, move.getBaseClientId());
+			move.describeCurrentNeighbor(descriptor);
+			neighbors.add(describe(descriptor));
+		}
+		assertFalse(neighbors.isEmpty());
+		assertEquals(expectedNeighbors, neighbors);
+
+		this.dontLookBits.deactivate(2);
+		move.setSolution(this.solution);
+		assertFalse(move.hasMoreNeighbors());
+	}
+
+	/**
+	 * @param descriptor Neighbor
+	 * @return Description of the routes and positions of the neighbor
+	 */
+	private String describe(NeighborDescriptor descriptor) {
+		return descriptor.getFirstRoute() + " " + descriptor.getFirstPosition() + " " + descriptor.getSecondRoute() + " "
+				+ descriptor.getSecondPosition();
+	}
+}
@@ -46,4 +46,15 @@ public class MoveStateTest {
 		assertNotEquals(firstState, secondState);
 	}
 
+	@Test
+	public void testPackedKey() {
+		long key = MoveState.packKey(7, MoveState.NO_CLIENT);
+		assertEquals(7, MoveState.getFirstClientId(key));
+		assertEquals(MoveState.NO_CLIENT, MoveState.getSecondClientId(key));
+		assertNotEquals(key, MoveState.packKey(MoveState.NO_CLIENT, 7));
+		
+		MoveState state = new MoveState(new CVRPClient(50, 50, 30), null, 3, 12);
+		assertEquals(MoveState.packKey(3, 12), state.getKey());
+	}
+
 }
@@ -0,0 +1,101 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.OrOpt;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the neighbors generated by the Or-opt move.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file OrOptTest.java
+ *
+ */
+public class OrOptTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** Contains the solution */
+	private static CVRPSolution solution;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		solution = new CVRPSolution(specification, vehicleRoutes);
+	}
+
+	@Test
+	public void shouldGenerateEverySegmentInEveryPlace() {
+		// Every route has 3 clients: 3 single clients, 2 segments of 2 and 1 of 3.
+		// A segment has 4 places in each of the other routes and (3 - length) in its
+		// own route, and the segments of more than one client can be reversed:
+		// 3 * (8 + 2) + 2 * 2 * (8 + 1) + 1 * 2 * (8 + 0) = 82 neighbors per route
+		assertEquals(3 * 82, countNeighbors(new OrOpt(), solution));
+	}
+
+	@Test
+	public void shouldLimitTheSegmentLength() {
+		// Only single clients: 3 * (8 + 2) neighbors per route
+		assertEquals(3 * 30, countNeighbors(new OrOpt(1), solution));
+	}
+
+	@Test
+	public void shouldDoNothingWithoutNeighbors() {
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, -1, -1));
+		CVRPSolution singleClientSolution = new CVRPSolution(specification, vehicleRoutes);
+		OrOpt move = new OrOpt();
+		move.setSolution(singleClientSolution);
+
+		// The only neighbor moves the client to the empty route
+		assertEquals(1, countNeighbors(move, singleClientSolution));
+		move.setRouteRange(1, 2);
+		move.setSolution(singleClientSolution);
+		assertFalse(move.hasMoreNeighbors());
+		assertEquals(singleClientSolution.getTotalDistance(), move.getCurrentNeighborCost(), 0.0);
+	}
+
+	@Test
+	public void feasibilityShouldMatchTheNeighbor() {
+		OrOpt move = new OrOpt();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			CVRPSolution neighbor = move.getCurrentNeighbor();
+			assertNotEquals(solution, neighbor);
+			assertEquals(neighbor.isFeasible(), move.isCurrentNeighborFeasible());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotAllowEmptySegments() {
+		new OrOpt(0);
+	}
+
+	private int countNeighbors(OrOpt move, CVRPSolution baseSolution) {
+		int numberOfNeighbors = 0;
+		move.setSolution(baseSolution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			numberOfNeighbors++;
+		}
+		return numberOfNeighbors;
+	}
+}
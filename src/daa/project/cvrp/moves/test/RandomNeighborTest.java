@@ -0,0 +1,118 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.algorithms.ConstructiveDeterministic;
+import daa.project.cvrp.moves.InterrouteSwap;
+import daa.project.cvrp.moves.IntrarouteSwap;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.OrOpt;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.TwoOpt;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the random feasible neighbors drawn by the moves for the shaking of
+ * the VNS.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file RandomNeighborTest.java
+ *
+ */
+public class RandomNeighborTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+	/** Number of random neighbors drawn by every move */
+	private static final int NUMBER_OF_DRAWS = 2000;
+	/** Allowed difference in the objective function */
+	private static final double EPSILON = 1e-6;
+
+	/** Feasible solution whose neighbors are drawn */
+	private static CVRPSolution solution;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+		solution = ConstructiveDeterministic.constructDeterministicSolution(specification);
+	}
+
+	@Test
+	public void shouldDrawEveryFeasibleNeighborAndNothingElse() {
+		Random random = new Random(0);
+		Move[] moves = { new Relocation(), new InterrouteSwap(), new IntrarouteSwap(), new TwoOpt(), new OrOpt() };
+		for (Move move : moves) {
+			Set<String> feasibleNeighbors = getFeasibleNeighbors(move);
+			Set<String> drawnNeighbors = new HashSet<String>();
+			NeighborDescriptor descriptor = new NeighborDescriptor();
+			for (int draw = 0; draw < NUMBER_OF_DRAWS; ++draw) {
+				move.setSolution(solution);
+				assertTrue(move.describeRandomFeasibleNeighbor(random, descriptor));
+
+				CVRPSolution neighbor = new CVRPSolution(solution);
+				descriptor.applyTo(neighbor);
+				assertTrue(neighbor.isFeasible());
+				assertEquals(descriptor.getCost(), neighbor.getTotalDistance(), EPSILON);
+				drawnNeighbors.add(describe(descriptor));
+			}
+			assertEquals(feasibleNeighbors, drawnNeighbors);
+		}
+	}
+
+	@Test
+	public void shouldNotDrawAnythingWithoutNeighbors() {
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, 4, 5, 6, -1));
+		CVRPSolution singleRouteSolution = new CVRPSolution(specification, vehicleRoutes);
+		InterrouteSwap move = new InterrouteSwap();
+		move.setSolution(singleRouteSolution);
+
+		assertFalse(move.describeRandomFeasibleNeighbor(new Random(0), new NeighborDescriptor()));
+	}
+
+	/**
+	 * @param move Move whose neighbors are generated
+	 * @return Description of every feasible neighbor of the solution
+	 */
+	private Set<String> getFeasibleNeighbors(Move move) {
+		Set<String> neighbors = new HashSet<String>();
+		NeighborDescriptor descriptor = new NeighborDescriptor();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			if (move.isCurrentNeighborFeasible()) {
+				move.describeCurrentNeighbor(descriptor);
+				neighbors.add(describe(descriptor));
+			}
+		}
+		return neighbors;
+	}
+
+	/**
+	 * @param descriptor Neighbor
+	 * @return Description of the routes, positions and parameters of the neighbor
+	 */
+	private String describe(NeighborDescriptor descriptor) {
+		return descriptor.getFirstRoute() + " " + descriptor.getFirstPosition() + " " + descriptor.getSecondRoute() + " "
+				+ descriptor.getSecondPosition() + " " + descriptor.getFirstParameter() + " "
+				+ descriptor.getSecondParameter();
+	}
+}
@@ -0,0 +1,131 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.InterrouteSwap;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.RoutePairMemory;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the memory of the pairs of routes and the moves that skip the pairs
+ * with no modified route.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file RoutePairMemoryTest.java
+ *
+ */
+public class RoutePairMemoryTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	/** Solution whose neighbors are generated */
+	private CVRPSolution solution;
+	/** Memory of the pairs of routes of the solution */
+	private RoutePairMemory routePairMemory;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+	}
+
+	@Before
+	public void initialize() {
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		this.solution = new CVRPSolution(specification, vehicleRoutes);
+		this.routePairMemory = new RoutePairMemory(this.solution.getNumberOfRoutes());
+	}
+
+	@Test
+	public void movesShouldOnlyGenerateTheNeighborsOfTheModifiedPairs() {
+		Move[] moves = { new Relocation(), new InterrouteSwap() };
+		for (Move move : moves) {
+			Set<String> expectedNeighbors = new HashSet<String>();
+			for (String neighbor : getNeighbors(move)) {
+				if (neighbor.contains("route 2")) {
+					expectedNeighbors.add(neighbor);
+				}
+			}
+			this.routePairMemory.endPass();
+			this.routePairMemory.markModified(2);
+			move.setRoutePairMemory(this.routePairMemory);
+
+			assertTrue(move.generatesNeighborsByRoutePair());
+			assertFalse(expectedNeighbors.isEmpty());
+			assertEquals(expectedNeighbors, getNeighbors(move));
+			move.setRoutePairMemory(null);
+		}
+	}
+
+	@Test
+	public void movesShouldGenerateNothingWithoutModifiedRoutes() {
+		this.routePairMemory.endPass();
+		Relocation move = new Relocation();
+		move.setRoutePairMemory(this.routePairMemory);
+		move.setSolution(this.solution);
+
+		assertFalse(move.hasMoreNeighbors());
+	}
+
+	@Test
+	public void shouldKeepTheBestNeighborOfAPairUntilOneOfItsRoutesIsModified() {
+		Relocation move = new Relocation();
+		NeighborDescriptor neighbor = new NeighborDescriptor();
+		neighbor.set(move, 0, 1, 2, 0, 10.0);
+		this.routePairMemory.keepIfBetter(neighbor, -2.0);
+		neighbor.set(move, 1, 0, 2, 1, 9.0);
+		this.routePairMemory.keepIfBetter(neighbor, -3.0);
+		this.routePairMemory.endPass();
+
+		NeighborDescriptor bestNeighbor = new NeighborDescriptor();
+		assertTrue(this.routePairMemory.findBestNeighbor(bestNeighbor));
+		assertEquals(1, bestNeighbor.getFirstRoute());
+		assertFalse(this.routePairMemory.isModified(0, 2));
+
+		this.routePairMemory.markModified(1);
+		assertTrue(this.routePairMemory.isModified(0, 1));
+		assertTrue(this.routePairMemory.findBestNeighbor(bestNeighbor));
+		assertEquals(0, bestNeighbor.getFirstRoute());
+
+		this.routePairMemory.markModified(2);
+		assertFalse(this.routePairMemory.findBestNeighbor(bestNeighbor));
+	}
+
+	/**
+	 * @param move Move whose neighbors are generated
+	 * @return Description of the routes and positions of every neighbor of the solution
+	 */
+	private Set<String> getNeighbors(Move move) {
+		Set<String> neighbors = new HashSet<String>();
+		NeighborDescriptor descriptor = new NeighborDescriptor();
+		move.setSolution(this.solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			move.describeCurrentNeighbor(descriptor);
+			neighbors.add("route " + descriptor.getFirstRoute() + " position " + descriptor.getFirstPosition() + ", route "
+					+ descriptor.getSecondRoute() + " position " + descriptor.getSecondPosition());
+		}
+		return neighbors;
+	}
+}
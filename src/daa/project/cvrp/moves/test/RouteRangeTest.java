@@ -0,0 +1,148 @@
+/**
+ * RouteRangeTest.java
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ */
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.CrossExchange;
+import daa.project.cvrp.moves.GranularCrossExchange;
+import daa.project.cvrp.moves.GranularInterrouteSwap;
+import daa.project.cvrp.moves.GranularRelocation;
+import daa.project.cvrp.moves.GranularTwoOpt;
+import daa.project.cvrp.moves.InterrouteSwap;
+import daa.project.cvrp.moves.IntrarouteSwap;
+import daa.project.cvrp.moves.Move;
+import daa.project.cvrp.moves.NeighborDescriptor;
+import daa.project.cvrp.moves.OrOpt;
+import daa.project.cvrp.moves.Relocation;
+import daa.project.cvrp.moves.SwapStar;
+import daa.project.cvrp.moves.TwoOpt;
+import daa.project.cvrp.moves.TwoOptStar;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks that splitting the neighborhood of a move by routes generates the
+ * same neighbors, in the same order, as exploring it at once.
+ */
+public class RouteRangeTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** Contains the solution */
+	private static CVRPSolution solution;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(
+				Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, -1, 8, 7, 0, 9, -1));
+		solution = new CVRPSolution(specification, vehicleRoutes);
+	}
+
+	@Test
+	public void relocationRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new Relocation());
+	}
+
+	@Test
+	public void interrouteSwapRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new InterrouteSwap());
+	}
+
+	@Test
+	public void intrarouteSwapRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new IntrarouteSwap());
+	}
+
+	@Test
+	public void twoOptRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new TwoOpt());
+	}
+
+	@Test
+	public void orOptRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new OrOpt());
+	}
+
+	@Test
+	public void twoOptStarRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new TwoOptStar());
+	}
+
+	@Test
+	public void crossExchangeRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new CrossExchange());
+	}
+
+	@Test
+	public void swapStarRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new SwapStar());
+	}
+
+	@Test
+	public void granularMovesRangesShouldCoverTheNeighborhood() {
+		checkRoutePartition(new GranularRelocation(3));
+		checkRoutePartition(new GranularInterrouteSwap(3));
+		checkRoutePartition(new GranularTwoOpt(3));
+		checkRoutePartition(new GranularCrossExchange(3, 3));
+	}
+
+	@Test
+	public void emptyRangeShouldHaveNoNeighbors() {
+		Move move = new Relocation();
+		move.setRouteRange(2, 2);
+		move.setSolution(solution);
+		assertFalse(move.hasMoreNeighbors());
+	}
+
+	/**
+	 * Compares the neighbors of the whole neighborhood with the ones of every
+	 * single route range, one after another.
+	 */
+	private void checkRoutePartition(Move move) {
+		ArrayList<String> expectedNeighbors = getNeighbors(move);
+
+		ArrayList<String> actualNeighbors = new ArrayList<String>();
+		for (int route = 0; route < solution.getNumberOfRoutes(); ++route) {
+			Move rangeMove = move.createEmptyCopy();
+			rangeMove.setRouteRange(route, route + 1);
+			actualNeighbors.addAll(getNeighbors(rangeMove));
+		}
+		assertEquals(expectedNeighbors, actualNeighbors);
+	}
+
+	private ArrayList<String> getNeighbors(Move move) {
+		ArrayList<String> neighbors = new ArrayList<String>();
+		NeighborDescriptor descriptor = new NeighborDescriptor();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			move.describeCurrentNeighbor(descriptor);
+			String neighbor = descriptor.getFirstRoute() + " " + descriptor.getFirstPosition() + " "
+					+ descriptor.getSecondRoute() + " " + descriptor.getSecondPosition();
+			// Some moves visit their last neighbor twice, which is not relevant here
+			if (neighbors.isEmpty() || !neighbors.get(neighbors.size() - 1).equals(neighbor)) {
+				neighbors.add(neighbor);
+			}
+		}
+		return neighbors;
+	}
+}
@@ -0,0 +1,115 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.SwapStar;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the neighbors generated by the SWAP* move.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file SwapStarTest.java
+ *
+ */
+public class SwapStarTest {
+
+	private static final double EPSILON = 10E-6;
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** Contains the solution */
+	private static CVRPSolution solution;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		solution = new CVRPSolution(specification, vehicleRoutes);
+	}
+
+	@Test
+	public void shouldGenerateEveryPairOfClients() {
+		int numberOfNeighbors = 0;
+		SwapStar move = new SwapStar();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			numberOfNeighbors++;
+		}
+		assertEquals(3 * 3 * 3, numberOfNeighbors);
+	}
+
+	@Test
+	public void shouldInsertTheClientsAtTheirBestPositions() {
+		SwapStar move = new SwapStar();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			CVRPSolution neighbor = move.getCurrentNeighbor();
+			assertEquals(neighbor.getTotalDistance(), move.getCurrentNeighborCost(), EPSILON);
+			assertEquals(neighbor.isFeasible(), move.isCurrentNeighborFeasible());
+			assertEquals(getBestExchangeCost(neighbor), move.getCurrentNeighborCost(), EPSILON);
+		}
+	}
+
+	/**
+	 * Tries every position of both exchanged clients in their new routes
+	 *
+	 * @param neighbor Neighbor generated by the move
+	 * @return The cost of the best neighbor with the same clients exchanged
+	 */
+	private double getBestExchangeCost(CVRPSolution neighbor) {
+		// The exchanged clients are the ones whose route changed
+		int firstClient = -1;
+		int secondClient = -1;
+		for (int clientId = 0; clientId < specification.getClients().size(); ++clientId) {
+			int route = solution.getRouteOfClient(clientId);
+			if (route != CVRPSolution.CLIENT_NOT_FOUND && route != neighbor.getRouteOfClient(clientId)) {
+				if (firstClient == -1) {
+					firstClient = clientId;
+				} else {
+					secondClient = clientId;
+				}
+			}
+		}
+		double bestCost = Double.MAX_VALUE;
+		int firstRoute = solution.getRouteOfClient(firstClient);
+		int secondRoute = solution.getRouteOfClient(secondClient);
+		for (int firstInsertion = 0; firstInsertion < solution.getNumberOfClientsInRoute(secondRoute); ++firstInsertion) {
+			for (int secondInsertion = 0; secondInsertion < solution.getNumberOfClientsInRoute(firstRoute); ++secondInsertion) {
+				ArrayList<Integer> codification = new ArrayList<Integer>();
+				for (int route = 0; route < solution.getNumberOfRoutes(); ++route) {
+					ArrayList<Integer> clients = new ArrayList<Integer>();
+					for (int position = 0; position < solution.getNumberOfClientsInRoute(route); ++position) {
+						clients.add(solution.getClientId(route, position));
+					}
+					if (route == firstRoute) {
+						clients.remove(Integer.valueOf(firstClient));
+						clients.add(secondInsertion, secondClient);
+					} else if (route == secondRoute) {
+						clients.remove(Integer.valueOf(secondClient));
+						clients.add(firstInsertion, firstClient);
+					}
+					codification.addAll(clients);
+					codification.add(CVRPSolution.SEPARATOR);
+				}
+				bestCost = Math.min(bestCost, new CVRPSolution(specification, codification).getTotalDistance());
+			}
+		}
+		return bestCost;
+	}
+}
@@ -0,0 +1,96 @@
+package daa.project.cvrp.moves.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import daa.project.cvrp.IO.ReaderFromFile;
+import daa.project.cvrp.moves.TwoOptStar;
+import daa.project.cvrp.problem.CVRPSolution;
+import daa.project.cvrp.problem.CVRPSpecification;
+
+/**
+ * Checks the neighbors generated by the 2-opt* move.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file TwoOptStarTest.java
+ *
+ */
+public class TwoOptStarTest {
+
+	/** Problem specification for test. */
+	private static CVRPSpecification specification;
+	/** Contains the solution */
+	private static CVRPSolution solution;
+	/** File from where we will get the problem specification. */
+	private static final String TEST_FILENAME = "input/test_graphic.vrp";
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		ReaderFromFile reader = new ReaderFromFile(TEST_FILENAME);
+		specification = reader.getProblemSpecification();
+
+		ArrayList<Integer> vehicleRoutes = new ArrayList<Integer>(Arrays.asList(2, 1, 3, -1, 4, 5, 6, -1, 8, 7, 0, -1));
+		solution = new CVRPSolution(specification, vehicleRoutes);
+	}
+
+	@Test
+	public void shouldExchangeTheTailsOfTheRoutes() {
+		TwoOptStar move = new TwoOptStar();
+		move.setSolution(solution);
+		move.nextNeighbor();
+
+		// The first route is cut before its first client and the second one after its first client
+		CVRPSolution expected = new CVRPSolution(specification,
+				new ArrayList<Integer>(Arrays.asList(5, 6, -1, 4, 2, 1, 3, -1, 8, 7, 0, -1)));
+		assertEquals(expected, move.getCurrentNeighbor());
+		assertEquals(expected.getTotalDistance(), move.getCurrentNeighborCost(), 10E-6);
+	}
+
+	@Test
+	public void shouldGenerateEveryPairOfTails() {
+		// 3 pairs of routes with 4 cuts each, but the whole routes and the empty tails
+		int numberOfNeighbors = 0;
+		TwoOptStar move = new TwoOptStar();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			numberOfNeighbors++;
+		}
+		assertEquals(3 * (4 * 4 - 2), numberOfNeighbors);
+	}
+
+	@Test
+	public void shouldSplitRoutesIntoEmptyRoutes() {
+		CVRPSolution withEmptyRoute = new CVRPSolution(specification,
+				new ArrayList<Integer>(Arrays.asList(2, 1, -1, -1)));
+		TwoOptStar move = new TwoOptStar();
+		move.setSolution(withEmptyRoute);
+
+		// The tail of the first route can only start at its second client
+		move.nextNeighbor();
+		assertEquals(new CVRPSolution(specification, new ArrayList<Integer>(Arrays.asList(2, -1, 1, -1))),
+				move.getCurrentNeighbor());
+		assertFalse(move.hasMoreNeighbors());
+	}
+
+	@Test
+	public void feasibilityShouldMatchTheNeighbor() {
+		TwoOptStar move = new TwoOptStar();
+		move.setSolution(solution);
+		while (move.hasMoreNeighbors()) {
+			move.nextNeighbor();
+			CVRPSolution neighbor = move.getCurrentNeighbor();
+			assertNotEquals(solution, neighbor);
+			assertEquals(neighbor.isFeasible(), move.isCurrentNeighborFeasible());
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package daa.project.cvrp.problem;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Represents all the information of a solution for 
@@ -19,6 +20,11 @@ public class CVRPSolution {
 	 */
 	public static final int SEPARATOR = -1;
 
+	/**
+	 * Route and position returned for the clients that are not in the solution
+	 */
+	public static final int CLIENT_NOT_FOUND = -1;
+
 	/**
 	 * Reference to a data structure holding the information of the specific problem
 	 * that this solution is for.
@@ -31,19 +37,49 @@ public class CVRPSolution {
      * i-th vehicle have to send supplies to. Being each element of the sequence the
      * ID of the client to visit
      */
-	private ArrayList<Integer> vehicleRoutes = new ArrayList<>();
+	private int[] vehicleRoutes;
 
 	/**
-	 * List of k numbers representing the index at vehicleRoutes where the i-th
+	 * Array of k numbers representing the index at vehicleRoutes where the i-th
 	 * route starts
 	 */
-	private ArrayList<Integer> routesStartingIndexes = new ArrayList<>();
+	private int[] routesStartingIndexes;
 
 	/**
 	 * In the i-th position is stored the remaining capacity that the i-th vehicle
 	 * can carry
 	 */
-	private ArrayList<Integer> vehicleRemainingCapacities = new ArrayList<>();
+	private int[] vehicleRemainingCapacities;
+
+	/**
+	 * Inverse index of the codification. In the i-th position is stored the route
+	 * where the client with ID i is visited, or CLIENT_NOT_FOUND
+	 */
+	private int[] routeOfClient;
+
+	/**
+	 * In the i-th position is stored the position inside its route of the client
+	 * with ID i, or CLIENT_NOT_FOUND
+	 */
+	private int[] positionOfClient;
+
+	/**
+	 * In the i-th position is stored the load of the clients visited before the
+	 * client with ID i in its route
+	 */
+	private int[] loadBeforeClient;
+
+	/**
+	 * In the i-th position is stored the distance travelled from the depot to the
+	 * client with ID i along its route
+	 */
+	private double[] distanceToClient;
+
+	/**
+	 * In the i-th position is stored the distance of the i-th route, from the
+	 * depot and back to it
+	 */
+	private double[] routeDistances;
 
 	/**
 	 * Total distance that have to travel to get to every client
@@ -51,9 +87,10 @@ public class CVRPSolution {
     private double totalDistance;
 
 	/**
-	 * Whether this solution is feasible or not
+	 * Number of routes whose demand exceeds the capacity of the vehicle. The
+	 * solution is feasible when there is none
 	 */
-	private boolean isFeasible;
+	private int numberOfOverloadedRoutes;
 
 	/**
      * Create a solution given the information of the problem and the solution
@@ -72,75 +109,118 @@ public class CVRPSolution {
      * @param vehicleRoutes    Codification of the solution
      */
 	public CVRPSolution(CVRPSpecification problemInfo, ArrayList<Integer> vehicleRoutes) {
+		this(problemInfo, toPrimitiveCodification(vehicleRoutes));
+	}
+
+	/**
+     * Create a solution given the information of the problem and the solution
+     * codification as a primitive array. The array is owned by the solution
+     * from now on, so it must not be modified by the caller.
+     * 
+     * @param problemInfo  Data structure that has the information of the CVRP 
+     * that this solution is for
+     * @param vehicleRoutes    Codification of the solution
+     * @see #CVRPSolution(CVRPSpecification, ArrayList)
+     */
+	public CVRPSolution(CVRPSpecification problemInfo, int[] vehicleRoutes) {
 		setProblemInfo(problemInfo);
 		setVehicleRoutes(vehicleRoutes);
 
 		final int vehiclesCapacity = getProblemInfo().getCapacity();
+		final int depotId = getProblemInfo().getDepotID();
+		int numberOfRoutes = 0;
+		for (int clientId : vehicleRoutes) {
+			if (clientId == CVRPSolution.SEPARATOR) {
+				numberOfRoutes += 1;
+			}
+		}
+		this.routesStartingIndexes = new int[numberOfRoutes];
+		this.vehicleRemainingCapacities = new int[numberOfRoutes];
+		this.routeOfClient = new int[getProblemInfo().getClients().size()];
+		this.positionOfClient = new int[getProblemInfo().getClients().size()];
+		Arrays.fill(this.routeOfClient, CLIENT_NOT_FOUND);
+		Arrays.fill(this.positionOfClient, CLIENT_NOT_FOUND);
+		this.loadBeforeClient = new int[getProblemInfo().getClients().size()];
+		this.distanceToClient = new double[getProblemInfo().getClients().size()];
+		this.routeDistances = new double[numberOfRoutes];
+
+		int currentRoute = 0;
 		int currentRouteStartingIndex = 0;
 		int currentRouteDemand = 0;
         double totalDistance = 0;
-		setFeasible(true);
-		CVRPClient prevClientOfTheRoute = getProblemInfo().getDepot();
-		CVRPClient currentClientOfTheRoute = null;
+		this.numberOfOverloadedRoutes = 0;
+		int prevClientOfTheRoute = depotId;
 
-        for (int pos = 0; pos < getVehicleRoutes().size(); ++pos) {
-            int clientId = getVehicleRoutes().get(pos);
+        for (int pos = 0; pos < vehicleRoutes.length; ++pos) {
+            int clientId = vehicleRoutes[pos];
             if (clientId == CVRPSolution.SEPARATOR) {
-                // Add remaining capacity for the previous route. And set the demand for the
-                // next potential route
-                addVehicleRemainingCapacity(vehiclesCapacity - currentRouteDemand);
+                // Set remaining capacity and starting index for the previous route.
+                // And set the demand and index for the next potential route
+                this.vehicleRemainingCapacities[currentRoute] = vehiclesCapacity - currentRouteDemand;
+                if (currentRouteDemand > vehiclesCapacity) {
+                    this.numberOfOverloadedRoutes += 1;
+                }
+                this.routesStartingIndexes[currentRoute] = currentRouteStartingIndex;
                 currentRouteDemand = 0;
-                
-                // Add starting index for the previous route. And set the index for the next
-                // potential route
-                addRoutesStartingIndex(currentRouteStartingIndex);
                 currentRouteStartingIndex = pos + 1;
+                currentRoute += 1;
                 
                 // Update total distance. From the last node we have to count the distance 
                 // to go back to the depot
-                totalDistance += CVRPClient.euclideanDistance(prevClientOfTheRoute, getProblemInfo().getDepot());
+                totalDistance += getProblemInfo().distance(prevClientOfTheRoute, depotId);
                 
                 // Update lastClientOfTheRoute to be depot (so next route starts fresh from
                 // depot)
-                prevClientOfTheRoute = getProblemInfo().getDepot();
+                prevClientOfTheRoute = depotId;
             } else {
-                // Get current client
-                currentClientOfTheRoute = getProblemInfo().getClient(clientId);
+                this.routeOfClient[clientId] = currentRoute;
+                this.positionOfClient[clientId] = pos - currentRouteStartingIndex;
                 
-                // Update demand and feasibility if current vehicle has to satisfy more demand
-                // than it can
-                currentRouteDemand += currentClientOfTheRoute.getDemand();
-                if (currentRouteDemand > vehiclesCapacity) {
-                    setFeasible(false);
-                }
+                // Update demand of the current vehicle
+                currentRouteDemand += getProblemInfo().getDemand(clientId);
                 
                 // Update total distance
-                totalDistance += CVRPClient.euclideanDistance(prevClientOfTheRoute, currentClientOfTheRoute);
+                totalDistance += getProblemInfo().distance(prevClientOfTheRoute, clientId);
                 
                 // Update last client of the route to be the current one
-                prevClientOfTheRoute = currentClientOfTheRoute;
+                prevClientOfTheRoute = clientId;
             }
         }
         
         setTotalDistance(totalDistance);
+        for (int route = 0; route < numberOfRoutes; ++route) {
+            updateRoutePrefixes(route, 0);
+        }
 	}
 	
 	/**
-	 * Copy constructor.
+	 * Copy constructor. Copies the codification and the information derived
+	 * from it, so nothing has to be recomputed.
 	 * @param copySolution Source CVRP Solution to copy.
 	 */
 	public CVRPSolution(CVRPSolution copySolution) {
-		this(copySolution.getProblemInfo(), new ArrayList<Integer>(copySolution.getVehicleRoutes()));
+		setProblemInfo(copySolution.getProblemInfo());
+		setVehicleRoutes(copySolution.getVehicleRoutes().clone());
+		this.routesStartingIndexes = copySolution.getRoutesStartingIndexes().clone();
+		this.vehicleRemainingCapacities = copySolution.getVehicleRemainingCapacities().clone();
+		this.routeOfClient = copySolution.routeOfClient.clone();
+		this.positionOfClient = copySolution.positionOfClient.clone();
+		this.loadBeforeClient = copySolution.loadBeforeClient.clone();
+		this.distanceToClient = copySolution.distanceToClient.clone();
+		this.routeDistances = copySolution.routeDistances.clone();
+		setTotalDistance(copySolution.getTotalDistance());
+		this.numberOfOverloadedRoutes = copySolution.getNumberOfOverloadedRoutes();
 	}
     
     @Override
     public boolean equals(Object thatObj) {
-        return getVehicleRoutes().equals(((CVRPSolution) thatObj).getVehicleRoutes());
+        return Arrays.equals(getVehicleRoutes(), ((CVRPSolution) thatObj).getVehicleRoutes());
     }
     
     @Override
     public int hashCode() {
-        return getVehicleRoutes().hashCode();
+        // Same value as the hash code of the codification as a list of integers
+        return Arrays.hashCode(getVehicleRoutes());
     }
 
 	/**
@@ -152,11 +232,11 @@ public class CVRPSolution {
 	 * @return Client ID of the client in the specified position of SEPARATOR
 	 */
 	public int getClientId(int position) {
-		if (position < 0 || position >= getVehicleRoutes().size()) {
+		if (position < 0 || position >= getVehicleRoutes().length) {
 			throw new IndexOutOfBoundsException(
-					"invalid solution index \"" + position + "\" Expected index to be 0 <= index < " + getVehicleRoutes().size());
+					"invalid solution index \"" + position + "\" Expected index to be 0 <= index < " + getVehicleRoutes().length);
 		}
-		return getVehicleRoutes().get(position);
+		return getVehicleRoutes()[position];
 	}
 
     /**
@@ -176,7 +256,7 @@ public class CVRPSolution {
                     "invalid solution index \"" + positionInRoute + "\" For route \"" + route
                     + "\". Index should be 0 <= index < " + getNumberOfClientsInRoute(route));
         }
-        return getVehicleRoutes().get(routeStartingIndex + positionInRoute);
+        return getVehicleRoutes()[routeStartingIndex + positionInRoute];
     }
     
 	/**
@@ -210,35 +290,746 @@ public class CVRPSolution {
 					"trying adding client " + clientId + " on an invalid route: " + route); 
 		}
 
+		final int depotId = getProblemInfo().getDepotID();
 		int startingIndexOfRoute = getRouteStartingIndex(route);
-		ArrayList<Integer> newVehiclesRoutes = (ArrayList<Integer>) getVehicleRoutes().clone();
-		newVehiclesRoutes.subList(startingIndexOfRoute, vehicleRoutes.size()).clear();
-		CVRPClient clientToMove = problemInfo.getClient(getClientId(startingIndexOfRoute));
-
-		setTotalDistance(getTotalDistance() - CVRPClient.euclideanDistance(clientToMove, getProblemInfo().getDepot()));
-		newVehiclesRoutes.add(clientId);
-		newVehiclesRoutes.addAll(
-				getVehicleRoutes().subList(startingIndexOfRoute, getVehicleRoutes().size())
-				);
-
+		int firstClientOfRoute = getClientId(startingIndexOfRoute);
+		int[] newVehiclesRoutes = new int[getVehicleRoutes().length + 1];
+		System.arraycopy(getVehicleRoutes(), 0, newVehiclesRoutes, 0, startingIndexOfRoute);
+		newVehiclesRoutes[startingIndexOfRoute] = clientId;
+		System.arraycopy(getVehicleRoutes(), startingIndexOfRoute, newVehiclesRoutes, startingIndexOfRoute + 1,
+				getVehicleRoutes().length - startingIndexOfRoute);
 		setVehicleRoutes(newVehiclesRoutes);
+
+		// The new client is visited between the depot and the previous first client of the route
+		int nextClientId = (firstClientOfRoute == CVRPSolution.SEPARATOR) ? depotId : firstClientOfRoute;
+		setTotalDistance(getTotalDistance() - getProblemInfo().distance(depotId, nextClientId)
+				+ getProblemInfo().distance(depotId, clientId) + getProblemInfo().distance(clientId, nextClientId));
+
 		updateVehicleRemainingCapacity(
-				getVehicleRemainingCapacity(route) - problemInfo.getClient(clientId).getDemand(), 
+				getVehicleRemainingCapacity(route) - getProblemInfo().getDemand(clientId), 
 				route
 				);
 
-		if(route + 1 < getNumberOfRoutes()) {
+		if (route + 1 < getNumberOfRoutes()) {
 			updateRoutesStartingIndex(route + 1, getRouteStartingIndex(route + 1) + 1);
-		}else {
-			if(getRouteStartingIndex(route) + 1 != CVRPSolution.SEPARATOR)
-				updateRoutesStartingIndex(route, getRouteStartingIndex(route) + 1);
 		}
+		updateClientPositions(route, 0, getNumberOfClientsInRoute(route) - 1);
+		updateRoutePrefixes(route, 0);
+	}
 
-		double distanceToClient = CVRPClient.euclideanDistance(
-				problemInfo.getClient(clientId), getProblemInfo().getDepot()
-				);
+	/**
+	 * Copies the codification and all the information of another solution into
+	 * this one. The arrays of this solution are reused when they have the right
+	 * size, so copying a solution of the same shape does not allocate memory.
+	 * 
+	 * @param sourceSolution Solution to copy from
+	 */
+	public void copyFrom(CVRPSolution sourceSolution) {
+		setProblemInfo(sourceSolution.getProblemInfo());
+		setVehicleRoutes(copyArray(sourceSolution.getVehicleRoutes(), getVehicleRoutes()));
+		this.routesStartingIndexes = copyArray(sourceSolution.getRoutesStartingIndexes(), getRoutesStartingIndexes());
+		this.vehicleRemainingCapacities = copyArray(sourceSolution.getVehicleRemainingCapacities(),
+				getVehicleRemainingCapacities());
+		this.routeOfClient = copyArray(sourceSolution.routeOfClient, this.routeOfClient);
+		this.positionOfClient = copyArray(sourceSolution.positionOfClient, this.positionOfClient);
+		this.loadBeforeClient = copyArray(sourceSolution.loadBeforeClient, this.loadBeforeClient);
+		this.distanceToClient = copyArray(sourceSolution.distanceToClient, this.distanceToClient);
+		this.routeDistances = copyArray(sourceSolution.routeDistances, this.routeDistances);
+		setTotalDistance(sourceSolution.getTotalDistance());
+		this.numberOfOverloadedRoutes = sourceSolution.getNumberOfOverloadedRoutes();
+	}
 
-		setTotalDistance(getTotalDistance() + distanceToClient);
+	/**
+	 * Swaps in place the clients at the specified positions, updating the total
+	 * distance, remaining capacities and feasibility incrementally.
+	 * 
+	 * @param firstRoute Route of the first client
+	 * @param firstPosition Position of the first client inside its route
+	 * @param secondRoute Route of the second client
+	 * @param secondPosition Position of the second client inside its route
+	 */
+	public void swapClients(int firstRoute, int firstPosition, int secondRoute, int secondPosition) {
+		int firstIndex = getRouteStartingIndex(firstRoute) + firstPosition;
+		int secondIndex = getRouteStartingIndex(secondRoute) + secondPosition;
+		if (firstIndex == secondIndex) {
+			return;
+		}
+		if (firstIndex > secondIndex) {
+			swapClients(secondRoute, secondPosition, firstRoute, firstPosition);
+			return;
+		}
+		int firstClient = getClientId(firstIndex);
+		int secondClient = getClientId(secondIndex);
+		double distanceDifference;
+		if (secondIndex == firstIndex + 1) {
+			// [..., prev, first, second, next, ...] -> [..., prev, second, first, next, ...]
+			int prev = getPreviousClientId(firstIndex);
+			int next = getNextClientId(secondIndex);
+			distanceDifference = getProblemInfo().distance(prev, secondClient)
+					+ getProblemInfo().distance(firstClient, next)
+					- getProblemInfo().distance(prev, firstClient)
+					- getProblemInfo().distance(secondClient, next);
+		} else {
+			distanceDifference = getReplacementDifference(firstIndex, secondClient)
+					+ getReplacementDifference(secondIndex, firstClient);
+		}
+
+		getVehicleRoutes()[firstIndex] = secondClient;
+		getVehicleRoutes()[secondIndex] = firstClient;
+		setTotalDistance(getTotalDistance() + distanceDifference);
+		this.routeOfClient[firstClient] = secondRoute;
+		this.positionOfClient[firstClient] = secondPosition;
+		this.routeOfClient[secondClient] = firstRoute;
+		this.positionOfClient[secondClient] = firstPosition;
+
+		if (firstRoute != secondRoute) {
+			int demandDifference = getProblemInfo().getDemand(firstClient) - getProblemInfo().getDemand(secondClient);
+			updateVehicleRemainingCapacity(getVehicleRemainingCapacity(firstRoute) + demandDifference, firstRoute);
+			updateVehicleRemainingCapacity(getVehicleRemainingCapacity(secondRoute) - demandDifference, secondRoute);
+		}
+		// The first client comes first in the codification, so inside a route it is the first one changed
+		updateRoutePrefixes(firstRoute, firstPosition);
+		if (secondRoute != firstRoute) {
+			updateRoutePrefixes(secondRoute, secondPosition);
+		}
+	}
+
+	/**
+	 * Moves in place the client at the specified position so it is visited just
+	 * before the client that is currently at the destination position (or at the
+	 * end of the destination route if the position is the number of clients of
+	 * that route). The total distance, remaining capacities, route starting
+	 * indexes and feasibility are updated incrementally.
+	 * 
+	 * @param fromRoute Route of the client to move
+	 * @param fromPosition Position of the client to move inside its route
+	 * @param toRoute Destination route
+	 * @param toPosition Position inside the destination route where the client is inserted
+	 */
+	public void relocateClient(int fromRoute, int fromPosition, int toRoute, int toPosition) {
+		int fromIndex = getRouteStartingIndex(fromRoute) + fromPosition;
+		int toIndex = getRouteStartingIndex(toRoute) + toPosition;
+		int client = getClientId(fromIndex);
+		if (client == SEPARATOR) {
+			throw new IllegalArgumentException("Trying to move an unknown element. First Index: " 
+					+ fromIndex + " Second Index: " + toIndex);
+		}
+		if (toIndex == fromIndex || toIndex == fromIndex + 1) {
+			return;
+		}
+
+		// Distance difference of taking the client out of its place
+		int prev = getPreviousClientId(fromIndex);
+		int next = getNextClientId(fromIndex);
+		double distanceDifference = getProblemInfo().distance(prev, next)
+				- getProblemInfo().distance(prev, client) - getProblemInfo().distance(client, next);
+		// Distance difference of putting the client in its new place
+		int newPrev = getPreviousClientId(toIndex);
+		int newNext = (getClientId(toIndex) == SEPARATOR) ? getProblemInfo().getDepotID() : getClientId(toIndex);
+		distanceDifference += getProblemInfo().distance(newPrev, client) + getProblemInfo().distance(client, newNext)
+				- getProblemInfo().distance(newPrev, newNext);
+
+		if (toIndex > fromIndex) {
+			toIndex -= 1;
+			System.arraycopy(getVehicleRoutes(), fromIndex + 1, getVehicleRoutes(), fromIndex, toIndex - fromIndex);
+		} else {
+			System.arraycopy(getVehicleRoutes(), toIndex, getVehicleRoutes(), toIndex + 1, fromIndex - toIndex);
+		}
+		getVehicleRoutes()[toIndex] = client;
+		setTotalDistance(getTotalDistance() + distanceDifference);
+
+		if (fromRoute != toRoute) {
+			// Routes between both routes have been shifted one position
+			if (fromRoute < toRoute) {
+				for (int route = fromRoute + 1; route <= toRoute; ++route) {
+					routesStartingIndexes[route] -= 1;
+				}
+			} else {
+				for (int route = toRoute + 1; route <= fromRoute; ++route) {
+					routesStartingIndexes[route] += 1;
+				}
+			}
+			int demand = getProblemInfo().getDemand(client);
+			updateVehicleRemainingCapacity(getVehicleRemainingCapacity(fromRoute) + demand, fromRoute);
+			updateVehicleRemainingCapacity(getVehicleRemainingCapacity(toRoute) - demand, toRoute);
+
+			// Only the clients after the removed and the inserted one change their position
+			updateClientPositions(fromRoute, fromPosition, getNumberOfClientsInRoute(fromRoute) - 1);
+			updateClientPositions(toRoute, toPosition, getNumberOfClientsInRoute(toRoute) - 1);
+			updateRoutePrefixes(fromRoute, fromPosition);
+			updateRoutePrefixes(toRoute, toPosition);
+		} else {
+			// Only the clients between both positions change their position
+			int lastPosition = toIndex - getRouteStartingIndex(toRoute);
+			updateClientPositions(fromRoute, Math.min(fromPosition, lastPosition), Math.max(fromPosition, lastPosition));
+			updateRoutePrefixes(fromRoute, Math.min(fromPosition, lastPosition));
+		}
+	}
+
+	/**
+	 * Moves in place a segment of consecutive clients of a route so it is
+	 * visited just before the client that is currently at the destination
+	 * position (or at the end of the destination route if the position is the
+	 * number of clients of that route), optionally reversing the order of its
+	 * clients. Inside the same route, the destination position can not be inside
+	 * the segment. The total distance, remaining capacities, route starting
+	 * indexes and feasibility are updated incrementally.
+	 * 
+	 * @param fromRoute Route of the segment to move
+	 * @param fromPosition Position of the first client of the segment inside its route
+	 * @param length Number of clients of the segment
+	 * @param toRoute Destination route
+	 * @param toPosition Position inside the destination route where the segment is inserted
+	 * @param reversed Whether the clients of the segment are visited in the opposite order
+	 */
+	public void relocateSegment(int fromRoute, int fromPosition, int length, int toRoute, int toPosition,
+			boolean reversed) {
+		if (length < 1 || fromPosition < 0 || fromPosition + length > getNumberOfClientsInRoute(fromRoute)) {
+			throw new IndexOutOfBoundsException("invalid segment of " + length + " clients from position " + fromPosition
+					+ " for route \"" + fromRoute + "\" with " + getNumberOfClientsInRoute(fromRoute) + " clients");
+		}
+		int fromIndex = getRouteStartingIndex(fromRoute) + fromPosition;
+		int lastIndex = fromIndex + length - 1;
+		int toIndex = getRouteStartingIndex(toRoute) + toPosition;
+		if (toIndex >= fromIndex && toIndex <= lastIndex + 1) {
+			if (toIndex != fromIndex && toIndex != lastIndex + 1) {
+				throw new IllegalArgumentException("Trying to move a segment inside itself. First Index: " + fromIndex
+						+ " Second Index: " + toIndex);
+			}
+			// The segment stays in its place
+			if (reversed) {
+				reverseRouteSegment(fromRoute, fromPosition, fromPosition + length - 1);
+			}
+			return;
+		}
+		int firstClient = getClientId(fromIndex);
+		int lastClient = getClientId(lastIndex);
+
+		// Distance difference of taking the segment out of its place
+		int prev = getPreviousClientId(fromIndex);
+		int next = getNextClientId(lastIndex);
+		double distanceDifference = getProblemInfo().distance(prev, next)
+				- getProblemInfo().distance(prev, firstClient) - getProblemInfo().distance(lastClient, next);
+		// Distance difference of putting the segment in its new place, the inner distances do not change
+		int newPrev = getPreviousClientId(toIndex);
+		int newNext = (getClientId(toIndex) == SEPARATOR) ? getProblemInfo().getDepotID() : getClientId(toIndex);
+		int newFirstClient = reversed ? lastClient : firstClient;
+		int newLastClient = reversed ? firstClient : lastClient;
+		distanceDifference += getProblemInfo().distance(newPrev, newFirstClient)
+				+ getProblemInfo().distance(newLastClient, newNext) - getProblemInfo().distance(newPrev, newNext);
+
+		int[] segment = new int[length];
+		int segmentDemand = 0;
+		for (int i = 0; i < length; ++i) {
+			segment[i] = getVehicleRoutes()[reversed ? lastIndex - i : fromIndex + i];
+			segmentDemand += getProblemInfo().getDemand(segment[i]);
+		}
+		if (toIndex > fromIndex) {
+			toIndex -= length;
+			System.arraycopy(getVehicleRoutes(), lastIndex + 1, getVehicleRoutes(), fromIndex, toIndex - fromIndex);
+		} else {
+			System.arraycopy(getVehicleRoutes(), toIndex, getVehicleRoutes(), toIndex + length, fromIndex - toIndex);
+		}
+		System.arraycopy(segment, 0, getVehicleRoutes(), toIndex, length);
+		setTotalDistance(getTotalDistance() + distanceDifference);
+
+		if (fromRoute != toRoute) {
+			// Routes between both routes have been shifted the length of the segment
+			if (fromRoute < toRoute) {
+				for (int route = fromRoute + 1; route <= toRoute; ++route) {
+					routesStartingIndexes[route] -= length;
+				}
+			} else {
+				for (int route = toRoute + 1; route <= fromRoute; ++route) {
+					routesStartingIndexes[route] += length;
+				}
+			}
+			updateVehicleRemainingCapacity(getVehicleRemainingCapacity(fromRoute) + segmentDemand, fromRoute);
+			updateVehicleRemainingCapacity(getVehicleRemainingCapacity(toRoute) - segmentDemand, toRoute);
+
+			// Only the clients after the removed and the inserted segment change their position
+			updateClientPositions(fromRoute, fromPosition, getNumberOfClientsInRoute(fromRoute) - 1);
+			updateClientPositions(toRoute, toPosition, getNumberOfClientsInRoute(toRoute) - 1);
+			updateRoutePrefixes(fromRoute, fromPosition);
+			updateRoutePrefixes(toRoute, toPosition);
+		} else {
+			// Only the clients between the old and the new place of the segment change their position
+			updateClientPositions(fromRoute, Math.min(fromPosition, toPosition),
+					Math.max(fromPosition + length, toPosition) - 1);
+			updateRoutePrefixes(fromRoute, Math.min(fromPosition, toPosition));
+		}
+	}
+
+	/**
+	 * Exchanges in place the tails of two different routes: the clients of the
+	 * first route from the first position onwards are visited at the end of the
+	 * second route, after its clients before the second position, and the clients
+	 * of the second route from the second position onwards are visited at the end
+	 * of the first route. Applying it again with the same arguments restores the
+	 * routes. The total distance, remaining capacities, route starting indexes
+	 * and feasibility are updated incrementally.
+	 * 
+	 * @param firstRoute First route
+	 * @param firstPosition Position where the tail of the first route starts (its
+	 *          number of clients for an empty tail)
+	 * @param secondRoute Second route
+	 * @param secondPosition Position where the tail of the second route starts
+	 *          (its number of clients for an empty tail)
+	 */
+	public void exchangeRouteTails(int firstRoute, int firstPosition, int secondRoute, int secondPosition) {
+		exchangeSegments(firstRoute, firstPosition, getNumberOfClientsInRoute(firstRoute) - firstPosition, secondRoute,
+				secondPosition, getNumberOfClientsInRoute(secondRoute) - secondPosition);
+	}
+
+	/**
+	 * Exchanges in place two segments of consecutive clients of different routes,
+	 * so each segment is visited where the other one was, keeping the order of
+	 * its clients. The segments can be empty. The total distance, remaining
+	 * capacities, route starting indexes and feasibility are updated
+	 * incrementally.
+	 * 
+	 * @param firstRoute Route of the first segment
+	 * @param firstPosition Position of the first client of the first segment inside its route
+	 * @param firstLength Number of clients of the first segment
+	 * @param secondRoute Route of the second segment
+	 * @param secondPosition Position of the first client of the second segment inside its route
+	 * @param secondLength Number of clients of the second segment
+	 */
+	public void exchangeSegments(int firstRoute, int firstPosition, int firstLength, int secondRoute,
+			int secondPosition, int secondLength) {
+		if (firstRoute == secondRoute) {
+			throw new IllegalArgumentException("Trying to exchange segments of the same route " + firstRoute);
+		}
+		if (firstRoute > secondRoute) {
+			exchangeSegments(secondRoute, secondPosition, secondLength, firstRoute, firstPosition, firstLength);
+			return;
+		}
+		if (firstPosition < 0 || firstLength < 0 || firstPosition + firstLength > getNumberOfClientsInRoute(firstRoute)
+				|| secondPosition < 0 || secondLength < 0
+				|| secondPosition + secondLength > getNumberOfClientsInRoute(secondRoute)) {
+			throw new IndexOutOfBoundsException("invalid segments of " + firstLength + " clients from position "
+					+ firstPosition + " for route \"" + firstRoute + "\" and of " + secondLength
+					+ " clients from position " + secondPosition + " for route \"" + secondRoute + "\"");
+		}
+		int firstIndex = getRouteStartingIndex(firstRoute) + firstPosition;
+		int firstEndIndex = firstIndex + firstLength;
+		int secondIndex = getRouteStartingIndex(secondRoute) + secondPosition;
+		int secondEndIndex = secondIndex + secondLength;
+
+		// Only the edges that join the segments with their surroundings change
+		int firstPrev = getPreviousClientId(firstIndex);
+		int firstNext = getClientOrDepotId(firstEndIndex);
+		int secondPrev = getPreviousClientId(secondIndex);
+		int secondNext = getClientOrDepotId(secondEndIndex);
+		setTotalDistance(getTotalDistance() + getLinkDistance(firstPrev, secondIndex, secondLength, firstNext)
+				+ getLinkDistance(secondPrev, firstIndex, firstLength, secondNext)
+				- getLinkDistance(firstPrev, firstIndex, firstLength, firstNext)
+				- getLinkDistance(secondPrev, secondIndex, secondLength, secondNext));
+
+		int firstDemand = 0;
+		for (int index = firstIndex; index < firstEndIndex; ++index) {
+			firstDemand += getProblemInfo().getDemand(getVehicleRoutes()[index]);
+		}
+		int secondDemand = 0;
+		for (int index = secondIndex; index < secondEndIndex; ++index) {
+			secondDemand += getProblemInfo().getDemand(getVehicleRoutes()[index]);
+		}
+
+		// [first segment | everything in between | second segment] becomes
+		// [second segment | everything in between | first segment]
+		int[] exchanged = new int[secondEndIndex - firstIndex];
+		int length = 0;
+		System.arraycopy(getVehicleRoutes(), secondIndex, exchanged, length, secondLength);
+		length += secondLength;
+		System.arraycopy(getVehicleRoutes(), firstEndIndex, exchanged, length, secondIndex - firstEndIndex);
+		length += secondIndex - firstEndIndex;
+		System.arraycopy(getVehicleRoutes(), firstIndex, exchanged, length, firstLength);
+		System.arraycopy(exchanged, 0, getVehicleRoutes(), firstIndex, exchanged.length);
+
+		// Routes after the first one and up to the second one have been shifted
+		for (int route = firstRoute + 1; route <= secondRoute; ++route) {
+			routesStartingIndexes[route] += secondLength - firstLength;
+		}
+		int demandDifference = secondDemand - firstDemand;
+		updateVehicleRemainingCapacity(getVehicleRemainingCapacity(firstRoute) - demandDifference, firstRoute);
+		updateVehicleRemainingCapacity(getVehicleRemainingCapacity(secondRoute) + demandDifference, secondRoute);
+
+		// The positions after the segments only change if their lengths are different
+		int firstLastPosition = (firstLength == secondLength) ? firstPosition + secondLength - 1
+				: getNumberOfClientsInRoute(firstRoute) - 1;
+		int secondLastPosition = (firstLength == secondLength) ? secondPosition + firstLength - 1
+				: getNumberOfClientsInRoute(secondRoute) - 1;
+		updateClientPositions(firstRoute, firstPosition, firstLastPosition);
+		updateClientPositions(secondRoute, secondPosition, secondLastPosition);
+		updateRoutePrefixes(firstRoute, firstPosition);
+		updateRoutePrefixes(secondRoute, secondPosition);
+	}
+
+	/**
+	 * Reverses in place the order in which the clients between the two
+	 * specified positions (both included) of a route are visited, updating the
+	 * total distance incrementally.
+	 * 
+	 * @param route Route whose clients are reversed
+	 * @param firstPosition Position of the first client of the segment to reverse
+	 * @param lastPosition Position of the last client of the segment to reverse
+	 */
+	public void reverseRouteSegment(int route, int firstPosition, int lastPosition) {
+		if (lastPosition <= firstPosition) {
+			return;
+		}
+		int firstIndex = getRouteStartingIndex(route) + firstPosition;
+		int lastIndex = getRouteStartingIndex(route) + lastPosition;
+		int firstClient = getClientId(firstIndex);
+		int lastClient = getClientId(lastIndex);
+		if (firstClient == SEPARATOR || lastClient == SEPARATOR) {
+			throw new IndexOutOfBoundsException("invalid segment [" + firstPosition + ", " + lastPosition
+					+ "] for route \"" + route + "\" with " + getNumberOfClientsInRoute(route) + " clients");
+		}
+		int prev = getPreviousClientId(firstIndex);
+		int next = getNextClientId(lastIndex);
+		setTotalDistance(getTotalDistance() + getProblemInfo().distance(prev, lastClient)
+				+ getProblemInfo().distance(firstClient, next) - getProblemInfo().distance(prev, firstClient)
+				- getProblemInfo().distance(lastClient, next));
+
+		while (firstIndex < lastIndex) {
+			int client = getVehicleRoutes()[firstIndex];
+			getVehicleRoutes()[firstIndex] = getVehicleRoutes()[lastIndex];
+			getVehicleRoutes()[lastIndex] = client;
+			firstIndex++;
+			lastIndex--;
+		}
+		updateClientPositions(route, firstPosition, lastPosition);
+		updateRoutePrefixes(route, firstPosition);
+	}
+
+	/**
+	 * Returns the route where the specified client is visited
+	 * 
+	 * @param clientId ID of the client
+	 * @return Route of the client or CLIENT_NOT_FOUND if it is not in the solution
+	 */
+	public int getRouteOfClient(int clientId) {
+		return this.routeOfClient[clientId];
+	}
+
+	/**
+	 * Returns the position of the specified client inside its route, so
+	 * getClientId(getRouteOfClient(c), getPositionOfClient(c)) is c
+	 * 
+	 * @param clientId ID of the client
+	 * @return Position of the client inside its route or CLIENT_NOT_FOUND if it
+	 *         is not in the solution
+	 */
+	public int getPositionOfClient(int clientId) {
+		return this.positionOfClient[clientId];
+	}
+
+	/**
+	 * Returns the load of the clients of a route visited before the specified
+	 * position, in constant time
+	 * 
+	 * @param route Route of the clients
+	 * @param position Position inside the route, up to its number of clients for
+	 *          the load of the whole route
+	 * @return Load of the clients before the position
+	 */
+	public int getLoadBefore(int route, int position) {
+		if (position == getNumberOfClientsInRoute(route)) {
+			return getRouteLoad(route);
+		}
+		return this.loadBeforeClient[getClientId(route, position)];
+	}
+
+	/**
+	 * Returns the distance travelled from the depot to the client at the
+	 * specified position of a route, in constant time
+	 * 
+	 * @param route Route of the client
+	 * @param position Position inside the route, up to its number of clients for
+	 *          the distance of the whole route back to the depot
+	 * @return Distance from the depot to the position
+	 */
+	public double getDistanceTo(int route, int position) {
+		if (position == getNumberOfClientsInRoute(route)) {
+			return getRouteDistance(route);
+		}
+		return this.distanceToClient[getClientId(route, position)];
+	}
+
+	/**
+	 * Returns the load of a segment of consecutive clients of a route, in
+	 * constant time
+	 * 
+	 * @param route Route of the segment
+	 * @param firstPosition Position of the first client of the segment
+	 * @param length Number of clients of the segment
+	 * @return Load of the segment
+	 */
+	public int getSegmentLoad(int route, int firstPosition, int length) {
+		return getLoadBefore(route, firstPosition + length) - getLoadBefore(route, firstPosition);
+	}
+
+	/**
+	 * Returns the distance travelled inside a segment of consecutive clients of a
+	 * route, from its first client to its last one, in constant time
+	 * 
+	 * @param route Route of the segment
+	 * @param firstPosition Position of the first client of the segment
+	 * @param lastPosition Position of the last client of the segment
+	 * @return Distance between the first and the last client along the route
+	 */
+	public double getSegmentDistance(int route, int firstPosition, int lastPosition) {
+		return getDistanceTo(route, lastPosition) - getDistanceTo(route, firstPosition);
+	}
+
+	/**
+	 * @param route Route
+	 * @return Load of all the clients of the route
+	 */
+	public int getRouteLoad(int route) {
+		return getProblemInfo().getCapacity() - getVehicleRemainingCapacity(route);
+	}
+
+	/**
+	 * @param route Route
+	 * @return Distance of the route, from the depot and back to it
+	 */
+	public double getRouteDistance(int route) {
+		return this.routeDistances[route];
+	}
+
+	/**
+	 * Returns the segment that goes from the depot to the client just before the
+	 * specified position of a route, in constant time
+	 * 
+	 * @param route Route of the segment
+	 * @param position Position where the head ends, not included
+	 * @return Segment from the depot to the client before the position
+	 */
+	public RouteSegment getRouteHead(int route, int position) {
+		checkRoutePosition(route, position);
+		if (position == 0) {
+			return RouteSegment.depot(getProblemInfo());
+		}
+		int lastClientId = getVehicleRoutes()[getRouteStartingIndex(route) + position - 1];
+		return new RouteSegment(getProblemInfo(), getProblemInfo().getDepotID(), lastClientId, position,
+				this.loadBeforeClient[lastClientId] + getProblemInfo().getDemand(lastClientId),
+				this.distanceToClient[lastClientId]);
+	}
+
+	/**
+	 * Returns the segment of consecutive clients of a route that starts at the
+	 * specified position, in constant time
+	 * 
+	 * @param route Route of the segment
+	 * @param firstPosition Position of the first client of the segment
+	 * @param length Number of clients of the segment
+	 * @return Segment of the clients, empty if the length is 0
+	 */
+	public RouteSegment getRouteSegment(int route, int firstPosition, int length) {
+		checkRoutePosition(route, firstPosition);
+		checkRoutePosition(route, firstPosition + length);
+		if (length == 0) {
+			return RouteSegment.empty(getProblemInfo());
+		}
+		int routeStartingIndex = getRouteStartingIndex(route);
+		int firstClientId = getVehicleRoutes()[routeStartingIndex + firstPosition];
+		int lastClientId = getVehicleRoutes()[routeStartingIndex + firstPosition + length - 1];
+		return new RouteSegment(getProblemInfo(), firstClientId, lastClientId, length,
+				this.loadBeforeClient[lastClientId] + getProblemInfo().getDemand(lastClientId)
+						- this.loadBeforeClient[firstClientId],
+				this.distanceToClient[lastClientId] - this.distanceToClient[firstClientId]);
+	}
+
+	/**
+	 * Returns the segment that goes from the client at the specified position of
+	 * a route back to the depot, in constant time
+	 * 
+	 * @param route Route of the segment
+	 * @param position Position where the tail starts, up to the number of
+	 *          clients of the route for a tail made only of the depot
+	 * @return Segment from the client at the position to the depot
+	 */
+	public RouteSegment getRouteTail(int route, int position) {
+		int clientsInRoute = checkRoutePosition(route, position);
+		if (position == clientsInRoute) {
+			return RouteSegment.depot(getProblemInfo());
+		}
+		int firstClientId = getVehicleRoutes()[getRouteStartingIndex(route) + position];
+		return new RouteSegment(getProblemInfo(), firstClientId, getProblemInfo().getDepotID(),
+				clientsInRoute - position, getRouteLoad(route) - this.loadBeforeClient[firstClientId],
+				this.routeDistances[route] - this.distanceToClient[firstClientId]);
+	}
+
+	/**
+	 * Checks that a position is between the first client of a route and the end
+	 * of the route, both included
+	 * 
+	 * @param route Route
+	 * @param position Position inside the route
+	 * @return Number of clients of the route
+	 */
+	private int checkRoutePosition(int route, int position) {
+		int clientsInRoute = getNumberOfClientsInRoute(route);
+		if (position < 0 || position > clientsInRoute) {
+			throw new IndexOutOfBoundsException("invalid position \"" + position + "\" for route \"" + route
+					+ "\". Position should be 0 <= position <= " + clientsInRoute);
+		}
+		return clientsInRoute;
+	}
+
+	/**
+	 * Updates the load before and the distance to every client of a route from
+	 * the specified position on, and the distance of the route. The clients
+	 * before that position must be up to date.
+	 * 
+	 * @param route Route whose clients are updated
+	 * @param firstPosition Position of the first client to update
+	 */
+	private void updateRoutePrefixes(int route, int firstPosition) {
+		final int depotId = getProblemInfo().getDepotID();
+		int routeStartingIndex = getRouteStartingIndex(route);
+		int clientsInRoute = getNumberOfClientsInRoute(route);
+		int prevClient = depotId;
+		int load = 0;
+		double distance = 0.0;
+		if (firstPosition > 0) {
+			prevClient = getVehicleRoutes()[routeStartingIndex + firstPosition - 1];
+			load = this.loadBeforeClient[prevClient] + getProblemInfo().getDemand(prevClient);
+			distance = this.distanceToClient[prevClient];
+		}
+		for (int position = firstPosition; position < clientsInRoute; ++position) {
+			int clientId = getVehicleRoutes()[routeStartingIndex + position];
+			distance += getProblemInfo().distance(prevClient, clientId);
+			this.loadBeforeClient[clientId] = load;
+			this.distanceToClient[clientId] = distance;
+			load += getProblemInfo().getDemand(clientId);
+			prevClient = clientId;
+		}
+		this.routeDistances[route] = distance + getProblemInfo().distance(prevClient, depotId);
+	}
+
+	/**
+	 * Updates the route and position of the clients between the two specified
+	 * positions (both included) of a route
+	 * 
+	 * @param route Route whose clients are updated
+	 * @param firstPosition Position of the first client to update
+	 * @param lastPosition Position of the last client to update
+	 */
+	private void updateClientPositions(int route, int firstPosition, int lastPosition) {
+		int routeStartingIndex = getRouteStartingIndex(route);
+		for (int position = firstPosition; position <= lastPosition; ++position) {
+			int clientId = getVehicleRoutes()[routeStartingIndex + position];
+			this.routeOfClient[clientId] = route;
+			this.positionOfClient[clientId] = position;
+		}
+	}
+
+	/**
+	 * Returns the ID of the client visited before the one at the specified index
+	 * of the codification, being the depot if it is the first of its route
+	 * 
+	 * @param index Index in the codification
+	 * @return ID of the previous client or the depot
+	 */
+	private int getPreviousClientId(int index) {
+		if (index == 0 || getVehicleRoutes()[index - 1] == SEPARATOR) {
+			return getProblemInfo().getDepotID();
+		}
+		return getVehicleRoutes()[index - 1];
+	}
+
+	/**
+	 * Returns the ID of the client visited after the one at the specified index
+	 * of the codification, being the depot if it is the last of its route
+	 * 
+	 * @param index Index in the codification of a client
+	 * @return ID of the next client or the depot
+	 */
+	private int getNextClientId(int index) {
+		int nextClient = getVehicleRoutes()[index + 1];
+		return (nextClient == SEPARATOR) ? getProblemInfo().getDepotID() : nextClient;
+	}
+
+	/**
+	 * Returns the ID of the client at the specified index of the codification,
+	 * being the depot if it is the separator at the end of a route
+	 * 
+	 * @param index Index in the codification
+	 * @return ID of the client or the depot
+	 */
+	private int getClientOrDepotId(int index) {
+		int client = getVehicleRoutes()[index];
+		return (client == SEPARATOR) ? getProblemInfo().getDepotID() : client;
+	}
+
+	/**
+	 * Returns the distance of the edges that join a segment of consecutive
+	 * clients with the specified previous and next clients, or the distance
+	 * between both if the segment is empty
+	 * 
+	 * @param prev ID of the client (or depot) before the segment
+	 * @param firstIndex Index in the codification of the first client of the segment
+	 * @param length Number of clients of the segment
+	 * @param next ID of the client (or depot) after the segment
+	 * @return Distance of the edges
+	 */
+	private double getLinkDistance(int prev, int firstIndex, int length, int next) {
+		if (length == 0) {
+			return getProblemInfo().distance(prev, next);
+		}
+		return getProblemInfo().distance(prev, getVehicleRoutes()[firstIndex])
+				+ getProblemInfo().distance(getVehicleRoutes()[firstIndex + length - 1], next);
+	}
+
+	/**
+	 * Returns the difference in the total distance of replacing the client at the
+	 * specified index by another client, considering its surroundings unchanged
+	 * 
+	 * @param index Index in the codification of the client to replace
+	 * @param newClient ID of the client that replaces it
+	 * @return Difference in the total distance
+	 */
+	private double getReplacementDifference(int index, int newClient) {
+		int prev = getPreviousClientId(index);
+		int next = getNextClientId(index);
+		int oldClient = getVehicleRoutes()[index];
+		return getProblemInfo().distance(prev, newClient) + getProblemInfo().distance(newClient, next)
+				- getProblemInfo().distance(prev, oldClient) - getProblemInfo().distance(oldClient, next);
+	}
+
+	/**
+	 * Copies the source array into the destination array if they have the same
+	 * length. Otherwise a copy of the source array is created
+	 * 
+	 * @param source Array to copy
+	 * @param destination Array where the copy is tried to be made
+	 * @return Array holding the copy
+	 */
+	private static int[] copyArray(int[] source, int[] destination) {
+		if (destination == null || destination.length != source.length) {
+			return source.clone();
+		}
+		System.arraycopy(source, 0, destination, 0, source.length);
+		return destination;
+	}
+
+	/**
+	 * Copies the source array into the destination array if they have the same
+	 * length. Otherwise a copy of the source array is created
+	 * 
+	 * @param source Array to copy
+	 * @param destination Array where the copy is tried to be made
+	 * @return Array holding the copy
+	 */
+	private static double[] copyArray(double[] source, double[] destination) {
+		if (destination == null || destination.length != source.length) {
+			return source.clone();
+		}
+		System.arraycopy(source, 0, destination, 0, source.length);
+		return destination;
 	}
 
 	/**
@@ -247,24 +1038,28 @@ public class CVRPSolution {
 	 * @param newIndex New index of the route route
 	 */
 	private void updateRoutesStartingIndex(int route, int newIndex) {
-		int increase = newIndex - routesStartingIndexes.get(route);
+		int increase = newIndex - routesStartingIndexes[route];
 		for(int i = route; i < getNumberOfRoutes(); i++) {
-			routesStartingIndexes.set(i, routesStartingIndexes.get(i) + increase);
+			routesStartingIndexes[i] += increase;
 		}
 	}
 
 	/**
-	 * Update the remaining capacity for the specified vehicle
+	 * Update the remaining capacity for the specified vehicle, and the number of
+	 * overloaded routes if the vehicle starts or stops being overloaded
 	 * 
 	 * @param newCapacity New capacity for vehicle vehicle
 	 * @param vehicle Vehicle whose capacity will be updated
 	 */
 	private void updateVehicleRemainingCapacity(int newCapacity, int vehicle) {
-		if(newCapacity < 0) {
-			setFeasible(false);
+		boolean wasOverloaded = vehicleRemainingCapacities[vehicle] < 0;
+		if (newCapacity < 0 && !wasOverloaded) {
+			numberOfOverloadedRoutes += 1;
+		} else if (newCapacity >= 0 && wasOverloaded) {
+			numberOfOverloadedRoutes -= 1;
 		}
 
-		vehicleRemainingCapacities.set(vehicle, newCapacity);
+		vehicleRemainingCapacities[vehicle] = newCapacity;
 	}
 
 	/**
@@ -296,7 +1091,28 @@ public class CVRPSolution {
 
 	/** @return the isFeasible */
 	public boolean isFeasible() {
-		return isFeasible;
+		return numberOfOverloadedRoutes == 0;
+	}
+
+	/** @return The number of routes whose demand exceeds the capacity of the vehicle */
+	public int getNumberOfOverloadedRoutes() {
+		return numberOfOverloadedRoutes;
+	}
+
+	/**
+	 * Checks in constant time whether every route but the two specified respects
+	 * the capacity of the vehicles. Both routes can be the same one.
+	 * 
+	 * @param firstRoute First route to ignore
+	 * @param secondRoute Second route to ignore
+	 * @return Whether the rest of routes are feasible
+	 */
+	public boolean areOtherRoutesFeasible(int firstRoute, int secondRoute) {
+		int ignoredOverloadedRoutes = (getVehicleRemainingCapacity(firstRoute) < 0) ? 1 : 0;
+		if (secondRoute != firstRoute && getVehicleRemainingCapacity(secondRoute) < 0) {
+			ignoredOverloadedRoutes += 1;
+		}
+		return numberOfOverloadedRoutes == ignoredOverloadedRoutes;
 	}
 
 	/**
@@ -307,7 +1123,7 @@ public class CVRPSolution {
 	 * @return The starting index of the route in this solution
 	 */
 	public int getRouteStartingIndex(int route) {
-		return getRoutesStartingIndexes().get(route);
+		return getRoutesStartingIndexes()[route];
 	}
 
 	/**
@@ -316,7 +1132,7 @@ public class CVRPSolution {
 	 * @return the number of routes
 	 */
 	public int getNumberOfRoutes() {
-		return getRoutesStartingIndexes().size();
+		return getRoutesStartingIndexes().length;
 	}
 
 	/**
@@ -327,16 +1143,16 @@ public class CVRPSolution {
 	 * @return Number of vehicles that the specified route has
 	 */
 	public int getNumberOfClientsInRoute(int route) {
-		int routeStartingIndex = getRoutesStartingIndexes().get(route);
+		int routeStartingIndex = getRoutesStartingIndexes()[route];
         // If the route specified is not the last route...
         if (route < (getNumberOfRoutes() - 1)) {
-            int nextRouteStartingIndex = getRoutesStartingIndexes().get(route + 1);
+            int nextRouteStartingIndex = getRoutesStartingIndexes()[route + 1];
             return nextRouteStartingIndex - routeStartingIndex - 1;
 		}
 		else {
             // If the route is the last one, we have to return the difference between the solution
             // array length and the position. -1 because be don't want the SEPARATOR to be counted
-            return getVehicleRoutes().size() - routeStartingIndex - 1;
+            return getVehicleRoutes().length - routeStartingIndex - 1;
 		}
 	}
 
@@ -352,7 +1168,7 @@ public class CVRPSolution {
      * @return  Remaining capacity of the vehicle of the given route
      */
     public int getVehicleRemainingCapacity(int route) {
-        return getVehicleRemainingCapacities().get(route);
+        return getVehicleRemainingCapacities()[route];
     }
     
 	/**
@@ -361,21 +1177,21 @@ public class CVRPSolution {
      * @return Total number of clients
      */
 	public int getNumberOfClients() {
-        return getVehicleRoutes().size() - getNumberOfRoutes();
+        return getVehicleRoutes().length - getNumberOfRoutes();
 	}
     
 	/** @return the vehicleRoutes */
-	private ArrayList<Integer> getVehicleRoutes() {
+	private int[] getVehicleRoutes() {
 		return vehicleRoutes;
 	}
 
 	/** @return the routesStartingIndexes */
-	private ArrayList<Integer> getRoutesStartingIndexes() {
+	private int[] getRoutesStartingIndexes() {
         return this.routesStartingIndexes;
 	}
 
 	/** @return the vehicleRemainingCapacities */
-	private ArrayList<Integer> getVehicleRemainingCapacities() {
+	private int[] getVehicleRemainingCapacities() {
 		return vehicleRemainingCapacities;
 	}
 
@@ -391,28 +1207,10 @@ public class CVRPSolution {
 	 * @param vehicleRoutes
 	 *          the vehicleRoutes to set
 	 */
-	private void setVehicleRoutes(ArrayList<Integer> vehicleRoutes) {
+	private void setVehicleRoutes(int[] vehicleRoutes) {
 		this.vehicleRoutes = vehicleRoutes;
 	}
 
-    /**
-     * Add a starting index for a new route
-     * 
-     * @param newRouteStartingIndex
-     */
-	private void addRoutesStartingIndex(int newRouteStartingIndex) {
-        this.routesStartingIndexes.add(newRouteStartingIndex);
-	}
-
-    /**
-     * Add the remaining capacity for the vehicle of a new route
-     * 
-     * @param newVehicleRemainingCapacity
-     */
-	private void addVehicleRemainingCapacity(int newVehicleRemainingCapacity) {
-		this.vehicleRemainingCapacities.add(newVehicleRemainingCapacity);
-	}
-
 	/**
 	 * @param totalDistance
 	 *          the totalDistance to set
@@ -421,12 +1219,33 @@ public class CVRPSolution {
 		this.totalDistance = totalDistance;
 	}
 
+	
 	/**
-	 * @param isFeasible
-	 *          the isFeasible to set
+	 * Converts a codification given as a list of client IDs to a primitive array
+	 * 
+	 * @param vehicleRoutes Codification as a list
+	 * @return Codification as a primitive array
 	 */
-	private void setFeasible(boolean isFeasible) {
-		this.isFeasible = isFeasible;
+	private static int[] toPrimitiveCodification(ArrayList<Integer> vehicleRoutes) {
+		int[] primitiveVehicleRoutes = new int[vehicleRoutes.size()];
+		for (int i = 0; i < primitiveVehicleRoutes.length; ++i) {
+			primitiveVehicleRoutes[i] = vehicleRoutes.get(i);
+		}
+		return primitiveVehicleRoutes;
+	}
+
+	/**
+	 * Converts a primitive codification to a list of client IDs
+	 * 
+	 * @param vehicleRoutes Codification as a primitive array
+	 * @return Codification as a list
+	 */
+	private static ArrayList<Integer> toListCodification(int[] vehicleRoutes) {
+		ArrayList<Integer> listVehicleRoutes = new ArrayList<>(vehicleRoutes.length);
+		for (int clientId : vehicleRoutes) {
+			listVehicleRoutes.add(clientId);
+		}
+		return listVehicleRoutes;
 	}
 	
 	/**
@@ -440,11 +1259,22 @@ public class CVRPSolution {
 	 */
 	public static ArrayList<Integer> generateSwappedSolution(CVRPSolution currentSolution, int currentFromRoute, int currentFromRoutePosition,
 			int currentToRoute, int currentToRoutePosition) {
+		return toListCodification(generateSwappedCodification(currentSolution, currentFromRoute, currentFromRoutePosition,
+				currentToRoute, currentToRoutePosition));
+	}
+	
+	/**
+	 * Same as {@link #generateSwappedSolution} but the new routes array is a
+	 * primitive array that can be given to {@link #CVRPSolution(CVRPSpecification, int[])}
+	 */
+	public static int[] generateSwappedCodification(CVRPSolution currentSolution, int currentFromRoute, int currentFromRoutePosition,
+			int currentToRoute, int currentToRoutePosition) {
 		int firstSwapIndex = currentSolution.getRouteStartingIndex(currentFromRoute) + currentFromRoutePosition;
 		int secondSwapIndex = currentSolution.getRouteStartingIndex(currentToRoute) + currentToRoutePosition;		
-		ArrayList<Integer> newVehicleRoutes = new ArrayList<Integer>(currentSolution.getVehicleRoutes());
+		int[] newVehicleRoutes = currentSolution.getVehicleRoutes().clone();
 		
-		java.util.Collections.swap(newVehicleRoutes, firstSwapIndex, secondSwapIndex);
+		newVehicleRoutes[firstSwapIndex] = currentSolution.getVehicleRoutes()[secondSwapIndex];
+		newVehicleRoutes[secondSwapIndex] = currentSolution.getVehicleRoutes()[firstSwapIndex];
 		return newVehicleRoutes;
 	}
 	
@@ -460,20 +1290,33 @@ public class CVRPSolution {
 	 */
   public static ArrayList<Integer> generateMovedSolution(CVRPSolution currentSolution, int currentFromRoute, int currentFromRoutePosition,
 			int currentToRoute, int currentToRoutePosition) {
+		return toListCodification(generateMovedCodification(currentSolution, currentFromRoute, currentFromRoutePosition,
+				currentToRoute, currentToRoutePosition));
+  }
+  
+	/**
+	 * Same as {@link #generateMovedSolution} but the new routes array is a
+	 * primitive array that can be given to {@link #CVRPSolution(CVRPSpecification, int[])}
+	 */
+  public static int[] generateMovedCodification(CVRPSolution currentSolution, int currentFromRoute, int currentFromRoutePosition,
+			int currentToRoute, int currentToRoutePosition) {
   	int firstIndex = currentSolution.getRouteStartingIndex(currentFromRoute) + currentFromRoutePosition;
 		int secondIndex = currentSolution.getRouteStartingIndex(currentToRoute) + currentToRoutePosition;		
-		ArrayList<Integer> newVehicleRoutes = new ArrayList<Integer>(currentSolution.getVehicleRoutes());
+		int[] newVehicleRoutes = currentSolution.getVehicleRoutes().clone();
 		
-		if (newVehicleRoutes.get(firstIndex) == SEPARATOR) {
+		if (newVehicleRoutes[firstIndex] == SEPARATOR) {
 			throw new IllegalArgumentException("Trying to move an unknown element. First Index: " 
 					+ firstIndex + " Second Index: " + secondIndex);
 		}
-		int copyElement = newVehicleRoutes.remove(firstIndex);
+		int copyElement = newVehicleRoutes[firstIndex];
         if (secondIndex > firstIndex) {
 			secondIndex -= 1;
+			System.arraycopy(newVehicleRoutes, firstIndex + 1, newVehicleRoutes, firstIndex, secondIndex - firstIndex);
+		} else {
+			System.arraycopy(newVehicleRoutes, secondIndex, newVehicleRoutes, secondIndex + 1, firstIndex - secondIndex);
 		}
 		
-		newVehicleRoutes.add(secondIndex, copyElement);
+		newVehicleRoutes[secondIndex] = copyElement;
 		
 		return newVehicleRoutes;
   }
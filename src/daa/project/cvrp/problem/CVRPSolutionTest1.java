@@ -131,6 +131,35 @@ public class CVRPSolutionTest1 {
         assertEquals(expectedTotalDistance, this.uut.getTotalDistance(), EPSILON);
     }
     
+    @Test
+    public void loadBeforeShouldAccumulateTheDemandsOfTheRoute() {
+        assertEquals(0, this.uut.getLoadBefore(0, 0));
+        assertEquals(9, this.uut.getLoadBefore(0, 1));
+        assertEquals(10, this.uut.getLoadBefore(0, 2));
+        assertEquals(10, this.uut.getRouteLoad(0));
+        assertEquals(99, this.uut.getRouteLoad(1));
+        assertEquals(1, this.uut.getSegmentLoad(0, 1, 1));
+    }
+    
+    @Test
+    public void distanceToShouldAccumulateTheDistancesOfTheRoute() {
+        assertEquals(Math.hypot(2, 2), this.uut.getDistanceTo(0, 0), EPSILON);
+        assertEquals(Math.hypot(3, 3), this.uut.getDistanceTo(0, 1), EPSILON);
+        assertEquals(2 * Math.hypot(3, 3), this.uut.getDistanceTo(0, 2), EPSILON);
+        assertEquals(Math.hypot(1, 1), this.uut.getSegmentDistance(0, 0, 1), EPSILON);
+        assertEquals(2 * Math.hypot(4, 4), this.uut.getRouteDistance(1), EPSILON);
+    }
+    
+    @Test
+    public void prefixesShouldBeUpdatedAfterRelocatingAClient() {
+        this.uut.relocateClient(1, 0, 0, 1);
+        assertEquals(0, this.uut.getRouteLoad(1));
+        assertEquals(0.0, this.uut.getRouteDistance(1), EPSILON);
+        assertEquals(108, this.uut.getLoadBefore(0, 2));
+        assertEquals(2 * Math.hypot(2, 2), this.uut.getDistanceTo(0, 1), EPSILON);
+        assertEquals(this.uut.getTotalDistance(), this.uut.getRouteDistance(0), EPSILON);
+    }
+    
     @Test
     public void getClientWithRouteShouldReturnClientId1ForRoute0Client0() {
         assertEquals(this.clients.get(1), this.uut.getClient(0, 0));
@@ -271,4 +300,74 @@ public class CVRPSolutionTest1 {
         CVRPSolution newSolution = new CVRPSolution(this.problemInfo, newSolutionCodification);
         assertNotEquals(this.uut.hashCode(), newSolution.hashCode());
     }
+    
+    @Test
+    public void primitiveCodificationShouldBuildTheSameSolution() {
+        CVRPSolution newSolution = new CVRPSolution(this.problemInfo,
+                new int[] { 1, 2, CVRPSolution.SEPARATOR, 3, CVRPSolution.SEPARATOR });
+        assertEquals(this.uut, newSolution);
+        assertEquals(this.uut.getTotalDistance(), newSolution.getTotalDistance(), EPSILON);
+        assertEquals(this.uut.getVehicleRemainingCapacity(1), newSolution.getVehicleRemainingCapacity(1));
+    }
+    
+    @Test
+    public void copyShouldHaveTheSameInformation() {
+        CVRPSolution copy = new CVRPSolution(this.uut);
+        assertEquals(this.uut, copy);
+        assertEquals(this.uut.getTotalDistance(), copy.getTotalDistance(), EPSILON);
+        assertEquals(this.uut.isFeasible(), copy.isFeasible());
+        assertEquals(this.uut.getNumberOfRoutes(), copy.getNumberOfRoutes());
+        assertEquals(this.uut.getRouteStartingIndex(1), copy.getRouteStartingIndex(1));
+        assertEquals(this.uut.getVehicleRemainingCapacity(0), copy.getVehicleRemainingCapacity(0));
+    }
+    
+    @Test
+    public void addingAClientShouldKeepTheSolutionInformationConsistent() {
+        this.uut.addClientToRoute(1, 2);
+        CVRPSolution expected = new CVRPSolution(this.problemInfo, new ArrayList<>(
+                Arrays.asList(new Integer[] { 1, 2, CVRPSolution.SEPARATOR, 2, 3, CVRPSolution.SEPARATOR })));
+        assertEquals(expected, this.uut);
+        assertEquals(expected.getTotalDistance(), this.uut.getTotalDistance(), EPSILON);
+        assertEquals(expected.getRouteStartingIndex(1), this.uut.getRouteStartingIndex(1));
+        assertEquals(expected.getNumberOfClientsInRoute(1), this.uut.getNumberOfClientsInRoute(1));
+        assertEquals(expected.getVehicleRemainingCapacity(1), this.uut.getVehicleRemainingCapacity(1));
+        assertEquals(expected.isFeasible(), this.uut.isFeasible());
+    }
+    
+    @Test
+    public void everyClientShouldBeFoundInItsRouteAndPosition() {
+        assertEquals(0, this.uut.getRouteOfClient(1));
+        assertEquals(0, this.uut.getPositionOfClient(1));
+        assertEquals(0, this.uut.getRouteOfClient(2));
+        assertEquals(1, this.uut.getPositionOfClient(2));
+        assertEquals(1, this.uut.getRouteOfClient(3));
+        assertEquals(0, this.uut.getPositionOfClient(3));
+        assertEquals(CVRPSolution.CLIENT_NOT_FOUND, this.uut.getRouteOfClient(0));
+        assertEquals(CVRPSolution.CLIENT_NOT_FOUND, this.uut.getPositionOfClient(0));
+    }
+    
+    @Test
+    public void clientPositionsShouldBeUpdatedWhenAClientIsRelocated() {
+        this.uut.relocateClient(0, 0, 1, 1); // { 2, SEPARATOR, 3, 1, SEPARATOR }
+        assertEquals(0, this.uut.getRouteOfClient(2));
+        assertEquals(0, this.uut.getPositionOfClient(2));
+        assertEquals(1, this.uut.getRouteOfClient(1));
+        assertEquals(1, this.uut.getPositionOfClient(1));
+        assertEquals(1, this.uut.getRouteOfClient(3));
+        assertEquals(0, this.uut.getPositionOfClient(3));
+    }
+    
+    @Test
+    public void overloadedRoutesShouldBeCountedWhenClientsAreMoved() {
+        assertEquals(0, this.uut.getNumberOfOverloadedRoutes());
+        this.uut.relocateClient(0, 0, 1, 0); // { 2, SEPARATOR, 1, 3, SEPARATOR }
+        assertEquals(1, this.uut.getNumberOfOverloadedRoutes());
+        assertFalse(this.uut.isFeasible());
+        assertTrue(this.uut.areOtherRoutesFeasible(1, 0));
+        assertFalse(this.uut.areOtherRoutesFeasible(0, 0));
+        
+        this.uut.swapClients(0, 0, 1, 0); // { 1, SEPARATOR, 2, 3, SEPARATOR }
+        assertEquals(0, this.uut.getNumberOfOverloadedRoutes());
+        assertTrue(this.uut.isFeasible());
+    }
 }
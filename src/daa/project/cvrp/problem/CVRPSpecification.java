@@ -4,6 +4,9 @@
 package daa.project.cvrp.problem;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class which represents an instance of Capacity Routing Vehicle Problem.
@@ -24,6 +27,22 @@ public class CVRPSpecification {
 	private int minimumVehicles;
 	/** Optimal value */
 	private int optimalValue;
+	/**
+	 * Distances between every pair of clients, indexed by client ID. It is
+	 * computed once, the first time a distance is requested, and discarded
+	 * whenever the clients change
+	 */
+	private volatile double[][] distances;
+	/** Demand of every client, indexed by client ID. Built along with the distances */
+	private volatile int[] demands;
+	/**
+	 * Nearest clients of every client for every number of nearest clients
+	 * requested, indexed by client ID and sorted by distance. Each table is built
+	 * on demand and never modified, and it is stored with the number of nearest
+	 * clients it was built for as its key. The whole map is replaced when the
+	 * clients change
+	 */
+	private volatile ConcurrentHashMap<Integer, int[][]> nearestClients = new ConcurrentHashMap<Integer, int[][]>();
 	
 	/**
      * Create an object holding the given information for a Capacitated Vehicle Routing Problem
@@ -68,6 +87,160 @@ public class CVRPSpecification {
         return this.getClients().get(clientId);
     }
     
+    /**
+     * Returns the euclidean distance between the two specified clients via their
+     * IDs. The distances are read from a matrix precomputed for every pair of
+     * clients, so this is much cheaper than {@link CVRPClient#euclideanDistance}
+     * 
+     * @param firstClientId ID of the first client
+     * @param secondClientId ID of the second client
+     * @return Distance between both clients
+     */
+    public double distance(int firstClientId, int secondClientId) {
+        double[][] distances = this.distances;
+        if (distances == null) {
+            distances = buildClientTables();
+        }
+        return distances[firstClientId][secondClientId];
+    }
+    
+    /**
+     * Returns the demand of the specified client via its ID, read from a
+     * primitive table so no client object has to be fetched
+     * 
+     * @param clientId Client ID
+     * @return Demand of the client
+     */
+    public int getDemand(int clientId) {
+        int[] demands = this.demands;
+        if (demands == null) {
+            buildClientTables();
+            demands = this.demands;
+        }
+        return demands[clientId];
+    }
+    
+    /**
+     * Computes the distance matrix and the demands table of the current clients
+     * if they have not been computed yet
+     * 
+     * @return Distance matrix indexed by client ID
+     */
+    private synchronized double[][] buildClientTables() {
+        if (this.distances == null) {
+            final int numberOfClients = getClients().size();
+            int[] demands = new int[numberOfClients];
+            for (int i = 0; i < numberOfClients; ++i) {
+                demands[i] = getClients().get(i).getDemand();
+            }
+            this.demands = demands;
+            
+            double[][] distances = new double[numberOfClients][numberOfClients];
+            for (int i = 0; i < numberOfClients; ++i) {
+                for (int j = i + 1; j < numberOfClients; ++j) {
+                    double distance = CVRPClient.euclideanDistance(getClients().get(i), getClients().get(j));
+                    distances[i][j] = distance;
+                    distances[j][i] = distance;
+                }
+            }
+            this.distances = distances;
+        }
+        return this.distances;
+    }
+    
+    /**
+     * Returns the IDs of the clients nearest to the specified one, sorted from the
+     * nearest to the furthest. Neither the client itself nor the depot are
+     * included. The lists are computed once for every number of nearest clients
+     * requested and kept until the clients change, so moves with different
+     * numbers of nearest clients can be used together. The returned array is
+     * shared, so it must not be modified
+     * 
+     * @param clientId Client ID
+     * @param numberOfNearestClients Maximum number of clients of the list
+     * @return IDs of the nearest clients. It has less than numberOfNearestClients
+     *         elements when there are not enough clients in the problem
+     */
+    public int[] getNearestClients(int clientId, int numberOfNearestClients) {
+        if (numberOfNearestClients < 0) {
+            throw new IllegalArgumentException("Invalid number of nearest clients \"" + numberOfNearestClients + "\"");
+        }
+        ConcurrentHashMap<Integer, int[][]> nearestClients = this.nearestClients;
+        int[][] lists = nearestClients.get(numberOfNearestClients);
+        if (lists == null) {
+            lists = buildNearestClients(nearestClients, numberOfNearestClients);
+        }
+        return lists[clientId];
+    }
+    
+    /**
+     * Computes the lists of nearest clients of every client if they have not been
+     * computed yet for the specified size. When the lists of a greater size are
+     * already computed, the new ones are their prefixes, which costs O(k) per
+     * client. Otherwise each list is kept sorted while the clients are inserted,
+     * so it costs O(n * k) per client
+     * 
+     * @param nearestClients Tables of nearest clients of the current clients, where
+     *          the new one is stored
+     * @param numberOfNearestClients Maximum number of clients of every list
+     * @return Lists of nearest clients indexed by client ID
+     */
+    private synchronized int[][] buildNearestClients(ConcurrentHashMap<Integer, int[][]> nearestClients,
+            int numberOfNearestClients) {
+        int[][] lists = nearestClients.get(numberOfNearestClients);
+        if (lists != null) {
+            return lists;
+        }
+        int[][] greaterLists = null;
+        int greaterSize = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, int[][]> entry : nearestClients.entrySet()) {
+            if (entry.getKey() > numberOfNearestClients && entry.getKey() < greaterSize) {
+                greaterSize = entry.getKey();
+                greaterLists = entry.getValue();
+            }
+        }
+        final int numberOfClients = getClients().size();
+        lists = new int[numberOfClients][];
+        if (greaterLists != null) {
+            // The first clients of a longer list are the nearest ones, ties included
+            for (int clientId = 0; clientId < numberOfClients; ++clientId) {
+                int[] greaterList = greaterLists[clientId];
+                lists[clientId] = Arrays.copyOf(greaterList, Math.min(numberOfNearestClients, greaterList.length));
+            }
+        }
+        else {
+            final int listSize = Math.max(0, Math.min(numberOfNearestClients, numberOfClients - 2));
+            for (int clientId = 0; clientId < numberOfClients; ++clientId) {
+                int[] nearest = new int[listSize];
+                int nearestFound = 0;
+                for (int candidateId = 0; candidateId < numberOfClients; ++candidateId) {
+                    if (candidateId == clientId || candidateId == getDepotID()) {
+                        continue;
+                    }
+                    double candidateDistance = distance(clientId, candidateId);
+                    if (nearestFound == listSize
+                            && (listSize == 0 || candidateDistance >= distance(clientId, nearest[listSize - 1]))) {
+                        continue;
+                    }
+                    // Insertion in the sorted list, dropping the furthest one when it is full
+                    int position = (nearestFound < listSize) ? nearestFound++ : listSize - 1;
+                    while (position > 0 && distance(clientId, nearest[position - 1]) > candidateDistance) {
+                        nearest[position] = nearest[position - 1];
+                        --position;
+                    }
+                    nearest[position] = candidateId;
+                }
+                if (nearestFound < listSize) {
+                    nearest = Arrays.copyOf(nearest, nearestFound);
+                }
+                lists[clientId] = nearest;
+            }
+        }
+        // The table is only published once complete, under the size it was built for
+        nearestClients.put(numberOfNearestClients, lists);
+        return lists;
+    }
+    
     /**
      * Returns the depot information
      * 
@@ -83,6 +256,9 @@ public class CVRPSpecification {
 	 */
 	public void setClients(ArrayList<CVRPClient> clients) {
 		this.clients = clients;
+		this.distances = null;
+		this.demands = null;
+		this.nearestClients = new ConcurrentHashMap<Integer, int[][]>();
 	}
 	
 	/**
@@ -122,6 +298,9 @@ public class CVRPSpecification {
 	 */
 	public void addClient(CVRPClient clients) {
 		this.getClients().add(clients);
+		this.distances = null;
+		this.demands = null;
+		this.nearestClients = new ConcurrentHashMap<Integer, int[][]>();
 	}
 	
 	/**
@@ -138,6 +317,7 @@ public class CVRPSpecification {
 	 */
 	public void setDepotID(int depotID) {
 		this.depotID = depotID;
+		this.nearestClients = new ConcurrentHashMap<Integer, int[][]>();
 	}
 	
 	/**
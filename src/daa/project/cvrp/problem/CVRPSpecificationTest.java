@@ -0,0 +1,99 @@
+package daa.project.cvrp.problem;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the precomputed distances and nearest clients of a problem specification
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file CVRPSpecificationTest.java
+ *
+ */
+public class CVRPSpecificationTest {
+    static final double   EPSILON = 10E-6;
+    ArrayList<CVRPClient> clients;
+    CVRPSpecification     uut;  // Unit Under Test
+
+    @Before
+    public void initialize() {
+        this.clients = new ArrayList<>(Arrays.asList(new CVRPClient[] {
+                new CVRPClient(0, 0, 0), // ID = 0, depot
+                new CVRPClient(3, 4, 9), // ID = 1
+                new CVRPClient(6, 8, 1), // ID = 2
+        }));
+
+        this.uut = new CVRPSpecification(this.clients, 0, 100, 1);
+    }
+
+    @Test
+    public void distanceShouldBeTheEuclideanDistanceBetweenClients() {
+        for (int i = 0; i < this.clients.size(); ++i) {
+            for (int j = 0; j < this.clients.size(); ++j) {
+                assertEquals(CVRPClient.euclideanDistance(this.clients.get(i), this.clients.get(j)),
+                        this.uut.distance(i, j), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void distanceShouldBeSymmetric() {
+        assertEquals(5.0, this.uut.distance(0, 1), EPSILON);
+        assertEquals(5.0, this.uut.distance(1, 0), EPSILON);
+        assertEquals(10.0, this.uut.distance(2, 0), EPSILON);
+    }
+
+    @Test
+    public void distanceToItselfShouldBeZero() {
+        assertEquals(0.0, this.uut.distance(1, 1), EPSILON);
+    }
+
+    @Test
+    public void distancesShouldBeUpdatedWhenAClientIsAdded() {
+        assertEquals(5.0, this.uut.distance(0, 1), EPSILON);
+        this.uut.addClient(new CVRPClient(3, 0, 1));
+        assertEquals(3.0, this.uut.distance(0, 3), EPSILON);
+        assertEquals(4.0, this.uut.distance(3, 1), EPSILON);
+    }
+
+    @Test
+    public void nearestClientsShouldBeSortedByDistanceWithoutDepotNorItself() {
+        this.uut.addClient(new CVRPClient(3, 0, 1)); // ID = 3
+        assertArrayEquals(new int[] { 3, 2 }, this.uut.getNearestClients(1, 2));
+        assertArrayEquals(new int[] { 1, 3 }, this.uut.getNearestClients(2, 5));
+        assertArrayEquals(new int[] { 3 }, this.uut.getNearestClients(1, 1));
+        assertArrayEquals(new int[] { 3, 1 }, this.uut.getNearestClients(0, 2));
+    }
+
+    @Test
+    public void nearestClientsOfDifferentSizesShouldBeKeptTogether() {
+        this.uut.addClient(new CVRPClient(3, 0, 1)); // ID = 3
+        int[] twoNearest = this.uut.getNearestClients(1, 2);
+        int[] oneNearest = this.uut.getNearestClients(1, 1);
+        assertArrayEquals(new int[] { 3, 2 }, twoNearest);
+        assertArrayEquals(new int[] { 3 }, oneNearest);
+        assertSame(twoNearest, this.uut.getNearestClients(1, 2));
+        assertSame(oneNearest, this.uut.getNearestClients(1, 1));
+    }
+
+    @Test
+    public void nearestClientsShouldBeUpdatedWhenAClientIsAdded() {
+        assertArrayEquals(new int[] { 2 }, this.uut.getNearestClients(1, 2));
+        this.uut.addClient(new CVRPClient(3, 0, 1));
+        assertArrayEquals(new int[] { 3, 2 }, this.uut.getNearestClients(1, 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void distanceShouldThrowWithAnInvalidClientId() {
+        this.uut.distance(0, 3);
+    }
+}
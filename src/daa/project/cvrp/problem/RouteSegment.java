@@ -0,0 +1,164 @@
+package daa.project.cvrp.problem;
+
+/**
+ * Summary of a sequence of consecutive nodes of a route: its first and last
+ * node, the number of clients it visits, their load and the distance travelled
+ * inside it. Two segments are concatenated in constant time, so any route
+ * made of pieces of the routes of a solution is evaluated in constant time,
+ * no matter how long those pieces are.
+ *
+ * The segments of a solution are taken with
+ * {@link CVRPSolution#getRouteHead(int, int)},
+ * {@link CVRPSolution#getRouteSegment(int, int, int)} and
+ * {@link CVRPSolution#getRouteTail(int, int)}. A head starts at the depot and a
+ * tail goes back to it, so concatenating a head, any number of segments and a
+ * tail gives a whole route:
+ *
+ * <pre>
+ * RouteSegment route = solution.getRouteHead(firstRoute, firstPosition)
+ * 		.concat(solution.getRouteSegment(secondRoute, secondPosition, length))
+ * 		.concat(solution.getRouteTail(firstRoute, firstPosition));
+ * </pre>
+ *
+ * Segments are immutable.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file RouteSegment.java
+ *
+ */
+public final class RouteSegment {
+	/** Value of the first and last node of an empty segment */
+	public static final int NO_NODE = -1;
+
+	/** Information of the problem, used to join the segments */
+	private final CVRPSpecification problemInfo;
+	/** ID of the first node of the segment */
+	private final int firstNodeId;
+	/** ID of the last node of the segment */
+	private final int lastNodeId;
+	/** Number of clients visited by the segment, without counting the depot */
+	private final int numberOfClients;
+	/** Sum of the demands of the clients of the segment */
+	private final int load;
+	/** Distance travelled from the first node of the segment to the last one */
+	private final double distance;
+
+	/**
+	 * @param problemInfo Information of the problem
+	 * @param firstNodeId ID of the first node of the segment
+	 * @param lastNodeId ID of the last node of the segment
+	 * @param numberOfClients Number of clients visited by the segment
+	 * @param load Sum of the demands of the clients of the segment
+	 * @param distance Distance travelled from the first node to the last one
+	 */
+	RouteSegment(CVRPSpecification problemInfo, int firstNodeId, int lastNodeId, int numberOfClients, int load,
+			double distance) {
+		this.problemInfo = problemInfo;
+		this.firstNodeId = firstNodeId;
+		this.lastNodeId = lastNodeId;
+		this.numberOfClients = numberOfClients;
+		this.load = load;
+		this.distance = distance;
+	}
+
+	/**
+	 * @param problemInfo Information of the problem
+	 * @return A segment with no nodes, which leaves any segment unchanged when
+	 *         concatenated with it
+	 */
+	public static RouteSegment empty(CVRPSpecification problemInfo) {
+		return new RouteSegment(problemInfo, NO_NODE, NO_NODE, 0, 0, 0.0);
+	}
+
+	/**
+	 * @param problemInfo Information of the problem
+	 * @return A segment made only of the depot
+	 */
+	public static RouteSegment depot(CVRPSpecification problemInfo) {
+		int depotId = problemInfo.getDepotID();
+		return new RouteSegment(problemInfo, depotId, depotId, 0, 0, 0.0);
+	}
+
+	/**
+	 * @param problemInfo Information of the problem
+	 * @param clientId ID of the client
+	 * @return A segment made only of the specified client
+	 */
+	public static RouteSegment client(CVRPSpecification problemInfo, int clientId) {
+		return new RouteSegment(problemInfo, clientId, clientId, 1, problemInfo.getDemand(clientId), 0.0);
+	}
+
+	/**
+	 * Returns the segment that visits the nodes of this segment and then the
+	 * nodes of the specified one, joined by the edge between the last node of
+	 * this segment and the first node of the other one
+	 *
+	 * @param next Segment visited after this one
+	 * @return Concatenation of both segments
+	 */
+	public RouteSegment concat(RouteSegment next) {
+		if (next.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return next;
+		}
+		return new RouteSegment(this.problemInfo, this.firstNodeId, next.lastNodeId,
+				this.numberOfClients + next.numberOfClients, this.load + next.load,
+				this.distance + this.problemInfo.distance(this.lastNodeId, next.firstNodeId) + next.distance);
+	}
+
+	/**
+	 * Returns the segment that visits the same nodes in the opposite order. The
+	 * distances between the nodes are symmetric, so its distance is the same.
+	 *
+	 * @return The reversed segment
+	 */
+	public RouteSegment reversed() {
+		return new RouteSegment(this.problemInfo, this.lastNodeId, this.firstNodeId, this.numberOfClients, this.load,
+				this.distance);
+	}
+
+	/** @return Whether the segment has no nodes */
+	public boolean isEmpty() {
+		return this.firstNodeId == NO_NODE;
+	}
+
+	/** @return Whether the load of the segment fits in a vehicle */
+	public boolean isFeasible() {
+		return this.load <= this.problemInfo.getCapacity();
+	}
+
+	/** @return The ID of the first node of the segment, or NO_NODE if it is empty */
+	public int getFirstNodeId() {
+		return this.firstNodeId;
+	}
+
+	/** @return The ID of the last node of the segment, or NO_NODE if it is empty */
+	public int getLastNodeId() {
+		return this.lastNodeId;
+	}
+
+	/** @return The number of clients visited by the segment */
+	public int getNumberOfClients() {
+		return this.numberOfClients;
+	}
+
+	/** @return The sum of the demands of the clients of the segment */
+	public int getLoad() {
+		return this.load;
+	}
+
+	/** @return The distance travelled from the first node of the segment to the last one */
+	public double getDistance() {
+		return this.distance;
+	}
+
+	@Override
+	public String toString() {
+		return "RouteSegment [" + this.firstNodeId + " .. " + this.lastNodeId + ", clients=" + this.numberOfClients
+				+ ", load=" + this.load + ", distance=" + this.distance + "]";
+	}
+}
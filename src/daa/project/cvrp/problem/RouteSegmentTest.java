@@ -0,0 +1,109 @@
+package daa.project.cvrp.problem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the segments of the routes of a solution with two routes, the
+ * first one with three clients and the second one with one
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file RouteSegmentTest.java
+ *
+ */
+public class RouteSegmentTest {
+    static final double   EPSILON = 10E-6;
+    CVRPSpecification     problemInfo;
+    CVRPSolution          solution;
+
+    @Before
+    public void initialize() {
+        ArrayList<CVRPClient> clients = new ArrayList<>(Arrays.asList(new CVRPClient[] {
+                new CVRPClient(0, 0, 0), // ID = 0, depot
+                new CVRPClient(2, 2, 9), // ID = 1
+                new CVRPClient(3, 3, 1), // ID = 2
+                new CVRPClient(4, 0, 20), // ID = 3
+                new CVRPClient(4, 4, 99), // ID = 4
+        }));
+        this.problemInfo = new CVRPSpecification(clients, 0, 100, 1);
+        this.solution = new CVRPSolution(this.problemInfo, new ArrayList<>(Arrays.asList(new Integer[] { 1, 2, 3,
+                CVRPSolution.SEPARATOR, 4, CVRPSolution.SEPARATOR })));
+    }
+
+    @Test
+    public void headAndTailShouldMakeTheWholeRoute() {
+        for (int position = 0; position <= this.solution.getNumberOfClientsInRoute(0); ++position) {
+            RouteSegment route = this.solution.getRouteHead(0, position).concat(this.solution.getRouteTail(0, position));
+            assertEquals(this.solution.getRouteDistance(0), route.getDistance(), EPSILON);
+            assertEquals(this.solution.getRouteLoad(0), route.getLoad());
+            assertEquals(3, route.getNumberOfClients());
+            assertEquals(0, route.getFirstNodeId());
+            assertEquals(0, route.getLastNodeId());
+        }
+    }
+
+    @Test
+    public void segmentShouldSummarizeItsClients() {
+        RouteSegment segment = this.solution.getRouteSegment(0, 1, 2);
+        assertEquals(2, segment.getFirstNodeId());
+        assertEquals(3, segment.getLastNodeId());
+        assertEquals(2, segment.getNumberOfClients());
+        assertEquals(21, segment.getLoad());
+        assertEquals(Math.hypot(1, 3), segment.getDistance(), EPSILON);
+    }
+
+    @Test
+    public void concatenationShouldEvaluateANewRoute() {
+        // Route 0 -> 1 -> 4 -> 3 -> 0, made of pieces of both routes
+        RouteSegment route = this.solution.getRouteHead(0, 1).concat(this.solution.getRouteSegment(1, 0, 1))
+                .concat(this.solution.getRouteTail(0, 2));
+        ArrayList<Integer> codification = new ArrayList<>(Arrays.asList(new Integer[] { 1, 4, 3,
+                CVRPSolution.SEPARATOR }));
+        CVRPSolution expected = new CVRPSolution(this.problemInfo, codification);
+        assertEquals(expected.getRouteDistance(0), route.getDistance(), EPSILON);
+        assertEquals(128, route.getLoad());
+        assertFalse(route.isFeasible());
+    }
+
+    @Test
+    public void reversedSegmentShouldKeepItsDistance() {
+        RouteSegment segment = this.solution.getRouteSegment(0, 0, 3);
+        RouteSegment reversed = segment.reversed();
+        assertEquals(3, reversed.getFirstNodeId());
+        assertEquals(1, reversed.getLastNodeId());
+        assertEquals(segment.getDistance(), reversed.getDistance(), EPSILON);
+        RouteSegment route = RouteSegment.depot(this.problemInfo).concat(reversed)
+                .concat(RouteSegment.depot(this.problemInfo));
+        assertEquals(this.solution.getRouteDistance(0), route.getDistance(), EPSILON);
+        assertTrue(route.isFeasible());
+    }
+
+    @Test
+    public void emptySegmentShouldNotChangeTheConcatenation() {
+        RouteSegment segment = this.solution.getRouteSegment(0, 1, 2);
+        RouteSegment empty = this.solution.getRouteSegment(1, 0, 0);
+        assertTrue(empty.isEmpty());
+        assertSame(segment, segment.concat(empty));
+        assertSame(segment, empty.concat(segment));
+    }
+
+    @Test
+    public void singleClientsShouldBuildTheSameSegment() {
+        RouteSegment segment = RouteSegment.client(this.problemInfo, 2)
+                .concat(RouteSegment.client(this.problemInfo, 3));
+        RouteSegment expected = this.solution.getRouteSegment(0, 1, 2);
+        assertEquals(expected.getDistance(), segment.getDistance(), EPSILON);
+        assertEquals(expected.getLoad(), segment.getLoad());
+        assertEquals(expected.getNumberOfClients(), segment.getNumberOfClients());
+    }
+}
@@ -0,0 +1,173 @@
+package daa.project.cvrp.utils;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of the integers from 0 to a maximum, each one with a priority.
+ * The position of every element inside the heap is kept, so the priority of an
+ * element is changed, or the element removed, in logarithmic time without
+ * searching for it.
+ *
+ * @author agent (agent@local)
+ * @version 1.0.0
+ * @since 1.0.0 (Oct 17, 2026)
+ * @file IndexedMinHeap.java
+ *
+ */
+public class IndexedMinHeap {
+    /** Value of the position of the elements that are not in the heap */
+    private static final int NOT_IN_HEAP = -1;
+
+    /** Elements of the heap, the one with the least priority first */
+    private final int[] heap;
+    /** In the i-th position is stored the position of the element i in the heap */
+    private final int[] positionInHeap;
+    /** In the i-th position is stored the priority of the element i */
+    private final double[] priorities;
+    /** Number of elements in the heap */
+    private int size;
+
+    /**
+     * Creates an empty heap
+     *
+     * @param numberOfElements Number of possible elements, from 0 to this number (excluded)
+     */
+    public IndexedMinHeap(int numberOfElements) {
+        this.heap = new int[numberOfElements];
+        this.positionInHeap = new int[numberOfElements];
+        this.priorities = new double[numberOfElements];
+        Arrays.fill(this.positionInHeap, NOT_IN_HEAP);
+    }
+
+    /**
+     * Inserts the element with the specified priority, or changes its priority
+     * if it is already in the heap
+     *
+     * @param element Element
+     * @param priority Priority of the element
+     */
+    public void update(int element, double priority) {
+        if (!contains(element)) {
+            this.heap[this.size] = element;
+            this.positionInHeap[element] = this.size;
+            this.size++;
+        }
+        this.priorities[element] = priority;
+        siftDown(siftUp(this.positionInHeap[element]));
+    }
+
+    /**
+     * Removes the element from the heap, if it is in it
+     *
+     * @param element Element
+     */
+    public void remove(int element) {
+        int position = this.positionInHeap[element];
+        if (position == NOT_IN_HEAP) {
+            return;
+        }
+        this.size--;
+        this.positionInHeap[element] = NOT_IN_HEAP;
+        if (position < this.size) {
+            int lastElement = this.heap[this.size];
+            this.heap[position] = lastElement;
+            this.positionInHeap[lastElement] = position;
+            siftDown(siftUp(position));
+        }
+    }
+
+    /** Removes every element from the heap */
+    public void clear() {
+        for (int i = 0; i < this.size; ++i) {
+            this.positionInHeap[this.heap[i]] = NOT_IN_HEAP;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * @param element Element
+     * @return Whether the element is in the heap
+     */
+    public boolean contains(int element) {
+        return this.positionInHeap[element] != NOT_IN_HEAP;
+    }
+
+    /** @return Whether the heap has no elements */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /** @return The number of elements in the heap */
+    public int size() {
+        return this.size;
+    }
+
+    /** @return The element with the least priority, which is not removed */
+    public int peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("trying to peek an empty heap");
+        }
+        return this.heap[0];
+    }
+
+    /**
+     * @param element Element
+     * @return The priority of the element
+     */
+    public double getPriority(int element) {
+        return this.priorities[element];
+    }
+
+    /**
+     * Moves up the element at the specified position while its priority is less
+     * than the one of its parent
+     *
+     * @param position Position of the element
+     * @return New position of the element
+     */
+    private int siftUp(int position) {
+        int element = this.heap[position];
+        while (position > 0) {
+            int parentPosition = (position - 1) / 2;
+            int parent = this.heap[parentPosition];
+            if (this.priorities[parent] <= this.priorities[element]) {
+                break;
+            }
+            this.heap[position] = parent;
+            this.positionInHeap[parent] = position;
+            position = parentPosition;
+        }
+        this.heap[position] = element;
+        this.positionInHeap[element] = position;
+        return position;
+    }
+
+    /**
+     * Moves down the element at the specified position while its priority is
+     * greater than the one of any of its children
+     *
+     * @param position Position of the element
+     */
+    private void siftDown(int position) {
+        int element = this.heap[position];
+        while (true) {
+            int childPosition = 2 * position + 1;
+            if (childPosition >= this.size) {
+                break;
+            }
+            if (childPosition + 1 < this.size
+                    && this.priorities[this.heap[childPosition + 1]] < this.priorities[this.heap[childPosition]]) {
+                childPosition++;
+            }
+            int child = this.heap[childPosition];
+            if (this.priorities[element] <= this.priorities[child]) {
+                break;
+            }
+            this.heap[position] = child;
+            this.positionInHeap[child] = position;
+            position = childPosition;
+        }
+        this.heap[position] = element;
+        this.positionInHeap[element] = position;
+    }
+}